@@ -16,10 +16,18 @@
 
 package com.io7m.jade.api;
 
+import com.io7m.jade.api.internal.ApplicationMemoizingEnvironment;
+import com.io7m.jade.api.internal.ApplicationOverrideDecisionEvent;
 import com.io7m.jade.api.internal.ApplicationOverrideDirectories;
+import com.io7m.jade.api.internal.ApplicationPortableDecisionEvent;
 import com.io7m.jade.api.internal.ApplicationPortableDirectories;
+import com.io7m.jade.api.internal.ApplicationProviderCandidates;
 import com.io7m.jade.api.internal.ApplicationProviderContext;
+import com.io7m.jade.api.internal.ApplicationProviderSelectionEvent;
 import com.io7m.jade.api.internal.ApplicationRealEnvironment;
+import com.io7m.jade.api.internal.ApplicationResolutionRecorder;
+import com.io7m.jade.api.internal.ApplicationResolutionEvent;
+import com.io7m.jade.api.internal.ApplicationSharedCandidates;
 import com.io7m.jade.spi.ApplicationDirectoryProviderType;
 import com.io7m.jade.spi.ApplicationEnvironmentType;
 import com.io7m.jade.spi.ApplicationProviderContextType;
@@ -28,8 +36,18 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
  * The primary API used to get access to application directories.
@@ -81,28 +99,290 @@ public final class ApplicationDirectories implements ApplicationDirectoriesType
     return createForConfiguration(configuration, environment);
   }
 
+  /**
+   * Retrieve the application directories for each of the given
+   * configurations. Each system property and environment variable of the
+   * real environment is read at most once, and the value is shared between
+   * all configurations. Providers are discovered at most once, and each
+   * configuration is resolved with new provider instances.
+   *
+   * @param configurations The application configurations
+   *
+   * @return The application directories for each distinct configuration,
+   * in the order that the configurations were given
+   */
+
+  public static Map<ApplicationDirectoryConfiguration, ApplicationDirectoriesType> getAll(
+    final Collection<ApplicationDirectoryConfiguration> configurations)
+  {
+    return getAll(
+      configurations,
+      new ApplicationMemoizingEnvironment(new ApplicationRealEnvironment())
+    );
+  }
+
+  /**
+   * Retrieve the application directories for each of the given
+   * configurations in the given environment. Providers are discovered at
+   * most once, and each configuration is resolved with new provider
+   * instances.
+   *
+   * @param configurations The application configurations
+   * @param environment    The application environment
+   *
+   * @return The application directories for each distinct configuration,
+   * in the order that the configurations were given
+   */
+
+  public static Map<ApplicationDirectoryConfiguration, ApplicationDirectoriesType> getAll(
+    final Collection<ApplicationDirectoryConfiguration> configurations,
+    final ApplicationEnvironmentType environment)
+  {
+    Objects.requireNonNull(configurations, "configurations");
+    Objects.requireNonNull(environment, "environment");
+
+    final var candidates =
+      new ApplicationSharedCandidates(environment);
+    final var results =
+      new LinkedHashMap<ApplicationDirectoryConfiguration, ApplicationDirectoriesType>(
+        configurations.size());
+
+    for (final var configuration : configurations) {
+      Objects.requireNonNull(configuration, "configuration");
+      if (!results.containsKey(configuration)) {
+        results.put(
+          configuration,
+          createForConfiguration(configuration, environment, candidates)
+        );
+      }
+    }
+
+    LOG.debug("resolved {} configurations", Integer.valueOf(results.size()));
+    return Collections.unmodifiableMap(results);
+  }
+
+  /**
+   * Retrieve the application directories for each of the given
+   * configurations in the given environment, initializing providers for
+   * each configuration on the given executor. Providers are discovered at
+   * most once, on the calling thread, and each configuration is resolved
+   * with new provider instances, and so no provider is initialized by more
+   * than one thread. This method returns when all configurations have been
+   * resolved; if any resolution fails, the first failure is rethrown.
+   *
+   * @param configurations The application configurations
+   * @param environment    The application environment
+   * @param executor       The executor used to resolve configurations
+   *
+   * @return The application directories for each distinct configuration,
+   * in the order that the configurations were given
+   */
+
+  public static Map<ApplicationDirectoryConfiguration, ApplicationDirectoriesType> getAll(
+    final Collection<ApplicationDirectoryConfiguration> configurations,
+    final ApplicationEnvironmentType environment,
+    final Executor executor)
+  {
+    Objects.requireNonNull(configurations, "configurations");
+    Objects.requireNonNull(environment, "environment");
+    Objects.requireNonNull(executor, "executor");
+
+    final var candidates =
+      new ApplicationSharedCandidates(environment);
+    candidates.get();
+
+    final var futures =
+      new LinkedHashMap<ApplicationDirectoryConfiguration, CompletableFuture<ApplicationDirectoriesType>>(
+        configurations.size());
+
+    for (final var configuration : configurations) {
+      Objects.requireNonNull(configuration, "configuration");
+      if (!futures.containsKey(configuration)) {
+        futures.put(
+          configuration,
+          CompletableFuture.supplyAsync(
+            () -> createForConfiguration(configuration, environment, candidates),
+            executor
+          )
+        );
+      }
+    }
+
+    final var results =
+      new LinkedHashMap<ApplicationDirectoryConfiguration, ApplicationDirectoriesType>(
+        futures.size());
+
+    for (final var entry : futures.entrySet()) {
+      try {
+        results.put(entry.getKey(), entry.getValue().join());
+      } catch (final CompletionException e) {
+        final var cause = e.getCause();
+        if (cause instanceof final RuntimeException re) {
+          throw re;
+        }
+        throw e;
+      }
+    }
+
+    LOG.debug("resolved {} configurations", Integer.valueOf(results.size()));
+    return Collections.unmodifiableMap(results);
+  }
+
+  /**
+   * Retrieve the application directories, and a trace of the steps taken
+   * to resolve them. Tracing reads the clock around each step, and so is
+   * slower than {@link #get(ApplicationDirectoryConfiguration)}; it is
+   * intended to be used on demand for diagnostics. Directories are never
+   * resolved lazily when traced.
+   *
+   * @param configuration The application configuration
+   *
+   * @return A resolution trace
+   */
+
+  public static ApplicationResolutionTrace trace(
+    final ApplicationDirectoryConfiguration configuration)
+  {
+    return trace(configuration, new ApplicationRealEnvironment());
+  }
+
+  /**
+   * Retrieve the application directories, and a trace of the steps taken
+   * to resolve them, in the given environment.
+   *
+   * @param configuration The application configuration
+   * @param environment   The application environment
+   *
+   * @return A resolution trace
+   *
+   * @see #trace(ApplicationDirectoryConfiguration)
+   */
+
+  public static ApplicationResolutionTrace trace(
+    final ApplicationDirectoryConfiguration configuration,
+    final ApplicationEnvironmentType environment)
+  {
+    Objects.requireNonNull(configuration, "configuration");
+    Objects.requireNonNull(environment, "environment");
+
+    final var recorder = ApplicationResolutionRecorder.create();
+    final var timeThen = recorder.now();
+    final var directories =
+      createForConfiguration(
+        configuration,
+        environment,
+        () -> ApplicationProviderCandidates.candidates(environment),
+        recorder
+      );
+    final var timeNow = recorder.now();
+
+    return recorder.toTrace(
+      configuration,
+      directories,
+      directories.provider.getClass().getName(),
+      timeNow - timeThen
+    );
+  }
+
   private static ApplicationDirectoriesType createForConfiguration(
     final ApplicationDirectoryConfiguration configuration,
     final ApplicationEnvironmentType environment)
+  {
+    return createForConfiguration(
+      configuration,
+      environment,
+      () -> ApplicationProviderCandidates.candidates(environment)
+    );
+  }
+
+  /**
+   * Resolve directories for a configuration using the given candidate
+   * providers. The candidates are only retrieved if neither override nor
+   * portable mode apply, and so callers resolving many configurations can
+   * share a single discovery pass by supplying a memoized list.
+   *
+   * @param configuration The application configuration
+   * @param environment   The application environment
+   * @param candidates    A supplier of candidate providers
+   *
+   * @return The application directories
+   */
+
+  static ApplicationDirectoriesType createForConfiguration(
+    final ApplicationDirectoryConfiguration configuration,
+    final ApplicationEnvironmentType environment,
+    final Supplier<List<ServiceLoader.Provider<ApplicationDirectoryProviderType>>> candidates)
+  {
+    return createForConfiguration(
+      configuration,
+      environment,
+      candidates,
+      ApplicationResolutionRecorder.disabled()
+    );
+  }
+
+  private static ApplicationDirectories createForConfiguration(
+    final ApplicationDirectoryConfiguration configuration,
+    final ApplicationEnvironmentType environment,
+    final Supplier<List<ServiceLoader.Provider<ApplicationDirectoryProviderType>>> candidates,
+    final ApplicationResolutionRecorder recorder)
+  {
+    final var event = new ApplicationResolutionEvent();
+    event.begin();
+
+    final var directories =
+      resolve(configuration, environment, candidates, recorder);
+
+    event.complete(
+      configuration.applicationName(),
+      directories.provider.getClass().getName()
+    );
+    return directories;
+  }
+
+  private static ApplicationDirectories resolve(
+    final ApplicationDirectoryConfiguration configuration,
+    final ApplicationEnvironmentType environment,
+    final Supplier<List<ServiceLoader.Provider<ApplicationDirectoryProviderType>>> candidates,
+    final ApplicationResolutionRecorder recorder)
   {
     final ApplicationProviderContextType context =
-      new ApplicationProviderContext(configuration);
+      new ApplicationProviderContext(configuration, recorder);
 
+    final var overrideThen = recorder.now();
     final Optional<Path> overrideOpt = isOverridden(configuration, environment);
+    recorder.overrideDecided(overrideOpt, recorder.now() - overrideThen);
     if (overrideOpt.isPresent()) {
       return useOverride(context, environment, overrideOpt.get());
     }
 
-    if (isPortable(configuration, environment)) {
+    final var portableThen = recorder.now();
+    final var portable = isPortable(configuration, environment);
+    recorder.portableDecided(portable, recorder.now() - portableThen);
+    if (portable) {
       return usePortable(context, environment);
     }
 
-    final var iterator =
-      environment.servicesFor(ApplicationDirectoryProviderType.class);
+    for (final var candidate : candidates.get()) {
+      final var event = new ApplicationProviderSelectionEvent();
+      event.begin();
+      final var providerThen = recorder.now();
 
-    while (iterator.hasNext()) {
-      final var provider = iterator.next();
+      final var provider = candidate.get();
       final var matches = provider.initialize(context, environment);
+
+      final var providerName = candidate.type().getName();
+      recorder.providerAttempted(
+        providerName,
+        matches,
+        recorder.now() - providerThen
+      );
+      event.complete(
+        configuration.applicationName(),
+        providerName,
+        matches
+      );
+
       if (matches) {
         return new ApplicationDirectories(provider);
       }
@@ -115,20 +395,25 @@ public final class ApplicationDirectories implements ApplicationDirectoriesType
     final ApplicationDirectoryConfiguration configuration,
     final ApplicationEnvironmentType environment)
   {
+    final var event = new ApplicationOverrideDecisionEvent();
+    event.begin();
+
     final var overNameOpt = configuration.overridePropertyName();
     if (overNameOpt.isPresent()) {
       final var propName = overNameOpt.get();
       LOG.debug("isOverridden: checking system property {}", propName);
       final var path = environment.systemProperty(propName).map(Paths::get);
       LOG.debug("isOverridden: {}", path);
+      event.complete(configuration.applicationName(), propName, path);
       return path;
     }
 
     LOG.debug("isOverridden: {}", Boolean.FALSE);
+    event.complete(configuration.applicationName(), null, Optional.empty());
     return Optional.empty();
   }
 
-  private static ApplicationDirectoriesType useOverride(
+  private static ApplicationDirectories useOverride(
     final ApplicationProviderContextType configuration,
     final ApplicationEnvironmentType environment,
     final Path override)
@@ -138,7 +423,7 @@ public final class ApplicationDirectories implements ApplicationDirectoriesType
     return new ApplicationDirectories(fallback);
   }
 
-  private static ApplicationDirectoriesType usePortable(
+  private static ApplicationDirectories usePortable(
     final ApplicationProviderContextType configuration,
     final ApplicationEnvironmentType environment)
   {
@@ -151,6 +436,9 @@ public final class ApplicationDirectories implements ApplicationDirectoriesType
     final ApplicationDirectoryConfiguration configuration,
     final ApplicationEnvironmentType environment)
   {
+    final var event = new ApplicationPortableDecisionEvent();
+    event.begin();
+
     final var propNameOpt = configuration.portablePropertyName();
     if (propNameOpt.isPresent()) {
       final var propName = propNameOpt.get();
@@ -162,10 +450,12 @@ public final class ApplicationDirectories implements ApplicationDirectoriesType
           .orElse(Boolean.FALSE)
           .booleanValue();
       LOG.debug("isPortable: {}", Boolean.valueOf(portable));
+      event.complete(configuration.applicationName(), propName, portable);
       return portable;
     }
 
     LOG.debug("isPortable: {}", Boolean.FALSE);
+    event.complete(configuration.applicationName(), null, false);
     return false;
   }
 
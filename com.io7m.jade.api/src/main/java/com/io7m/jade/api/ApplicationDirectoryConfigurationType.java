@@ -65,6 +65,21 @@ public interface ApplicationDirectoryConfigurationType
 
   Optional<String> overridePropertyName();
 
+  /**
+   * Whether directories should be resolved lazily. If {@code true}, each
+   * directory is resolved once, when it is first requested, rather than all
+   * directories being resolved up front. This is useful for applications
+   * that only ever use a subset of the available directories.
+   *
+   * @return {@code true} if directories should be resolved lazily
+   */
+
+  @Value.Default
+  default boolean lazyResolution()
+  {
+    return false;
+  }
+
   /**
    * Check preconditions for the type.
    */
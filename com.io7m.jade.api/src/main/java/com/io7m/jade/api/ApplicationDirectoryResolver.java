@@ -0,0 +1,162 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api;
+
+import com.io7m.jade.api.internal.ApplicationBoundedCache;
+import com.io7m.jade.api.internal.ApplicationRealEnvironment;
+import com.io7m.jade.spi.ApplicationEnvironmentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+
+/**
+ * A process-wide, memoizing resolver for application directories.
+ *
+ * The resolver resolves directories exactly as
+ * {@link ApplicationDirectories#get(ApplicationDirectoryConfiguration)}
+ * does, but remembers the result for each distinct pair of configuration and
+ * environment. Subsequent requests for the same pair return the remembered
+ * directories without consulting system properties, environment variables,
+ * or service providers again.
+ *
+ * Because the remembered directories are not recalculated automatically,
+ * applications that change the system properties consulted during resolution
+ * (such as override or portable mode properties) must call
+ * {@link #invalidate()} or {@link #invalidate(ApplicationDirectoryConfiguration)}
+ * afterwards.
+ *
+ * The resolver retains the directories of at most
+ * {@value #MAXIMUM_RESOLVED} pairs, discarding the least recently used
+ * pairs when the bound is exceeded. Environments that are not snapshots
+ * are typically compared by identity, and so callers should reuse one
+ * environment, or pass snapshots, rather than creating a new environment
+ * for each request.
+ *
+ * The resolver is safe to use from any number of threads, and does not
+ * hold any process-wide lock during resolution.
+ */
+
+public final class ApplicationDirectoryResolver
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(ApplicationDirectoryResolver.class);
+
+  private static final ApplicationEnvironmentType REAL_ENVIRONMENT =
+    new ApplicationRealEnvironment();
+
+  /**
+   * The maximum number of pairs of configuration and environment whose
+   * directories are retained.
+   */
+
+  public static final int MAXIMUM_RESOLVED = 1024;
+
+  private static final ApplicationBoundedCache<Key, ApplicationDirectoriesType> RESOLVED =
+    new ApplicationBoundedCache<>(MAXIMUM_RESOLVED);
+
+  private ApplicationDirectoryResolver()
+  {
+
+  }
+
+  /**
+   * Retrieve the application directories for the given configuration in the
+   * real system environment, resolving them if they have not already been
+   * resolved.
+   *
+   * @param configuration The application configuration
+   *
+   * @return The application directories
+   */
+
+  public static ApplicationDirectoriesType get(
+    final ApplicationDirectoryConfiguration configuration)
+  {
+    return get(configuration, REAL_ENVIRONMENT);
+  }
+
+  /**
+   * Retrieve the application directories for the given configuration and
+   * environment, resolving them if they have not already been resolved.
+   * Environments are compared using {@link Object#equals(Object)}, and so
+   * environments that are immutable snapshots should implement equality
+   * in terms of their contents.
+   *
+   * @param configuration The application configuration
+   * @param environment   The application environment
+   *
+   * @return The application directories
+   */
+
+  public static ApplicationDirectoriesType get(
+    final ApplicationDirectoryConfiguration configuration,
+    final ApplicationEnvironmentType environment)
+  {
+    Objects.requireNonNull(configuration, "configuration");
+    Objects.requireNonNull(environment, "environment");
+
+    return RESOLVED.get(new Key(configuration, environment), k -> {
+      LOG.debug("resolving directories for {}", k.configuration());
+      return ApplicationDirectories.get(k.configuration(), k.environment());
+    });
+  }
+
+  /**
+   * Discard all previously resolved directories. Subsequent requests will
+   * resolve directories again.
+   */
+
+  public static void invalidate()
+  {
+    LOG.debug("invalidating all resolved directories");
+    RESOLVED.clear();
+  }
+
+  /**
+   * Discard all previously resolved directories for the given configuration,
+   * in every environment. Subsequent requests for the configuration will
+   * resolve directories again.
+   *
+   * @param configuration The application configuration
+   */
+
+  public static void invalidate(
+    final ApplicationDirectoryConfiguration configuration)
+  {
+    Objects.requireNonNull(configuration, "configuration");
+    LOG.debug("invalidating resolved directories for {}", configuration);
+    RESOLVED.removeIf(k -> k.configuration().equals(configuration));
+  }
+
+  /**
+   * @return The number of pairs of configuration and environment whose
+   * directories are currently retained
+   */
+
+  public static int size()
+  {
+    return RESOLVED.size();
+  }
+
+  private record Key(
+    ApplicationDirectoryConfiguration configuration,
+    ApplicationEnvironmentType environment)
+  {
+
+  }
+}
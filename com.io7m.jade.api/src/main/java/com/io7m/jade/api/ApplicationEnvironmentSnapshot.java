@@ -0,0 +1,332 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api;
+
+import com.io7m.jade.spi.ApplicationEnvironmentType;
+
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+/**
+ * An immutable snapshot of an application environment.
+ *
+ * A snapshot captures system properties and environment variables once,
+ * and serves all subsequent lookups from an immutable map. Every lookup
+ * made during a resolution therefore observes the same values, even if
+ * the real system properties change concurrently. Lookups do not allocate.
+ *
+ * A snapshot of the real environment captures only the values consulted
+ * when resolving directories: the {@code os.name} and {@code user.home}
+ * system properties, the {@code HOME}, {@code APPDATA} and
+ * {@code LOCALAPPDATA} environment variables, every environment variable
+ * whose name begins with {@code XDG_}, and any further names given when
+ * the snapshot is captured, such as the override and portable mode
+ * properties of a configuration. Other values are absent from the
+ * snapshot. Snapshots therefore remain small, and are cheap to compare,
+ * regardless of the size of the real environment.
+ *
+ * Snapshots implement {@link Object#equals(Object)} and
+ * {@link Object#hashCode()} in terms of their contents, and so are suitable
+ * for use as keys in {@link ApplicationDirectoryResolver}. Snapshots
+ * constructed from explicit maps are also a convenient way to supply a
+ * fixed environment in tests.
+ *
+ * Services are obtained from the process-wide
+ * {@link ApplicationProviderRegistry}, and are not part of the snapshot.
+ */
+
+public final class ApplicationEnvironmentSnapshot
+  implements ApplicationEnvironmentType
+{
+  private static final List<String> SYSTEM_PROPERTY_NAMES =
+    List.of("os.name", "user.home");
+
+  private static final List<String> ENVIRONMENT_VARIABLE_NAMES =
+    List.of("APPDATA", "HOME", "LOCALAPPDATA");
+
+  private static final String ENVIRONMENT_VARIABLE_XDG_PREFIX = "XDG_";
+
+  private final FileSystem filesystem;
+  private final Map<String, Optional<String>> systemProperties;
+  private final Map<String, Optional<String>> environmentVariables;
+  private final int hash;
+
+  private ApplicationEnvironmentSnapshot(
+    final FileSystem inFilesystem,
+    final Map<String, Optional<String>> inSystemProperties,
+    final Map<String, Optional<String>> inEnvironmentVariables)
+  {
+    this.filesystem =
+      Objects.requireNonNull(inFilesystem, "filesystem");
+    this.systemProperties =
+      Objects.requireNonNull(inSystemProperties, "systemProperties");
+    this.environmentVariables =
+      Objects.requireNonNull(inEnvironmentVariables, "environmentVariables");
+    this.hash =
+      Objects.hash(
+        this.filesystem,
+        this.systemProperties,
+        this.environmentVariables
+      );
+  }
+
+  /**
+   * Capture the system properties and environment variables of this
+   * process that are consulted when resolving directories. The default
+   * filesystem is used.
+   *
+   * @return A snapshot of the current environment
+   */
+
+  public static ApplicationEnvironmentSnapshot capture()
+  {
+    return capture(List.of(), List.of());
+  }
+
+  /**
+   * Capture the system properties and environment variables of this
+   * process that are consulted when resolving directories for the given
+   * configuration, including its override and portable mode properties.
+   * The default filesystem is used.
+   *
+   * @param configuration The application configuration
+   *
+   * @return A snapshot of the current environment
+   */
+
+  public static ApplicationEnvironmentSnapshot capture(
+    final ApplicationDirectoryConfiguration configuration)
+  {
+    Objects.requireNonNull(configuration, "configuration");
+
+    final var names = new HashSet<String>(2);
+    configuration.overridePropertyName().ifPresent(names::add);
+    configuration.portablePropertyName().ifPresent(names::add);
+    return capture(names, List.of());
+  }
+
+  /**
+   * Capture the system properties and environment variables of this
+   * process that are consulted when resolving directories, along with the
+   * given system properties and environment variables. Directory providers
+   * that consult names other than those of the bundled providers require
+   * their names to be given here. The default filesystem is used.
+   *
+   * @param systemPropertyNames      The names of additional system properties
+   * @param environmentVariableNames The names of additional environment variables
+   *
+   * @return A snapshot of the current environment
+   */
+
+  public static ApplicationEnvironmentSnapshot capture(
+    final Collection<String> systemPropertyNames,
+    final Collection<String> environmentVariableNames)
+  {
+    Objects.requireNonNull(systemPropertyNames, "systemPropertyNames");
+    Objects.requireNonNull(environmentVariableNames, "environmentVariableNames");
+
+    final var propertyValues = new HashMap<String, String>();
+    captureProperties(propertyValues, SYSTEM_PROPERTY_NAMES);
+    captureProperties(propertyValues, systemPropertyNames);
+
+    final var environment = System.getenv();
+    final var variableValues = new HashMap<String, String>();
+    for (final var entry : environment.entrySet()) {
+      if (entry.getKey().startsWith(ENVIRONMENT_VARIABLE_XDG_PREFIX)) {
+        variableValues.put(entry.getKey(), entry.getValue());
+      }
+    }
+    captureVariables(variableValues, environment, ENVIRONMENT_VARIABLE_NAMES);
+    captureVariables(variableValues, environment, environmentVariableNames);
+
+    return of(
+      FileSystems.getDefault(),
+      propertyValues,
+      variableValues
+    );
+  }
+
+  private static void captureProperties(
+    final Map<String, String> values,
+    final Collection<String> names)
+  {
+    for (final var name : names) {
+      final var value =
+        System.getProperty(Objects.requireNonNull(name, "name"));
+      if (value != null) {
+        values.put(name, value);
+      }
+    }
+  }
+
+  private static void captureVariables(
+    final Map<String, String> values,
+    final Map<String, String> environment,
+    final Collection<String> names)
+  {
+    for (final var name : names) {
+      final var value =
+        environment.get(Objects.requireNonNull(name, "name"));
+      if (value != null) {
+        values.put(name, value);
+      }
+    }
+  }
+
+  /**
+   * Create a snapshot from the given system properties and environment
+   * variables. The default filesystem is used.
+   *
+   * @param systemProperties     The system properties
+   * @param environmentVariables The environment variables
+   *
+   * @return A snapshot
+   */
+
+  public static ApplicationEnvironmentSnapshot of(
+    final Map<String, String> systemProperties,
+    final Map<String, String> environmentVariables)
+  {
+    return of(
+      FileSystems.getDefault(),
+      systemProperties,
+      environmentVariables
+    );
+  }
+
+  /**
+   * Create a snapshot from the given filesystem, system properties, and
+   * environment variables.
+   *
+   * @param filesystem           The filesystem
+   * @param systemProperties     The system properties
+   * @param environmentVariables The environment variables
+   *
+   * @return A snapshot
+   */
+
+  public static ApplicationEnvironmentSnapshot of(
+    final FileSystem filesystem,
+    final Map<String, String> systemProperties,
+    final Map<String, String> environmentVariables)
+  {
+    return new ApplicationEnvironmentSnapshot(
+      filesystem,
+      freeze(Objects.requireNonNull(systemProperties, "systemProperties")),
+      freeze(Objects.requireNonNull(environmentVariables, "environmentVariables"))
+    );
+  }
+
+  private static Map<String, Optional<String>> freeze(
+    final Map<String, String> values)
+  {
+    final var results = new HashMap<String, Optional<String>>(values.size());
+    for (final var entry : values.entrySet()) {
+      results.put(
+        Objects.requireNonNull(entry.getKey(), "name"),
+        Optional.of(entry.getValue())
+      );
+    }
+    return Map.copyOf(results);
+  }
+
+  @Override
+  public FileSystem filesystem()
+  {
+    return this.filesystem;
+  }
+
+  @Override
+  public Optional<String> systemProperty(
+    final String name)
+  {
+    return this.systemProperties.getOrDefault(
+      Objects.requireNonNull(name, "name"),
+      Optional.empty()
+    );
+  }
+
+  @Override
+  public Optional<String> environmentVariable(
+    final String name)
+  {
+    return this.environmentVariables.getOrDefault(
+      Objects.requireNonNull(name, "name"),
+      Optional.empty()
+    );
+  }
+
+  @Override
+  public <S> Iterator<S> servicesFor(
+    final Class<S> clazz)
+  {
+    return ApplicationProviderRegistry.servicesFor(
+      Objects.requireNonNull(clazz, "clazz")
+    );
+  }
+
+  @Override
+  public <S> List<ServiceLoader.Provider<S>> serviceProvidersFor(
+    final Class<S> clazz)
+  {
+    return ApplicationProviderRegistry.providersFor(
+      Objects.requireNonNull(clazz, "clazz")
+    );
+  }
+
+  @Override
+  public boolean equals(
+    final Object other)
+  {
+    if (this == other) {
+      return true;
+    }
+    if (other == null || !Objects.equals(this.getClass(), other.getClass())) {
+      return false;
+    }
+    final var that = (ApplicationEnvironmentSnapshot) other;
+    return this.hash == that.hash
+      && this.filesystem.equals(that.filesystem)
+      && this.systemProperties.equals(that.systemProperties)
+      && this.environmentVariables.equals(that.environmentVariables);
+  }
+
+  @Override
+  public int hashCode()
+  {
+    return this.hash;
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "[ApplicationEnvironmentSnapshot %d properties, %d variables]",
+      Integer.valueOf(this.systemProperties.size()),
+      Integer.valueOf(this.environmentVariables.size())
+    );
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+/**
+ * A candidate provider that was instantiated and initialized during
+ * resolution.
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface ApplicationProviderAttemptType
+{
+  /**
+   * @return The name of the provider class
+   */
+
+  @Value.Parameter
+  String provider();
+
+  /**
+   * @return {@code true} if the provider was applicable and was selected
+   */
+
+  @Value.Parameter
+  boolean selected();
+
+  /**
+   * @return The time taken to instantiate and initialize the provider
+   */
+
+  @Value.Parameter
+  long durationNanos();
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * A process-wide registry of service providers.
+ *
+ * The registry discovers the providers of each service type exactly once
+ * using {@link ServiceLoader}, and retains the resulting
+ * {@link ServiceLoader.Provider} handles. Requests for services are then
+ * satisfied by asking the retained handles for fresh instances, without
+ * scanning the class or module path again.
+ *
+ * Applications that load plugins into new module layers or class loaders at
+ * run-time should call one of the {@code reload} methods so that subsequent
+ * discovery takes place against the new layer or loader.
+ */
+
+public final class ApplicationProviderRegistry
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(ApplicationProviderRegistry.class);
+
+  private static final AtomicReference<Discovery> DISCOVERY =
+    new AtomicReference<>(new Discovery(ServiceLoader::load));
+
+  private ApplicationProviderRegistry()
+  {
+
+  }
+
+  /**
+   * Retrieve the providers of the given service type, discovering them if
+   * they have not already been discovered.
+   *
+   * @param clazz The service type
+   * @param <S>   The service type
+   *
+   * @return The providers, in discovery order
+   */
+
+  public static <S> List<ServiceLoader.Provider<S>> providersFor(
+    final Class<S> clazz)
+  {
+    return DISCOVERY.get().providersFor(Objects.requireNonNull(clazz, "clazz"));
+  }
+
+  /**
+   * Retrieve fresh instances of each provider of the given service type,
+   * discovering the providers if they have not already been discovered.
+   * Each provider is instantiated lazily as the iterator advances.
+   *
+   * @param clazz The service type
+   * @param <S>   The service type
+   *
+   * @return The services, in discovery order
+   */
+
+  public static <S> Iterator<S> servicesFor(
+    final Class<S> clazz)
+  {
+    return providersFor(clazz)
+      .stream()
+      .map(ServiceLoader.Provider::get)
+      .iterator();
+  }
+
+  /**
+   * Discard all discovered providers. Subsequent discovery uses
+   * {@link ServiceLoader#load(Class)}, and therefore the thread context
+   * class loader of the thread that next requests each service type.
+   */
+
+  public static void reload()
+  {
+    LOG.debug("reloading providers");
+    DISCOVERY.set(new Discovery(ServiceLoader::load));
+  }
+
+  /**
+   * Discard all discovered providers. Subsequent discovery uses
+   * {@link ServiceLoader#load(ModuleLayer, Class)} with the given layer.
+   *
+   * @param layer The module layer (typically a plugin layer)
+   */
+
+  public static void reload(
+    final ModuleLayer layer)
+  {
+    Objects.requireNonNull(layer, "layer");
+    LOG.debug("reloading providers from layer {}", layer);
+    DISCOVERY.set(new Discovery(c -> ServiceLoader.load(layer, c)));
+  }
+
+  /**
+   * Discard all discovered providers. Subsequent discovery uses
+   * {@link ServiceLoader#load(Class, ClassLoader)} with the given loader.
+   *
+   * @param loader The class loader
+   */
+
+  public static void reload(
+    final ClassLoader loader)
+  {
+    Objects.requireNonNull(loader, "loader");
+    LOG.debug("reloading providers from class loader {}", loader);
+    DISCOVERY.set(new Discovery(c -> ServiceLoader.load(c, loader)));
+  }
+
+  /**
+   * A single generation of discovered providers. A reload replaces the
+   * generation wholesale so that a discovery racing with a reload cannot
+   * publish stale providers into the new generation.
+   */
+
+  private static final class Discovery
+  {
+    private final Function<Class<?>, ServiceLoader<?>> loaders;
+    private final ConcurrentHashMap<Class<?>, List<?>> providers;
+
+    Discovery(
+      final Function<Class<?>, ServiceLoader<?>> inLoaders)
+    {
+      this.loaders =
+        Objects.requireNonNull(inLoaders, "loaders");
+      this.providers =
+        new ConcurrentHashMap<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    <S> List<ServiceLoader.Provider<S>> providersFor(
+      final Class<S> clazz)
+    {
+      return (List<ServiceLoader.Provider<S>>)
+        this.providers.computeIfAbsent(clazz, this::discover);
+    }
+
+    private List<?> discover(
+      final Class<?> clazz)
+    {
+      final var discovered =
+        this.loaders.apply(clazz)
+          .stream()
+          .toList();
+
+      LOG.debug(
+        "discovered {} providers of {}",
+        Integer.valueOf(discovered.size()),
+        clazz.getName()
+      );
+      return discovered;
+    }
+  }
+}
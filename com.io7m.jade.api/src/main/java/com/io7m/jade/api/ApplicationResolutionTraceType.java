@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A record of how a set of application directories was resolved.
+ *
+ * @see ApplicationDirectories#trace(ApplicationDirectoryConfiguration)
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface ApplicationResolutionTraceType
+{
+  /**
+   * @return The configuration that was resolved
+   */
+
+  ApplicationDirectoryConfiguration configuration();
+
+  /**
+   * @return The resolved directories
+   */
+
+  ApplicationDirectoriesType directories();
+
+  /**
+   * @return The name of the class that provided the directories
+   */
+
+  String provider();
+
+  /**
+   * @return The override base directory, if the directories were overridden
+   */
+
+  Optional<Path> overrideDirectory();
+
+  /**
+   * @return {@code true} if portable mode was enabled
+   */
+
+  boolean portable();
+
+  /**
+   * @return The candidate providers tried, in order
+   */
+
+  List<ApplicationProviderAttempt> providerAttempts();
+
+  /**
+   * @return The sources consulted by the selected provider, in order
+   */
+
+  List<ApplicationSourceAttempt> sourceAttempts();
+
+  /**
+   * @return The time taken to decide whether the directories are overridden
+   */
+
+  long overrideDurationNanos();
+
+  /**
+   * @return The time taken to decide whether portable mode is enabled
+   */
+
+  long portableDurationNanos();
+
+  /**
+   * @return The total time taken to resolve the directories
+   */
+
+  long durationNanos();
+
+  /**
+   * Find the source that determined the given directory. If the selected
+   * provider fell back to a default directory, the returned source is
+   * {@code fallback}. If the directories were overridden or portable, or
+   * the provider did not report its sources, nothing is returned.
+   *
+   * @param directory The directory, such as {@code cacheDirectory}
+   *
+   * @return The winning source, if any
+   */
+
+  default Optional<ApplicationSourceAttempt> winningSource(
+    final String directory)
+  {
+    return this.sourceAttempts()
+      .stream()
+      .filter(a -> a.directory().equals(directory))
+      .filter(a -> a.path().isPresent())
+      .findFirst();
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * A source consulted by a provider while resolving a directory.
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface ApplicationSourceAttemptType
+{
+  /**
+   * @return The directory being resolved, such as {@code cacheDirectory}
+   */
+
+  @Value.Parameter
+  String directory();
+
+  /**
+   * @return The kind of source, such as {@code environment variable}
+   */
+
+  @Value.Parameter
+  String source();
+
+  /**
+   * @return The name of the variable or property consulted
+   */
+
+  @Value.Parameter
+  String name();
+
+  /**
+   * @return The path yielded by the source, if any
+   */
+
+  @Value.Parameter
+  Optional<Path> path();
+
+  /**
+   * @return The time taken to consult the source
+   */
+
+  @Value.Parameter
+  long durationNanos();
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api;
+
+import com.io7m.jade.api.internal.ApplicationBoundedCache;
+import com.io7m.jade.api.internal.ApplicationDirectoryTemplate;
+import com.io7m.jade.api.internal.ApplicationProviderCandidates;
+import com.io7m.jade.api.internal.ApplicationResolvedDirectories;
+import com.io7m.jade.spi.ApplicationDirectoryProviderType;
+import com.io7m.jade.spi.ApplicationEnvironmentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A resolver of application directories for many tenants of a single
+ * hosting process, where each tenant is identified by an application name.
+ *
+ * The resolver resolves the directories for the base configuration once,
+ * using a single environment snapshot and a single provider discovery pass.
+ * The directories of each tenant are then derived from the base directories
+ * by path resolution alone. If the selected provider transforms application
+ * names in a way that prevents derivation, each tenant's directories are
+ * instead resolved in full against the same snapshot and providers.
+ *
+ * Derived directories are retained in a concurrent cache bounded by
+ * {@link ApplicationTenantResolverConfigurationType#maximumTenants()}; the
+ * directories of the least recently used tenants are discarded when the
+ * bound is exceeded.
+ *
+ * Because the environment is captured once, changes to system properties
+ * or environment variables are not observed until {@link #refresh()} is
+ * called.
+ */
+
+public final class ApplicationTenantResolver
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(ApplicationTenantResolver.class);
+
+  /*
+   * The probes are mixed case and contain separators, so that a provider
+   * that changes the case of names, or normalizes them in any other way,
+   * resolves directories that do not contain the probes, and is not
+   * mistaken for one from which directories can be derived.
+   */
+
+  private static final String PROBE_0 = "Jade.Tenant_Probe0";
+  private static final String PROBE_1 = "Jade.Tenant_Probe1";
+
+  private final ApplicationTenantResolverConfiguration configuration;
+  private final Supplier<ApplicationEnvironmentType> environments;
+  private volatile State state;
+
+  private ApplicationTenantResolver(
+    final ApplicationTenantResolverConfiguration inConfiguration,
+    final Supplier<ApplicationEnvironmentType> inEnvironments)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.environments =
+      Objects.requireNonNull(inEnvironments, "environments");
+  }
+
+  /**
+   * Create a tenant resolver using a snapshot of the real environment.
+   *
+   * @param configuration The resolver configuration
+   *
+   * @return A tenant resolver
+   */
+
+  public static ApplicationTenantResolver create(
+    final ApplicationTenantResolverConfiguration configuration)
+  {
+    final var resolver =
+      new ApplicationTenantResolver(
+        configuration,
+        () -> ApplicationEnvironmentSnapshot.capture(configuration.baseConfiguration())
+      );
+    resolver.state = resolver.resolveState();
+    return resolver;
+  }
+
+  /**
+   * Create a tenant resolver using the given environment. The environment
+   * should ideally be an immutable snapshot; it is consulted only when the
+   * base directories are resolved.
+   *
+   * @param configuration The resolver configuration
+   * @param environment   The application environment
+   *
+   * @return A tenant resolver
+   */
+
+  public static ApplicationTenantResolver create(
+    final ApplicationTenantResolverConfiguration configuration,
+    final ApplicationEnvironmentType environment)
+  {
+    Objects.requireNonNull(environment, "environment");
+
+    final var resolver =
+      new ApplicationTenantResolver(configuration, () -> environment);
+    resolver.state = resolver.resolveState();
+    return resolver;
+  }
+
+  private State resolveState()
+  {
+    final var base = this.resolveBase();
+    return new State(
+      new ApplicationBoundedCache<>(this.configuration.maximumTenants()),
+      tenant -> this.derive(base, tenant)
+    );
+  }
+
+  private Base resolveBase()
+  {
+    final var environment =
+      Objects.requireNonNull(this.environments.get(), "environment");
+    final var candidates =
+      ApplicationProviderCandidates.candidates(environment);
+
+    /*
+     * The directories of the first probe are read before the second probe
+     * is resolved, so that the first probe is unaffected even if an
+     * environment hands the same provider instance to both probes.
+     */
+
+    final var probe0 = this.resolveFully(PROBE_0, environment, candidates);
+    final var config0 = probe0.configurationDirectory();
+    final var data0 = probe0.dataDirectory();
+    final var cache0 = probe0.cacheDirectory();
+
+    final var probe1 = this.resolveFully(PROBE_1, environment, candidates);
+
+    final var config =
+      ApplicationDirectoryTemplate.infer(
+        config0, PROBE_0,
+        probe1.configurationDirectory(), PROBE_1);
+    final var data =
+      ApplicationDirectoryTemplate.infer(
+        data0, PROBE_0,
+        probe1.dataDirectory(), PROBE_1);
+    final var cache =
+      ApplicationDirectoryTemplate.infer(
+        cache0, PROBE_0,
+        probe1.cacheDirectory(), PROBE_1);
+
+    if (config.isPresent() && data.isPresent() && cache.isPresent()) {
+      LOG.debug("tenant directories will be derived from templates");
+      return new Base(
+        environment, candidates, config.get(), data.get(), cache.get());
+    }
+
+    LOG.debug("tenant directories cannot be derived; resolving per tenant");
+    return new Base(environment, candidates, null, null, null);
+  }
+
+  private ApplicationDirectoriesType resolveFully(
+    final String name,
+    final ApplicationEnvironmentType environment,
+    final List<ServiceLoader.Provider<ApplicationDirectoryProviderType>> candidates)
+  {
+    final var tenantConfiguration =
+      ApplicationDirectoryConfiguration.builder()
+        .from(this.configuration.baseConfiguration())
+        .setApplicationName(name)
+        .build();
+
+    return ApplicationDirectories.createForConfiguration(
+      tenantConfiguration,
+      environment,
+      () -> candidates
+    );
+  }
+
+  /**
+   * Retrieve the directories for the given tenant.
+   *
+   * @param tenant The tenant name, which must be a valid application name
+   *
+   * @return The tenant's directories
+   *
+   * @see ApplicationNames#isValid(String)
+   */
+
+  public ApplicationDirectoriesType get(
+    final String tenant)
+  {
+    Objects.requireNonNull(tenant, "tenant");
+
+    final var current = this.state;
+    return current.tenants.get(tenant, current.derivation);
+  }
+
+  private ApplicationDirectoriesType derive(
+    final Base current,
+    final String tenant)
+  {
+    ApplicationNames.checkValid(tenant);
+
+    if (current.configuration == null) {
+      return this.resolveFully(tenant, current.environment, current.candidates);
+    }
+
+    return new ApplicationResolvedDirectories(
+      current.configuration.apply(tenant),
+      current.data.apply(tenant),
+      current.cache.apply(tenant)
+    );
+  }
+
+  /**
+   * Discard the retained directories for the given tenant.
+   *
+   * @param tenant The tenant name
+   */
+
+  public void evict(
+    final String tenant)
+  {
+    this.state.tenants.remove(tenant);
+  }
+
+  /**
+   * Resolve the base directories again, and discard the directories of all
+   * tenants. If the resolver was created with a snapshot of the real
+   * environment, the environment is captured again. The base directories
+   * and the retained directories of tenants are replaced together, and so
+   * no tenant directories derived from the previous base directories are
+   * retained afterwards.
+   */
+
+  public void refresh()
+  {
+    LOG.debug("refreshing tenant resolver");
+    this.state = this.resolveState();
+  }
+
+  /**
+   * @return The number of tenants whose directories are currently retained
+   */
+
+  public int size()
+  {
+    return this.state.tenants.size();
+  }
+
+  private static final class State
+  {
+    private final ApplicationBoundedCache<String, ApplicationDirectoriesType> tenants;
+    private final Function<String, ApplicationDirectoriesType> derivation;
+
+    State(
+      final ApplicationBoundedCache<String, ApplicationDirectoriesType> inTenants,
+      final Function<String, ApplicationDirectoriesType> inDerivation)
+    {
+      this.tenants = Objects.requireNonNull(inTenants, "tenants");
+      this.derivation = Objects.requireNonNull(inDerivation, "derivation");
+    }
+  }
+
+  private static final class Base
+  {
+    private final ApplicationEnvironmentType environment;
+    private final List<ServiceLoader.Provider<ApplicationDirectoryProviderType>> candidates;
+    private final ApplicationDirectoryTemplate configuration;
+    private final ApplicationDirectoryTemplate data;
+    private final ApplicationDirectoryTemplate cache;
+
+    Base(
+      final ApplicationEnvironmentType inEnvironment,
+      final List<ServiceLoader.Provider<ApplicationDirectoryProviderType>> inCandidates,
+      final ApplicationDirectoryTemplate inConfiguration,
+      final ApplicationDirectoryTemplate inData,
+      final ApplicationDirectoryTemplate inCache)
+    {
+      this.environment = Objects.requireNonNull(inEnvironment, "environment");
+      this.candidates = Objects.requireNonNull(inCandidates, "candidates");
+      this.configuration = inConfiguration;
+      this.data = inData;
+      this.cache = inCache;
+    }
+  }
+}
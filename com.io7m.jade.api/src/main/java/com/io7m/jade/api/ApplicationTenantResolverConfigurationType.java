@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+/**
+ * The type of configurations for tenant resolvers.
+ *
+ * @see ApplicationTenantResolver
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface ApplicationTenantResolverConfigurationType
+{
+  /**
+   * The configuration used as the basis for every tenant. Each tenant's
+   * directories are those that would be resolved for this configuration
+   * with the application name replaced by the tenant name.
+   *
+   * @return The base configuration
+   */
+
+  ApplicationDirectoryConfiguration baseConfiguration();
+
+  /**
+   * The maximum number of tenants whose directories are retained. When
+   * this number is exceeded, the directories of the least recently used
+   * tenants are discarded, and are derived again if requested.
+   *
+   * @return The maximum number of retained tenants
+   */
+
+  @Value.Default
+  default int maximumTenants()
+  {
+    return 10_000;
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    if (this.maximumTenants() <= 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Maximum tenants %d must be positive",
+          Integer.valueOf(this.maximumTenants()))
+      );
+    }
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api.internal;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A concurrent cache bounded by entry count. Each entry records the time it
+ * was last accessed. When the cache exceeds its maximum size, one thread
+ * evicts the least recently accessed entries in a batch, bringing the cache
+ * down to nine tenths of its maximum size so that eviction cost is amortized
+ * over many insertions. Threads that insert entries while an eviction is in
+ * progress wait for it to complete, but lookups of existing entries never
+ * block.
+ *
+ * @param <K> The type of keys
+ * @param <V> The type of values
+ */
+
+public final class ApplicationBoundedCache<K, V>
+{
+  private final ConcurrentHashMap<K, Entry<V>> entries;
+  private final ReentrantLock evictionLock;
+  private final int maximumSize;
+  private final int targetSize;
+
+  /**
+   * A concurrent cache bounded by entry count.
+   *
+   * @param inMaximumSize The maximum number of entries
+   */
+
+  public ApplicationBoundedCache(
+    final int inMaximumSize)
+  {
+    if (inMaximumSize <= 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Maximum size %d must be positive",
+          Integer.valueOf(inMaximumSize))
+      );
+    }
+
+    this.maximumSize = inMaximumSize;
+    this.targetSize = inMaximumSize - inMaximumSize / 10;
+    this.entries = new ConcurrentHashMap<>();
+    this.evictionLock = new ReentrantLock();
+  }
+
+  /**
+   * Retrieve the value associated with a key, computing it if necessary.
+   *
+   * @param key     The key
+   * @param compute The function used to compute missing values
+   *
+   * @return The value
+   */
+
+  public V get(
+    final K key,
+    final Function<K, V> compute)
+  {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(compute, "compute");
+
+    final var existing = this.entries.get(key);
+    if (existing != null) {
+      existing.touch();
+      return existing.value;
+    }
+
+    final var entry =
+      this.entries.computeIfAbsent(key, k -> new Entry<>(compute.apply(k)));
+    entry.touch();
+
+    if (this.entries.size() > this.maximumSize) {
+      this.evict();
+    }
+    return entry.value;
+  }
+
+  /**
+   * Retrieve the value associated with a key, if one is present.
+   *
+   * @param key The key
+   *
+   * @return The value, if any
+   */
+
+  public Optional<V> find(
+    final K key)
+  {
+    final var existing =
+      this.entries.get(Objects.requireNonNull(key, "key"));
+    if (existing != null) {
+      existing.touch();
+      return Optional.of(existing.value);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Remove the value associated with a key.
+   *
+   * @param key The key
+   */
+
+  public void remove(
+    final K key)
+  {
+    this.entries.remove(Objects.requireNonNull(key, "key"));
+  }
+
+  /**
+   * Remove the values associated with every key that matches the given
+   * predicate.
+   *
+   * @param predicate The predicate
+   */
+
+  public void removeIf(
+    final Predicate<K> predicate)
+  {
+    Objects.requireNonNull(predicate, "predicate");
+    this.entries.keySet().removeIf(predicate);
+  }
+
+  /**
+   * Remove all values.
+   */
+
+  public void clear()
+  {
+    this.entries.clear();
+  }
+
+  /**
+   * @return The number of values currently cached
+   */
+
+  public int size()
+  {
+    return this.entries.size();
+  }
+
+  private void evict()
+  {
+    this.evictionLock.lock();
+
+    try {
+      if (this.entries.size() <= this.maximumSize) {
+        return;
+      }
+
+      final var excess = this.entries.size() - this.targetSize;
+
+      final var times = new long[this.entries.size()];
+      int count = 0;
+      for (final var entry : this.entries.values()) {
+        if (count == times.length) {
+          break;
+        }
+        times[count] = entry.accessed;
+        ++count;
+      }
+
+      if (count == 0) {
+        return;
+      }
+
+      Arrays.sort(times, 0, count);
+      final var threshold = times[Math.min(excess, count) - 1];
+      this.entries.values().removeIf(entry -> entry.accessed <= threshold);
+    } finally {
+      this.evictionLock.unlock();
+    }
+  }
+
+  private static final class Entry<V>
+  {
+    private final V value;
+    private volatile long accessed;
+
+    Entry(
+      final V inValue)
+    {
+      this.value = Objects.requireNonNull(inValue, "value");
+    }
+
+    void touch()
+    {
+      this.accessed = System.nanoTime();
+    }
+  }
+}
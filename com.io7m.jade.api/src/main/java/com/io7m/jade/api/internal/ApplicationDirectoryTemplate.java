@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api.internal;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A template from which the directory for any application name can be
+ * derived by path resolution alone. Templates are inferred by comparing the
+ * directories resolved for two distinct probe names: if the directories are
+ * equal, the directory does not depend on the application name at all; if
+ * they differ in exactly one path element, and that element is the probe
+ * name, the directory for any other name is obtained by substituting that
+ * element. Any other difference means that the provider transforms the
+ * application name in some way, and no template can be inferred.
+ */
+
+public final class ApplicationDirectoryTemplate
+{
+  private final Path prefix;
+  private final Path suffix;
+  private final boolean nameDependent;
+
+  private ApplicationDirectoryTemplate(
+    final Path inPrefix,
+    final Path inSuffix,
+    final boolean inNameDependent)
+  {
+    this.prefix = Objects.requireNonNull(inPrefix, "prefix");
+    this.suffix = inSuffix;
+    this.nameDependent = inNameDependent;
+  }
+
+  /**
+   * Infer a template from two directories resolved for different names.
+   *
+   * @param path0 The directory resolved for {@code name0}
+   * @param name0 The first probe name
+   * @param path1 The directory resolved for {@code name1}
+   * @param name1 The second probe name
+   *
+   * @return A template, if one can be inferred
+   */
+
+  public static Optional<ApplicationDirectoryTemplate> infer(
+    final Path path0,
+    final String name0,
+    final Path path1,
+    final String name1)
+  {
+    Objects.requireNonNull(path0, "path0");
+    Objects.requireNonNull(name0, "name0");
+    Objects.requireNonNull(path1, "path1");
+    Objects.requireNonNull(name1, "name1");
+
+    if (path0.equals(path1)) {
+      return Optional.of(new ApplicationDirectoryTemplate(path0, null, false));
+    }
+
+    final var count = path0.getNameCount();
+    if (count != path1.getNameCount()
+        || !Objects.equals(path0.getRoot(), path1.getRoot())) {
+      return Optional.empty();
+    }
+
+    final var index = differingElement(path0, path1);
+    if (index < 0
+        || !path0.getName(index).toString().equals(name0)
+        || !path1.getName(index).toString().equals(name1)) {
+      return Optional.empty();
+    }
+
+    Path prefix = path0;
+    for (int up = count - index; up > 0; --up) {
+      prefix = prefix.getParent();
+      if (prefix == null) {
+        prefix = path0.getFileSystem().getPath("");
+        break;
+      }
+    }
+
+    Path suffix = null;
+    if (index + 1 < count) {
+      suffix = path0.subpath(index + 1, count);
+    }
+    return Optional.of(new ApplicationDirectoryTemplate(prefix, suffix, true));
+  }
+
+  private static int differingElement(
+    final Path path0,
+    final Path path1)
+  {
+    int found = -1;
+    for (int index = 0; index < path0.getNameCount(); ++index) {
+      if (!path0.getName(index).equals(path1.getName(index))) {
+        if (found >= 0) {
+          return -1;
+        }
+        found = index;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Derive the directory for the given application name.
+   *
+   * @param name The application name
+   *
+   * @return The directory
+   */
+
+  public Path apply(
+    final String name)
+  {
+    Objects.requireNonNull(name, "name");
+
+    if (!this.nameDependent) {
+      return this.prefix;
+    }
+
+    final var named = this.prefix.resolve(name);
+    if (this.suffix == null) {
+      return named;
+    }
+    return named.resolve(this.suffix);
+  }
+}
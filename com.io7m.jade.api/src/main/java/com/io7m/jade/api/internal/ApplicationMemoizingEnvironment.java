@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api.internal;
+
+import com.io7m.jade.spi.ApplicationEnvironmentType;
+
+import java.nio.file.FileSystem;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An environment that reads each system property and environment variable
+ * from an underlying environment at most once, and remembers the result.
+ * Unlike a full snapshot, nothing is read up front, but every lookup of a
+ * given name observes the same value for the lifetime of the environment.
+ */
+
+public final class ApplicationMemoizingEnvironment
+  implements ApplicationEnvironmentType
+{
+  private final ApplicationEnvironmentType delegate;
+  private final ConcurrentHashMap<String, Optional<String>> systemProperties;
+  private final ConcurrentHashMap<String, Optional<String>> environmentVariables;
+
+  /**
+   * An environment that reads each value from the given environment at
+   * most once.
+   *
+   * @param inDelegate The underlying environment
+   */
+
+  public ApplicationMemoizingEnvironment(
+    final ApplicationEnvironmentType inDelegate)
+  {
+    this.delegate =
+      Objects.requireNonNull(inDelegate, "delegate");
+    this.systemProperties =
+      new ConcurrentHashMap<>();
+    this.environmentVariables =
+      new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public FileSystem filesystem()
+  {
+    return this.delegate.filesystem();
+  }
+
+  @Override
+  public Optional<String> systemProperty(
+    final String name)
+  {
+    return this.systemProperties.computeIfAbsent(
+      Objects.requireNonNull(name, "name"),
+      this.delegate::systemProperty
+    );
+  }
+
+  @Override
+  public Optional<String> environmentVariable(
+    final String name)
+  {
+    return this.environmentVariables.computeIfAbsent(
+      Objects.requireNonNull(name, "name"),
+      this.delegate::environmentVariable
+    );
+  }
+
+  @Override
+  public <S> Iterator<S> servicesFor(
+    final Class<S> clazz)
+  {
+    return this.delegate.servicesFor(clazz);
+  }
+
+  @Override
+  public <S> List<ServiceLoader.Provider<S>> serviceProvidersFor(
+    final Class<S> clazz)
+  {
+    return this.delegate.serviceProvidersFor(clazz);
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * The decision as to whether the application directories are overridden.
+ */
+
+@Name("com.io7m.jade.OverrideDecision")
+@Label("Override Decision")
+@Category("Jade")
+@Description("The decision as to whether the application directories are overridden.")
+@StackTrace(false)
+public final class ApplicationOverrideDecisionEvent extends Event
+{
+  @Label("Application Name")
+  @Description("The name of the application")
+  private String applicationName;
+
+  @Label("Property Name")
+  @Description("The name of the override system property")
+  private String propertyName;
+
+  @Label("Overridden")
+  @Description("Whether the directories are overridden")
+  private boolean overridden;
+
+  @Label("Path")
+  @Description("The override base directory, if any")
+  private String path;
+
+  /**
+   * An event recording an override decision.
+   */
+
+  public ApplicationOverrideDecisionEvent()
+  {
+
+  }
+
+  /**
+   * Commit the event, if the event is enabled and exceeds the configured
+   * threshold.
+   *
+   * @param inApplicationName The application name
+   * @param inPropertyName    The override property name, or {@code null}
+   * @param inPath            The override directory, if any
+   */
+
+  public void complete(
+    final String inApplicationName,
+    final String inPropertyName,
+    final Optional<Path> inPath)
+  {
+    if (this.shouldCommit()) {
+      this.applicationName = inApplicationName;
+      this.propertyName = inPropertyName;
+      this.overridden = inPath.isPresent();
+      this.path = inPath.map(Path::toString).orElse(null);
+      this.commit();
+    }
+  }
+}
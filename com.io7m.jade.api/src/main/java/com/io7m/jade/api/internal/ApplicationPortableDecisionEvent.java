@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The decision as to whether the application runs in portable mode.
+ */
+
+@Name("com.io7m.jade.PortableDecision")
+@Label("Portable Decision")
+@Category("Jade")
+@Description("The decision as to whether the application runs in portable mode.")
+@StackTrace(false)
+public final class ApplicationPortableDecisionEvent extends Event
+{
+  @Label("Application Name")
+  @Description("The name of the application")
+  private String applicationName;
+
+  @Label("Property Name")
+  @Description("The name of the portable mode system property")
+  private String propertyName;
+
+  @Label("Portable")
+  @Description("Whether portable mode is enabled")
+  private boolean portable;
+
+  /**
+   * An event recording a portable mode decision.
+   */
+
+  public ApplicationPortableDecisionEvent()
+  {
+
+  }
+
+  /**
+   * Commit the event, if the event is enabled and exceeds the configured
+   * threshold.
+   *
+   * @param inApplicationName The application name
+   * @param inPropertyName    The portable property name, or {@code null}
+   * @param inPortable        {@code true} if portable mode is enabled
+   */
+
+  public void complete(
+    final String inApplicationName,
+    final String inPropertyName,
+    final boolean inPortable)
+  {
+    if (this.shouldCommit()) {
+      this.applicationName = inApplicationName;
+      this.propertyName = inPropertyName;
+      this.portable = inPortable;
+      this.commit();
+    }
+  }
+}
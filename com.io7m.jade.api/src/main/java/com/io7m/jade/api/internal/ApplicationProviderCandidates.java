@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api.internal;
+
+import com.io7m.jade.spi.ApplicationDirectoryProviderMetadata;
+import com.io7m.jade.spi.ApplicationDirectoryProviderType;
+import com.io7m.jade.spi.ApplicationEnvironmentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+/**
+ * Functions to select candidate directory providers using their type-level
+ * metadata, without instantiating them.
+ */
+
+public final class ApplicationProviderCandidates
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(ApplicationProviderCandidates.class);
+
+  private ApplicationProviderCandidates()
+  {
+
+  }
+
+  /**
+   * Determine the providers that may be applicable in the given environment,
+   * in the order in which they should be initialized.
+   *
+   * @param environment The environment
+   *
+   * @return The candidate providers
+   */
+
+  public static List<ServiceLoader.Provider<ApplicationDirectoryProviderType>> candidates(
+    final ApplicationEnvironmentType environment)
+  {
+    Objects.requireNonNull(environment, "environment");
+
+    final var osName =
+      environment.systemProperty("os.name");
+
+    return environment.serviceProvidersFor(ApplicationDirectoryProviderType.class)
+      .stream()
+      .filter(p -> isApplicable(p.type(), osName))
+      .sorted(Comparator.comparingInt(
+        (ServiceLoader.Provider<ApplicationDirectoryProviderType> p) ->
+          priorityOf(p.type())).reversed())
+      .toList();
+  }
+
+  /**
+   * Determine if the given provider type may be applicable to the platform
+   * with the given name.
+   *
+   * @param type   The provider type
+   * @param osName The operating system name, if known
+   *
+   * @return {@code true} if the provider may be applicable
+   */
+
+  public static boolean isApplicable(
+    final Class<?> type,
+    final Optional<String> osName)
+  {
+    Objects.requireNonNull(type, "type");
+    Objects.requireNonNull(osName, "osName");
+
+    final var metadata =
+      type.getAnnotation(ApplicationDirectoryProviderMetadata.class);
+
+    if (metadata == null || osName.isEmpty()) {
+      return true;
+    }
+
+    final var prefixes = metadata.operatingSystemNamePrefixes();
+    if (prefixes.length == 0) {
+      return true;
+    }
+
+    final var name = osName.get();
+    for (final var prefix : prefixes) {
+      if (name.startsWith(prefix)) {
+        return true;
+      }
+    }
+
+    LOG.debug("provider {} is not applicable to {}", type.getName(), name);
+    return false;
+  }
+
+  /**
+   * Determine the priority of the given provider type.
+   *
+   * @param type The provider type
+   *
+   * @return The priority
+   */
+
+  public static int priorityOf(
+    final Class<?> type)
+  {
+    final var metadata =
+      Objects.requireNonNull(type, "type")
+        .getAnnotation(ApplicationDirectoryProviderMetadata.class);
+
+    if (metadata == null) {
+      return 0;
+    }
+    return metadata.priority();
+  }
+}
@@ -18,8 +18,10 @@ package com.io7m.jade.api.internal;
 
 import com.io7m.jade.api.ApplicationDirectoryConfiguration;
 import com.io7m.jade.spi.ApplicationProviderContextType;
+import com.io7m.jade.spi.ApplicationResolutionObserverType;
 
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * An application provider context.
@@ -29,6 +31,7 @@ public final class ApplicationProviderContext
   implements ApplicationProviderContextType
 {
   private final ApplicationDirectoryConfiguration configuration;
+  private final Optional<ApplicationResolutionObserverType> observer;
 
   /**
    * An application provider context.
@@ -38,9 +41,25 @@ public final class ApplicationProviderContext
 
   public ApplicationProviderContext(
     final ApplicationDirectoryConfiguration inConfiguration)
+  {
+    this(inConfiguration, ApplicationResolutionRecorder.disabled());
+  }
+
+  /**
+   * An application provider context.
+   *
+   * @param inConfiguration The application directory configuration
+   * @param inRecorder      The resolution recorder
+   */
+
+  public ApplicationProviderContext(
+    final ApplicationDirectoryConfiguration inConfiguration,
+    final ApplicationResolutionRecorder inRecorder)
   {
     this.configuration =
       Objects.requireNonNull(inConfiguration, "configuration");
+    this.observer =
+      Objects.requireNonNull(inRecorder, "recorder").observer();
   }
 
   @Override
@@ -48,4 +67,24 @@ public final class ApplicationProviderContext
   {
     return this.configuration.applicationName();
   }
+
+  /**
+   * Directories are never resolved lazily when resolution is being
+   * observed, so that every source is reported before the trace is
+   * produced.
+   *
+   * @return {@code true} if directories should be resolved lazily
+   */
+
+  @Override
+  public boolean lazyResolution()
+  {
+    return this.configuration.lazyResolution() && this.observer.isEmpty();
+  }
+
+  @Override
+  public Optional<ApplicationResolutionObserverType> observer()
+  {
+    return this.observer;
+  }
 }
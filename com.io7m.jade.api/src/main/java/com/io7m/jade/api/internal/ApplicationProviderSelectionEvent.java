@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The instantiation and initialization of a candidate directory provider.
+ */
+
+@Name("com.io7m.jade.ProviderSelection")
+@Label("Provider Selection")
+@Category("Jade")
+@Description("The instantiation and initialization of a candidate directory provider.")
+@StackTrace(false)
+public final class ApplicationProviderSelectionEvent extends Event
+{
+  @Label("Application Name")
+  @Description("The name of the application")
+  private String applicationName;
+
+  @Label("Provider")
+  @Description("The name of the provider class")
+  private String provider;
+
+  @Label("Selected")
+  @Description("Whether the provider was applicable and was selected")
+  private boolean selected;
+
+  /**
+   * An event recording the selection of a provider.
+   */
+
+  public ApplicationProviderSelectionEvent()
+  {
+
+  }
+
+  /**
+   * Commit the event, if the event is enabled and exceeds the configured
+   * threshold.
+   *
+   * @param inApplicationName The application name
+   * @param inProvider        The provider class name
+   * @param inSelected        {@code true} if the provider was selected
+   */
+
+  public void complete(
+    final String inApplicationName,
+    final String inProvider,
+    final boolean inSelected)
+  {
+    if (this.shouldCommit()) {
+      this.applicationName = inApplicationName;
+      this.provider = inProvider;
+      this.selected = inSelected;
+      this.commit();
+    }
+  }
+}
@@ -16,17 +16,20 @@
 
 package com.io7m.jade.api.internal;
 
+import com.io7m.jade.api.ApplicationProviderRegistry;
 import com.io7m.jade.spi.ApplicationEnvironmentType;
 
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.ServiceLoader;
 
 /**
- * An application environment based on the real system environment.
+ * An application environment based on the real system environment. Services
+ * are obtained from the process-wide {@link ApplicationProviderRegistry}.
  */
 
 public final class ApplicationRealEnvironment
@@ -67,8 +70,17 @@ public final class ApplicationRealEnvironment
   public <S> Iterator<S> servicesFor(
     final Class<S> clazz)
   {
-    return ServiceLoader.load(
+    return ApplicationProviderRegistry.servicesFor(
       Objects.requireNonNull(clazz, "clazz")
-    ).iterator();
+    );
+  }
+
+  @Override
+  public <S> List<ServiceLoader.Provider<S>> serviceProvidersFor(
+    final Class<S> clazz)
+  {
+    return ApplicationProviderRegistry.providersFor(
+      Objects.requireNonNull(clazz, "clazz")
+    );
   }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The resolution of application directories for a configuration.
+ */
+
+@Name("com.io7m.jade.Resolution")
+@Label("Directory Resolution")
+@Category("Jade")
+@Description("The resolution of application directories for a configuration.")
+@StackTrace(false)
+public final class ApplicationResolutionEvent extends Event
+{
+  @Label("Application Name")
+  @Description("The name of the application")
+  private String applicationName;
+
+  @Label("Provider")
+  @Description("The name of the class that provided the directories")
+  private String provider;
+
+  /**
+   * An event recording the resolution of application directories.
+   */
+
+  public ApplicationResolutionEvent()
+  {
+
+  }
+
+  /**
+   * Commit the event, if the event is enabled and exceeds the configured
+   * threshold.
+   *
+   * @param inApplicationName The application name
+   * @param inProvider        The provider class name
+   */
+
+  public void complete(
+    final String inApplicationName,
+    final String inProvider)
+  {
+    if (this.shouldCommit()) {
+      this.applicationName = inApplicationName;
+      this.provider = inProvider;
+      this.commit();
+    }
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api.internal;
+
+import com.io7m.jade.api.ApplicationDirectoriesType;
+import com.io7m.jade.api.ApplicationDirectoryConfiguration;
+import com.io7m.jade.api.ApplicationProviderAttempt;
+import com.io7m.jade.api.ApplicationResolutionTrace;
+import com.io7m.jade.api.ApplicationSourceAttempt;
+import com.io7m.jade.spi.ApplicationResolutionObserverType;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A recorder of the steps taken during a single resolution. The disabled
+ * recorder records nothing and never reads the clock, so that resolution
+ * that is not being traced pays nothing for the ability to be traced.
+ */
+
+public final class ApplicationResolutionRecorder
+  implements ApplicationResolutionObserverType
+{
+  private static final ApplicationResolutionRecorder DISABLED =
+    new ApplicationResolutionRecorder(false);
+
+  private final boolean enabled;
+  private final Optional<ApplicationResolutionObserverType> observer;
+  private final List<ApplicationProviderAttempt> providerAttempts;
+  private final List<ApplicationSourceAttempt> sourceAttempts;
+  private Optional<Path> overrideDirectory;
+  private long overrideDurationNanos;
+  private boolean portable;
+  private long portableDurationNanos;
+
+  private ApplicationResolutionRecorder(
+    final boolean inEnabled)
+  {
+    this.enabled = inEnabled;
+    this.providerAttempts = new ArrayList<>();
+    this.sourceAttempts = new ArrayList<>();
+    this.overrideDirectory = Optional.empty();
+
+    if (inEnabled) {
+      this.observer = Optional.of(this);
+    } else {
+      this.observer = Optional.empty();
+    }
+  }
+
+  /**
+   * @return A recorder that records nothing
+   */
+
+  public static ApplicationResolutionRecorder disabled()
+  {
+    return DISABLED;
+  }
+
+  /**
+   * @return A new recorder
+   */
+
+  public static ApplicationResolutionRecorder create()
+  {
+    return new ApplicationResolutionRecorder(true);
+  }
+
+  /**
+   * @return The observer that should be presented to providers
+   */
+
+  public Optional<ApplicationResolutionObserverType> observer()
+  {
+    return this.observer;
+  }
+
+  /**
+   * @return The current time in nanoseconds, or {@code 0} if the recorder
+   * is disabled
+   */
+
+  public long now()
+  {
+    if (this.enabled) {
+      return System.nanoTime();
+    }
+    return 0L;
+  }
+
+  /**
+   * Record the override decision.
+   *
+   * @param directory     The override directory, if any
+   * @param durationNanos The time taken
+   */
+
+  public void overrideDecided(
+    final Optional<Path> directory,
+    final long durationNanos)
+  {
+    if (this.enabled) {
+      this.overrideDirectory = directory;
+      this.overrideDurationNanos = durationNanos;
+    }
+  }
+
+  /**
+   * Record the portable decision.
+   *
+   * @param isPortable    {@code true} if portable mode is enabled
+   * @param durationNanos The time taken
+   */
+
+  public void portableDecided(
+    final boolean isPortable,
+    final long durationNanos)
+  {
+    if (this.enabled) {
+      this.portable = isPortable;
+      this.portableDurationNanos = durationNanos;
+    }
+  }
+
+  /**
+   * Record a provider attempt.
+   *
+   * @param provider      The provider class name
+   * @param selected      {@code true} if the provider was selected
+   * @param durationNanos The time taken
+   */
+
+  public void providerAttempted(
+    final String provider,
+    final boolean selected,
+    final long durationNanos)
+  {
+    if (this.enabled) {
+      this.providerAttempts.add(
+        ApplicationProviderAttempt.of(provider, selected, durationNanos)
+      );
+    }
+  }
+
+  @Override
+  public void onSourceAttempt(
+    final String directory,
+    final String source,
+    final String name,
+    final Optional<Path> path,
+    final long durationNanos)
+  {
+    if (this.enabled) {
+      this.sourceAttempts.add(
+        ApplicationSourceAttempt.of(
+          directory,
+          source,
+          name,
+          path,
+          durationNanos)
+      );
+    }
+  }
+
+  /**
+   * Produce a trace from everything recorded.
+   *
+   * @param configuration The configuration
+   * @param directories   The resolved directories
+   * @param provider      The provider class name
+   * @param durationNanos The total time taken
+   *
+   * @return A trace
+   */
+
+  public ApplicationResolutionTrace toTrace(
+    final ApplicationDirectoryConfiguration configuration,
+    final ApplicationDirectoriesType directories,
+    final String provider,
+    final long durationNanos)
+  {
+    Objects.requireNonNull(configuration, "configuration");
+    Objects.requireNonNull(directories, "directories");
+    Objects.requireNonNull(provider, "provider");
+
+    return ApplicationResolutionTrace.builder()
+      .setConfiguration(configuration)
+      .setDirectories(directories)
+      .setProvider(provider)
+      .setOverrideDirectory(this.overrideDirectory)
+      .setOverrideDurationNanos(this.overrideDurationNanos)
+      .setPortable(this.portable)
+      .setPortableDurationNanos(this.portableDurationNanos)
+      .setProviderAttempts(this.providerAttempts)
+      .setSourceAttempts(this.sourceAttempts)
+      .setDurationNanos(durationNanos)
+      .build();
+  }
+}
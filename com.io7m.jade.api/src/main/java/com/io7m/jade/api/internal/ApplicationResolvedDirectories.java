@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api.internal;
+
+import com.io7m.jade.api.ApplicationDirectoriesType;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * A set of application directories that have already been resolved.
+ *
+ * @param configurationDirectory The configuration directory
+ * @param dataDirectory          The data directory
+ * @param cacheDirectory         The cache directory
+ */
+
+public record ApplicationResolvedDirectories(
+  Path configurationDirectory,
+  Path dataDirectory,
+  Path cacheDirectory)
+  implements ApplicationDirectoriesType
+{
+  /**
+   * A set of application directories that have already been resolved.
+   *
+   * @param configurationDirectory The configuration directory
+   * @param dataDirectory          The data directory
+   * @param cacheDirectory         The cache directory
+   */
+
+  public ApplicationResolvedDirectories
+  {
+    Objects.requireNonNull(configurationDirectory, "configurationDirectory");
+    Objects.requireNonNull(dataDirectory, "dataDirectory");
+    Objects.requireNonNull(cacheDirectory, "cacheDirectory");
+  }
+}
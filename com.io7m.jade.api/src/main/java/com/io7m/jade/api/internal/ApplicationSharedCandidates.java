@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.api.internal;
+
+import com.io7m.jade.spi.ApplicationDirectoryProviderType;
+import com.io7m.jade.spi.ApplicationEnvironmentType;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A supplier of candidate providers that performs discovery at most once,
+ * on first use, and shares the result between any number of threads. Only
+ * the candidates are shared: each resolution obtains its own provider
+ * instance from them.
+ */
+
+public final class ApplicationSharedCandidates
+  implements Supplier<List<ServiceLoader.Provider<ApplicationDirectoryProviderType>>>
+{
+  private final ApplicationEnvironmentType environment;
+  private final ReentrantLock lock;
+  private volatile List<ServiceLoader.Provider<ApplicationDirectoryProviderType>> candidates;
+
+  /**
+   * A supplier of candidate providers that performs discovery at most once.
+   *
+   * @param inEnvironment The environment in which discovery is performed
+   */
+
+  public ApplicationSharedCandidates(
+    final ApplicationEnvironmentType inEnvironment)
+  {
+    this.environment =
+      Objects.requireNonNull(inEnvironment, "environment");
+    this.lock =
+      new ReentrantLock();
+  }
+
+  @Override
+  public List<ServiceLoader.Provider<ApplicationDirectoryProviderType>> get()
+  {
+    final var existing = this.candidates;
+    if (existing != null) {
+      return existing;
+    }
+
+    this.lock.lock();
+    try {
+      if (this.candidates == null) {
+        this.candidates =
+          ApplicationProviderCandidates.candidates(this.environment);
+      }
+      return this.candidates;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+}
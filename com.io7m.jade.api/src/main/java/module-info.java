@@ -26,6 +26,7 @@ module com.io7m.jade.api
   requires static org.osgi.annotation.versioning;
 
   requires transitive com.io7m.jade.spi;
+  requires jdk.jfr;
   requires org.slf4j;
 
   uses com.io7m.jade.spi.ApplicationDirectoryProviderType;
@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.benchmarks;
+
+import com.io7m.jade.api.ApplicationDirectories;
+import com.io7m.jade.api.ApplicationDirectoryConfiguration;
+import com.io7m.jade.api.ApplicationProviderRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing individual resolution of many configurations
+ * against batch resolution. Both use the real environment, as an
+ * application would at startup.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApplicationDirectoriesBatchBenchmark
+{
+  private List<ApplicationDirectoryConfiguration> configurations;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public ApplicationDirectoriesBatchBenchmark()
+  {
+
+  }
+
+  /**
+   * Set up the configurations.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final var results = new ArrayList<ApplicationDirectoryConfiguration>();
+    for (int index = 0; index < 32; ++index) {
+      results.add(
+        ApplicationDirectoryConfiguration.builder()
+          .setApplicationName("app" + index)
+          .setOverridePropertyName("com.io7m.jade.benchmarks.override" + index)
+          .setPortablePropertyName("com.io7m.jade.benchmarks.portable" + index)
+          .build()
+      );
+    }
+    this.configurations = List.copyOf(results);
+  }
+
+  /**
+   * Resolve each configuration individually, after a fresh discovery.
+   *
+   * @param blackhole The blackhole
+   */
+
+  @Benchmark
+  public void individual(
+    final Blackhole blackhole)
+  {
+    ApplicationProviderRegistry.reload();
+    for (final var configuration : this.configurations) {
+      blackhole.consume(ApplicationDirectories.get(configuration));
+    }
+  }
+
+  /**
+   * Resolve all configurations as a batch, after a fresh discovery.
+   *
+   * @return The directories
+   */
+
+  @Benchmark
+  public Object batch()
+  {
+    ApplicationProviderRegistry.reload();
+    return ApplicationDirectories.getAll(this.configurations);
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.benchmarks;
+
+import com.io7m.jade.api.ApplicationDirectories;
+import com.io7m.jade.api.ApplicationDirectoryConfiguration;
+import com.io7m.jade.api.ApplicationDirectoryResolver;
+import com.io7m.jade.api.ApplicationEnvironmentSnapshot;
+import com.io7m.jade.api.ApplicationProviderRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for complete directory resolution.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApplicationDirectoriesBenchmark
+{
+  private static final String OVERRIDE_PROPERTY =
+    "com.io7m.jade.benchmarks.override";
+  private static final String PORTABLE_PROPERTY =
+    "com.io7m.jade.benchmarks.portable";
+
+  private ApplicationEnvironmentSnapshot environment;
+  private ApplicationDirectoryConfiguration configurationPlain;
+  private ApplicationDirectoryConfiguration configurationOverride;
+  private ApplicationDirectoryConfiguration configurationPortable;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public ApplicationDirectoriesBenchmark()
+  {
+
+  }
+
+  /**
+   * Set up the environment and configurations.
+   */
+
+  @Setup
+  public void setup()
+  {
+    this.environment = ApplicationEnvironmentSnapshot.of(
+      Map.ofEntries(
+        Map.entry("os.name", "Linux"),
+        Map.entry("user.home", "/home/someone"),
+        Map.entry(OVERRIDE_PROPERTY, "/tmp/override"),
+        Map.entry(PORTABLE_PROPERTY, "true")
+      ),
+      Map.ofEntries(
+        Map.entry("HOME", "/home/someone"),
+        Map.entry("XDG_CONFIG_HOME", "/home/someone/.config"),
+        Map.entry("XDG_DATA_HOME", "/home/someone/.local/share"),
+        Map.entry("XDG_CACHE_HOME", "/home/someone/.cache")
+      )
+    );
+
+    this.configurationPlain =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("Widget")
+        .build();
+
+    this.configurationOverride =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("Widget")
+        .setOverridePropertyName(OVERRIDE_PROPERTY)
+        .build();
+
+    this.configurationPortable =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("Widget")
+        .setPortablePropertyName(PORTABLE_PROPERTY)
+        .build();
+
+    ApplicationProviderRegistry.reload();
+    ApplicationDirectoryResolver.invalidate();
+  }
+
+  /**
+   * Resolve directories using an override property.
+   *
+   * @return The directories
+   */
+
+  @Benchmark
+  public Object override()
+  {
+    return ApplicationDirectories.get(
+      this.configurationOverride,
+      this.environment
+    );
+  }
+
+  /**
+   * Resolve directories using portable mode.
+   *
+   * @return The directories
+   */
+
+  @Benchmark
+  public Object portable()
+  {
+    return ApplicationDirectories.get(
+      this.configurationPortable,
+      this.environment
+    );
+  }
+
+  /**
+   * Resolve directories using the available providers, with the providers
+   * already discovered.
+   *
+   * @return The directories
+   */
+
+  @Benchmark
+  public Object discovery()
+  {
+    return ApplicationDirectories.get(
+      this.configurationPlain,
+      this.environment
+    );
+  }
+
+  /**
+   * Resolve directories using the available providers, discovering the
+   * providers again first.
+   *
+   * @return The directories
+   */
+
+  @Benchmark
+  public Object discoveryCold()
+  {
+    ApplicationProviderRegistry.reload();
+    return ApplicationDirectories.get(
+      this.configurationPlain,
+      this.environment
+    );
+  }
+
+  /**
+   * Retrieve previously resolved directories from the memoizing resolver.
+   *
+   * @return The directories
+   */
+
+  @Benchmark
+  public Object memoized()
+  {
+    return ApplicationDirectoryResolver.get(
+      this.configurationPlain,
+      this.environment
+    );
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.benchmarks;
+
+import com.io7m.jade.api.ApplicationEnvironmentSnapshot;
+import com.io7m.jade.api.internal.ApplicationRealEnvironment;
+import com.io7m.jade.spi.ApplicationEnvironmentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing lookups in the real environment against lookups in
+ * an environment snapshot.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApplicationEnvironmentBenchmark
+{
+  private ApplicationEnvironmentType real;
+  private ApplicationEnvironmentType snapshot;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public ApplicationEnvironmentBenchmark()
+  {
+
+  }
+
+  /**
+   * Set up the environments.
+   */
+
+  @Setup
+  public void setup()
+  {
+    this.real = new ApplicationRealEnvironment();
+    this.snapshot = ApplicationEnvironmentSnapshot.capture();
+  }
+
+  /**
+   * Look up values in the real environment.
+   *
+   * @param blackhole The blackhole
+   */
+
+  @Benchmark
+  public void lookupReal(
+    final Blackhole blackhole)
+  {
+    lookups(this.real, blackhole);
+  }
+
+  /**
+   * Look up values in a snapshot.
+   *
+   * @param blackhole The blackhole
+   */
+
+  @Benchmark
+  public void lookupSnapshot(
+    final Blackhole blackhole)
+  {
+    lookups(this.snapshot, blackhole);
+  }
+
+  /**
+   * Capture a snapshot of the real environment.
+   *
+   * @return The snapshot
+   */
+
+  @Benchmark
+  public Object capture()
+  {
+    return ApplicationEnvironmentSnapshot.capture();
+  }
+
+  private static void lookups(
+    final ApplicationEnvironmentType environment,
+    final Blackhole blackhole)
+  {
+    blackhole.consume(environment.systemProperty("os.name"));
+    blackhole.consume(environment.systemProperty("user.home"));
+    blackhole.consume(environment.environmentVariable("HOME"));
+    blackhole.consume(environment.environmentVariable("XDG_CACHE_HOME"));
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.benchmarks;
+
+import com.io7m.jade.api.ApplicationProviderRegistry;
+import com.io7m.jade.spi.ApplicationDirectoryProviderType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for obtaining directory providers in a warmed-up JVM.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApplicationProviderRegistryBenchmark
+{
+  /**
+   * Construct a benchmark.
+   */
+
+  public ApplicationProviderRegistryBenchmark()
+  {
+
+  }
+
+  /**
+   * Discover and instantiate providers with a fresh {@link ServiceLoader}
+   * on every call.
+   *
+   * @param blackhole The blackhole
+   */
+
+  @Benchmark
+  public void serviceLoader(
+    final Blackhole blackhole)
+  {
+    final var loader =
+      ServiceLoader.load(ApplicationDirectoryProviderType.class);
+    for (final var provider : loader) {
+      blackhole.consume(provider);
+    }
+  }
+
+  /**
+   * Discard all discovered providers, and then discover and instantiate
+   * providers using the registry.
+   *
+   * @param blackhole The blackhole
+   */
+
+  @Benchmark
+  public void registryCold(
+    final Blackhole blackhole)
+  {
+    ApplicationProviderRegistry.reload();
+    consumeAll(blackhole);
+  }
+
+  /**
+   * Instantiate providers that the registry has already discovered.
+   *
+   * @param blackhole The blackhole
+   */
+
+  @Benchmark
+  public void registryWarm(
+    final Blackhole blackhole)
+  {
+    consumeAll(blackhole);
+  }
+
+  private static void consumeAll(
+    final Blackhole blackhole)
+  {
+    final var iterator =
+      ApplicationProviderRegistry.servicesFor(
+        ApplicationDirectoryProviderType.class);
+
+    while (iterator.hasNext()) {
+      blackhole.consume(iterator.next());
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.benchmarks;
+
+import com.io7m.jade.api.ApplicationProviderRegistry;
+import com.io7m.jade.spi.ApplicationDirectoryProviderType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for obtaining directory providers in a freshly started JVM.
+ * Each fork measures exactly one invocation, and so the results include
+ * class loading and the first scan of the class path.
+ */
+
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+@State(Scope.Benchmark)
+public class ApplicationProviderRegistryStartupBenchmark
+{
+  /**
+   * Construct a benchmark.
+   */
+
+  public ApplicationProviderRegistryStartupBenchmark()
+  {
+
+  }
+
+  /**
+   * Discover and instantiate providers with a {@link ServiceLoader} in a
+   * fresh JVM.
+   *
+   * @param blackhole The blackhole
+   */
+
+  @Benchmark
+  public void serviceLoaderFirst(
+    final Blackhole blackhole)
+  {
+    final var loader =
+      ServiceLoader.load(ApplicationDirectoryProviderType.class);
+    for (final var provider : loader) {
+      blackhole.consume(provider);
+    }
+  }
+
+  /**
+   * Discover and instantiate providers using the registry in a fresh JVM.
+   *
+   * @param blackhole The blackhole
+   */
+
+  @Benchmark
+  public void registryFirst(
+    final Blackhole blackhole)
+  {
+    final var iterator =
+      ApplicationProviderRegistry.servicesFor(
+        ApplicationDirectoryProviderType.class);
+
+    while (iterator.hasNext()) {
+      blackhole.consume(iterator.next());
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.benchmarks;
+
+import com.io7m.jade.api.ApplicationDirectories;
+import com.io7m.jade.api.ApplicationDirectoryConfiguration;
+import com.io7m.jade.api.ApplicationEnvironmentSnapshot;
+import com.io7m.jade.api.ApplicationTenantResolver;
+import com.io7m.jade.api.ApplicationTenantResolverConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing per-tenant full resolution against the tenant
+ * resolver.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApplicationTenantResolverBenchmark
+{
+  private static final int TENANTS = 4096;
+
+  private ApplicationEnvironmentSnapshot environment;
+  private ApplicationDirectoryConfiguration[] configurations;
+  private String[] names;
+  private ApplicationTenantResolver resolverCached;
+  private ApplicationTenantResolver resolverEvicting;
+  private int index;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public ApplicationTenantResolverBenchmark()
+  {
+
+  }
+
+  /**
+   * Set up the tenants.
+   */
+
+  @Setup
+  public void setup()
+  {
+    this.environment = ApplicationEnvironmentSnapshot.of(
+      Map.of("os.name", "Linux", "user.home", "/home/someone"),
+      Map.of("XDG_CACHE_HOME", "/home/someone/.cache")
+    );
+
+    this.names = new String[TENANTS];
+    this.configurations = new ApplicationDirectoryConfiguration[TENANTS];
+    for (int i = 0; i < TENANTS; ++i) {
+      this.names[i] = "tenant" + i;
+      this.configurations[i] =
+        ApplicationDirectoryConfiguration.builder()
+          .setApplicationName(this.names[i])
+          .build();
+    }
+
+    final var base = this.configurations[0];
+    this.resolverCached = ApplicationTenantResolver.create(
+      ApplicationTenantResolverConfiguration.builder()
+        .setBaseConfiguration(base)
+        .setMaximumTenants(TENANTS)
+        .build(),
+      this.environment
+    );
+    this.resolverEvicting = ApplicationTenantResolver.create(
+      ApplicationTenantResolverConfiguration.builder()
+        .setBaseConfiguration(base)
+        .setMaximumTenants(TENANTS / 8)
+        .build(),
+      this.environment
+    );
+  }
+
+  private int next()
+  {
+    this.index = (this.index + 1) & (TENANTS - 1);
+    return this.index;
+  }
+
+  /**
+   * Resolve each tenant fully, as if calling {@link ApplicationDirectories}.
+   *
+   * @return The directories
+   */
+
+  @Benchmark
+  public Object full()
+  {
+    return ApplicationDirectories.get(
+      this.configurations[this.next()],
+      this.environment
+    );
+  }
+
+  /**
+   * Resolve tenants with a resolver large enough to retain all tenants.
+   *
+   * @return The directories
+   */
+
+  @Benchmark
+  public Object tenantCached()
+  {
+    return this.resolverCached.get(this.names[this.next()]);
+  }
+
+  /**
+   * Resolve tenants with a resolver that retains only an eighth of the
+   * tenants, so that most requests derive directories and evict others.
+   *
+   * @return The directories
+   */
+
+  @Benchmark
+  public Object tenantEvicting()
+  {
+    return this.resolverEvicting.get(this.names[this.next()]);
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * The main benchmark entry point. This behaves exactly as the standard JMH
+ * command-line runner, except that the GC profiler is always enabled so
+ * that allocation rates are reported alongside timings.
+ */
+
+public final class BenchmarksMain
+{
+  private BenchmarksMain()
+  {
+
+  }
+
+  /**
+   * The main entry point.
+   *
+   * @param args The JMH command-line arguments
+   *
+   * @throws CommandLineOptionException On malformed arguments
+   * @throws RunnerException            On benchmark failures
+   * @throws IOException                On I/O errors
+   */
+
+  public static void main(
+    final String[] args)
+    throws CommandLineOptionException, RunnerException, IOException
+  {
+    final var commandLine =
+      new CommandLineOptions(args);
+
+    final var options =
+      new OptionsBuilder()
+        .parent(commandLine)
+        .addProfiler(GCProfiler.class)
+        .build();
+
+    final var runner = new Runner(options);
+    if (commandLine.shouldHelp()) {
+      commandLine.showHelp();
+      return;
+    }
+    if (commandLine.shouldList()) {
+      runner.list();
+      return;
+    }
+    runner.run();
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.benchmarks;
+
+import com.io7m.jade.cache.CacheStoreConfiguration;
+import com.io7m.jade.cache.CacheStoreType;
+import com.io7m.jade.cache.CacheStores;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of reads of small entries from a cache store, with and
+ * without a memory tier.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheStoreBenchmark
+{
+  private static final int ENTRIES = 256;
+
+  @Param({
+    "0",
+    "1048576",
+  })
+  private long memoryMaximumSizeBytes;
+
+  private Path directory;
+  private CacheStoreType store;
+  private String[] keys;
+  private int index;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public CacheStoreBenchmark()
+  {
+
+  }
+
+  /**
+   * Set up the store.
+   *
+   * @throws IOException On errors
+   */
+
+  @Setup
+  public void setup()
+    throws IOException
+  {
+    this.directory = Files.createTempDirectory("jade-cache-benchmark");
+    this.store = CacheStores.open(
+      CacheStoreConfiguration.builder()
+        .setDirectory(this.directory)
+        .setMaximumSizeBytes(100_000_000L)
+        .setMemoryMaximumSizeBytes(this.memoryMaximumSizeBytes)
+        .build()
+    );
+
+    this.keys = new String[ENTRIES];
+    for (int i = 0; i < ENTRIES; ++i) {
+      this.keys[i] = "entry" + i;
+      this.store.put(this.keys[i], new byte[1024]);
+    }
+  }
+
+  /**
+   * Delete the store.
+   *
+   * @throws IOException On errors
+   */
+
+  @TearDown
+  public void tearDown()
+    throws IOException
+  {
+    this.store.close();
+    try (var paths = Files.walk(this.directory)) {
+      for (final var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  /**
+   * Read small entries.
+   *
+   * @return The data
+   *
+   * @throws IOException On errors
+   */
+
+  @Benchmark
+  public Optional<byte[]> get()
+    throws IOException
+  {
+    this.index = (this.index + 1) % ENTRIES;
+    return this.store.get(this.keys[this.index]);
+  }
+}
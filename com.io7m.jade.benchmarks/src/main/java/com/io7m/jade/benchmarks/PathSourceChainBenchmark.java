@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.benchmarks;
+
+import com.io7m.jade.api.ApplicationEnvironmentSnapshot;
+import com.io7m.jade.spi.ApplicationProviderContextType;
+import com.io7m.jade.vanilla.ApplicationDirectoriesUnix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the chains of environment variable and system property
+ * path sources used by the UNIX provider. Each parameter value arranges the
+ * environment such that resolution stops at a different point in the chain:
+ * the XDG environment variable, the {@code user.home} system property, the
+ * {@code HOME} environment variable, or the final fallback. Resolution is
+ * lazy, and so each invocation evaluates exactly one chain.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PathSourceChainBenchmark
+{
+  private static final String HOME =
+    "/home/someone";
+
+  @Param({
+    "XDG_CACHE_HOME",
+    "user.home",
+    "HOME",
+    "fallback",
+  })
+  private String source;
+
+  private ApplicationEnvironmentSnapshot environment;
+  private ApplicationProviderContextType context;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public PathSourceChainBenchmark()
+  {
+
+  }
+
+  /**
+   * Set up the environment.
+   */
+
+  @Setup
+  public void setup()
+  {
+    this.context = new LazyContext();
+    this.environment = switch (this.source) {
+      case "XDG_CACHE_HOME" -> ApplicationEnvironmentSnapshot.of(
+        Map.of("user.home", HOME),
+        Map.of("XDG_CACHE_HOME", HOME + "/.cache", "HOME", HOME)
+      );
+      case "user.home" -> ApplicationEnvironmentSnapshot.of(
+        Map.of("user.home", HOME),
+        Map.of("HOME", HOME)
+      );
+      case "HOME" -> ApplicationEnvironmentSnapshot.of(
+        Map.of(),
+        Map.of("HOME", HOME)
+      );
+      default -> ApplicationEnvironmentSnapshot.of(
+        Map.of(),
+        Map.of()
+      );
+    };
+  }
+
+  /**
+   * Resolve the cache directory.
+   *
+   * @return The cache directory
+   */
+
+  @Benchmark
+  public Object cacheDirectory()
+  {
+    final var directories = new ApplicationDirectoriesUnix();
+    directories.initialize(this.context, this.environment);
+    return directories.cacheDirectory();
+  }
+
+  private static final class LazyContext
+    implements ApplicationProviderContextType
+  {
+    LazyContext()
+    {
+
+    }
+
+    @Override
+    public String applicationName()
+    {
+      return "Widget";
+    }
+
+    @Override
+    public boolean lazyResolution()
+    {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A codec that compresses the data of cache entries.
+ *
+ * The name of the codec is recorded in each entry that it encodes, and is
+ * used to find the codec that decodes the entry when it is read. A codec
+ * must therefore keep its name, and remain able to decode the data it has
+ * encoded, for as long as stores containing that data exist.
+ *
+ * @see CacheCodecs
+ */
+
+public interface CacheCodecType
+{
+  /**
+   * The name of the codec. Names are at most 255 octets when encoded as
+   * UTF-8.
+   *
+   * @return The name of the codec
+   */
+
+  String name();
+
+  /**
+   * Create a stream that encodes data written to it into the given stream.
+   * Closing the returned stream closes the given stream.
+   *
+   * @param output The stream receiving encoded data
+   *
+   * @return An encoding stream
+   *
+   * @throws IOException On I/O errors
+   */
+
+  OutputStream encoder(OutputStream output)
+    throws IOException;
+
+  /**
+   * Create a stream that decodes data read from the given stream. Closing
+   * the returned stream closes the given stream.
+   *
+   * @param input The stream providing encoded data
+   *
+   * @return A decoding stream
+   *
+   * @throws IOException On I/O errors
+   */
+
+  InputStream decoder(InputStream input)
+    throws IOException;
+}
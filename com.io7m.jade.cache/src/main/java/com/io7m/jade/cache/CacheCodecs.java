@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache;
+
+import com.io7m.jade.cache.internal.CacheCodecDeflate;
+import com.io7m.jade.cache.internal.CacheCodecIdentity;
+
+import java.util.zip.Deflater;
+
+/**
+ * The standard cache codecs.
+ */
+
+public final class CacheCodecs
+{
+  private CacheCodecs()
+  {
+
+  }
+
+  /**
+   * @return A codec that stores data unchanged
+   */
+
+  public static CacheCodecType identity()
+  {
+    return CacheCodecIdentity.get();
+  }
+
+  /**
+   * A codec that compresses data with {@link Deflater} at the given
+   * level. Data compressed at any level is decoded by any deflate codec.
+   *
+   * @param level The compression level, in the range [0, 9], or
+   *              {@link Deflater#DEFAULT_COMPRESSION}
+   *
+   * @return A deflate codec
+   */
+
+  public static CacheCodecType deflate(
+    final int level)
+  {
+    return new CacheCodecDeflate(level);
+  }
+
+  /**
+   * @return A codec that compresses data with {@link Deflater} at the
+   * fastest level
+   *
+   * @see #deflate(int)
+   */
+
+  public static CacheCodecType deflate()
+  {
+    return deflate(Deflater.BEST_SPEED);
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache;
+
+import com.io7m.jade.cache.internal.CacheEvictionGDSF;
+import com.io7m.jade.cache.internal.CacheEvictionLRU;
+import com.io7m.jade.cache.internal.CacheEvictionTinyLFU;
+
+/**
+ * The standard eviction policies.
+ */
+
+public final class CacheEvictionPolicies
+{
+  private CacheEvictionPolicies()
+  {
+
+  }
+
+  /**
+   * A least-recently-used policy. Entries are evicted in order of their
+   * last access.
+   *
+   * @return A new policy
+   */
+
+  public static CacheEvictionPolicyType lru()
+  {
+    return new CacheEvictionLRU();
+  }
+
+  /**
+   * A W-TinyLFU policy. The frequency of every access and miss is
+   * estimated in a compact sketch whose counts decay over time. The most
+   * recently accessed entries, up to one percent of the maximum size of
+   * the cache, are evicted last; all other entries are evicted in order
+   * of estimated frequency, and then of last access. Entries that are
+   * accessed only once, such as those written during a scan, are
+   * therefore evicted before entries that are accessed repeatedly.
+   *
+   * @param expectedEntries The expected number of entries in the cache
+   *
+   * @return A new policy
+   */
+
+  public static CacheEvictionPolicyType tinyLFU(
+    final int expectedEntries)
+  {
+    return new CacheEvictionTinyLFU(expectedEntries);
+  }
+
+  /**
+   * A W-TinyLFU policy sized for 65536 entries.
+   *
+   * @return A new policy
+   *
+   * @see #tinyLFU(int)
+   */
+
+  public static CacheEvictionPolicyType tinyLFU()
+  {
+    return tinyLFU(65536);
+  }
+
+  /**
+   * A Greedy-Dual-Size-Frequency policy. Each entry has a priority equal
+   * to its access count divided by its size, plus an inflation value that
+   * rises to the priority of each evicted entry. Entries are evicted in
+   * order of priority, and so small, frequently accessed entries are
+   * retained in preference to large, rarely accessed entries, while
+   * entries that are no longer accessed eventually age out.
+   *
+   * @return A new policy
+   */
+
+  public static CacheEvictionPolicyType gdsf()
+  {
+    return new CacheEvictionGDSF();
+  }
+}
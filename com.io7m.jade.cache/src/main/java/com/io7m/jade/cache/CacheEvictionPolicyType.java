@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache;
+
+import java.util.List;
+
+/**
+ * A policy that decides which entries are evicted from a cache when the
+ * cache exceeds its maximum size.
+ *
+ * The cache reports every access, miss, and removal to the policy, and
+ * when it must evict entries, asks the policy to order the entries that
+ * may be evicted. The cache then evicts entries in that order until it is
+ * sufficiently below its maximum size. Policies may therefore implement
+ * admission as well as eviction: a policy that places a newly written
+ * entry first in the order has declined to admit it.
+ *
+ * Accesses and misses are reported from many threads concurrently, and
+ * must be cheap. Orderings are requested by one thread at a time.
+ *
+ * @see CacheEvictionPolicies
+ */
+
+public interface CacheEvictionPolicyType
+{
+  /**
+   * @return The name of the policy
+   */
+
+  String name();
+
+  /**
+   * An entry was written or read.
+   *
+   * @param hash      The hashed key
+   * @param sizeBytes The size of the entry in octets
+   */
+
+  default void recordAccess(
+    final String hash,
+    final long sizeBytes)
+  {
+
+  }
+
+  /**
+   * A read found no entry.
+   *
+   * @param hash The hashed key
+   */
+
+  default void recordMiss(
+    final String hash)
+  {
+
+  }
+
+  /**
+   * An entry is about to be evicted.
+   *
+   * @param candidate The entry
+   */
+
+  default void recordEviction(
+    final CacheEvictionCandidate candidate)
+  {
+
+  }
+
+  /**
+   * An entry left the cache for any reason, including eviction.
+   *
+   * @param hash The hashed key
+   */
+
+  default void recordRemoval(
+    final String hash)
+  {
+
+  }
+
+  /**
+   * Order entries for eviction.
+   *
+   * @param candidates       The entries that may be evicted
+   * @param maximumSizeBytes The maximum size of the cache
+   *
+   * @return The entries, in the order in which they should be evicted
+   */
+
+  List<CacheEvictionCandidate> order(
+    List<CacheEvictionCandidate> candidates,
+    long maximumSizeBytes);
+}
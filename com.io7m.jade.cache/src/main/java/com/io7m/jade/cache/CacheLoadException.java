@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A loader failed to compute the data for a key. The exception raised by
+ * the loader is available as the cause.
+ *
+ * @see CacheStoreType#getOrCompute(String, CacheLoaderType)
+ */
+
+public final class CacheLoadException extends IOException
+{
+  private final String key;
+
+  /**
+   * A loader failed to compute the data for a key.
+   *
+   * @param inKey   The key
+   * @param inCause The exception raised by the loader
+   */
+
+  public CacheLoadException(
+    final String inKey,
+    final Throwable inCause)
+  {
+    super(
+      String.format("Failed to load key %s", Objects.requireNonNull(inKey, "key")),
+      Objects.requireNonNull(inCause, "cause")
+    );
+    this.key = inKey;
+  }
+
+  /**
+   * @return The key that could not be loaded
+   */
+
+  public String key()
+  {
+    return this.key;
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache;
+
+import java.nio.MappedByteBuffer;
+
+/**
+ * A read-only, memory-mapped view of the data of a cache entry.
+ *
+ * A mapping holds a lease on its entry. While any lease is held, the file
+ * that holds the entry is not deleted, even if the entry is evicted or
+ * removed from the store in the meantime; the file is deleted when the
+ * last lease is released. Mappings must therefore be closed promptly,
+ * because the disk space used by a leased entry that has left the store
+ * is not reclaimed until then.
+ *
+ * @see CacheStoreType#map(String)
+ */
+
+public interface CacheMappingType extends AutoCloseable
+{
+  /**
+   * @return The size of the mapped data in octets
+   */
+
+  long sizeBytes();
+
+  /**
+   * Obtain a view of the mapped data. Each call returns a new buffer with
+   * its own position and limit, and so buffers may be used by different
+   * threads independently.
+   *
+   * @return A read-only buffer
+   *
+   * @throws IllegalStateException If the mapping has been closed
+   */
+
+  MappedByteBuffer buffer();
+
+  /**
+   * Release the lease on the entry. Buffers obtained from the mapping
+   * must not be used afterwards.
+   */
+
+  @Override
+  void close();
+}
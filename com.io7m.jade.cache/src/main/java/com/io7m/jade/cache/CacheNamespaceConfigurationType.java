@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * The type of configurations for namespaces within a namespaced cache
+ * store.
+ *
+ * @see CacheNamespacedStoreConfigurationType
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface CacheNamespaceConfigurationType
+{
+  /**
+   * The name of the namespace, which is also the name of the directory
+   * that holds it.
+   *
+   * @return The namespace name
+   *
+   * @see CacheNamespaceNames
+   */
+
+  String name();
+
+  /**
+   * The maximum total size in octets of all entries in the namespace. When
+   * this size is exceeded, entries in the namespace are evicted according
+   * to the eviction policy of the namespace. The quota of a namespace is
+   * also its weight when the global maximum size of the namespaced store
+   * is exceeded.
+   *
+   * @return The maximum size in octets
+   */
+
+  long maximumSizeBytes();
+
+  /**
+   * The eviction policy of the namespace.
+   *
+   * @return A supplier of eviction policies
+   *
+   * @see CacheStoreConfigurationType#evictionPolicy()
+   */
+
+  @Value.Default
+  default Supplier<CacheEvictionPolicyType> evictionPolicy()
+  {
+    return CacheEvictionPolicies::lru;
+  }
+
+  /**
+   * The maximum total size in octets of the entries of the namespace held
+   * in memory.
+   *
+   * @return The maximum size in octets of the memory tier
+   *
+   * @see CacheStoreConfigurationType#memoryMaximumSizeBytes()
+   */
+
+  @Value.Default
+  default long memoryMaximumSizeBytes()
+  {
+    return 0L;
+  }
+
+  /**
+   * The codec used to compress new entries in the namespace.
+   *
+   * @return The compression codec
+   *
+   * @see CacheStoreConfigurationType#compression()
+   */
+
+  Optional<CacheCodecType> compression();
+
+  /**
+   * The time to live of entries in the namespace written without an
+   * explicit time to live.
+   *
+   * @return The default time to live of entries
+   *
+   * @see CacheStoreConfigurationType#expireAfterWrite()
+   */
+
+  Optional<Duration> expireAfterWrite();
+
+  /**
+   * The age after which entries in the namespace are refreshed.
+   *
+   * @return The age after which entries are refreshed
+   *
+   * @see CacheStoreConfigurationType#refreshAfterWrite()
+   */
+
+  Optional<Duration> refreshAfterWrite();
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    CacheNamespaceNames.checkValid(this.name());
+
+    if (this.maximumSizeBytes() <= 0L) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Maximum size %d of namespace '%s' must be positive",
+          Long.valueOf(this.maximumSizeBytes()),
+          this.name())
+      );
+    }
+    if (this.memoryMaximumSizeBytes() < 0L) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Memory maximum size %d of namespace '%s' must be non-negative",
+          Long.valueOf(this.memoryMaximumSizeBytes()),
+          this.name())
+      );
+    }
+  }
+}
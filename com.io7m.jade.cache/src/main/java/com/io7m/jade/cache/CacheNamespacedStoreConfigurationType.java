@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * The type of configurations for namespaced cache stores.
+ *
+ * @see CacheStores
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface CacheNamespacedStoreConfigurationType
+{
+  /**
+   * The directory that holds the namespaced store. Each namespace is held
+   * in a subdirectory of the {@code namespaces} subdirectory of this
+   * directory, named after the namespace.
+   *
+   * @return The store directory
+   */
+
+  Path directory();
+
+  /**
+   * The maximum total size in octets of all entries in all namespaces.
+   *
+   * @return The maximum size in octets
+   */
+
+  long maximumSizeBytes();
+
+  /**
+   * @return The namespaces
+   */
+
+  List<CacheNamespaceConfiguration> namespaces();
+
+  /**
+   * The clock used to record entry access times.
+   *
+   * @return The clock
+   */
+
+  @Value.Default
+  default Clock clock()
+  {
+    return Clock.systemUTC();
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    if (this.maximumSizeBytes() <= 0L) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Maximum size %d must be positive",
+          Long.valueOf(this.maximumSizeBytes()))
+      );
+    }
+
+    final var names = new HashSet<String>();
+    for (final var namespace : this.namespaces()) {
+      if (!names.add(namespace.name())) {
+        throw new IllegalArgumentException(
+          String.format(
+            "Namespace '%s' is defined more than once",
+            namespace.name())
+        );
+      }
+    }
+  }
+}
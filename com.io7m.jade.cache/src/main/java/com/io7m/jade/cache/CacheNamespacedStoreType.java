@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.SortedSet;
+
+/**
+ * A cache store divided into named namespaces.
+ *
+ * Each namespace is a cache store in its own right, held in its own
+ * subdirectory, with its own maximum size, eviction policy, and
+ * statistics, and so filling one namespace never evicts entries from
+ * another. In addition, the total size of all namespaces is limited by a
+ * global maximum size: when it is exceeded, entries are evicted from the
+ * namespaces that hold the most data relative to their own maximum sizes,
+ * until every namespace holds at most the same fraction of its maximum
+ * size, and the total is brought down to nine tenths of the global
+ * maximum size.
+ *
+ * Closing the namespaced store closes every namespace.
+ */
+
+public interface CacheNamespacedStoreType extends AutoCloseable
+{
+  /**
+   * @return The configuration of the store
+   */
+
+  CacheNamespacedStoreConfiguration configuration();
+
+  /**
+   * @return The names of the namespaces
+   */
+
+  SortedSet<String> namespaces();
+
+  /**
+   * @param name The namespace name
+   *
+   * @return The store that holds the given namespace
+   *
+   * @throws IllegalArgumentException If no such namespace is configured
+   */
+
+  CacheStoreType namespace(String name);
+
+  /**
+   * @return The total size in octets of all entries in all namespaces
+   */
+
+  long sizeBytes();
+
+  /**
+   * @return The total number of entries in all namespaces
+   */
+
+  long entryCount();
+
+  /**
+   * @return A snapshot of the statistics of each namespace
+   */
+
+  Map<String, CacheStatistics> statistics();
+
+  /**
+   * @return The number of entries evicted to enforce the global maximum
+   *         size
+   */
+
+  long globalEvictions();
+
+  @Override
+  void close()
+    throws IOException;
+}
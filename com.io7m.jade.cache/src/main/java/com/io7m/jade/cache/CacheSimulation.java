@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache;
+
+import com.io7m.jade.cache.internal.CacheSimulator;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Functions to compare eviction policies by replaying recorded traces.
+ *
+ * The simulated cache behaves as a read-through cache: each access that
+ * does not find an entry writes one. Entries are evicted in batches, with
+ * the same policy interface and the same eviction target as a cache store,
+ * so the hit rates measured in simulation are those that a store with the
+ * same maximum size and policy would achieve on the same trace.
+ */
+
+public final class CacheSimulation
+{
+  private CacheSimulation()
+  {
+
+  }
+
+  /**
+   * Replay a trace against a simulated cache.
+   *
+   * @param policy           The eviction policy
+   * @param maximumSizeBytes The maximum size of the cache
+   * @param trace            The trace
+   *
+   * @return The result of the simulation
+   */
+
+  public static CacheSimulationResult simulate(
+    final CacheEvictionPolicyType policy,
+    final long maximumSizeBytes,
+    final Stream<CacheTraceAccess> trace)
+  {
+    Objects.requireNonNull(policy, "policy");
+    Objects.requireNonNull(trace, "trace");
+
+    if (maximumSizeBytes <= 0L) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Maximum size %d must be positive",
+          Long.valueOf(maximumSizeBytes))
+      );
+    }
+
+    final var simulator = new CacheSimulator(policy, maximumSizeBytes);
+    trace.forEachOrdered(simulator::access);
+    return simulator.result();
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A command-line entry point that replays a recorded trace against each of
+ * the standard eviction policies and prints the resulting hit rates.
+ *
+ * Usage: {@code trace-file maximum-size-bytes [lru|tinylfu|gdsf ...]}
+ *
+ * @see CacheTraces
+ */
+
+public final class CacheSimulationMain
+{
+  private CacheSimulationMain()
+  {
+
+  }
+
+  private static Supplier<CacheEvictionPolicyType> policyNamed(
+    final String name)
+  {
+    return switch (name) {
+      case "lru" -> CacheEvictionPolicies::lru;
+      case "tinylfu" -> CacheEvictionPolicies::tinyLFU;
+      case "gdsf" -> CacheEvictionPolicies::gdsf;
+      default -> throw new IllegalArgumentException(
+        String.format("Unrecognized policy: %s", name)
+      );
+    };
+  }
+
+  /**
+   * The main entry point.
+   *
+   * @param args The command-line arguments
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static void main(
+    final String[] args)
+    throws IOException
+  {
+    if (args.length < 2) {
+      System.err.println(
+        "usage: trace-file maximum-size-bytes [lru|tinylfu|gdsf ...]");
+      System.exit(1);
+      return;
+    }
+
+    final var file = Path.of(args[0]);
+    final var maximumSize = Long.parseLong(args[1]);
+
+    final var names = new ArrayList<String>();
+    for (int index = 2; index < args.length; ++index) {
+      names.add(args[index]);
+    }
+    if (names.isEmpty()) {
+      names.addAll(List.of("lru", "tinylfu", "gdsf"));
+    }
+
+    System.out.printf(
+      "%-10s %12s %12s %10s %10s%n",
+      "policy", "requests", "evictions", "hit-rate", "byte-rate"
+    );
+
+    for (final var name : names) {
+      final var policy = policyNamed(name).get();
+      try (var trace = CacheTraces.open(file)) {
+        final var result = CacheSimulation.simulate(policy, maximumSize, trace);
+        System.out.printf(
+          "%-10s %12d %12d %10.4f %10.4f%n",
+          result.policy(),
+          Long.valueOf(result.requests()),
+          Long.valueOf(result.evictions()),
+          Double.valueOf(result.hitRate()),
+          Double.valueOf(result.byteHitRate())
+        );
+      }
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+/**
+ * The result of replaying a trace against a simulated cache.
+ *
+ * @see CacheSimulation
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface CacheSimulationResultType
+{
+  /**
+   * @return The name of the eviction policy
+   */
+
+  String policy();
+
+  /**
+   * @return The maximum size in octets of the simulated cache
+   */
+
+  long maximumSizeBytes();
+
+  /**
+   * @return The number of accesses replayed
+   */
+
+  long requests();
+
+  /**
+   * @return The number of accesses that found an entry
+   */
+
+  long hits();
+
+  /**
+   * @return The total size in octets of all accesses
+   */
+
+  long requestBytes();
+
+  /**
+   * @return The total size in octets of the accesses that found an entry
+   */
+
+  long hitBytes();
+
+  /**
+   * @return The number of entries evicted
+   */
+
+  long evictions();
+
+  /**
+   * @return The proportion of accesses that found an entry
+   */
+
+  default double hitRate()
+  {
+    if (this.requests() == 0L) {
+      return 0.0;
+    }
+    return (double) this.hits() / (double) this.requests();
+  }
+
+  /**
+   * @return The proportion of accessed octets that were found in the cache
+   */
+
+  default double byteHitRate()
+  {
+    if (this.requestBytes() == 0L) {
+      return 0.0;
+    }
+    return (double) this.hitBytes() / (double) this.requestBytes();
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+/**
+ * A snapshot of the statistics of a cache store. Each read is first
+ * looked up in the memory tier, if enabled, and then in the store
+ * directory if the memory tier missed; the hit rate of each tier is
+ * therefore the proportion of the lookups that reached it that found an
+ * entry.
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface CacheStatisticsType
+{
+  /**
+   * @return The number of reads served from the memory tier
+   */
+
+  long memoryHits();
+
+  /**
+   * @return The number of reads not found in the memory tier
+   */
+
+  long memoryMisses();
+
+  /**
+   * @return The number of reads served from the store directory
+   */
+
+  long diskHits();
+
+  /**
+   * @return The number of reads not found in the store directory
+   */
+
+  long diskMisses();
+
+  /**
+   * @return The total size in octets of the entries in the memory tier
+   */
+
+  long memorySizeBytes();
+
+  /**
+   * @return The number of entries in the memory tier
+   */
+
+  long memoryEntryCount();
+
+  /**
+   * @return The number of times a loader has been run
+   *
+   * @see CacheStoreType#getOrCompute(String, CacheLoaderType)
+   */
+
+  long loads();
+
+  /**
+   * @return The number of times a loader has failed
+   */
+
+  long loadFailures();
+
+  /**
+   * @return The number of misses that waited for a load by another thread
+   *         instead of running a loader
+   */
+
+  long loadsCoalesced();
+
+  /**
+   * @return The number of entries written compressed
+   *
+   * @see CacheStoreConfigurationType#compression()
+   */
+
+  long compressedWrites();
+
+  /**
+   * @return The number of entries written uncompressed because they did
+   *         not compress well enough
+   */
+
+  long incompressibleWrites();
+
+  /**
+   * @return The number of octets of disk space saved by compressing entries
+   *         as they were written
+   */
+
+  long compressionSavedBytes();
+
+  /**
+   * @return The number of times an entry has been verified against its
+   *         checksum
+   *
+   * @see CacheStoreConfigurationType#checksumSampleRate()
+   */
+
+  long checksumVerifications();
+
+  /**
+   * @return The number of entries found to be corrupt, and evicted
+   */
+
+  long corruptEntries();
+
+  /**
+   * @return The number of files of invalidated generations deleted in the
+   *         background
+   *
+   * @see CacheStoreType#invalidateAll()
+   */
+
+  long purgedFiles();
+
+  /**
+   * @return The number of background audits completed
+   *
+   * @see CacheStoreConfigurationType#auditInterval()
+   */
+
+  long audits();
+
+  /**
+   * @return The number of corrections made by audits, counting each
+   *         released record of a missing entry file, and each correction
+   *         of the running totals
+   */
+
+  long auditCorrections();
+
+  /**
+   * @return The number of entries removed because they expired
+   *
+   * @see CacheStoreConfigurationType#expireAfterWrite()
+   */
+
+  long expiredEntries();
+
+  /**
+   * @return The number of background refreshes of stale entries whose
+   *         loaders completed
+   *
+   * @see CacheStoreConfigurationType#refreshAfterWrite()
+   */
+
+  long refreshes();
+
+  /**
+   * @return The number of background refreshes whose loaders failed
+   */
+
+  long refreshFailures();
+
+  /**
+   * @return The proportion of lookups in the memory tier that were hits
+   */
+
+  default double memoryHitRate()
+  {
+    return rate(this.memoryHits(), this.memoryMisses());
+  }
+
+  /**
+   * @return The proportion of lookups in the store directory that were hits
+   */
+
+  default double diskHitRate()
+  {
+    return rate(this.diskHits(), this.diskMisses());
+  }
+
+  private static double rate(
+    final long hits,
+    final long misses)
+  {
+    final var total = hits + misses;
+    if (total == 0L) {
+      return 0.0;
+    }
+    return (double) hits / (double) total;
+  }
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * The type of configurations for cache stores.
+ *
+ * @see CacheStores
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface CacheStoreConfigurationType
+{
+  /**
+   * The directory that holds the cache store. The store creates and
+   * manages its own subdirectories within this directory, and does not
+   * touch any other files that may be present.
+   *
+   * @return The store directory
+   */
+
+  Path directory();
+
+  /**
+   * The maximum total size in octets of all entries in the store. When
+   * this size is exceeded, entries are evicted according to the
+   * eviction policy.
+   *
+   * @return The maximum size in octets
+   */
+
+  long maximumSizeBytes();
+
+  /**
+   * The maximum total size in octets of the entries held in memory in
+   * front of the store directory. Reads of entries held in memory do not
+   * touch the file system. The memory tier is disabled if this size is
+   * zero.
+   *
+   * @return The maximum size in octets of the memory tier
+   */
+
+  @Value.Default
+  default long memoryMaximumSizeBytes()
+  {
+    return 0L;
+  }
+
+  /**
+   * The maximum size in octets of an entry that may be held in memory.
+   * Larger entries are only held in the store directory.
+   *
+   * @return The maximum size in octets of an entry in the memory tier
+   */
+
+  @Value.Default
+  default long memoryMaximumEntrySizeBytes()
+  {
+    return 65536L;
+  }
+
+  /**
+   * A function that creates the eviction policy of the store. The
+   * function is called once each time a store is opened.
+   *
+   * @return The eviction policy constructor
+   */
+
+  @Value.Default
+  default Supplier<CacheEvictionPolicyType> evictionPolicy()
+  {
+    return CacheEvictionPolicies::lru;
+  }
+
+  /**
+   * The codec used to compress new entries. If no codec is given, new
+   * entries are stored uncompressed. Each entry at least
+   * {@link #compressionMinimumSizeBytes()} in size is compressed only if
+   * a sample of its data compresses to at most
+   * {@link #compressionMaximumRatio()} of its size, so that
+   * incompressible data is stored as is.
+   *
+   * @return The compression codec
+   *
+   * @see CacheCodecs
+   */
+
+  Optional<CacheCodecType> compression();
+
+  /**
+   * The codecs, in addition to the compression codec, that can decode
+   * existing entries. The identity and deflate codecs are always
+   * available.
+   *
+   * @return The additional codecs
+   */
+
+  List<CacheCodecType> codecs();
+
+  /**
+   * The largest ratio of compressed size to original size at which entries
+   * are stored compressed.
+   *
+   * @return The maximum compression ratio
+   */
+
+  @Value.Default
+  default double compressionMaximumRatio()
+  {
+    return 0.8;
+  }
+
+  /**
+   * The size in octets below which entries are never compressed.
+   *
+   * @return The minimum size of a compressed entry
+   */
+
+  @Value.Default
+  default long compressionMinimumSizeBytes()
+  {
+    return 256L;
+  }
+
+  /**
+   * The fraction of reads of entries that have already been verified that
+   * verify the entry against its checksum again. Every entry is verified
+   * on the first read after the store is opened regardless of this value;
+   * a value of {@code 0.0} disables any further verification, and a value
+   * of {@code 1.0} verifies every read.
+   *
+   * @return The checksum sampling rate
+   */
+
+  @Value.Default
+  default double checksumSampleRate()
+  {
+    return 0.01;
+  }
+
+  /**
+   * The number of background threads used to delete the entries of
+   * invalidated generations of the store.
+   *
+   * @return The number of purge threads
+   *
+   * @see CacheStoreType#invalidateAll()
+   */
+
+  @Value.Default
+  default int purgeThreads()
+  {
+    return 2;
+  }
+
+  /**
+   * The maximum number of files per second deleted by the purge threads,
+   * in total.
+   *
+   * @return The purge rate limit
+   */
+
+  @Value.Default
+  default double purgeFilesPerSecond()
+  {
+    return 2000.0;
+  }
+
+  /**
+   * The interval between background audits of the store. An audit
+   * releases the records of entries whose files have been deleted without
+   * the index being updated, such as entries adopted from another process
+   * and then deleted, and corrects the running totals of the size and
+   * number of entries.
+   *
+   * @return The audit interval
+   */
+
+  @Value.Default
+  default Duration auditInterval()
+  {
+    return Duration.ofHours(1L);
+  }
+
+  /**
+   * The maximum number of entry files per second examined by audits.
+   *
+   * @return The audit rate limit
+   */
+
+  @Value.Default
+  default double auditFilesPerSecond()
+  {
+    return 1000.0;
+  }
+
+  /**
+   * The time to live of entries written without an explicit time to live.
+   * An entry is never served once it has expired, and expired entries are
+   * removed from the store in the background. Entries never expire if no
+   * time to live is given.
+   *
+   * @return The default time to live of entries
+   *
+   * @see CacheStoreType#put(String, byte[], Duration)
+   */
+
+  Optional<Duration> expireAfterWrite();
+
+  /**
+   * The age after which an entry read through
+   * {@link CacheStoreType#getOrCompute(String, CacheLoaderType)} is
+   * considered stale. A stale entry is still returned immediately, but
+   * its loader is run again in the background, and the result replaces
+   * the entry. Entries are never refreshed if no age is given. The age
+   * should be shorter than the time to live of entries, or entries will
+   * expire before they can be refreshed.
+   *
+   * @return The age after which entries are refreshed
+   */
+
+  Optional<Duration> refreshAfterWrite();
+
+  /**
+   * The number of threads used to refresh stale entries.
+   *
+   * @return The number of refresh threads
+   *
+   * @see #refreshAfterWrite()
+   */
+
+  @Value.Default
+  default int refreshThreads()
+  {
+    return 1;
+  }
+
+  /**
+   * The clock used to record entry access times.
+   *
+   * @return The clock
+   */
+
+  @Value.Default
+  default Clock clock()
+  {
+    return Clock.systemUTC();
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    if (this.maximumSizeBytes() <= 0L) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Maximum size %d must be positive",
+          Long.valueOf(this.maximumSizeBytes()))
+      );
+    }
+    if (this.memoryMaximumSizeBytes() < 0L) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Memory maximum size %d must be non-negative",
+          Long.valueOf(this.memoryMaximumSizeBytes()))
+      );
+    }
+    if (this.memoryMaximumEntrySizeBytes() <= 0L) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Memory maximum entry size %d must be positive",
+          Long.valueOf(this.memoryMaximumEntrySizeBytes()))
+      );
+    }
+    this.checkCompression();
+    this.checkMaintenance();
+    this.checkExpiry();
+  }
+
+  private void checkCompression()
+  {
+    if (!(this.compressionMaximumRatio() > 0.0 && this.compressionMaximumRatio() <= 1.0)) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Compression maximum ratio %f must be in the range (0, 1]",
+          Double.valueOf(this.compressionMaximumRatio()))
+      );
+    }
+    if (this.compressionMinimumSizeBytes() < 0L) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Compression minimum size %d must be non-negative",
+          Long.valueOf(this.compressionMinimumSizeBytes()))
+      );
+    }
+    this.compression().ifPresent(CacheStoreConfigurationType::checkCodec);
+    this.codecs().forEach(CacheStoreConfigurationType::checkCodec);
+  }
+
+  private void checkMaintenance()
+  {
+    if (!(this.checksumSampleRate() >= 0.0 && this.checksumSampleRate() <= 1.0)) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Checksum sample rate %f must be in the range [0, 1]",
+          Double.valueOf(this.checksumSampleRate()))
+      );
+    }
+    if (this.purgeThreads() <= 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Purge thread count %d must be positive",
+          Integer.valueOf(this.purgeThreads()))
+      );
+    }
+    if (!(this.purgeFilesPerSecond() > 0.0)) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Purge rate %f must be positive",
+          Double.valueOf(this.purgeFilesPerSecond()))
+      );
+    }
+    if (this.auditInterval().isNegative() || this.auditInterval().isZero()) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Audit interval %s must be positive",
+          this.auditInterval())
+      );
+    }
+    if (!(this.auditFilesPerSecond() > 0.0)) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Audit rate %f must be positive",
+          Double.valueOf(this.auditFilesPerSecond()))
+      );
+    }
+  }
+
+  private void checkExpiry()
+  {
+    this.expireAfterWrite().ifPresent(time -> {
+      checkPositive("Expiry time", time);
+    });
+    this.refreshAfterWrite().ifPresent(time -> {
+      checkPositive("Refresh time", time);
+    });
+    if (this.refreshThreads() <= 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Refresh thread count %d must be positive",
+          Integer.valueOf(this.refreshThreads()))
+      );
+    }
+  }
+
+  private static void checkPositive(
+    final String name,
+    final Duration time)
+  {
+    if (time.isNegative() || time.isZero()) {
+      throw new IllegalArgumentException(
+        String.format("%s %s must be positive", name, time)
+      );
+    }
+  }
+
+  private static void checkCodec(
+    final CacheCodecType codec)
+  {
+    final var length = codec.name().getBytes(StandardCharsets.UTF_8).length;
+    if (length == 0 || length > 255) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Codec name '%s' must be between 1 and 255 octets long",
+          codec.name())
+      );
+    }
+  }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * A persistent store of byte arrays, keyed by strings, held within a
+ * single directory and bounded by total size. Entries are written
+ * atomically, so readers never observe partially written entries, even
+ * if the application is terminated during a write. When the total size
+ * of all entries exceeds the configured maximum, entries are evicted in
+ * the order chosen by the configured eviction policy.
+ *
+ * Stores are safe to use from any number of threads.
+ *
+ * @see CacheStores
+ */
+
+public interface CacheStoreType extends AutoCloseable
+{
+  /**
+   * @return The configuration of the store
+   */
+
+  CacheStoreConfiguration configuration();
+
+  /**
+   * Store data under the given key, replacing any existing entry.
+   *
+   * @param key  The key
+   * @param data The data
+   *
+   * @throws IOException On I/O errors
+   * @throws IllegalArgumentException If the data is larger than the store
+   */
+
+  void put(
+    String key,
+    byte[] data)
+    throws IOException;
+
+  /**
+   * Store data under the given key, replacing any existing entry. The
+   * entry expires once the given time to live has elapsed, regardless of
+   * the default time to live of the store.
+   *
+   * @param key        The key
+   * @param data       The data
+   * @param timeToLive The time to live of the entry
+   *
+   * @throws IOException On I/O errors
+   * @throws IllegalArgumentException If the data is larger than the store,
+   *                                  or the time to live is not positive
+   * @see CacheStoreConfigurationType#expireAfterWrite()
+   */
+
+  void put(
+    String key,
+    byte[] data,
+    Duration timeToLive)
+    throws IOException;
+
+  /**
+   * Retrieve the data stored under the given key.
+   *
+   * @param key The key
+   *
+   * @return The data, if an entry exists
+   *
+   * @throws IOException On I/O errors
+   */
+
+  Optional<byte[]> get(String key)
+    throws IOException;
+
+  /**
+   * Retrieve the data stored under the given key, computing and storing
+   * it with the given loader if no entry exists. At most one loader runs
+   * for a given key at any time: threads that miss a key while another
+   * thread is loading it wait for that load to complete and receive its
+   * result. Waiting threads do not pin the carrier threads of virtual
+   * threads. If the loader fails, nothing is stored, and the failure is
+   * raised in the loading thread and in every thread waiting for it.
+   *
+   * If the store refreshes entries after writing, an entry older than the
+   * refresh age is returned immediately, and the loader is run again on a
+   * background thread to replace it. At most one refresh runs for a key
+   * at any time, and a refresh that fails leaves the existing entry in
+   * place until it expires.
+   *
+   * @param key    The key
+   * @param loader The loader
+   *
+   * @return The data
+   *
+   * @throws CacheLoadException If the loader fails
+   * @throws IOException On I/O errors
+   * @throws IllegalStateException If the loader recursively loads the same key
+   * @see CacheStoreConfigurationType#refreshAfterWrite()
+   */
+
+  byte[] getOrCompute(
+    String key,
+    CacheLoaderType loader)
+    throws IOException;
+
+  /**
+   * Map the data stored under the given key into memory, without copying
+   * it onto the heap. The entry cannot be deleted from disk until the
+   * returned mapping is closed. Compressed entries are decoded into a
+   * temporary file, which is mapped instead, and deleted when the mapping
+   * is closed.
+   *
+   * @param key The key
+   *
+   * @return A mapping of the data, if an entry exists
+   *
+   * @throws IOException On I/O errors
+   */
+
+  Optional<CacheMappingType> map(String key)
+    throws IOException;
+
+  /**
+   * Transfer the data stored under the given key to the given channel,
+   * without copying it onto the heap where the platform allows. Data is
+   * transferred using {@link java.nio.channels.FileChannel#transferTo},
+   * which can use facilities such as {@code sendfile} when the target is a
+   * file or socket, and using an ordinary copy when the target does not
+   * accept zero-copy transfers. Compressed entries are decoded as they
+   * are transferred, and so are always copied. The listener is called
+   * each time data is
+   * transferred. The entry cannot be deleted from disk until the transfer
+   * is complete.
+   *
+   * @param key      The key
+   * @param target   The target channel, in blocking mode
+   * @param listener The receiver of progress reports
+   *
+   * @return The number of octets transferred, if an entry exists
+   *
+   * @throws IOException On I/O errors
+   * @throws IllegalArgumentException If the target is not in blocking mode
+   */
+
+  OptionalLong transfer(
+    String key,
+    WritableByteChannel target,
+    CacheTransferListenerType listener)
+    throws IOException;
+
+  /**
+   * Transfer the data stored under the given key to the given channel.
+   *
+   * @param key    The key
+   * @param target The target channel, in blocking mode
+   *
+   * @return The number of octets transferred, if an entry exists
+   *
+   * @throws IOException On I/O errors
+   * @see #transfer(String, WritableByteChannel, CacheTransferListenerType)
+   */
+
+  default OptionalLong transfer(
+    final String key,
+    final WritableByteChannel target)
+    throws IOException
+  {
+    return this.transfer(key, target, (transferred, total) -> {
+
+    });
+  }
+
+  /**
+   * Remove the entry stored under the given key.
+   *
+   * @param key The key
+   *
+   * @return {@code true} if an entry existed
+   *
+   * @throws IOException On I/O errors
+   */
+
+  boolean remove(String key)
+    throws IOException;
+
+  /**
+   * Remove every entry from the store at once. The entries are moved aside
+   * in a single atomic rename and a new, empty generation of the store
+   * begins immediately; the files of the old generation are deleted in the
+   * background, at the rate set by the configuration. If the process is
+   * interrupted at any point, the store holds either all of the old
+   * entries or none of them, and any deletion that did not complete is
+   * resumed when the store is next opened. Entries that are mapped or
+   * being transferred remain readable until they are released.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void invalidateAll()
+    throws IOException;
+
+  /**
+   * @return The total size in octets of all entries in the store
+   */
+
+  long sizeBytes();
+
+  /**
+   * @return The number of entries in the store
+   */
+
+  long entryCount();
+
+  /**
+   * @return A snapshot of the statistics of the store
+   */
+
+  CacheStatistics statistics();
+
+  @Override
+  void close()
+    throws IOException;
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache;
+
+import com.io7m.jade.api.ApplicationDirectoriesType;
+import com.io7m.jade.cache.internal.CacheLayout;
+import com.io7m.jade.cache.internal.CacheNamespacedStore;
+import com.io7m.jade.cache.internal.CacheStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Functions to open cache stores.
+ */
+
+public final class CacheStores
+{
+  private CacheStores()
+  {
+
+  }
+
+  /**
+   * Open a cache store, creating it if it does not exist.
+   *
+   * @param configuration The store configuration
+   *
+   * @return A cache store
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static CacheStoreType open(
+    final CacheStoreConfiguration configuration)
+    throws IOException
+  {
+    return CacheStore.open(configuration);
+  }
+
+  /**
+   * Open a cache store divided into namespaces, creating any namespaces
+   * that do not exist.
+   *
+   * @param configuration The store configuration
+   *
+   * @return A namespaced cache store
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static CacheNamespacedStoreType openNamespaced(
+    final CacheNamespacedStoreConfiguration configuration)
+    throws IOException
+  {
+    return CacheNamespacedStore.open(configuration);
+  }
+
+  /**
+   * Open a cache store in the cache directory of the given application
+   * directories, creating it if it does not exist.
+   *
+   * @param directories      The application directories
+   * @param maximumSizeBytes The maximum total size in octets of all entries
+   *
+   * @return A cache store
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static CacheStoreType open(
+    final ApplicationDirectoriesType directories,
+    final long maximumSizeBytes)
+    throws IOException
+  {
+    Objects.requireNonNull(directories, "directories");
+
+    return open(
+      CacheStoreConfiguration.builder()
+        .setDirectory(directories.cacheDirectory())
+        .setMaximumSizeBytes(maximumSizeBytes)
+        .build()
+    );
+  }
+
+  /**
+   * Migrate a store directory from the flat layout, in which every entry
+   * is held directly in the {@code entries} directory, to the sharded
+   * layout. Opening a store that has a flat layout migrates it
+   * automatically, and so this method is only needed by applications
+   * that want to perform the migration ahead of time. The store must not
+   * be open while it is being migrated.
+   *
+   * @param directory The store directory
+   *
+   * @return The number of entries migrated
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static long migrateFlatLayout(
+    final Path directory)
+    throws IOException
+  {
+    Objects.requireNonNull(directory, "directory");
+    return CacheLayout.migrateFlat(directory.resolve("entries"));
+  }
+}
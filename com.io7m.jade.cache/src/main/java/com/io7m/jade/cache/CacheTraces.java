@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Functions to read recorded access traces.
+ *
+ * A trace is a text file with one access per line. Each line consists of
+ * a key, optionally followed by whitespace and the size in octets of the
+ * data stored under the key; the size is taken to be one octet if it is
+ * omitted, so that hit rates of traces without sizes can be compared.
+ * Empty lines and lines beginning with {@code #} are ignored. Keys cannot
+ * contain whitespace.
+ */
+
+public final class CacheTraces
+{
+  private CacheTraces()
+  {
+
+  }
+
+  /**
+   * Parse a single line of a trace.
+   *
+   * @param line The line
+   *
+   * @return The access, or nothing if the line is empty or a comment
+   *
+   * @throws IllegalArgumentException If the line cannot be parsed
+   */
+
+  public static Stream<CacheTraceAccess> parseLine(
+    final String line)
+  {
+    Objects.requireNonNull(line, "line");
+
+    final var trimmed = line.strip();
+    if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+      return Stream.empty();
+    }
+
+    final var fields = trimmed.split("\\s+");
+    if (fields.length > 2) {
+      throw new IllegalArgumentException(
+        String.format("Unparseable trace line: %s", line)
+      );
+    }
+
+    var size = 1L;
+    if (fields.length == 2) {
+      try {
+        size = Long.parseUnsignedLong(fields[1]);
+      } catch (final NumberFormatException e) {
+        throw new IllegalArgumentException(
+          String.format("Unparseable trace size: %s", line), e
+        );
+      }
+    }
+    return Stream.of(CacheTraceAccess.of(fields[0], size));
+  }
+
+  /**
+   * Open a trace file. The trace is read lazily, and so the returned
+   * stream must be closed.
+   *
+   * @param file The trace file
+   *
+   * @return The accesses in the trace
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static Stream<CacheTraceAccess> open(
+    final Path file)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "file");
+
+    return Files.lines(file).flatMap(CacheTraces::parseLine);
+  }
+}
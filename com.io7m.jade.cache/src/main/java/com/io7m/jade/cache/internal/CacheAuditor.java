@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The periodic execution of an audit of a store on a low priority daemon
+ * thread. An audit that fails is logged, and does not prevent later
+ * audits.
+ */
+
+public final class CacheAuditor implements AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CacheAuditor.class);
+
+  private final ScheduledExecutorService executor;
+
+  /**
+   * The periodic execution of an audit of a store.
+   *
+   * @param interval The interval between the end of one audit and the
+   *                 start of the next
+   * @param audit    The audit
+   */
+
+  public CacheAuditor(
+    final Duration interval,
+    final Runnable audit)
+  {
+    Objects.requireNonNull(interval, "interval");
+    Objects.requireNonNull(audit, "audit");
+
+    this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final var thread = new Thread(runnable);
+      thread.setName("com.io7m.jade.cache.audit");
+      thread.setDaemon(true);
+      thread.setPriority(Thread.MIN_PRIORITY);
+      return thread;
+    });
+
+    final var nanos = interval.toNanos();
+    this.executor.scheduleWithFixedDelay(() -> {
+      try {
+        audit.run();
+      } catch (final RuntimeException e) {
+        LOG.warn("audit failed: ", e);
+      }
+    }, nanos, nanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void close()
+  {
+    this.executor.shutdownNow();
+    try {
+      if (!this.executor.awaitTermination(1L, TimeUnit.SECONDS)) {
+        LOG.debug("audit thread did not terminate");
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import com.io7m.jade.cache.CacheCodecType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A codec that compresses data with {@link Deflater} in the zlib format,
+ * whose checksum also detects corrupted entries.
+ */
+
+public final class CacheCodecDeflate implements CacheCodecType
+{
+  private static final int BUFFER_SIZE = 8192;
+
+  private final int level;
+
+  /**
+   * A codec that compresses data with {@link Deflater}.
+   *
+   * @param inLevel The compression level
+   */
+
+  public CacheCodecDeflate(
+    final int inLevel)
+  {
+    if (inLevel != Deflater.DEFAULT_COMPRESSION
+        && (inLevel < Deflater.NO_COMPRESSION || inLevel > Deflater.BEST_COMPRESSION)) {
+      throw new IllegalArgumentException(
+        String.format("Invalid compression level %d", Integer.valueOf(inLevel))
+      );
+    }
+    this.level = inLevel;
+  }
+
+  @Override
+  public String name()
+  {
+    return "deflate";
+  }
+
+  @Override
+  public OutputStream encoder(
+    final OutputStream output)
+  {
+    final var deflater = new Deflater(this.level);
+    return new DeflaterOutputStream(output, deflater, BUFFER_SIZE) {
+      @Override
+      public void close()
+        throws IOException
+      {
+        try {
+          super.close();
+        } finally {
+          deflater.end();
+        }
+      }
+    };
+  }
+
+  @Override
+  public InputStream decoder(
+    final InputStream input)
+  {
+    final var inflater = new Inflater();
+    return new InflaterInputStream(input, inflater, BUFFER_SIZE) {
+      @Override
+      public void close()
+        throws IOException
+      {
+        try {
+          super.close();
+        } finally {
+          inflater.end();
+        }
+      }
+    };
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format("[CacheCodecDeflate %d]", Integer.valueOf(this.level));
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import com.io7m.jade.cache.CacheCodecType;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A codec that stores data unchanged. Entries whose data happens to begin
+ * with the header that marks encoded entries are stored with this codec,
+ * so that they are not mistaken for encoded entries.
+ */
+
+public final class CacheCodecIdentity implements CacheCodecType
+{
+  private static final CacheCodecIdentity INSTANCE = new CacheCodecIdentity();
+
+  private CacheCodecIdentity()
+  {
+
+  }
+
+  /**
+   * @return The identity codec
+   */
+
+  public static CacheCodecType get()
+  {
+    return INSTANCE;
+  }
+
+  @Override
+  public String name()
+  {
+    return "identity";
+  }
+
+  @Override
+  public OutputStream encoder(
+    final OutputStream output)
+  {
+    return output;
+  }
+
+  @Override
+  public InputStream decoder(
+    final InputStream input)
+  {
+    return input;
+  }
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import com.io7m.jade.cache.CacheCodecType;
+import com.io7m.jade.cache.CacheStoreConfiguration;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The encoding of entry data on disk.
+ *
+ * An entry stored without a codec holds its data unchanged, so that such
+ * entries can be mapped and transferred without copying, and so that
+ * entries written before compression was introduced remain readable. An
+ * entry stored with a codec begins with a header consisting of the eight
+ * octets {@code JADECOD1}, the length of the name of the codec as a single
+ * octet, the UTF-8 encoded name of the codec, and the decoded size of the
+ * data as a 64-bit big-endian integer, followed by the encoded data.
+ * Data that happens to begin with the header octets is stored with the
+ * identity codec, so that it is never mistaken for encoded data.
+ *
+ * Whether an entry is compressed is decided per entry. Small entries are
+ * compressed in full, and the result kept if it is small enough. Larger
+ * entries are first sampled: slices from the start, middle, and end of
+ * the data are compressed, and the entry as a whole is only compressed if
+ * the samples compress well enough, so that the cost of compressing
+ * incompressible data such as images or archives is bounded by the size
+ * of the samples.
+ */
+
+public final class CacheEncoding
+{
+  private static final byte[] MAGIC =
+    "JADECOD1".getBytes(StandardCharsets.US_ASCII);
+  private static final int MAXIMUM_NAME_SIZE = 255;
+  private static final int MAXIMUM_HEADER_SIZE =
+    MAGIC.length + 1 + MAXIMUM_NAME_SIZE + 8;
+  private static final int SAMPLE_SIZE = 4096;
+  private static final int SAMPLE_COUNT = 3;
+
+  private final CacheCodecType compression;
+  private final Map<String, CacheCodecType> codecs;
+  private final double maximumRatio;
+  private final long minimumSizeBytes;
+  private final LongAdder compressedWrites;
+  private final LongAdder incompressibleWrites;
+  private final LongAdder savedBytes;
+
+  /**
+   * The encoding of entry data on disk.
+   *
+   * @param configuration The store configuration
+   */
+
+  public CacheEncoding(
+    final CacheStoreConfiguration configuration)
+  {
+    Objects.requireNonNull(configuration, "configuration");
+
+    this.compression = configuration.compression().orElse(null);
+    this.codecs = new HashMap<>();
+    this.register(CacheCodecIdentity.get());
+    this.register(new CacheCodecDeflate(0));
+    configuration.codecs().forEach(this::register);
+    configuration.compression().ifPresent(this::register);
+
+    this.maximumRatio = configuration.compressionMaximumRatio();
+    this.minimumSizeBytes = configuration.compressionMinimumSizeBytes();
+    this.compressedWrites = new LongAdder();
+    this.incompressibleWrites = new LongAdder();
+    this.savedBytes = new LongAdder();
+  }
+
+  private void register(
+    final CacheCodecType codec)
+  {
+    this.codecs.put(codec.name(), codec);
+  }
+
+  private static boolean hasMagic(
+    final byte[] data)
+  {
+    return data.length >= MAGIC.length
+           && Arrays.equals(data, 0, MAGIC.length, MAGIC, 0, MAGIC.length);
+  }
+
+  /**
+   * Encode data for storage.
+   *
+   * @param data The data
+   *
+   * @return The data to be written to disk, which may be {@code data}
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public byte[] encode(
+    final byte[] data)
+    throws IOException
+  {
+    if (this.compression != null && data.length >= this.minimumSizeBytes) {
+      if (data.length <= SAMPLE_SIZE * SAMPLE_COUNT || this.sampleCompresses(data)) {
+        final var encoded = encodeWith(this.compression, data);
+        if (encoded.length <= this.maximumRatio * data.length) {
+          this.compressedWrites.increment();
+          this.savedBytes.add(data.length - encoded.length);
+          return encoded;
+        }
+      }
+      this.incompressibleWrites.increment();
+    }
+
+    if (hasMagic(data)) {
+      return encodeWith(CacheCodecIdentity.get(), data);
+    }
+    return data;
+  }
+
+  private boolean sampleCompresses(
+    final byte[] data)
+    throws IOException
+  {
+    final var output = new ByteArrayOutputStream(SAMPLE_SIZE * SAMPLE_COUNT);
+    try (var encoder = this.compression.encoder(output)) {
+      final var stride = (data.length - SAMPLE_SIZE) / (SAMPLE_COUNT - 1);
+      for (int sample = 0; sample < SAMPLE_COUNT; ++sample) {
+        encoder.write(data, sample * stride, SAMPLE_SIZE);
+      }
+    }
+    return output.size() <= this.maximumRatio * SAMPLE_SIZE * SAMPLE_COUNT;
+  }
+
+  private static byte[] encodeWith(
+    final CacheCodecType codec,
+    final byte[] data)
+    throws IOException
+  {
+    final var name = codec.name().getBytes(StandardCharsets.UTF_8);
+    final var output = new ByteArrayOutputStream(data.length / 2 + MAXIMUM_HEADER_SIZE);
+    output.write(MAGIC);
+    output.write(name.length);
+    output.write(name);
+    output.write(ByteBuffer.allocate(8).putLong(0, data.length).array());
+
+    try (var encoder = codec.encoder(output)) {
+      encoder.write(data);
+    }
+    return output.toByteArray();
+  }
+
+  /**
+   * Decode data read from disk.
+   *
+   * @param stored The data read from disk
+   *
+   * @return The decoded data, which may be {@code stored}
+   *
+   * @throws IOException On I/O errors, or if the data cannot be decoded
+   */
+
+  public byte[] decode(
+    final byte[] stored)
+    throws IOException
+  {
+    if (!hasMagic(stored)) {
+      return stored;
+    }
+
+    final var header = this.parseHeader(ByteBuffer.wrap(stored));
+    if (header.decodedSize() > Integer.MAX_VALUE - 8) {
+      throw new IOException(
+        String.format(
+          "Decoded size %d is too large",
+          Long.valueOf(header.decodedSize()))
+      );
+    }
+
+    final var input =
+      new ByteArrayInputStream(stored, header.size(), stored.length - header.size());
+    try (var decoder = header.codec().decoder(input)) {
+      final var data = decoder.readNBytes((int) header.decodedSize());
+      if (data.length != header.decodedSize() || decoder.read() != -1) {
+        throw new IOException(
+          String.format(
+            "Decoded data does not match the expected size %d",
+            Long.valueOf(header.decodedSize()))
+        );
+      }
+      return data;
+    }
+  }
+
+  /**
+   * Read the header of an entry file.
+   *
+   * @param channel The entry file
+   *
+   * @return The header, or nothing if the entry is stored without a codec
+   *
+   * @throws IOException On I/O errors, or if the header is invalid
+   */
+
+  public Optional<Header> header(
+    final FileChannel channel)
+    throws IOException
+  {
+    final var buffer = ByteBuffer.allocate(MAXIMUM_HEADER_SIZE);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, buffer.position()) < 0) {
+        break;
+      }
+    }
+    buffer.flip();
+
+    final var prefix = new byte[Math.min(MAGIC.length, buffer.remaining())];
+    buffer.get(0, prefix);
+    if (!hasMagic(prefix)) {
+      return Optional.empty();
+    }
+    return Optional.of(this.parseHeader(buffer));
+  }
+
+  private Header parseHeader(
+    final ByteBuffer buffer)
+    throws IOException
+  {
+    try {
+      final var nameSize = Byte.toUnsignedInt(buffer.get(MAGIC.length));
+      final var name = new byte[nameSize];
+      buffer.get(MAGIC.length + 1, name);
+      final var decodedSize = buffer.getLong(MAGIC.length + 1 + nameSize);
+
+      final var codecName = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(name)).toString();
+      final var codec = this.codecs.get(codecName);
+      if (codec == null) {
+        throw new IOException(
+          String.format("Entry is encoded with unknown codec '%s'", codecName)
+        );
+      }
+      if (decodedSize < 0L) {
+        throw new IOException(
+          String.format("Entry has invalid decoded size %d", Long.valueOf(decodedSize))
+        );
+      }
+      return new Header(codec, MAGIC.length + 1 + nameSize + 8, decodedSize);
+    } catch (final IndexOutOfBoundsException e) {
+      throw new IOException("Entry header is truncated", e);
+    }
+  }
+
+  /**
+   * Open a stream of the decoded data of an entry file.
+   *
+   * @param channel The entry file
+   * @param header  The header of the entry file
+   *
+   * @return A stream of the decoded data
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public InputStream decoder(
+    final FileChannel channel,
+    final Header header)
+    throws IOException
+  {
+    channel.position(header.size());
+    return header.codec().decoder(Channels.newInputStream(channel));
+  }
+
+  /**
+   * @return The number of entries written compressed
+   */
+
+  public long compressedWrites()
+  {
+    return this.compressedWrites.sum();
+  }
+
+  /**
+   * @return The number of entries written uncompressed because they did not
+   * compress well enough
+   */
+
+  public long incompressibleWrites()
+  {
+    return this.incompressibleWrites.sum();
+  }
+
+  /**
+   * @return The number of octets saved by compression
+   */
+
+  public long savedBytes()
+  {
+    return this.savedBytes.sum();
+  }
+
+  /**
+   * The header of an encoded entry.
+   *
+   * @param codec       The codec
+   * @param size        The size of the header in octets
+   * @param decodedSize The size of the decoded data in octets
+   */
+
+  public record Header(
+    CacheCodecType codec,
+    int size,
+    long decodedSize)
+  {
+
+  }
+}
@@ -0,0 +1,379 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An entry in a cache store. Entries are compared by identity, so that an
+ * entry that has been replaced by a later write is never mistaken for its
+ * replacement.
+ *
+ * An entry counts the leases held on it by memory mappings. An entry
+ * leaving the store is <i>condemned</i>: if no leases are held, its file
+ * may be deleted immediately, and otherwise the deletion is deferred until
+ * the last lease is released. Once an entry has been condemned with no
+ * leases held, no further leases can be acquired.
+ *
+ * An entry with a slot of {@code -1} was adopted from another process
+ * when no record of it could be found in the index.
+ *
+ * An entry carries the checksum of its file, if known, and whether the
+ * file has been verified against that checksum since the entry was loaded.
+ *
+ * An entry records the time it was written, which distinguishes it from
+ * an entry of the same size written in its place by another process, and
+ * the time it expires. An expired entry is never served, even if it has
+ * not yet been removed.
+ */
+
+public final class CacheEntry
+{
+  /**
+   * The expiry time of entries that never expire.
+   */
+
+  public static final long NEVER_EXPIRES = Long.MAX_VALUE;
+
+  private final String hash;
+  private final int slot;
+  private final long sizeBytes;
+  private final long writeTime;
+  private final long expiry;
+  private final AtomicInteger leases;
+  private volatile long lastAccess;
+  private volatile boolean deletePending;
+  private volatile Object deferredFileKey;
+  private volatile long checksum;
+  private volatile boolean verified;
+
+  /**
+   * An entry in a cache store.
+   *
+   * @param inHash       The hashed key
+   * @param inSlot       The index slot
+   * @param inSizeBytes  The size of the entry in octets
+   * @param inLastAccess The time the entry was last accessed, in milliseconds
+   * @param inChecksum   The checksum of the entry file, or -1 if unknown
+   * @param inWriteTime  The time the entry was written, in milliseconds
+   * @param inExpiry     The time the entry expires, in milliseconds, or
+   *                     {@link #NEVER_EXPIRES}
+   */
+
+  public CacheEntry(
+    final String inHash,
+    final int inSlot,
+    final long inSizeBytes,
+    final long inLastAccess,
+    final long inChecksum,
+    final long inWriteTime,
+    final long inExpiry)
+  {
+    this.hash = Objects.requireNonNull(inHash, "hash");
+    this.slot = inSlot;
+    this.sizeBytes = inSizeBytes;
+    this.lastAccess = inLastAccess;
+    this.leases = new AtomicInteger(0);
+    this.deletePending = false;
+    this.checksum = inChecksum;
+    this.verified = false;
+    this.writeTime = inWriteTime;
+    this.expiry = inExpiry;
+  }
+
+  /**
+   * Create an entry from an index record.
+   *
+   * @param record     The record
+   * @param checksum   The checksum of the entry file, or -1 if unknown
+   * @param expiryTime The time the entry expires, in milliseconds
+   *
+   * @return An entry
+   */
+
+  public static CacheEntry ofRecord(
+    final CacheIndexRecord record,
+    final long checksum,
+    final long expiryTime)
+  {
+    return new CacheEntry(
+      record.hash(),
+      record.slot(),
+      record.sizeBytes(),
+      record.lastAccess(),
+      checksum,
+      record.writeTime(),
+      expiryTime
+    );
+  }
+
+  /**
+   * @return The record of the entry in the index
+   */
+
+  public CacheIndexRecord toRecord()
+  {
+    return new CacheIndexRecord(
+      this.slot,
+      this.hash,
+      this.sizeBytes,
+      this.lastAccess,
+      this.checksum,
+      this.writeTime,
+      this.expiry
+    );
+  }
+
+  /**
+   * @return The hashed key
+   */
+
+  public String hash()
+  {
+    return this.hash;
+  }
+
+  /**
+   * @return The index slot
+   */
+
+  public int slot()
+  {
+    return this.slot;
+  }
+
+  /**
+   * @return The size of the entry in octets
+   */
+
+  public long sizeBytes()
+  {
+    return this.sizeBytes;
+  }
+
+  /**
+   * @return The time the entry was last accessed, in milliseconds
+   */
+
+  public long lastAccess()
+  {
+    return this.lastAccess;
+  }
+
+  /**
+   * @return The CRC32C checksum of the entry file, or -1 if unknown
+   */
+
+  public long checksum()
+  {
+    return this.checksum;
+  }
+
+  /**
+   * @return The time the entry was written, in milliseconds
+   */
+
+  public long writeTime()
+  {
+    return this.writeTime;
+  }
+
+  /**
+   * @return The time the entry expires, in milliseconds, or
+   *         {@link #NEVER_EXPIRES}
+   */
+
+  public long expiry()
+  {
+    return this.expiry;
+  }
+
+  /**
+   * @param time The current time, in milliseconds
+   *
+   * @return {@code true} if the entry has expired at the given time
+   */
+
+  public boolean isExpired(
+    final long time)
+  {
+    return time >= this.expiry;
+  }
+
+  /**
+   * @param record An index record
+   *
+   * @return {@code true} if the record describes this entry, rather than
+   *         an entry that has since replaced it
+   */
+
+  public boolean isDescribedBy(
+    final CacheIndexRecord record)
+  {
+    return record.sizeBytes() == this.sizeBytes
+           && record.writeTime() == this.writeTime
+           && (record.checksum() < 0L || record.checksum() == this.checksum);
+  }
+
+  /**
+   * @return {@code true} if the entry file has been verified
+   */
+
+  public boolean isVerified()
+  {
+    return this.verified;
+  }
+
+  /**
+   * Record that the entry file has been verified against the given
+   * checksum, recording the checksum if it was previously unknown.
+   *
+   * @param inChecksum The checksum
+   */
+
+  public void setVerified(
+    final long inChecksum)
+  {
+    this.checksum = inChecksum;
+    this.verified = true;
+  }
+
+  /**
+   * Record an access of the entry.
+   *
+   * @param time The access time, in milliseconds
+   */
+
+  public void touch(
+    final long time)
+  {
+    this.lastAccess = time;
+  }
+
+  /**
+   * Acquire a lease on the entry.
+   *
+   * @return {@code false} if the entry has been condemned and deleted
+   */
+
+  public boolean acquire()
+  {
+    while (true) {
+      final var current = this.leases.get();
+      if (current < 0) {
+        return false;
+      }
+      if (this.leases.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Release a lease on the entry.
+   *
+   * @return {@code true} if the entry was condemned, this was the last
+   * lease, and the caller must now delete the file of the entry
+   */
+
+  public boolean release()
+  {
+    final var remaining = this.leases.decrementAndGet();
+    return remaining == 0
+           && this.deletePending
+           && this.leases.compareAndSet(0, -1);
+  }
+
+  /**
+   * Condemn the entry.
+   *
+   * @return {@code true} if no leases are held, and the caller must now
+   * delete the file of the entry (or retry a deletion that failed)
+   */
+
+  public boolean condemn()
+  {
+    while (true) {
+      final var current = this.leases.get();
+      if (current < 0) {
+        return true;
+      }
+      if (current == 0) {
+        if (this.leases.compareAndSet(0, -1)) {
+          return true;
+        }
+        continue;
+      }
+
+      /*
+       * A lease is held. Either the last lease is released after the flag
+       * is set, in which case the releasing thread deletes the file, or it
+       * was released before, in which case this thread does.
+       */
+
+      this.deletePending = true;
+      return this.leases.compareAndSet(0, -1);
+    }
+  }
+
+  /**
+   * Record the identity of the file whose deletion has been deferred, so
+   * that a file written in its place by another process is not deleted
+   * when the last lease is released.
+   *
+   * @param fileKey The file key, or {@code null} if the platform has none
+   *
+   * @see java.nio.file.attribute.BasicFileAttributes#fileKey()
+   */
+
+  public void setDeferredFileKey(
+    final Object fileKey)
+  {
+    this.deferredFileKey = fileKey;
+  }
+
+  /**
+   * @return The identity of the file whose deletion has been deferred
+   */
+
+  public Object deferredFileKey()
+  {
+    return this.deferredFileKey;
+  }
+
+  /**
+   * @return The number of leases held on the entry
+   */
+
+  public int leases()
+  {
+    return Math.max(0, this.leases.get());
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "[CacheEntry %s %d %d %d]",
+      this.hash,
+      Integer.valueOf(this.slot),
+      Long.valueOf(this.sizeBytes),
+      Long.valueOf(this.lastAccess)
+    );
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import com.io7m.jade.cache.CacheEvictionCandidate;
+import com.io7m.jade.cache.CacheEvictionPolicyType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A Greedy-Dual-Size-Frequency eviction policy, with a uniform cost per
+ * entry. The priority of an entry is {@code L + F / S}, where {@code F}
+ * is the number of accesses of the entry, {@code S} is its size, and
+ * {@code L} is the inflation value at the time of the most recent access.
+ * The inflation value is raised to the priority of each evicted entry.
+ */
+
+public final class CacheEvictionGDSF implements CacheEvictionPolicyType
+{
+  private final ConcurrentHashMap<String, State> states;
+  private volatile double inflation;
+
+  /**
+   * A Greedy-Dual-Size-Frequency eviction policy.
+   */
+
+  public CacheEvictionGDSF()
+  {
+    this.states = new ConcurrentHashMap<>();
+    this.inflation = 0.0;
+  }
+
+  private static double sizeOf(
+    final long sizeBytes)
+  {
+    return (double) Math.max(1L, sizeBytes);
+  }
+
+  @Override
+  public String name()
+  {
+    return "gdsf";
+  }
+
+  @Override
+  public void recordAccess(
+    final String hash,
+    final long sizeBytes)
+  {
+    final var state = this.states.computeIfAbsent(hash, k -> new State());
+    final var count = state.count.incrementAndGet();
+    state.priority = this.inflation + count / sizeOf(sizeBytes);
+  }
+
+  @Override
+  public void recordEviction(
+    final CacheEvictionCandidate candidate)
+  {
+    final var priority = this.priorityOf(candidate);
+    if (priority > this.inflation) {
+      this.inflation = priority;
+    }
+  }
+
+  @Override
+  public void recordRemoval(
+    final String hash)
+  {
+    this.states.remove(hash);
+  }
+
+  /**
+   * @return The current inflation value
+   */
+
+  public double inflation()
+  {
+    return this.inflation;
+  }
+
+  private double priorityOf(
+    final CacheEvictionCandidate candidate)
+  {
+    final var state = this.states.get(candidate.hash());
+    if (state == null) {
+      return this.inflation + 1.0 / sizeOf(candidate.sizeBytes());
+    }
+    return state.priority;
+  }
+
+  @Override
+  public List<CacheEvictionCandidate> order(
+    final List<CacheEvictionCandidate> candidates,
+    final long maximumSizeBytes)
+  {
+    final var ranked = new ArrayList<Ranked>(candidates.size());
+    for (final var candidate : candidates) {
+      ranked.add(new Ranked(candidate, this.priorityOf(candidate)));
+    }
+    ranked.sort(
+      Comparator.comparingDouble(Ranked::priority)
+        .thenComparingLong(r -> r.candidate().lastAccess())
+    );
+
+    final var ordered = new ArrayList<CacheEvictionCandidate>(ranked.size());
+    for (final var r : ranked) {
+      ordered.add(r.candidate());
+    }
+    return ordered;
+  }
+
+  private static final class State
+  {
+    private final AtomicInteger count;
+    private volatile double priority;
+
+    State()
+    {
+      this.count = new AtomicInteger(0);
+      this.priority = 0.0;
+    }
+  }
+
+  private record Ranked(
+    CacheEvictionCandidate candidate,
+    double priority)
+  {
+
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import com.io7m.jade.cache.CacheEvictionCandidate;
+import com.io7m.jade.cache.CacheEvictionPolicyType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A least-recently-used eviction policy.
+ */
+
+public final class CacheEvictionLRU implements CacheEvictionPolicyType
+{
+  /**
+   * A least-recently-used eviction policy.
+   */
+
+  public CacheEvictionLRU()
+  {
+
+  }
+
+  @Override
+  public String name()
+  {
+    return "lru";
+  }
+
+  @Override
+  public List<CacheEvictionCandidate> order(
+    final List<CacheEvictionCandidate> candidates,
+    final long maximumSizeBytes)
+  {
+    final var ordered = new ArrayList<>(candidates);
+    ordered.sort(Comparator.comparingLong(CacheEvictionCandidate::lastAccess));
+    return ordered;
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import com.io7m.jade.cache.CacheEvictionCandidate;
+import com.io7m.jade.cache.CacheEvictionPolicyType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A W-TinyLFU eviction policy, adapted to eviction in batches. Rather
+ * than comparing each newly written entry against a single victim at the
+ * time of writing, the admission decision is made when a batch is
+ * evicted: entries outside the recency window are ordered by estimated
+ * frequency, so a newly written entry that is less frequent than the
+ * existing entries is evicted first, which is equivalent to declining to
+ * admit it.
+ */
+
+public final class CacheEvictionTinyLFU implements CacheEvictionPolicyType
+{
+  private static final long WINDOW_PERCENT = 1L;
+
+  private final CacheFrequencySketch sketch;
+
+  /**
+   * A W-TinyLFU eviction policy.
+   *
+   * @param expectedEntries The expected number of entries in the cache
+   */
+
+  public CacheEvictionTinyLFU(
+    final int expectedEntries)
+  {
+    this.sketch = new CacheFrequencySketch(expectedEntries);
+  }
+
+  @Override
+  public String name()
+  {
+    return "tinylfu";
+  }
+
+  @Override
+  public void recordAccess(
+    final String hash,
+    final long sizeBytes)
+  {
+    this.sketch.increment(CacheFrequencySketch.keyOf(hash));
+  }
+
+  @Override
+  public void recordMiss(
+    final String hash)
+  {
+    this.sketch.increment(CacheFrequencySketch.keyOf(hash));
+  }
+
+  /**
+   * @param hash A hashed key
+   *
+   * @return The estimated access frequency of the key
+   */
+
+  public int frequency(
+    final String hash)
+  {
+    return this.sketch.frequency(CacheFrequencySketch.keyOf(hash));
+  }
+
+  @Override
+  public List<CacheEvictionCandidate> order(
+    final List<CacheEvictionCandidate> candidates,
+    final long maximumSizeBytes)
+  {
+    final var byRecency = new ArrayList<>(candidates);
+    byRecency.sort(
+      Comparator.comparingLong(CacheEvictionCandidate::lastAccess).reversed()
+    );
+
+    final var windowBytes =
+      Math.max(1L, maximumSizeBytes * WINDOW_PERCENT / 100L);
+    final var window = new ArrayList<CacheEvictionCandidate>();
+    final var main = new ArrayList<Ranked>(byRecency.size());
+
+    var windowUsed = 0L;
+    for (final var candidate : byRecency) {
+      if (main.isEmpty() && windowUsed + candidate.sizeBytes() <= windowBytes) {
+        window.add(candidate);
+        windowUsed += candidate.sizeBytes();
+      } else {
+        main.add(new Ranked(candidate, this.frequency(candidate.hash())));
+      }
+    }
+
+    main.sort(
+      Comparator.comparingInt(Ranked::frequency)
+        .thenComparingLong(r -> r.candidate().lastAccess())
+    );
+
+    final var ordered = new ArrayList<CacheEvictionCandidate>(candidates.size());
+    for (final var ranked : main) {
+      ordered.add(ranked.candidate());
+    }
+    for (int index = window.size() - 1; index >= 0; --index) {
+      ordered.add(window.get(index));
+    }
+    return ordered;
+  }
+
+  private record Ranked(
+    CacheEvictionCandidate candidate,
+    int frequency)
+  {
+
+  }
+}
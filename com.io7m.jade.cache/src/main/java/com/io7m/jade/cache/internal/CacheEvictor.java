@@ -0,0 +1,193 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import com.io7m.jade.cache.CacheEvictionCandidate;
+import com.io7m.jade.cache.CacheEvictionPolicyType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The eviction of entries from a store, in the order chosen by the
+ * eviction policy. When the total size of the store exceeds its maximum
+ * size, one thread evicts entries, bringing the store down to nine tenths
+ * of its maximum size so that eviction cost is amortized over many
+ * writes.
+ */
+
+public final class CacheEvictor
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CacheEvictor.class);
+
+  private final CacheIndex index;
+  private final CacheEvictionPolicyType policy;
+  private final Map<String, CacheEntry> entries;
+  private final long maximumSizeBytes;
+  private final long targetSizeBytes;
+  private final EntryEvictorType evictor;
+  private final ReentrantLock lock;
+
+  /**
+   * The eviction of entries from a store.
+   *
+   * @param inIndex            The index of the store
+   * @param inPolicy           The eviction policy
+   * @param inEntries          The entries known to the store
+   * @param inMaximumSizeBytes The maximum size of the store
+   * @param inEvictor          The function that evicts single entries
+   */
+
+  public CacheEvictor(
+    final CacheIndex inIndex,
+    final CacheEvictionPolicyType inPolicy,
+    final Map<String, CacheEntry> inEntries,
+    final long inMaximumSizeBytes,
+    final EntryEvictorType inEvictor)
+  {
+    this.index = Objects.requireNonNull(inIndex, "index");
+    this.policy = Objects.requireNonNull(inPolicy, "policy");
+    this.entries = Objects.requireNonNull(inEntries, "entries");
+    this.evictor = Objects.requireNonNull(inEvictor, "evictor");
+    this.maximumSizeBytes = inMaximumSizeBytes;
+    this.targetSizeBytes = inMaximumSizeBytes - inMaximumSizeBytes / 10L;
+    this.lock = new ReentrantLock();
+  }
+
+  /**
+   * Evict entries if the total size of the store exceeds its maximum size.
+   */
+
+  public void evictIfNecessary()
+  {
+    if (this.index.totalSizeBytes() <= this.maximumSizeBytes) {
+      return;
+    }
+
+    this.lock.lock();
+    try {
+      if (this.index.totalSizeBytes() <= this.maximumSizeBytes) {
+        return;
+      }
+      this.evict(this.targetSizeBytes);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Evict entries until the total size of the store is at most the given
+   * size or no more entries can be evicted.
+   *
+   * @param targetBytes The target size in octets
+   *
+   * @return The number of entries evicted
+   */
+
+  public int evictTo(
+    final long targetBytes)
+  {
+    this.lock.lock();
+    try {
+      if (this.index.totalSizeBytes() <= targetBytes) {
+        return 0;
+      }
+      return this.evict(targetBytes);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private int evict(
+    final long targetBytes)
+  {
+    /*
+     * Access times are copied before ordering, because concurrent readers
+     * may update them while the ordering is in progress. Leased entries
+     * cannot be evicted, and so are not offered to the policy.
+     */
+
+    final var snapshot = new HashMap<String, CacheEntry>(this.entries.size());
+    final var candidates = new ArrayList<CacheEvictionCandidate>(this.entries.size());
+    for (final var entry : this.entries.values()) {
+      if (entry.leases() == 0) {
+        snapshot.put(entry.hash(), entry);
+        candidates.add(
+          CacheEvictionCandidate.of(entry.hash(), entry.sizeBytes(), entry.lastAccess())
+        );
+      }
+    }
+
+    final var ordered =
+      this.policy.order(candidates, this.maximumSizeBytes);
+
+    /*
+     * Progress is measured by the entries evicted rather than by the total
+     * size of the store, so that writes by other processes during eviction
+     * do not prolong it.
+     */
+
+    final var excess = this.index.totalSizeBytes() - targetBytes;
+    var evicted = 0;
+    var evictedBytes = 0L;
+    for (final var candidate : ordered) {
+      if (evictedBytes >= excess) {
+        break;
+      }
+      final var entry = snapshot.get(candidate.hash());
+      if (entry != null && this.evictor.evict(entry, candidate)) {
+        ++evicted;
+        evictedBytes += entry.sizeBytes();
+      }
+    }
+
+    LOG.debug(
+      "evicted {} entries ({} octets remaining)",
+      Integer.valueOf(evicted),
+      Long.valueOf(this.index.totalSizeBytes())
+    );
+    return evicted;
+  }
+
+  /**
+   * The function that evicts single entries from a store.
+   */
+
+  @FunctionalInterface
+  public interface EntryEvictorType
+  {
+    /**
+     * Evict an entry, unless it has been replaced or leased since it was
+     * offered to the eviction policy.
+     *
+     * @param entry     The entry
+     * @param candidate The entry as offered to the eviction policy
+     *
+     * @return {@code true} if the entry was evicted
+     */
+
+    boolean evict(
+      CacheEntry entry,
+      CacheEvictionCandidate candidate);
+  }
+}
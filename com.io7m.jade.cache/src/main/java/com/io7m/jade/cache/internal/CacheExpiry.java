@@ -0,0 +1,401 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * The expiry of entries, in order of their expiry times.
+ *
+ * Entries that expire are held in a priority queue ordered by expiry time,
+ * and a low priority daemon thread sleeps until the earliest expiry time
+ * and then expires every entry that is due. Finding the due entries costs
+ * nothing beyond removing them from the queue, and so the cost of expiry
+ * does not depend on the number of entries in the store. Writers may also
+ * expire due entries themselves, so that expiry keeps pace with a busy
+ * store.
+ *
+ * Entries that leave the store, or are replaced, are not removed from the
+ * queue, because doing so would require a search of the queue. Instead,
+ * the function that expires entries ignores entries that are no longer
+ * current, and the queue is compacted whenever it has grown to twice the
+ * number of current entries it held after the last compaction.
+ *
+ * Due entries are expired by one thread at a time, so that once a writer
+ * has expired the due entries, any entry that was due has left the store,
+ * even if the daemon thread took it from the queue first.
+ *
+ * The thread waits for at most a second at a time, so that entries still
+ * expire promptly if the clock of the store does not advance in step with
+ * the system clock.
+ */
+
+public final class CacheExpiry implements AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CacheExpiry.class);
+
+  private static final long MAXIMUM_WAIT_MILLIS = 1000L;
+  private static final int MINIMUM_COMPACTION_SIZE = 1024;
+
+  private final Clock clock;
+  private final Optional<Duration> defaultTimeToLive;
+  private final Predicate<CacheEntry> isCurrent;
+  private final Consumer<CacheEntry> expire;
+  private final ReentrantLock lock;
+  private final ReentrantLock expiring;
+  private final Condition changed;
+  private final PriorityQueue<CacheEntry> queue;
+  private final Thread thread;
+  private int compactionSize;
+  private boolean closed;
+
+  /**
+   * The expiry of entries.
+   *
+   * @param inClock             The clock against which expiry times are
+   *                            compared
+   * @param inDefaultTimeToLive The default time to live of entries
+   * @param inIsCurrent         A function that returns {@code true} if an
+   *                            entry is still current in the store
+   * @param inExpire            The function that expires an entry
+   */
+
+  public CacheExpiry(
+    final Clock inClock,
+    final Optional<Duration> inDefaultTimeToLive,
+    final Predicate<CacheEntry> inIsCurrent,
+    final Consumer<CacheEntry> inExpire)
+  {
+    this.clock =
+      Objects.requireNonNull(inClock, "clock");
+    this.defaultTimeToLive =
+      Objects.requireNonNull(inDefaultTimeToLive, "defaultTimeToLive");
+    this.isCurrent =
+      Objects.requireNonNull(inIsCurrent, "isCurrent");
+    this.expire =
+      Objects.requireNonNull(inExpire, "expire");
+
+    this.lock = new ReentrantLock();
+    this.expiring = new ReentrantLock();
+    this.changed = this.lock.newCondition();
+    this.queue = new PriorityQueue<>(
+      Comparator.comparingLong(CacheEntry::expiry)
+    );
+    this.compactionSize = MINIMUM_COMPACTION_SIZE;
+    this.closed = false;
+
+    this.thread = new Thread(this::run);
+    this.thread.setName("com.io7m.jade.cache.expiry");
+    this.thread.setDaemon(true);
+    this.thread.setPriority(Thread.MIN_PRIORITY);
+    this.thread.start();
+  }
+
+  /**
+   * @param timeToLive The time to live
+   *
+   * @return The time to live
+   *
+   * @throws IllegalArgumentException If the time to live is not positive
+   */
+
+  public static Duration checkTimeToLive(
+    final Duration timeToLive)
+  {
+    Objects.requireNonNull(timeToLive, "timeToLive");
+    if (timeToLive.isNegative() || timeToLive.isZero()) {
+      throw new IllegalArgumentException(
+        String.format("Time to live %s must be positive", timeToLive)
+      );
+    }
+    return timeToLive;
+  }
+
+  /**
+   * @param writeTime  The time an entry was written, in milliseconds
+   * @param timeToLive The time to live of the entry, if it expires
+   *
+   * @return The expiry time of the entry, saturating at
+   *         {@link CacheEntry#NEVER_EXPIRES}
+   */
+
+  public static long expiryOf(
+    final long writeTime,
+    final Optional<Duration> timeToLive)
+  {
+    if (timeToLive.isEmpty()) {
+      return CacheEntry.NEVER_EXPIRES;
+    }
+    final var remaining = Duration.ofMillis(CacheEntry.NEVER_EXPIRES - writeTime);
+    if (timeToLive.get().compareTo(remaining) >= 0) {
+      return CacheEntry.NEVER_EXPIRES;
+    }
+    return writeTime + timeToLive.get().toMillis();
+  }
+
+  /**
+   * @param entry The entry
+   *
+   * @return The time to live the entry was written with, if it expires
+   */
+
+  public static Optional<Duration> timeToLiveOf(
+    final CacheEntry entry)
+  {
+    if (entry.expiry() == CacheEntry.NEVER_EXPIRES) {
+      return Optional.empty();
+    }
+    return Optional.of(Duration.ofMillis(entry.expiry() - entry.writeTime()));
+  }
+
+  /**
+   * @param writeTime The time an entry was written, in milliseconds
+   *
+   * @return The expiry time of an entry written with the default time to
+   *         live
+   */
+
+  public long defaultExpiry(
+    final long writeTime)
+  {
+    return expiryOf(writeTime, this.defaultTimeToLive);
+  }
+
+  /**
+   * @param record An index record
+   *
+   * @return The expiry time of the record, or the default expiry time if
+   *         the expiry time of the record was lost
+   */
+
+  public long expiryOf(
+    final CacheIndexRecord record)
+  {
+    if (record.expiry() < 0L) {
+      return this.defaultExpiry(record.writeTime());
+    }
+    return record.expiry();
+  }
+
+  /**
+   * Schedule the expiry of an entry. Entries that never expire are
+   * ignored.
+   *
+   * @param entry The entry
+   */
+
+  public void schedule(
+    final CacheEntry entry)
+  {
+    Objects.requireNonNull(entry, "entry");
+
+    if (entry.expiry() == CacheEntry.NEVER_EXPIRES) {
+      return;
+    }
+
+    this.lock.lock();
+    try {
+      this.queue.add(entry);
+      if (this.queue.peek() == entry) {
+        this.changed.signal();
+      }
+      if (this.queue.size() >= this.compactionSize) {
+        this.compact();
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void compact()
+  {
+    final var current = new ArrayList<CacheEntry>(this.queue.size());
+    for (final var entry : this.queue) {
+      if (this.isCurrent.test(entry)) {
+        current.add(entry);
+      }
+    }
+
+    LOG.debug(
+      "compacted expiry queue from {} to {} entries",
+      Integer.valueOf(this.queue.size()),
+      Integer.valueOf(current.size())
+    );
+
+    this.queue.clear();
+    this.queue.addAll(current);
+    this.compactionSize =
+      Math.max(MINIMUM_COMPACTION_SIZE, current.size() * 2);
+  }
+
+  /**
+   * Expire every entry that is due, on the calling thread, waiting for
+   * any entries being expired by another thread.
+   *
+   * @return The number of entries found to be due
+   */
+
+  public int expireDue()
+  {
+    this.expiring.lock();
+    try {
+      final List<CacheEntry> due;
+      this.lock.lock();
+      try {
+        due = this.takeDue();
+      } finally {
+        this.lock.unlock();
+      }
+
+      this.expireAll(due);
+      return due.size();
+    } finally {
+      this.expiring.unlock();
+    }
+  }
+
+  /**
+   * Forget every scheduled entry.
+   */
+
+  public void clear()
+  {
+    this.lock.lock();
+    try {
+      this.queue.clear();
+      this.compactionSize = MINIMUM_COMPACTION_SIZE;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * @return The number of entries in the queue, including entries that
+   *         are no longer current
+   */
+
+  public int size()
+  {
+    this.lock.lock();
+    try {
+      return this.queue.size();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private List<CacheEntry> takeDue()
+  {
+    final var due = new ArrayList<CacheEntry>();
+    final var time = this.clock.millis();
+    while (!this.queue.isEmpty() && this.queue.peek().isExpired(time)) {
+      due.add(this.queue.poll());
+    }
+    return due;
+  }
+
+  private void expireAll(
+    final List<CacheEntry> due)
+  {
+    for (final var entry : due) {
+      try {
+        this.expire.accept(entry);
+      } catch (final RuntimeException e) {
+        LOG.warn("unable to expire entry {}: ", entry.hash(), e);
+      }
+    }
+  }
+
+  private void run()
+  {
+    try {
+      while (this.awaitDue()) {
+        this.expireDue();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Wait until at least one entry is due.
+   *
+   * @return {@code false} if the expiry has been closed
+   */
+
+  private boolean awaitDue()
+    throws InterruptedException
+  {
+    this.lock.lock();
+    try {
+      while (!this.closed) {
+        final var head = this.queue.peek();
+        if (head == null) {
+          this.changed.await();
+          continue;
+        }
+
+        final var wait = head.expiry() - this.clock.millis();
+        if (wait <= 0L) {
+          return true;
+        }
+        this.changed.await(
+          Math.min(wait, MAXIMUM_WAIT_MILLIS),
+          TimeUnit.MILLISECONDS
+        );
+      }
+      return false;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    this.lock.lock();
+    try {
+      this.closed = true;
+      this.queue.clear();
+      this.changed.signalAll();
+    } finally {
+      this.lock.unlock();
+    }
+
+    try {
+      this.thread.join(MAXIMUM_WAIT_MILLIS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.FileLock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A lock that excludes both other threads in this process and other
+ * processes. Threads are excluded with a {@link ReentrantLock}, and the
+ * thread that holds it additionally locks a single octet of a shared lock
+ * file, so that at most one thread in any process holds the lock.
+ *
+ * The file lock is acquired by polling {@link AsynchronousFileChannel#tryLock}
+ * with exponential backoff rather than by blocking in
+ * {@link java.nio.channels.FileChannel#lock}: a thread that is interrupted
+ * while blocked in an interruptible channel closes the channel, which would
+ * release every lock held by the process. Waiting threads park, and so
+ * virtual threads waiting for the lock do not pin their carriers.
+ */
+
+public final class CacheFileLock
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CacheFileLock.class);
+
+  private static final long MINIMUM_BACKOFF_NANOS = 1_000L;
+  private static final long MAXIMUM_BACKOFF_NANOS = 1_000_000L;
+
+  private final ReentrantLock lock;
+  private final AsynchronousFileChannel channel;
+  private final long position;
+  private FileLock held;
+
+  private CacheFileLock(
+    final AsynchronousFileChannel inChannel,
+    final long inPosition)
+  {
+    this.lock = new ReentrantLock();
+    this.channel = inChannel;
+    this.position = inPosition;
+    this.held = null;
+  }
+
+  /**
+   * @param channel  The lock file
+   * @param position The octet of the lock file to lock
+   *
+   * @return A lock that excludes other threads and processes
+   */
+
+  public static CacheFileLock shared(
+    final AsynchronousFileChannel channel,
+    final long position)
+  {
+    return new CacheFileLock(channel, position);
+  }
+
+  /**
+   * @return A lock that excludes only other threads in this process
+   */
+
+  public static CacheFileLock local()
+  {
+    return new CacheFileLock(null, 0L);
+  }
+
+  /**
+   * Acquire the lock, waiting as long as necessary.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public void lock()
+    throws IOException
+  {
+    this.lock.lock();
+    if (this.lock.getHoldCount() > 1 || this.channel == null) {
+      return;
+    }
+
+    try {
+      var backoff = MINIMUM_BACKOFF_NANOS;
+      while (true) {
+        final var acquired = this.channel.tryLock(this.position, 1L, false);
+        if (acquired != null) {
+          this.held = acquired;
+          return;
+        }
+        LockSupport.parkNanos(backoff);
+        backoff = Math.min(backoff * 2L, MAXIMUM_BACKOFF_NANOS);
+      }
+    } catch (final IOException | RuntimeException e) {
+      this.lock.unlock();
+      throw e;
+    }
+  }
+
+  /**
+   * Acquire the lock if it is not held by any other thread or process.
+   *
+   * @return {@code true} if the lock was acquired
+   */
+
+  public boolean tryLock()
+  {
+    if (!this.lock.tryLock()) {
+      return false;
+    }
+    if (this.lock.getHoldCount() > 1 || this.channel == null) {
+      return true;
+    }
+
+    try {
+      final var acquired = this.channel.tryLock(this.position, 1L, false);
+      if (acquired != null) {
+        this.held = acquired;
+        return true;
+      }
+    } catch (final IOException | RuntimeException e) {
+      LOG.debug("unable to lock octet {}: ", Long.valueOf(this.position), e);
+    }
+    this.lock.unlock();
+    return false;
+  }
+
+  /**
+   * Release the lock.
+   */
+
+  public void unlock()
+  {
+    try {
+      if (this.lock.getHoldCount() == 1 && this.held != null) {
+        final var releasing = this.held;
+        this.held = null;
+        releasing.release();
+      }
+    } catch (final IOException e) {
+      LOG.warn("unable to unlock octet {}: ", Long.valueOf(this.position), e);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A count-min sketch of access frequencies, with four-bit counters that
+ * are halved periodically so that the sketch reflects recent history.
+ * Each key is counted in four rows, and its frequency is estimated as the
+ * minimum of its four counters. Counters are packed sixteen to a
+ * {@code long}, and updated atomically without locking.
+ */
+
+public final class CacheFrequencySketch
+{
+  private static final long RESET_MASK = 0x7777_7777_7777_7777L;
+  private static final int MAXIMUM_COUNT = 15;
+  private static final int MAXIMUM_TABLE_LENGTH = 1 << 24;
+  private static final long[] SEEDS = {
+    0xc3a5_c85c_97cb_3127L,
+    0xb492_b66f_be98_f273L,
+    0x9ae1_6a3b_2f90_404fL,
+    0xcbf2_9ce4_8422_2325L,
+  };
+
+  private final AtomicLongArray table;
+  private final int tableMask;
+  private final int sampleSize;
+  private final AtomicInteger additions;
+  private final ReentrantLock resetLock;
+
+  /**
+   * A count-min sketch of access frequencies.
+   *
+   * @param expectedEntries The expected number of distinct keys
+   */
+
+  public CacheFrequencySketch(
+    final int expectedEntries)
+  {
+    final var entries =
+      Math.min(Math.max(16, expectedEntries), MAXIMUM_TABLE_LENGTH);
+    final var length = Integer.highestOneBit(entries - 1) << 1;
+
+    this.table = new AtomicLongArray(length);
+    this.tableMask = length - 1;
+    this.sampleSize = entries * 10;
+    this.additions = new AtomicInteger(0);
+    this.resetLock = new ReentrantLock();
+  }
+
+  /**
+   * @param hash A hashed key
+   *
+   * @return The sketch key of the hashed key
+   */
+
+  public static long keyOf(
+    final String hash)
+  {
+    return HexFormat.fromHexDigitsToLong(hash, 0, 16);
+  }
+
+  private static long mix(
+    final long value)
+  {
+    var x = value;
+    x ^= x >>> 33;
+    x *= 0xff51_afd7_ed55_8ccdL;
+    x ^= x >>> 33;
+    x *= 0xc4ce_b9fe_1a85_ec53L;
+    x ^= x >>> 33;
+    return x;
+  }
+
+  /**
+   * @param key The sketch key
+   *
+   * @return The estimated frequency of the key, in the range [0, 15]
+   */
+
+  public int frequency(
+    final long key)
+  {
+    var minimum = MAXIMUM_COUNT;
+    for (int row = 0; row < SEEDS.length; ++row) {
+      final var h = mix(key + SEEDS[row]);
+      final var index = (int) (h >>> 32) & this.tableMask;
+      final var shift = ((int) h & 15) << 2;
+      final var count = (int) ((this.table.get(index) >>> shift) & 15L);
+      minimum = Math.min(minimum, count);
+    }
+    return minimum;
+  }
+
+  /**
+   * Count an access of the given key.
+   *
+   * @param key The sketch key
+   */
+
+  public void increment(
+    final long key)
+  {
+    var added = false;
+    for (int row = 0; row < SEEDS.length; ++row) {
+      final var h = mix(key + SEEDS[row]);
+      final var index = (int) (h >>> 32) & this.tableMask;
+      final var shift = ((int) h & 15) << 2;
+      added |= this.incrementAt(index, shift);
+    }
+
+    if (added && this.additions.incrementAndGet() >= this.sampleSize) {
+      this.reset();
+    }
+  }
+
+  private boolean incrementAt(
+    final int index,
+    final int shift)
+  {
+    while (true) {
+      final var current = this.table.get(index);
+      if (((current >>> shift) & 15L) == MAXIMUM_COUNT) {
+        return false;
+      }
+      if (this.table.compareAndSet(index, current, current + (1L << shift))) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Halve every counter, so that old accesses carry half the weight of
+   * new ones.
+   */
+
+  private void reset()
+  {
+    if (!this.resetLock.tryLock()) {
+      return;
+    }
+
+    try {
+      if (this.additions.get() < this.sampleSize) {
+        return;
+      }
+      for (int index = 0; index < this.table.length(); ++index) {
+        this.table.getAndUpdate(index, v -> (v >>> 1) & RESET_MASK);
+      }
+      this.additions.updateAndGet(v -> v / 2);
+    } finally {
+      this.resetLock.unlock();
+    }
+  }
+}
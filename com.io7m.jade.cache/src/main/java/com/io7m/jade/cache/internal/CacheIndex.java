@@ -0,0 +1,1176 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A persistent, memory-mapped index of the entries in a cache store.
+ *
+ * The index consists of a 64 octet header followed by an array of 80 octet
+ * slots. Each slot is either free (and entirely zero), or holds the hashed
+ * key, size, last access time, content checksum, write time, and expiry
+ * time of one entry, protected by a CRC32C checksum. Changes to entries
+ * are written to their slots in place, and so the cost of an update does
+ * not depend on the number of entries. Because the index is a shared
+ * mapping, updates survive the termination of the process without any
+ * explicit flush. An index that fails validation is rejected as a whole,
+ * and must be rebuilt from the entries on disk.
+ *
+ * The header records the generation of the store. Invalidating every
+ * entry at once {@linkplain #clear(long) clears} the index and advances
+ * the generation, so that other processes can see that their views of
+ * the store are out of date.
+ *
+ * The header also records the total size and number of the entries in the
+ * index. The totals are updated atomically, in the shared mapping, each
+ * time a slot is written or released, and so they are persistent and
+ * shared by every process at no cost beyond that of the update itself.
+ * Because the totals are updated after the slot, a process interrupted
+ * between the two leaves the totals slightly wrong; they are recomputed
+ * from the slots whenever the index is opened by a single process, and
+ * can be {@linkplain #reconcile() reconciled} while it is shared. Every
+ * update of the totals is followed by an increment of a sequence number
+ * in the header, which allows a reconciliation to detect that the totals
+ * changed while it was reading the slots.
+ *
+ * Writes to distinct slots may proceed concurrently. Writes to the same
+ * slot must be serialized by the caller.
+ *
+ * An index may be shared by several processes, each with its own mapping
+ * of the file. Slots are allocated and released while holding a lock that
+ * excludes other processes, and a slot is only allocated if it is free in
+ * the shared mapping, so the free slots known to each process are merely
+ * hints. A process that finds no free slot first looks for slots released
+ * by other processes, and for growth of the index by other processes,
+ * before growing the index itself. Because other processes may release a
+ * slot and allocate it to another entry, a process must check that a slot
+ * still {@linkplain #holds(int, String) holds} an entry before updating or
+ * releasing it.
+ *
+ * The slot holding a key can be {@linkplain #lookup(String) looked up}
+ * in a {@link CacheSlotTable} kept by each process. The header counts the
+ * slots allocated by every process, outside of the part of the header
+ * covered by its checksum, and a process that finds that other processes
+ * have allocated slots since its table was built rebuilds the table from
+ * the slots; slots allocated by the process itself are added to the table
+ * as they are allocated.
+ */
+
+public final class CacheIndex implements AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CacheIndex.class);
+
+  private static final long MAGIC = 0x4A414445494E4458L;
+  /*
+   * Version 1 indexes described entries held directly in the entries
+   * directory. Rejecting them causes the index to be rebuilt, which
+   * migrates the entries to the sharded layout. Version 2 indexes had 64
+   * octet slots, without write times, and the checksum of their header
+   * covered the octet that now counts allocations. Version 3 indexes did
+   * not record the totals of their entries. Version 4 indexes had 72 octet
+   * slots, without expiry times.
+   */
+
+  private static final int VERSION = 5;
+  private static final int HEADER_SIZE = 64;
+  private static final int HEADER_CHECKED_SIZE = 32;
+  private static final int HEADER_GENERATION_OFFSET = 24;
+  private static final int HEADER_TOTAL_SIZE_OFFSET = 32;
+  private static final int HEADER_TOTAL_COUNT_OFFSET = 40;
+  private static final int HEADER_TOTALS_SEQUENCE_OFFSET = 48;
+  private static final int HEADER_ALLOCATIONS_OFFSET = 56;
+  private static final int HEADER_CRC_OFFSET = 60;
+  private static final int SLOT_SIZE = 80;
+  private static final int SLOT_USED = 1;
+  private static final int SLOT_CRC_OFFSET = 4;
+  private static final int SLOT_HASH_OFFSET = 8;
+  private static final int SLOT_HASH_SIZE = 32;
+  private static final int SLOT_SIZE_OFFSET = 40;
+  private static final int SLOT_ACCESS_OFFSET = 48;
+  private static final int SLOT_WRITE_TIME_OFFSET = 64;
+  private static final int SLOT_EXPIRY_OFFSET = 72;
+
+  /*
+   * The content checksum occupies octets that version 3 indexes originally
+   * left as zero. The presence bit distinguishes a checksum of zero from
+   * the absence of a checksum, and so older indexes remain readable.
+   */
+
+  private static final int SLOT_CHECKSUM_OFFSET = 56;
+  private static final long SLOT_CHECKSUM_PRESENT = 1L << 32;
+  private static final long SLOT_CHECKSUM_MASK = 0xFFFF_FFFFL;
+  private static final int MINIMUM_CAPACITY = 1024;
+  private static final int MAXIMUM_CAPACITY =
+    (Integer.MAX_VALUE - HEADER_SIZE) / SLOT_SIZE;
+  private static final HexFormat HEX = HexFormat.of();
+  private static final byte[] FREE_SLOT = new byte[SLOT_SIZE];
+  private static final VarHandle INTS =
+    MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+  private static final VarHandle LONGS =
+    MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+  private final Path file;
+  private final FileChannel channel;
+  private final CacheFileLock allocationLock;
+  private final ReentrantLock lookupLock;
+  private final ReentrantLock growthLock;
+  private volatile MappedByteBuffer map;
+  private volatile int capacity;
+  private int[] free;
+  private int freeCount;
+  private CacheSlotTable lookupTable;
+  private int lookupAllocations;
+  private boolean lookupBuilt;
+
+  private CacheIndex(
+    final Path inFile,
+    final FileChannel inChannel,
+    final MappedByteBuffer inMap,
+    final int inCapacity,
+    final CacheFileLock inAllocationLock)
+  {
+    this.file = Objects.requireNonNull(inFile, "file");
+    this.channel = Objects.requireNonNull(inChannel, "channel");
+    this.map = Objects.requireNonNull(inMap, "map");
+    this.capacity = inCapacity;
+    this.allocationLock =
+      Objects.requireNonNull(inAllocationLock, "allocationLock");
+    this.free = new int[0];
+    this.freeCount = 0;
+    this.lookupLock = new ReentrantLock();
+    this.growthLock = new ReentrantLock();
+    this.lookupTable = new CacheSlotTable(0);
+    this.lookupAllocations = 0;
+    this.lookupBuilt = false;
+  }
+
+  /**
+   * Open an existing index that is not shared with other processes. The
+   * index is rejected if it is missing, or if its header or any of its
+   * slots fail validation.
+   *
+   * @param file The index file
+   *
+   * @return The index, or nothing if the index is missing or invalid
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static Optional<CacheIndex> open(
+    final Path file)
+    throws IOException
+  {
+    return open(file, CacheFileLock.local(), true);
+  }
+
+  /**
+   * Open an existing index. The index is rejected if it is missing, or if
+   * its header fails validation. If {@code strict} is {@code true}, the
+   * index is also rejected if any of its slots fail validation; otherwise,
+   * invalid slots are assumed to be in the process of being written by
+   * other processes, and are ignored.
+   *
+   * @param file           The index file
+   * @param allocationLock The lock held while allocating slots
+   * @param strict         Whether invalid slots cause the index to be rejected
+   *
+   * @return The index, or nothing if the index is missing or invalid
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static Optional<CacheIndex> open(
+    final Path file,
+    final CacheFileLock allocationLock,
+    final boolean strict)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(allocationLock, "allocationLock");
+
+    if (!Files.isRegularFile(file)) {
+      LOG.debug("index {} does not exist", file);
+      return Optional.empty();
+    }
+
+    final var channel = FileChannel.open(file, READ, WRITE);
+    try {
+      final var fileSize = channel.size();
+      if (fileSize < HEADER_SIZE) {
+        LOG.warn("index {} is truncated", file);
+        channel.close();
+        return Optional.empty();
+      }
+
+      final var header =
+        channel.map(FileChannel.MapMode.READ_ONLY, 0L, HEADER_SIZE);
+      final var capacity = validateHeader(file, header, fileSize);
+      if (capacity < 0) {
+        channel.close();
+        return Optional.empty();
+      }
+
+      final var map =
+        channel.map(FileChannel.MapMode.READ_WRITE, 0L, mapSize(capacity));
+      final var index =
+        new CacheIndex(file, channel, map, capacity, allocationLock);
+
+      final boolean valid;
+      allocationLock.lock();
+      try {
+        valid = index.validateSlots(strict);
+      } finally {
+        allocationLock.unlock();
+      }
+
+      if (!valid) {
+        channel.close();
+        return Optional.empty();
+      }
+      return Optional.of(index);
+    } catch (final IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Write a new index containing exactly the given records, replacing any
+   * existing index atomically, and then open it. Records are assigned
+   * slots in the order given, and their existing slot numbers are ignored.
+   *
+   * @param file      The index file
+   * @param temporary The temporary file used during writing
+   * @param records   The records
+   *
+   * @return The index
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static CacheIndex create(
+    final Path file,
+    final Path temporary,
+    final List<CacheIndexRecord> records)
+    throws IOException
+  {
+    return create(file, temporary, records, CacheFileLock.local(), 0L);
+  }
+
+  /**
+   * Write a new index as above, using the given lock to allocate slots.
+   *
+   * @param file           The index file
+   * @param temporary      The temporary file used during writing
+   * @param records        The records
+   * @param allocationLock The lock held while allocating slots
+   * @param generation     The generation of the store
+   *
+   * @return The index
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static CacheIndex create(
+    final Path file,
+    final Path temporary,
+    final List<CacheIndexRecord> records,
+    final CacheFileLock allocationLock,
+    final long generation)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(temporary, "temporary");
+    Objects.requireNonNull(records, "records");
+
+    var capacity = MINIMUM_CAPACITY;
+    while (capacity < records.size() * 2 && capacity < MAXIMUM_CAPACITY) {
+      capacity = (int) Math.min((long) capacity * 2L, MAXIMUM_CAPACITY);
+    }
+    if (records.size() > capacity) {
+      throw new IOException(
+        String.format("Too many entries for an index (%d)", Integer.valueOf(records.size()))
+      );
+    }
+
+    try (var channel = FileChannel.open(temporary, CREATE, TRUNCATE_EXISTING, WRITE)) {
+      var totalSize = 0L;
+      for (final var r : records) {
+        totalSize += r.sizeBytes();
+      }
+
+      final var header = ByteBuffer.allocate(HEADER_SIZE);
+      encodeHeader(header, capacity, generation);
+      header.putLong(HEADER_TOTAL_SIZE_OFFSET, totalSize);
+      header.putLong(HEADER_TOTAL_COUNT_OFFSET, records.size());
+      channel.write(header, 0L);
+
+      final var slot = ByteBuffer.allocate(SLOT_SIZE);
+      for (int index = 0; index < records.size(); ++index) {
+        final var r = records.get(index);
+        encodeSlot(
+          slot,
+          r.hash(),
+          r.sizeBytes(),
+          r.lastAccess(),
+          r.checksum(),
+          r.writeTime(),
+          r.expiry()
+        );
+        channel.write(slot.rewind(), slotOffset(index));
+      }
+
+      channel.write(ByteBuffer.allocate(1), mapSize(capacity) - 1L);
+      channel.force(true);
+    }
+
+    Files.move(temporary, file, ATOMIC_MOVE, REPLACE_EXISTING);
+    LOG.debug(
+      "created index {} with {} entries",
+      file,
+      Integer.valueOf(records.size())
+    );
+
+    return open(file, allocationLock, true).orElseThrow(() -> {
+      return new IOException(
+        String.format("Newly created index %s is invalid", file)
+      );
+    });
+  }
+
+  private static long mapSize(
+    final int capacity)
+  {
+    return HEADER_SIZE + (long) capacity * SLOT_SIZE;
+  }
+
+  private static long slotOffset(
+    final int slot)
+  {
+    return HEADER_SIZE + (long) slot * SLOT_SIZE;
+  }
+
+  private static void encodeHeader(
+    final ByteBuffer header,
+    final int capacity,
+    final long generation)
+  {
+    header.clear();
+    header.putLong(0, MAGIC);
+    header.putInt(8, VERSION);
+    header.putInt(12, SLOT_SIZE);
+    header.putInt(16, capacity);
+    header.putLong(HEADER_GENERATION_OFFSET, generation);
+
+    final var crc = new CRC32C();
+    crc.update(header.slice(0, HEADER_CHECKED_SIZE));
+    header.putInt(HEADER_CRC_OFFSET, (int) crc.getValue());
+  }
+
+  /**
+   * Write the checked part of a header, and its checksum, leaving the
+   * totals and the allocation count untouched.
+   */
+
+  private static void writeHeader(
+    final ByteBuffer target,
+    final int capacity,
+    final long generation)
+  {
+    final var header = ByteBuffer.allocate(HEADER_SIZE);
+    encodeHeader(header, capacity, generation);
+    target.put(0, header.array(), 0, HEADER_CHECKED_SIZE);
+    target.put(HEADER_CRC_OFFSET, header.array(), HEADER_CRC_OFFSET, 4);
+  }
+
+  private static int validateHeader(
+    final Path file,
+    final ByteBuffer header,
+    final long fileSize)
+  {
+    final var crc = new CRC32C();
+    crc.update(header.slice(0, HEADER_CHECKED_SIZE));
+
+    if (header.getLong(0) != MAGIC
+        || header.getInt(8) != VERSION
+        || header.getInt(12) != SLOT_SIZE
+        || header.getInt(HEADER_CRC_OFFSET) != (int) crc.getValue()) {
+      LOG.warn("index {} has an invalid header", file);
+      return -1;
+    }
+
+    final var capacity = header.getInt(16);
+    if (capacity <= 0 || capacity > MAXIMUM_CAPACITY || fileSize < mapSize(capacity)) {
+      LOG.warn("index {} has an invalid capacity", file);
+      return -1;
+    }
+    return capacity;
+  }
+
+  private static void encodeSlot(
+    final ByteBuffer slot,
+    final String hash,
+    final long sizeBytes,
+    final long lastAccess,
+    final long checksum,
+    final long writeTime,
+    final long expiry)
+  {
+    slot.clear();
+    slot.putInt(0, SLOT_USED);
+    slot.put(SLOT_HASH_OFFSET, HEX.parseHex(hash));
+    slot.putLong(SLOT_SIZE_OFFSET, sizeBytes);
+    slot.putLong(SLOT_ACCESS_OFFSET, lastAccess);
+    if (checksum < 0L) {
+      slot.putLong(SLOT_CHECKSUM_OFFSET, 0L);
+    } else {
+      slot.putLong(SLOT_CHECKSUM_OFFSET, SLOT_CHECKSUM_PRESENT | (checksum & SLOT_CHECKSUM_MASK));
+    }
+    slot.putLong(SLOT_WRITE_TIME_OFFSET, writeTime);
+    slot.putLong(SLOT_EXPIRY_OFFSET, expiry);
+    slot.putInt(SLOT_CRC_OFFSET, slotChecksum(slot));
+  }
+
+  private static int slotChecksum(
+    final ByteBuffer slot)
+  {
+    final var crc = new CRC32C();
+    crc.update(slot.slice(SLOT_HASH_OFFSET, SLOT_SIZE - SLOT_HASH_OFFSET));
+    return (int) crc.getValue();
+  }
+
+  private static long decodeChecksum(
+    final ByteBuffer slot)
+  {
+    final var value = slot.getLong(SLOT_CHECKSUM_OFFSET);
+    if ((value & SLOT_CHECKSUM_PRESENT) == 0L) {
+      return -1L;
+    }
+    return value & SLOT_CHECKSUM_MASK;
+  }
+
+  private static boolean isValid(
+    final ByteBuffer slot)
+  {
+    return slot.getInt(0) == SLOT_USED
+           && slot.getInt(SLOT_CRC_OFFSET) == slotChecksum(slot);
+  }
+
+  private boolean validateSlots(
+    final boolean strict)
+  {
+    final var current = this.map;
+    var totalSize = 0L;
+    var totalCount = 0L;
+    for (int index = 0; index < this.capacity; ++index) {
+      final var slot = current.slice((int) slotOffset(index), SLOT_SIZE);
+      if (slot.getInt(0) == 0) {
+        continue;
+      }
+      if (isValid(slot)) {
+        totalSize += slot.getLong(SLOT_SIZE_OFFSET);
+        ++totalCount;
+        continue;
+      }
+      if (strict) {
+        LOG.warn("index {} has an invalid slot {}", this.file, Integer.valueOf(index));
+        return false;
+      }
+      LOG.debug("ignoring invalid slot {}", Integer.valueOf(index));
+    }
+
+    if (strict) {
+      setTotals(current, totalSize, totalCount);
+    }
+    this.collectFree();
+    return true;
+  }
+
+  /**
+   * Collect every free slot in the shared mapping. Free slots are stored
+   * in descending order so that allocation proceeds from the lowest slot.
+   */
+
+  private void collectFree()
+  {
+    final var current = this.map;
+    final var frees = new int[this.capacity];
+    var freeSlotCount = 0;
+    for (int index = this.capacity - 1; index >= 0; --index) {
+      if (current.getInt((int) slotOffset(index)) == 0) {
+        frees[freeSlotCount] = index;
+        ++freeSlotCount;
+      }
+    }
+    this.free = frees;
+    this.freeCount = freeSlotCount;
+  }
+
+  /**
+   * Deliver every record in the index to the given receiver.
+   *
+   * @param receiver The receiver
+   */
+
+  public void forEachRecord(
+    final Consumer<CacheIndexRecord> receiver)
+  {
+    Objects.requireNonNull(receiver, "receiver");
+
+    final var current = this.map;
+    final var hash = new byte[SLOT_HASH_SIZE];
+    for (int index = 0; index < this.capacity; ++index) {
+      final var slot = current.slice((int) slotOffset(index), SLOT_SIZE);
+      if (isValid(slot)) {
+        slot.get(SLOT_HASH_OFFSET, hash);
+        receiver.accept(
+          new CacheIndexRecord(
+            index,
+            HEX.formatHex(hash),
+            slot.getLong(SLOT_SIZE_OFFSET),
+            slot.getLong(SLOT_ACCESS_OFFSET),
+            decodeChecksum(slot),
+            slot.getLong(SLOT_WRITE_TIME_OFFSET),
+            slot.getLong(SLOT_EXPIRY_OFFSET)
+          )
+        );
+      }
+    }
+  }
+
+  /**
+   * Allocate a free slot and write a record to it, growing the index if
+   * necessary.
+   *
+   * @param hash       The hashed key
+   * @param sizeBytes  The size of the entry in octets
+   * @param lastAccess The time the entry was last accessed, in milliseconds
+   * @param checksum   The checksum of the entry file, or -1 if unknown
+   * @param writeTime  The time the entry was written, in milliseconds
+   * @param expiry     The time the entry expires, in milliseconds
+   *
+   * @return The slot
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public int allocate(
+    final String hash,
+    final long sizeBytes,
+    final long lastAccess,
+    final long checksum,
+    final long writeTime,
+    final long expiry)
+    throws IOException
+  {
+    this.allocationLock.lock();
+    try {
+      final var slot = this.takeFree();
+      this.write(slot, hash, sizeBytes, lastAccess, checksum, writeTime, expiry);
+      this.recordAllocation(slot, hash);
+      return slot;
+    } finally {
+      this.allocationLock.unlock();
+    }
+  }
+
+  /**
+   * Count an allocation in the header and, if no other process has
+   * allocated a slot since the lookup table was built, add the slot to the
+   * table. A table that has grown to twice the capacity of the index,
+   * because many of the keys it holds have since been released, is
+   * discarded, and rebuilt on the next lookup that misses it.
+   */
+
+  private void recordAllocation(
+    final int slot,
+    final String hash)
+  {
+    final var allocations =
+      (int) INTS.getAndAdd(this.map, HEADER_ALLOCATIONS_OFFSET, 1);
+
+    this.lookupLock.lock();
+    try {
+      if (this.lookupBuilt && this.lookupAllocations == allocations) {
+        this.lookupAllocations = allocations + 1;
+        this.lookupTable.put(CacheSlotTable.keyOf(hash), slot);
+        if (this.lookupTable.size() > this.capacity * 2L) {
+          this.lookupBuilt = false;
+        }
+      }
+    } finally {
+      this.lookupLock.unlock();
+    }
+  }
+
+  /**
+   * Find the slot that holds the record for the given key. The lookup
+   * table is rebuilt, by reading every slot, only if other processes have
+   * allocated slots since it was built.
+   *
+   * @param hash The hashed key
+   *
+   * @return The slot, or -1 if no slot holds a record for the key
+   */
+
+  public int lookup(
+    final String hash)
+  {
+    Objects.requireNonNull(hash, "hash");
+
+    final var key = CacheSlotTable.keyOf(hash);
+    this.lookupLock.lock();
+    try {
+      final var hinted = this.lookupTable.get(key);
+      if (this.holds(hinted, hash)) {
+        return hinted;
+      }
+
+      final var allocations =
+        (int) INTS.getVolatile(this.map, HEADER_ALLOCATIONS_OFFSET);
+      if (this.lookupBuilt && this.lookupAllocations == allocations) {
+        return -1;
+      }
+
+      this.buildLookup(allocations);
+      final var found = this.lookupTable.get(key);
+      if (this.holds(found, hash)) {
+        return found;
+      }
+      return -1;
+    } finally {
+      this.lookupLock.unlock();
+    }
+  }
+
+  /**
+   * Rebuild the lookup table from the slots. The allocation count is read
+   * before the slots, and every allocation writes its slot before counting
+   * itself, so a table built from the slots holds every slot allocated up
+   * to the given count.
+   */
+
+  private void buildLookup(
+    final int allocations)
+  {
+    this.adoptGrowth();
+
+    final var current = this.map;
+    final var limit = this.capacity;
+    final var table = new CacheSlotTable(0);
+    for (int index = 0; index < limit; ++index) {
+      final var offset = (int) slotOffset(index);
+      if (current.getInt(offset) == SLOT_USED) {
+        table.put(current.getLong(offset + SLOT_HASH_OFFSET), index);
+      }
+    }
+
+    this.lookupTable = table;
+    this.lookupAllocations = allocations;
+    this.lookupBuilt = true;
+  }
+
+  private int takeFree()
+    throws IOException
+  {
+    var slot = this.popFree();
+    if (slot < 0) {
+      this.adoptGrowth();
+      this.collectFree();
+      if (this.freeCount == 0) {
+        this.grow();
+      }
+      slot = this.popFree();
+    }
+
+    if (slot < 0) {
+      throw new IOException(
+        String.format("Index %s has no free slots", this.file)
+      );
+    }
+    return slot;
+  }
+
+  /**
+   * Take a slot from the free list, discarding slots that other processes
+   * have allocated since they were added to it.
+   *
+   * @return A free slot, or -1 if the free list is exhausted
+   */
+
+  private int popFree()
+  {
+    final var current = this.map;
+    while (this.freeCount > 0) {
+      --this.freeCount;
+      final var slot = this.free[this.freeCount];
+      if (slot < this.capacity && current.getInt((int) slotOffset(slot)) == 0) {
+        return slot;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Map any slots added to the index by other processes. Lookups adopt
+   * growth without holding the allocation lock, and so the mapping is only
+   * replaced while holding the growth lock, which ensures that the
+   * capacity never decreases.
+   */
+
+  private void adoptGrowth()
+  {
+    this.growthLock.lock();
+    try {
+      final var current = this.map;
+      final var headerCapacity = current.getInt(16);
+      if (headerCapacity <= this.capacity || headerCapacity > MAXIMUM_CAPACITY) {
+        return;
+      }
+
+      this.map =
+        this.channel.map(FileChannel.MapMode.READ_WRITE, 0L, mapSize(headerCapacity));
+      this.capacity = headerCapacity;
+      LOG.debug(
+        "index {} was grown to {} slots by another process",
+        this.file,
+        Integer.valueOf(headerCapacity)
+      );
+    } catch (final IOException e) {
+      LOG.warn("unable to map grown index {}: ", this.file, e);
+    } finally {
+      this.growthLock.unlock();
+    }
+  }
+
+  /**
+   * Release a slot, marking it as free, if it still holds the given entry.
+   *
+   * @param slot The slot
+   * @param hash The hashed key of the entry
+   *
+   * @return {@code true} if the slot was released
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public boolean release(
+    final int slot,
+    final String hash)
+    throws IOException
+  {
+    this.allocationLock.lock();
+    try {
+      if (!this.holds(slot, hash)) {
+        return false;
+      }
+
+      final var current = this.map;
+      final var offset = (int) slotOffset(slot);
+      final var released = current.getLong(offset + SLOT_SIZE_OFFSET);
+      current.put(offset, FREE_SLOT);
+      addTotals(current, -released, -1L);
+
+      if (this.freeCount == this.free.length) {
+        this.free = Arrays.copyOf(this.free, Math.max(16, this.free.length * 2));
+      }
+      this.free[this.freeCount] = slot;
+      ++this.freeCount;
+      return true;
+    } finally {
+      this.allocationLock.unlock();
+    }
+  }
+
+  /**
+   * @param slot The slot
+   * @param hash The hashed key
+   *
+   * @return {@code true} if the slot holds a record for the given key
+   */
+
+  public boolean holds(
+    final int slot,
+    final String hash)
+  {
+    if (slot < 0 || slot >= this.capacity) {
+      return false;
+    }
+
+    final var current = this.map;
+    final var offset = (int) slotOffset(slot);
+    if (current.getInt(offset) != SLOT_USED) {
+      return false;
+    }
+
+    final var held = new byte[SLOT_HASH_SIZE];
+    current.get(offset + SLOT_HASH_OFFSET, held);
+    return Arrays.equals(held, HEX.parseHex(hash));
+  }
+
+  /**
+   * Write a record to a slot.
+   *
+   * @param slot       The slot
+   * @param hash       The hashed key
+   * @param sizeBytes  The size of the entry in octets
+   * @param lastAccess The time the entry was last accessed, in milliseconds
+   * @param checksum   The checksum of the entry file, or -1 if unknown
+   * @param writeTime  The time the entry was written, in milliseconds
+   * @param expiry     The time the entry expires, in milliseconds
+   */
+
+  public void write(
+    final int slot,
+    final String hash,
+    final long sizeBytes,
+    final long lastAccess,
+    final long checksum,
+    final long writeTime,
+    final long expiry)
+  {
+    final var buffer = ByteBuffer.allocate(SLOT_SIZE);
+    encodeSlot(buffer, hash, sizeBytes, lastAccess, checksum, writeTime, expiry);
+
+    final var current = this.map;
+    final var offset = (int) slotOffset(slot);
+    if (current.getInt(offset) == SLOT_USED) {
+      final var previous = current.getLong(offset + SLOT_SIZE_OFFSET);
+      current.put(offset, buffer.array());
+      addTotals(current, sizeBytes - previous, 0L);
+    } else {
+      current.put(offset, buffer.array());
+      addTotals(current, sizeBytes, 1L);
+    }
+  }
+
+  private static void addTotals(
+    final ByteBuffer current,
+    final long sizeDelta,
+    final long countDelta)
+  {
+    adjustTotals(current, sizeDelta, countDelta);
+    LONGS.getAndAdd(current, HEADER_TOTALS_SEQUENCE_OFFSET, 1L);
+  }
+
+  private static void adjustTotals(
+    final ByteBuffer current,
+    final long sizeDelta,
+    final long countDelta)
+  {
+    if (sizeDelta != 0L) {
+      LONGS.getAndAdd(current, HEADER_TOTAL_SIZE_OFFSET, sizeDelta);
+    }
+    if (countDelta != 0L) {
+      LONGS.getAndAdd(current, HEADER_TOTAL_COUNT_OFFSET, countDelta);
+    }
+  }
+
+  private static void setTotals(
+    final ByteBuffer current,
+    final long totalSize,
+    final long totalCount)
+  {
+    LONGS.setVolatile(current, HEADER_TOTAL_SIZE_OFFSET, totalSize);
+    LONGS.setVolatile(current, HEADER_TOTAL_COUNT_OFFSET, totalCount);
+    LONGS.getAndAdd(current, HEADER_TOTALS_SEQUENCE_OFFSET, 1L);
+  }
+
+  /**
+   * @return The total size in octets of the entries in the index
+   */
+
+  public long totalSizeBytes()
+  {
+    return (long) LONGS.getVolatile(this.map, HEADER_TOTAL_SIZE_OFFSET);
+  }
+
+  /**
+   * @return The number of entries in the index
+   */
+
+  public long totalCount()
+  {
+    return (long) LONGS.getVolatile(this.map, HEADER_TOTAL_COUNT_OFFSET);
+  }
+
+  /**
+   * Recompute the totals from the slots, and correct the totals recorded
+   * in the header if they differ. The slots are read without holding any
+   * lock, and so the totals are only corrected if the sequence number in
+   * the header did not change while the slots were being read; a
+   * reconciliation that observes concurrent changes is abandoned.
+   *
+   * @return {@code true} if the totals were corrected
+   */
+
+  public boolean reconcile()
+  {
+    final var current = this.map;
+    final var sequence =
+      (long) LONGS.getVolatile(current, HEADER_TOTALS_SEQUENCE_OFFSET);
+    final var recordedSize = this.totalSizeBytes();
+    final var recordedCount = this.totalCount();
+
+    var totalSize = 0L;
+    var totalCount = 0L;
+    for (int index = 0; index < this.capacity; ++index) {
+      final var slot = current.slice((int) slotOffset(index), SLOT_SIZE);
+      if (isValid(slot)) {
+        totalSize += slot.getLong(SLOT_SIZE_OFFSET);
+        ++totalCount;
+      }
+    }
+
+    if (totalSize == recordedSize && totalCount == recordedCount) {
+      return false;
+    }
+
+    /*
+     * Advancing the sequence number succeeds only if no update of the
+     * totals completed during the scan, in which case the recorded totals
+     * and the slots were read consistently. The correction is applied as
+     * a difference, so that updates made after the sequence number has
+     * advanced are not overwritten. An update whose slot was written
+     * before the scan, but whose totals were not updated until after the
+     * sequence number had advanced, is counted twice; the error is as
+     * small as the update, and is corrected by a later reconciliation.
+     */
+
+    if (!LONGS.compareAndSet(current, HEADER_TOTALS_SEQUENCE_OFFSET, sequence, sequence + 1L)) {
+      return false;
+    }
+    adjustTotals(current, totalSize - recordedSize, totalCount - recordedCount);
+
+    LOG.info(
+      "corrected the totals of index {} from {} entries ({} octets) to {} entries ({} octets)",
+      this.file,
+      Long.valueOf(recordedCount),
+      Long.valueOf(recordedSize),
+      Long.valueOf(totalCount),
+      Long.valueOf(totalSize)
+    );
+    return true;
+  }
+
+  /**
+   * Write a record to its slot.
+   *
+   * @param record The record
+   */
+
+  public void write(
+    final CacheIndexRecord record)
+  {
+    this.write(
+      record.slot(),
+      record.hash(),
+      record.sizeBytes(),
+      record.lastAccess(),
+      record.checksum(),
+      record.writeTime(),
+      record.expiry()
+    );
+  }
+
+  /**
+   * Read the record in a slot, if the slot holds a valid record for the
+   * given key. Records written by other processes may be observed while
+   * they are being written, in which case nothing is returned.
+   *
+   * @param slot The slot
+   * @param hash The hashed key
+   *
+   * @return The record, if any
+   */
+
+  public Optional<CacheIndexRecord> read(
+    final int slot,
+    final String hash)
+  {
+    if (slot < 0 || slot >= this.capacity) {
+      return Optional.empty();
+    }
+
+    final var buffer = ByteBuffer.allocate(SLOT_SIZE);
+    this.map.get((int) slotOffset(slot), buffer.array());
+    if (!isValid(buffer)) {
+      return Optional.empty();
+    }
+
+    final var hashBytes = new byte[SLOT_HASH_SIZE];
+    buffer.get(SLOT_HASH_OFFSET, hashBytes);
+    if (!Arrays.equals(hashBytes, HEX.parseHex(hash))) {
+      return Optional.empty();
+    }
+
+    return Optional.of(
+      new CacheIndexRecord(
+        slot,
+        hash,
+        buffer.getLong(SLOT_SIZE_OFFSET),
+        buffer.getLong(SLOT_ACCESS_OFFSET),
+        decodeChecksum(buffer),
+        buffer.getLong(SLOT_WRITE_TIME_OFFSET),
+        buffer.getLong(SLOT_EXPIRY_OFFSET)
+      )
+    );
+  }
+
+  private void grow()
+    throws IOException
+  {
+    if (this.capacity >= MAXIMUM_CAPACITY) {
+      throw new IOException(
+        String.format("Index %s is full", this.file)
+      );
+    }
+
+    /*
+     * The new mapping shares pages with the old mapping, and so writes
+     * made through the old mapping by other threads are not lost. The
+     * file is extended before the header records the new capacity.
+     */
+
+    final var oldCapacity = this.capacity;
+    final var newCapacity =
+      (int) Math.min((long) oldCapacity * 2L, MAXIMUM_CAPACITY);
+
+    this.growthLock.lock();
+    try {
+      final var newMap =
+        this.channel.map(FileChannel.MapMode.READ_WRITE, 0L, mapSize(newCapacity));
+      writeHeader(newMap, newCapacity, this.generation());
+
+      /*
+       * Readers check slot numbers against the capacity without holding
+       * the lock, and so the larger mapping is published first.
+       */
+
+      this.map = newMap;
+      this.capacity = newCapacity;
+    } finally {
+      this.growthLock.unlock();
+    }
+
+    final var added = newCapacity - oldCapacity;
+    if (this.free.length < added) {
+      this.free = Arrays.copyOf(this.free, added);
+    }
+    for (int index = 0; index < added; ++index) {
+      this.free[index] = newCapacity - 1 - index;
+    }
+    this.freeCount = added;
+
+    LOG.debug(
+      "grew index {} to {} slots",
+      this.file,
+      Integer.valueOf(newCapacity)
+    );
+  }
+
+  /**
+   * Release every slot and set the generation of the store. Slots are
+   * released before the generation is written, so that an index that was
+   * being cleared when the process was interrupted still records the
+   * earlier generation.
+   *
+   * @param generation The new generation
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public void clear(
+    final long generation)
+    throws IOException
+  {
+    this.allocationLock.lock();
+    try {
+      this.adoptGrowth();
+
+      final var current = this.map;
+      for (int index = 0; index < this.capacity; ++index) {
+        current.put((int) slotOffset(index), FREE_SLOT);
+      }
+
+      setTotals(current, 0L, 0L);
+      writeHeader(current, this.capacity, generation);
+      this.collectFree();
+    } finally {
+      this.allocationLock.unlock();
+    }
+
+    LOG.debug("cleared index {} (generation {})", this.file, Long.valueOf(generation));
+  }
+
+  /**
+   * @return The generation of the store
+   */
+
+  public long generation()
+  {
+    return this.map.getLong(HEADER_GENERATION_OFFSET);
+  }
+
+  /**
+   * @return The number of slots in the index
+   */
+
+  public int capacity()
+  {
+    return this.capacity;
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    try {
+      this.map.force();
+    } finally {
+      this.channel.close();
+    }
+  }
+}
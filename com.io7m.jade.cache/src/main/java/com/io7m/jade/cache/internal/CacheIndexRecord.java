@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import java.util.Objects;
+
+/**
+ * A record in a cache index.
+ *
+ * @param slot       The index slot
+ * @param hash       The hashed key
+ * @param sizeBytes  The size of the entry in octets
+ * @param lastAccess The time the entry was last accessed, in milliseconds
+ * @param checksum   The CRC32C checksum of the entry file, or -1 if unknown
+ * @param writeTime  The time the entry was written, in milliseconds
+ * @param expiry     The time the entry expires, in milliseconds, or -1 if
+ *                   unknown
+ */
+
+public record CacheIndexRecord(
+  int slot,
+  String hash,
+  long sizeBytes,
+  long lastAccess,
+  long checksum,
+  long writeTime,
+  long expiry)
+{
+  /**
+   * A record in a cache index.
+   *
+   * @param slot       The index slot
+   * @param hash       The hashed key
+   * @param sizeBytes  The size of the entry in octets
+   * @param lastAccess The time the entry was last accessed, in milliseconds
+   * @param checksum   The CRC32C checksum of the entry file, or -1 if unknown
+   * @param writeTime  The time the entry was written, in milliseconds
+   * @param expiry     The time the entry expires, in milliseconds, or -1 if
+   *                   unknown
+   */
+
+  public CacheIndexRecord
+  {
+    Objects.requireNonNull(hash, "hash");
+  }
+
+  /**
+   * @param fileSize     The size of an entry file
+   * @param fileChecksum The checksum of the entry file
+   *
+   * @return {@code true} if the record describes the given entry file
+   */
+
+  public boolean matches(
+    final long fileSize,
+    final long fileChecksum)
+  {
+    return this.sizeBytes == fileSize
+           && (this.checksum < 0L || this.checksum == fileChecksum);
+  }
+}
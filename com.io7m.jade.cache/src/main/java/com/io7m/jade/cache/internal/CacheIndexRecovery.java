@@ -0,0 +1,208 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Functions to open the index of a cache store, rebuilding it from the
+ * entries directory if it is missing or damaged, and completing any
+ * invalidation that was interrupted.
+ */
+
+public final class CacheIndexRecovery
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CacheIndexRecovery.class);
+
+  private CacheIndexRecovery()
+  {
+
+  }
+
+  /**
+   * Open the index of the store in the given directory.
+   *
+   * @param directory     The store directory
+   * @param storeLockFile The lock file of the store
+   *
+   * @return The index
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static CacheIndex open(
+    final Path directory,
+    final CacheLockFile storeLockFile)
+    throws IOException
+  {
+    final var storeIndex = openOrRebuild(directory, storeLockFile);
+    try {
+      completeInvalidation(directory, storeIndex, storeLockFile);
+      return storeIndex;
+    } catch (final IOException | RuntimeException e) {
+      storeIndex.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Open or rebuild the index. Temporary files are only deleted, and an
+   * index with invalid slots only rejected, if no other process has the
+   * store open: otherwise, they may belong to writes in progress in other
+   * processes. For the same reason, the index is only rebuilt by a process
+   * that has the store to itself. Other processes map the existing index
+   * file, and would never see a replacement, and so a process that finds
+   * the index damaged while other processes are using the store fails to
+   * open it.
+   */
+
+  private static CacheIndex openOrRebuild(
+    final Path directory,
+    final CacheLockFile storeLockFile)
+    throws IOException
+  {
+    final var entriesDirectory = directory.resolve("entries");
+    final var temporaryDirectory = directory.resolve("tmp");
+    final var exclusive = storeLockFile.isExclusive();
+
+    if (exclusive) {
+      try (var stream = Files.list(temporaryDirectory)) {
+        for (final var file : stream.toList()) {
+          LOG.debug("deleting abandoned temporary file {}", file);
+          Files.deleteIfExists(file);
+        }
+      }
+    }
+
+    final var indexFile = directory.resolve("index");
+    final var indexOpt =
+      CacheIndex.open(indexFile, storeLockFile.index(), exclusive);
+    if (indexOpt.isPresent()) {
+      return indexOpt.get();
+    }
+
+    if (!exclusive) {
+      throw new IOException(
+        String.format(
+          "Index %s is damaged, and cannot be rebuilt while other processes are using the store",
+          indexFile)
+      );
+    }
+    LOG.info("rebuilding index {}", indexFile);
+
+    /*
+     * A rebuilt index begins a generation later than any generation being
+     * purged, so that it is not mistaken for an interrupted invalidation.
+     */
+
+    final var latest =
+      CachePurger.latestGeneration(directory.resolve("purge"));
+    var generation = 0L;
+    if (latest.isPresent()) {
+      generation = latest.getAsLong() + 1L;
+    }
+
+    return CacheIndex.create(
+      indexFile,
+      Files.createTempFile(temporaryDirectory, "index", ".tmp"),
+      listEntries(entriesDirectory),
+      storeLockFile.index(),
+      generation
+    );
+  }
+
+  /**
+   * Complete an invalidation that was interrupted after the entries
+   * directory was moved aside, but before the index was cleared.
+   */
+
+  private static void completeInvalidation(
+    final Path directory,
+    final CacheIndex storeIndex,
+    final CacheLockFile storeLockFile)
+    throws IOException
+  {
+    final var purgeDirectory = directory.resolve("purge");
+    if (!isInvalidationIncomplete(purgeDirectory, storeIndex)) {
+      return;
+    }
+
+    storeLockFile.lockAllShards();
+    try {
+      if (isInvalidationIncomplete(purgeDirectory, storeIndex)) {
+        final var latest =
+          CachePurger.latestGeneration(purgeDirectory).orElseThrow();
+        LOG.info("completing the interrupted invalidation of generation {}", Long.valueOf(latest));
+        storeIndex.clear(latest + 1L);
+      }
+    } finally {
+      storeLockFile.unlockAllShards();
+    }
+  }
+
+  private static boolean isInvalidationIncomplete(
+    final Path purgeDirectory,
+    final CacheIndex storeIndex)
+    throws IOException
+  {
+    final var latest = CachePurger.latestGeneration(purgeDirectory);
+    return latest.isPresent() && latest.getAsLong() >= storeIndex.generation();
+  }
+
+  /**
+   * List the entries of a store held exclusively, migrating any entries
+   * held in the flat layout.
+   */
+
+  private static List<CacheIndexRecord> listEntries(
+    final Path entriesDirectory)
+    throws IOException
+  {
+    CacheLayout.migrateFlat(entriesDirectory);
+
+    /*
+     * Entry files are moved into place immediately after being written,
+     * and so their modification times are their write times. Their expiry
+     * times are lost, and are left to the store to assign.
+     */
+
+    final var records = new ArrayList<CacheIndexRecord>();
+    CacheLayout.list(entriesDirectory, (hash, attributes) -> {
+      final var modified = attributes.lastModifiedTime().toMillis();
+      records.add(
+        new CacheIndexRecord(
+          records.size(),
+          hash,
+          attributes.size(),
+          modified,
+          -1L,
+          modified,
+          -1L
+        )
+      );
+    });
+    return records;
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import com.io7m.jade.cache.CacheStoreConfiguration;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+/**
+ * The verification of entry files against their checksums.
+ *
+ * The CRC32C checksum of each entry file, as stored on disk, is recorded
+ * in the index when the entry is written. Entries are verified lazily:
+ * each entry is verified on its first read after the store is opened, and
+ * thereafter only on a random sample of reads, so that the cost of
+ * checksumming is not paid on every read of a hot entry.
+ */
+
+public final class CacheIntegrity
+{
+  private static final long MAXIMUM_REGION_SIZE = 64L * 1024L * 1024L;
+
+  private final double sampleRate;
+  private final LongAdder verifications;
+  private final LongAdder corruptions;
+
+  /**
+   * The verification of entry files against their checksums.
+   *
+   * @param configuration The store configuration
+   */
+
+  public CacheIntegrity(
+    final CacheStoreConfiguration configuration)
+  {
+    Objects.requireNonNull(configuration, "configuration");
+
+    this.sampleRate = configuration.checksumSampleRate();
+    this.verifications = new LongAdder();
+    this.corruptions = new LongAdder();
+  }
+
+  /**
+   * @param data The data
+   *
+   * @return The CRC32C checksum of the given data
+   */
+
+  public static long checksum(
+    final byte[] data)
+  {
+    final var crc = new CRC32C();
+    crc.update(data);
+    return crc.getValue();
+  }
+
+  /**
+   * Calculate the CRC32C checksum of the entire contents of a file. The
+   * file is mapped region by region rather than read, so that checksumming
+   * does not copy the file through the heap.
+   *
+   * @param channel The file channel
+   *
+   * @return The checksum
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static long checksum(
+    final FileChannel channel)
+    throws IOException
+  {
+    final var crc = new CRC32C();
+    final var size = channel.size();
+    var position = 0L;
+    while (position < size) {
+      final var length = Math.min(MAXIMUM_REGION_SIZE, size - position);
+      crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+      position += length;
+    }
+    return crc.getValue();
+  }
+
+  /**
+   * @param entry The entry about to be read
+   *
+   * @return {@code true} if the read should verify the entry
+   */
+
+  public boolean shouldVerify(
+    final CacheEntry entry)
+  {
+    if (!entry.isVerified()) {
+      return true;
+    }
+    return this.sampleRate > 0.0
+           && ThreadLocalRandom.current().nextDouble() < this.sampleRate;
+  }
+
+  /**
+   * Record that an entry was verified.
+   */
+
+  public void recordVerification()
+  {
+    this.verifications.increment();
+  }
+
+  /**
+   * Record that an entry was found to be corrupt.
+   */
+
+  public void recordCorruption()
+  {
+    this.corruptions.increment();
+  }
+
+  /**
+   * @return The number of verifications
+   */
+
+  public long verifications()
+  {
+    return this.verifications.sum();
+  }
+
+  /**
+   * @return The number of corrupt entries found
+   */
+
+  public long corruptions()
+  {
+    return this.corruptions.sum();
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * Functions to derive file names from cache keys.
+ */
+
+public final class CacheKeys
+{
+  private static final HexFormat HEX =
+    HexFormat.of();
+
+  /**
+   * The length of a hashed key in characters.
+   */
+
+  public static final int HASH_LENGTH = 64;
+
+  private CacheKeys()
+  {
+
+  }
+
+  /**
+   * Hash a key, producing a lowercase hexadecimal SHA-256 digest that is
+   * safe to use as a file name on all platforms.
+   *
+   * @param key The key
+   *
+   * @return The hashed key
+   */
+
+  public static String hash(
+    final String key)
+  {
+    Objects.requireNonNull(key, "key");
+
+    try {
+      final var digest = MessageDigest.getInstance("SHA-256");
+      return HEX.formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * @param name The file name
+   *
+   * @return {@code true} if the given file name is a hashed key
+   */
+
+  public static boolean isHash(
+    final String name)
+  {
+    if (name.length() != HASH_LENGTH) {
+      return false;
+    }
+    for (int index = 0; index < name.length(); ++index) {
+      final var c = name.charAt(index);
+      final var digit = c >= '0' && c <= '9';
+      final var letter = c >= 'a' && c <= 'f';
+      if (!digit && !letter) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HexFormat;
+import java.util.Objects;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+
+/**
+ * The layout of entries on disk. Entries are placed in a two-level fan-out
+ * of directories named by the first two octets of the hashed key, so that
+ * an entry with hash {@code abcdef...} is held in {@code ab/cd/abcdef...}.
+ * No directory therefore holds more than 256 subdirectories, and entries
+ * are spread evenly over 65536 leaf directories. Each top-level directory
+ * is a <i>shard</i>.
+ */
+
+public final class CacheLayout
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CacheLayout.class);
+
+  /**
+   * The number of shards.
+   */
+
+  public static final int SHARDS = 256;
+
+  private CacheLayout()
+  {
+
+  }
+
+  /**
+   * @param entriesDirectory The entries directory
+   * @param hash             The hashed key
+   *
+   * @return The file that holds the entry with the given hash
+   */
+
+  public static Path entryFile(
+    final Path entriesDirectory,
+    final String hash)
+  {
+    return entriesDirectory
+      .resolve(hash.substring(0, 2))
+      .resolve(hash.substring(2, 4))
+      .resolve(hash);
+  }
+
+  /**
+   * @param hash The hashed key
+   *
+   * @return The shard that holds the entry with the given hash
+   */
+
+  public static int shardOf(
+    final String hash)
+  {
+    return HexFormat.fromHexDigits(hash, 0, 2);
+  }
+
+  /**
+   * List every entry file in the given entries directory. Files that are
+   * not entries, or that are not in the directory required by their
+   * hash, are ignored.
+   *
+   * @param entriesDirectory The entries directory
+   * @param receiver         The receiver of entries
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static void list(
+    final Path entriesDirectory,
+    final EntryReceiverType receiver)
+    throws IOException
+  {
+    Objects.requireNonNull(entriesDirectory, "entriesDirectory");
+    Objects.requireNonNull(receiver, "receiver");
+
+    try (var stream = Files.walk(entriesDirectory, 3)) {
+      final var iterator = stream.iterator();
+      while (iterator.hasNext()) {
+        final var file = iterator.next();
+        if (entriesDirectory.relativize(file).getNameCount() != 3) {
+          continue;
+        }
+
+        final var name = file.getFileName().toString();
+        final var attributes =
+          Files.readAttributes(file, BasicFileAttributes.class);
+
+        if (!attributes.isRegularFile()
+            || !CacheKeys.isHash(name)
+            || !entryFile(entriesDirectory, name).equals(file)) {
+          LOG.warn("ignoring unrecognized file {}", file);
+          continue;
+        }
+        receiver.receive(name, attributes);
+      }
+    }
+  }
+
+  /**
+   * Move every entry held directly in the given entries directory into
+   * the directory required by its hash. If an entry already exists in the
+   * required directory, the existing entry is kept and the moved entry is
+   * deleted. The store must not be open while it is being migrated.
+   *
+   * @param entriesDirectory The entries directory
+   *
+   * @return The number of entries migrated
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static long migrateFlat(
+    final Path entriesDirectory)
+    throws IOException
+  {
+    Objects.requireNonNull(entriesDirectory, "entriesDirectory");
+
+    if (!Files.isDirectory(entriesDirectory)) {
+      return 0L;
+    }
+
+    var migrated = 0L;
+    try (var stream = Files.list(entriesDirectory)) {
+      final var iterator = stream.iterator();
+      while (iterator.hasNext()) {
+        final var file = iterator.next();
+        final var name = file.getFileName().toString();
+        if (!CacheKeys.isHash(name) || !Files.isRegularFile(file)) {
+          continue;
+        }
+
+        final var target = entryFile(entriesDirectory, name);
+        if (Files.exists(target)) {
+          LOG.debug("deleting superseded flat entry {}", file);
+          Files.delete(file);
+        } else {
+          Files.createDirectories(target.getParent());
+          Files.move(file, target, ATOMIC_MOVE);
+          ++migrated;
+        }
+      }
+    }
+
+    if (migrated > 0L) {
+      LOG.info(
+        "migrated {} entries in {} to a sharded layout",
+        Long.valueOf(migrated),
+        entriesDirectory
+      );
+    }
+    return migrated;
+  }
+
+  /**
+   * A receiver of entry files.
+   */
+
+  public interface EntryReceiverType
+  {
+    /**
+     * An entry file was found.
+     *
+     * @param hash       The hashed key
+     * @param attributes The file attributes
+     */
+
+    void receive(
+      String hash,
+      BasicFileAttributes attributes);
+  }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * The {@code lock} file of a cache store, through which the processes that
+ * share a store directory coordinate.
+ *
+ * Each octet of the file below {@link CacheLayout#SHARDS} is locked by
+ * writers to the corresponding shard, so that only writers to the same
+ * shard serialize. The next octet is locked during the allocation and
+ * release of index slots. The octet after that is the <i>liveness</i>
+ * octet: every process with the store open holds a shared lock on it, and
+ * a process that manages to lock it exclusively when opening the store
+ * knows that no other process is using the store, and so may perform
+ * maintenance such as deleting abandoned temporary files.
+ *
+ * The JVM does not permit two channels in the same process to hold
+ * overlapping locks on the same file, and so every store opened on the
+ * same directory in one process shares a single channel and a single set
+ * of locks.
+ */
+
+public final class CacheLockFile implements AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CacheLockFile.class);
+
+  private static final long INDEX_POSITION = CacheLayout.SHARDS;
+  private static final long LIVENESS_POSITION = CacheLayout.SHARDS + 1L;
+  private static final long MAXIMUM_BACKOFF_NANOS = 1_000_000L;
+  private static final ReentrantLock REGISTRY_LOCK = new ReentrantLock();
+  private static final HashMap<Path, Shared> REGISTRY = new HashMap<>();
+
+  private final Shared shared;
+  private final AtomicBoolean exclusive;
+  private final AtomicBoolean closed;
+
+  private CacheLockFile(
+    final Shared inShared,
+    final boolean inExclusive)
+  {
+    this.shared = Objects.requireNonNull(inShared, "shared");
+    this.exclusive = new AtomicBoolean(inExclusive);
+    this.closed = new AtomicBoolean(false);
+  }
+
+  /**
+   * Open the lock file of the given store directory. If no other process
+   * or store in this process has the store open, the returned lock file
+   * is <i>exclusive</i>, and no other store can be opened on the directory
+   * until {@link #share()} is called.
+   *
+   * @param directory The store directory, which must exist
+   *
+   * @return The lock file
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static CacheLockFile open(
+    final Path directory)
+    throws IOException
+  {
+    final var file = directory.toRealPath().resolve("lock");
+
+    final Shared shared;
+    REGISTRY_LOCK.lock();
+    try {
+      final var existing = REGISTRY.get(file);
+      if (existing != null) {
+        shared = existing;
+      } else {
+        shared = new Shared(
+          file,
+          AsynchronousFileChannel.open(file, CREATE, READ, WRITE)
+        );
+        REGISTRY.put(file, shared);
+      }
+      ++shared.references;
+    } finally {
+      REGISTRY_LOCK.unlock();
+    }
+
+    /*
+     * The open lock is held by an exclusive opener until it calls share(),
+     * and so other stores in this process wait here until the exclusive
+     * opener has finished its maintenance.
+     */
+
+    shared.openLock.lock();
+    try {
+      if (shared.liveness == null) {
+        final var acquired =
+          shared.channel.tryLock(LIVENESS_POSITION, 1L, false);
+        if (acquired != null) {
+          shared.liveness = acquired;
+          return new CacheLockFile(shared, true);
+        }
+        shared.liveness = lockLivenessShared(shared.channel);
+      }
+      shared.openLock.unlock();
+      return new CacheLockFile(shared, false);
+    } catch (final IOException | RuntimeException e) {
+      shared.openLock.unlock();
+      unreference(shared);
+      throw e;
+    }
+  }
+
+  private static FileLock lockLivenessShared(
+    final AsynchronousFileChannel channel)
+    throws IOException
+  {
+    var backoff = 1_000L;
+    while (true) {
+      final var acquired = channel.tryLock(LIVENESS_POSITION, 1L, true);
+      if (acquired != null) {
+        return acquired;
+      }
+      LockSupport.parkNanos(backoff);
+      backoff = Math.min(backoff * 2L, MAXIMUM_BACKOFF_NANOS);
+    }
+  }
+
+  private static void unreference(
+    final Shared shared)
+    throws IOException
+  {
+    REGISTRY_LOCK.lock();
+    try {
+      --shared.references;
+      if (shared.references > 0) {
+        return;
+      }
+
+      REGISTRY.remove(shared.file);
+      try {
+        if (shared.liveness != null) {
+          shared.liveness.release();
+        }
+      } finally {
+        shared.channel.close();
+      }
+    } finally {
+      REGISTRY_LOCK.unlock();
+    }
+  }
+
+  /**
+   * @return {@code true} if no other store was open on the directory when
+   * this lock file was opened, and {@link #share()} has not yet been called
+   */
+
+  public boolean isExclusive()
+  {
+    return this.exclusive.get();
+  }
+
+  /**
+   * Downgrade an exclusive lock file, allowing other stores to open the
+   * directory. Has no effect if the lock file is not exclusive.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public void share()
+    throws IOException
+  {
+    if (this.exclusive.compareAndSet(true, false)) {
+      try {
+        this.shared.liveness.release();
+        this.shared.liveness = lockLivenessShared(this.shared.channel);
+      } finally {
+        this.shared.openLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * @param shard The shard
+   *
+   * @return The lock held by writers to the given shard
+   */
+
+  public CacheFileLock shard(
+    final int shard)
+  {
+    return this.shared.shards[shard];
+  }
+
+  /**
+   * Acquire every shard lock, in order, so that no entry can be written
+   * or removed by any process.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public void lockAllShards()
+    throws IOException
+  {
+    var locked = 0;
+    try {
+      while (locked < CacheLayout.SHARDS) {
+        this.shard(locked).lock();
+        ++locked;
+      }
+    } catch (final IOException | RuntimeException e) {
+      this.unlockShards(locked);
+      throw e;
+    }
+  }
+
+  /**
+   * Release every shard lock acquired by {@link #lockAllShards()}.
+   */
+
+  public void unlockAllShards()
+  {
+    this.unlockShards(CacheLayout.SHARDS);
+  }
+
+  private void unlockShards(
+    final int locked)
+  {
+    for (int shard = locked - 1; shard >= 0; --shard) {
+      this.shard(shard).unlock();
+    }
+  }
+
+  /**
+   * @return The lock held during the allocation and release of index slots
+   */
+
+  public CacheFileLock index()
+  {
+    return this.shared.index;
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (this.closed.compareAndSet(false, true)) {
+      if (this.exclusive.compareAndSet(true, false)) {
+        this.shared.openLock.unlock();
+      }
+      LOG.trace("closing {}", this.shared.file);
+      unreference(this.shared);
+    }
+  }
+
+  private static final class Shared
+  {
+    private final Path file;
+    private final AsynchronousFileChannel channel;
+    private final CacheFileLock[] shards;
+    private final CacheFileLock index;
+    private final ReentrantLock openLock;
+    private FileLock liveness;
+    private int references;
+
+    Shared(
+      final Path inFile,
+      final AsynchronousFileChannel inChannel)
+    {
+      this.file = inFile;
+      this.channel = inChannel;
+      this.shards = new CacheFileLock[CacheLayout.SHARDS];
+      for (int shard = 0; shard < CacheLayout.SHARDS; ++shard) {
+        this.shards[shard] = CacheFileLock.shared(inChannel, shard);
+      }
+      this.index = CacheFileLock.shared(inChannel, INDEX_POSITION);
+      this.openLock = new ReentrantLock();
+      this.liveness = null;
+      this.references = 0;
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import com.io7m.jade.cache.CacheMappingType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A memory mapping of a cache entry, holding a lease on the entry.
+ */
+
+public final class CacheMapping implements CacheMappingType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CacheMapping.class);
+
+  private final CacheEntry entry;
+  private final MappedByteBuffer buffer;
+  private final Consumer<CacheEntry> onRelease;
+  private final AtomicBoolean closed;
+
+  /**
+   * A memory mapping of a cache entry. The caller must already hold a
+   * lease on the entry.
+   *
+   * @param inEntry     The entry
+   * @param inBuffer    The read-only mapped buffer
+   * @param inOnRelease A function that releases the lease
+   */
+
+  public CacheMapping(
+    final CacheEntry inEntry,
+    final MappedByteBuffer inBuffer,
+    final Consumer<CacheEntry> inOnRelease)
+  {
+    this.entry = Objects.requireNonNull(inEntry, "entry");
+    this.buffer = Objects.requireNonNull(inBuffer, "buffer");
+    this.onRelease = Objects.requireNonNull(inOnRelease, "onRelease");
+    this.closed = new AtomicBoolean(false);
+  }
+
+  /**
+   * Map an encoded entry by decoding it into a temporary file and mapping
+   * that file. The temporary file is deleted when the mapping is closed.
+   * The caller must already hold a lease on the entry.
+   *
+   * @param entry              The entry
+   * @param channel            The channel of the entry file
+   * @param encoding           The encoding of the store
+   * @param header             The encoding header of the entry file
+   * @param temporaryDirectory The directory for the decoded file
+   * @param onRelease          A function that releases the lease
+   *
+   * @return A mapping of the decoded entry
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static CacheMapping decode(
+    final CacheEntry entry,
+    final FileChannel channel,
+    final CacheEncoding encoding,
+    final CacheEncoding.Header header,
+    final Path temporaryDirectory,
+    final Consumer<CacheEntry> onRelease)
+    throws IOException
+  {
+    final var decoded =
+      Files.createTempFile(temporaryDirectory, entry.hash(), ".decoded");
+
+    try {
+      try (var input = encoding.decoder(channel, header);
+           var output = FileChannel.open(decoded, READ, WRITE)) {
+        CacheTransfers.copy(input, header.decodedSize(), output, (t, s) -> {
+
+        });
+        final var buffer =
+          output.map(FileChannel.MapMode.READ_ONLY, 0L, header.decodedSize());
+        return new CacheMapping(entry, buffer, released -> {
+          onRelease.accept(released);
+          try {
+            Files.deleteIfExists(decoded);
+          } catch (final IOException e) {
+            LOG.warn("unable to delete decoded entry {}: ", decoded, e);
+          }
+        });
+      }
+    } catch (final IOException | RuntimeException e) {
+      Files.deleteIfExists(decoded);
+      throw e;
+    }
+  }
+
+  @Override
+  public long sizeBytes()
+  {
+    return this.buffer.capacity();
+  }
+
+  @Override
+  public MappedByteBuffer buffer()
+  {
+    if (this.closed.get()) {
+      throw new IllegalStateException("Mapping is closed");
+    }
+    return this.buffer.duplicate();
+  }
+
+  @Override
+  public void close()
+  {
+    if (this.closed.compareAndSet(false, true)) {
+      this.onRelease.accept(this.entry);
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "[CacheMapping %s %d]",
+      this.entry.hash(),
+      Integer.valueOf(this.buffer.capacity())
+    );
+  }
+}
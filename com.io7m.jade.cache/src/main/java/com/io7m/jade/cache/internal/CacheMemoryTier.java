@@ -0,0 +1,237 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An in-memory tier of a cache store, bounded by the total size of its
+ * entries. Entries are keyed by hashed key. When the tier exceeds its
+ * maximum size, one thread evicts the least recently used entries,
+ * bringing the tier down to nine tenths of its maximum size. Data is
+ * copied on the way in and on the way out, so that callers can never
+ * modify the data held in the tier.
+ *
+ * The tier does not itself keep its contents consistent with the store
+ * directory; the store is responsible for writing through to, and
+ * invalidating, the tier.
+ */
+
+public final class CacheMemoryTier
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CacheMemoryTier.class);
+
+  private final ConcurrentHashMap<String, Item> items;
+  private final ReentrantLock evictionLock;
+  private final AtomicLong sizeBytes;
+  private final long maximumSizeBytes;
+  private final long maximumEntrySizeBytes;
+  private final long targetSizeBytes;
+
+  /**
+   * An in-memory tier of a cache store.
+   *
+   * @param inMaximumSizeBytes      The maximum total size of the tier;
+   *                                zero disables the tier
+   * @param inMaximumEntrySizeBytes The maximum size of an entry
+   */
+
+  public CacheMemoryTier(
+    final long inMaximumSizeBytes,
+    final long inMaximumEntrySizeBytes)
+  {
+    this.maximumSizeBytes = inMaximumSizeBytes;
+    this.maximumEntrySizeBytes =
+      Math.min(inMaximumEntrySizeBytes, inMaximumSizeBytes);
+    this.targetSizeBytes = inMaximumSizeBytes - inMaximumSizeBytes / 10L;
+    this.items = new ConcurrentHashMap<>();
+    this.evictionLock = new ReentrantLock();
+    this.sizeBytes = new AtomicLong(0L);
+  }
+
+  /**
+   * @return {@code true} if the tier can hold any entries
+   */
+
+  public boolean isEnabled()
+  {
+    return this.maximumSizeBytes > 0L;
+  }
+
+  /**
+   * Retrieve a copy of the data held for the given hash.
+   *
+   * @param hash The hashed key
+   *
+   * @return The data, if held
+   */
+
+  public Optional<byte[]> get(
+    final String hash)
+  {
+    final var item = this.items.get(hash);
+    if (item == null) {
+      return Optional.empty();
+    }
+    item.accessed = System.nanoTime();
+    return Optional.of(item.data.clone());
+  }
+
+  /**
+   * Hold a copy of the given data for the given hash, replacing any data
+   * already held. Data larger than the maximum entry size is not held,
+   * and any data already held for the hash is discarded.
+   *
+   * @param hash The hashed key
+   * @param data The data
+   */
+
+  public void put(
+    final String hash,
+    final byte[] data)
+  {
+    Objects.requireNonNull(hash, "hash");
+    Objects.requireNonNull(data, "data");
+
+    if (data.length > this.maximumEntrySizeBytes) {
+      this.remove(hash);
+      return;
+    }
+
+    final var item = new Item(data.clone(), System.nanoTime());
+    final var previous = this.items.put(hash, item);
+    var delta = (long) data.length;
+    if (previous != null) {
+      delta -= previous.data.length;
+    }
+    this.sizeBytes.addAndGet(delta);
+    this.evictIfNecessary();
+  }
+
+  /**
+   * Discard any data held for the given hash.
+   *
+   * @param hash The hashed key
+   */
+
+  public void remove(
+    final String hash)
+  {
+    final var previous = this.items.remove(hash);
+    if (previous != null) {
+      this.sizeBytes.addAndGet(-previous.data.length);
+    }
+  }
+
+  /**
+   * Discard all data.
+   */
+
+  public void clear()
+  {
+    for (final var hash : this.items.keySet()) {
+      this.remove(hash);
+    }
+  }
+
+  /**
+   * @return The total size in octets of the data held
+   */
+
+  public long sizeBytes()
+  {
+    return this.sizeBytes.get();
+  }
+
+  /**
+   * @return The number of entries held
+   */
+
+  public long entryCount()
+  {
+    return this.items.size();
+  }
+
+  private void evictIfNecessary()
+  {
+    if (this.sizeBytes.get() <= this.maximumSizeBytes) {
+      return;
+    }
+
+    this.evictionLock.lock();
+    try {
+      if (this.sizeBytes.get() <= this.maximumSizeBytes) {
+        return;
+      }
+
+      final var candidates = new ArrayList<Candidate>(this.items.size());
+      for (final var e : this.items.entrySet()) {
+        final var item = e.getValue();
+        candidates.add(new Candidate(e.getKey(), item, item.accessed));
+      }
+      candidates.sort(Comparator.comparingLong(Candidate::accessed));
+
+      for (final var candidate : candidates) {
+        if (this.sizeBytes.get() <= this.targetSizeBytes) {
+          break;
+        }
+        if (this.items.remove(candidate.hash(), candidate.item())) {
+          this.sizeBytes.addAndGet(-candidate.item().data.length);
+        }
+      }
+
+      LOG.trace(
+        "evicted memory tier to {} octets",
+        Long.valueOf(this.sizeBytes.get())
+      );
+    } finally {
+      this.evictionLock.unlock();
+    }
+  }
+
+  private static final class Item
+  {
+    private final byte[] data;
+    private volatile long accessed;
+
+    Item(
+      final byte[] inData,
+      final long inAccessed)
+    {
+      this.data = inData;
+      this.accessed = inAccessed;
+    }
+  }
+
+  private record Candidate(
+    String hash,
+    Item item,
+    long accessed)
+  {
+
+  }
+}
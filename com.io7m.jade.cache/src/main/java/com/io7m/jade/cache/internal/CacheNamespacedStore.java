@@ -0,0 +1,330 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import com.io7m.jade.cache.CacheNamespaceConfiguration;
+import com.io7m.jade.cache.CacheNamespacedStoreConfiguration;
+import com.io7m.jade.cache.CacheNamespacedStoreType;
+import com.io7m.jade.cache.CacheStatistics;
+import com.io7m.jade.cache.CacheStoreConfiguration;
+import com.io7m.jade.cache.CacheStoreType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A cache store divided into namespaces, each of which is a separate
+ * {@link CacheStore} held in the {@code namespaces} subdirectory.
+ *
+ * The global maximum size is enforced after each write to any namespace.
+ * The amount to keep of each namespace is found by "water filling": the
+ * largest fraction {@code L} is found such that, if every namespace were
+ * reduced to at most {@code L} times its own maximum size, the total would
+ * be at most the target size. Namespaces already below that fraction of
+ * their maximum sizes are left untouched, and so a namespace that stays
+ * well within its own quota is protected from namespaces that do not.
+ */
+
+public final class CacheNamespacedStore implements CacheNamespacedStoreType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CacheNamespacedStore.class);
+
+  private static final int SEARCH_ITERATIONS = 64;
+
+  private final CacheNamespacedStoreConfiguration configuration;
+  private final TreeMap<String, CacheStore> stores;
+  private final TreeMap<String, CacheNamespaceConfiguration> namespaces;
+  private final ReentrantLock evictionLock;
+  private final LongAdder globalEvictions;
+  private final AtomicBoolean closed;
+  private final long targetSizeBytes;
+
+  private CacheNamespacedStore(
+    final CacheNamespacedStoreConfiguration inConfiguration)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.stores = new TreeMap<>();
+    this.namespaces = new TreeMap<>();
+    this.evictionLock = new ReentrantLock();
+    this.globalEvictions = new LongAdder();
+    this.closed = new AtomicBoolean(false);
+
+    final var maximum = inConfiguration.maximumSizeBytes();
+    this.targetSizeBytes = maximum - maximum / 10L;
+  }
+
+  /**
+   * Open a namespaced cache store, creating any namespaces that do not
+   * exist.
+   *
+   * @param configuration The store configuration
+   *
+   * @return A namespaced cache store
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static CacheNamespacedStore open(
+    final CacheNamespacedStoreConfiguration configuration)
+    throws IOException
+  {
+    Objects.requireNonNull(configuration, "configuration");
+
+    final var namespacesDirectory =
+      configuration.directory().resolve("namespaces");
+    final var store = new CacheNamespacedStore(configuration);
+
+    try {
+      for (final var namespace : configuration.namespaces()) {
+        store.namespaces.put(namespace.name(), namespace);
+        store.stores.put(
+          namespace.name(),
+          CacheStore.open(
+            storeConfiguration(configuration, namespacesDirectory, namespace),
+            store::enforceMaximumSize
+          )
+        );
+      }
+    } catch (final IOException | RuntimeException e) {
+      try {
+        store.close();
+      } catch (final IOException x) {
+        e.addSuppressed(x);
+      }
+      throw e;
+    }
+
+    LOG.debug(
+      "opened {} with {} namespaces ({} octets)",
+      configuration.directory(),
+      Integer.valueOf(store.stores.size()),
+      Long.valueOf(store.sizeBytes())
+    );
+    store.enforceMaximumSize();
+    return store;
+  }
+
+  private static CacheStoreConfiguration storeConfiguration(
+    final CacheNamespacedStoreConfiguration configuration,
+    final Path namespacesDirectory,
+    final CacheNamespaceConfiguration namespace)
+  {
+    return CacheStoreConfiguration.builder()
+      .setDirectory(namespacesDirectory.resolve(namespace.name()))
+      .setMaximumSizeBytes(namespace.maximumSizeBytes())
+      .setEvictionPolicy(namespace.evictionPolicy())
+      .setMemoryMaximumSizeBytes(namespace.memoryMaximumSizeBytes())
+      .setCompression(namespace.compression())
+      .setExpireAfterWrite(namespace.expireAfterWrite())
+      .setRefreshAfterWrite(namespace.refreshAfterWrite())
+      .setClock(configuration.clock())
+      .build();
+  }
+
+  @Override
+  public CacheNamespacedStoreConfiguration configuration()
+  {
+    return this.configuration;
+  }
+
+  @Override
+  public SortedSet<String> namespaces()
+  {
+    return Collections.unmodifiableSortedSet(this.stores.navigableKeySet());
+  }
+
+  @Override
+  public CacheStoreType namespace(
+    final String name)
+  {
+    Objects.requireNonNull(name, "name");
+    this.checkNotClosed();
+
+    final var store = this.stores.get(name);
+    if (store == null) {
+      throw new IllegalArgumentException(
+        String.format("No namespace named '%s' is configured", name)
+      );
+    }
+    return store;
+  }
+
+  @Override
+  public long sizeBytes()
+  {
+    var total = 0L;
+    for (final var store : this.stores.values()) {
+      total += store.sizeBytes();
+    }
+    return total;
+  }
+
+  @Override
+  public long entryCount()
+  {
+    var total = 0L;
+    for (final var store : this.stores.values()) {
+      total += store.entryCount();
+    }
+    return total;
+  }
+
+  @Override
+  public Map<String, CacheStatistics> statistics()
+  {
+    final var statistics = new TreeMap<String, CacheStatistics>();
+    for (final var entry : this.stores.entrySet()) {
+      statistics.put(entry.getKey(), entry.getValue().statistics());
+    }
+    return Collections.unmodifiableSortedMap(statistics);
+  }
+
+  @Override
+  public long globalEvictions()
+  {
+    return this.globalEvictions.sum();
+  }
+
+  /**
+   * Enforce the global maximum size, if it has been exceeded.
+   */
+
+  private void enforceMaximumSize()
+  {
+    if (this.closed.get() || this.sizeBytes() <= this.configuration.maximumSizeBytes()) {
+      return;
+    }
+
+    this.evictionLock.lock();
+    try {
+      if (this.sizeBytes() <= this.configuration.maximumSizeBytes()) {
+        return;
+      }
+
+      final var sizes = new TreeMap<String, Long>();
+      for (final var entry : this.stores.entrySet()) {
+        sizes.put(entry.getKey(), Long.valueOf(entry.getValue().sizeBytes()));
+      }
+
+      final var level = this.fillLevel(sizes);
+      var evicted = 0L;
+      for (final var entry : sizes.entrySet()) {
+        final var name = entry.getKey();
+        final var quota = this.namespaces.get(name).maximumSizeBytes();
+        final var keep = (long) Math.floor(level * (double) quota);
+        if (entry.getValue().longValue() > keep) {
+          evicted += this.stores.get(name).evictTo(keep);
+        }
+      }
+
+      this.globalEvictions.add(evicted);
+      LOG.debug(
+        "evicted {} entries to enforce the global maximum size ({} octets remaining)",
+        Long.valueOf(evicted),
+        Long.valueOf(this.sizeBytes())
+      );
+    } finally {
+      this.evictionLock.unlock();
+    }
+  }
+
+  /**
+   * Find the largest fraction of its maximum size that each namespace
+   * could keep such that the total size is at most the target size.
+   */
+
+  private double fillLevel(
+    final Map<String, Long> sizes)
+  {
+    var low = 0.0;
+    var high = 0.0;
+    for (final var entry : sizes.entrySet()) {
+      final var quota = this.namespaces.get(entry.getKey()).maximumSizeBytes();
+      high = Math.max(high, entry.getValue().doubleValue() / (double) quota);
+    }
+
+    for (int iteration = 0; iteration < SEARCH_ITERATIONS; ++iteration) {
+      final var middle = (low + high) / 2.0;
+      if (this.keptAt(sizes, middle) <= this.targetSizeBytes) {
+        low = middle;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private long keptAt(
+    final Map<String, Long> sizes,
+    final double level)
+  {
+    var kept = 0L;
+    for (final var entry : sizes.entrySet()) {
+      final var quota = this.namespaces.get(entry.getKey()).maximumSizeBytes();
+      kept += Math.min(entry.getValue().longValue(), (long) Math.floor(level * (double) quota));
+    }
+    return kept;
+  }
+
+  private void checkNotClosed()
+  {
+    if (this.closed.get()) {
+      throw new IllegalStateException(
+        String.format(
+          "Cache store %s is closed",
+          this.configuration.directory())
+      );
+    }
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (!this.closed.compareAndSet(false, true)) {
+      return;
+    }
+
+    IOException failure = null;
+    for (final var store : this.stores.values()) {
+      try {
+        store.close();
+      } catch (final IOException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The background deletion of invalidated generations of a store.
+ *
+ * Invalidating a store moves its entries directory, in a single atomic
+ * rename, into the {@code purge} directory under the number of the
+ * generation that it held. The purger deletes these directories in the
+ * background, on a small pool of low priority daemon threads, at a limited
+ * number of files per second so that purging a large store does not
+ * compete with the application for disk bandwidth. The shard directories
+ * of a generation are deleted in parallel, and the directory of the
+ * generation itself is deleted last.
+ *
+ * A purge that is interrupted, because the store was closed or the process
+ * was terminated, leaves the remainder of the generation in the purge
+ * directory, where it is invisible to the store, and the purge is resumed
+ * when the store is next opened.
+ */
+
+public final class CachePurger implements AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CachePurger.class);
+
+  private final Path directory;
+  private final CacheRateLimiter limiter;
+  private final ExecutorService executor;
+  private final AtomicInteger pending;
+  private final LongAdder purgedFiles;
+
+  /**
+   * The background deletion of invalidated generations of a store.
+   *
+   * @param inDirectory The purge directory
+   * @param threads     The number of threads used to delete files
+   * @param perSecond   The maximum number of files deleted per second
+   */
+
+  public CachePurger(
+    final Path inDirectory,
+    final int threads,
+    final double perSecond)
+  {
+    this.directory = Objects.requireNonNull(inDirectory, "directory");
+    this.limiter = new CacheRateLimiter(perSecond);
+    this.pending = new AtomicInteger(0);
+    this.purgedFiles = new LongAdder();
+
+    final var created = new AtomicInteger(0);
+    this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+      final var thread = new Thread(runnable);
+      thread.setName(
+        String.format("com.io7m.jade.cache.purge[%d]", Integer.valueOf(created.incrementAndGet()))
+      );
+      thread.setDaemon(true);
+      thread.setPriority(Thread.MIN_PRIORITY);
+      return thread;
+    });
+  }
+
+  /**
+   * @param directory  The purge directory
+   * @param generation The generation
+   *
+   * @return The directory that holds the entries of the given generation
+   *         while it is being purged
+   */
+
+  public static Path generationDirectory(
+    final Path directory,
+    final long generation)
+  {
+    return directory.resolve(Long.toString(generation));
+  }
+
+  /**
+   * Find the latest generation awaiting deletion.
+   *
+   * @param directory The purge directory
+   *
+   * @return The latest generation, if any
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static OptionalLong latestGeneration(
+    final Path directory)
+    throws IOException
+  {
+    return generations(directory)
+      .stream()
+      .mapToLong(CachePurger::generationOf)
+      .filter(generation -> generation >= 0L)
+      .max();
+  }
+
+  private static List<Path> generations(
+    final Path directory)
+    throws IOException
+  {
+    if (!Files.isDirectory(directory)) {
+      return List.of();
+    }
+    try (var stream = Files.list(directory)) {
+      return stream.filter(file -> generationOf(file) >= 0L).toList();
+    }
+  }
+
+  private static long generationOf(
+    final Path file)
+  {
+    try {
+      return Long.parseLong(file.getFileName().toString());
+    } catch (final NumberFormatException e) {
+      return -1L;
+    }
+  }
+
+  /**
+   * Schedule the deletion of every generation in the purge directory.
+   */
+
+  public void resume()
+  {
+    try {
+      for (final var generation : generations(this.directory)) {
+        LOG.debug("resuming purge of {}", generation);
+        this.purge(generation);
+      }
+    } catch (final IOException e) {
+      LOG.warn("unable to list purge directory {}: ", this.directory, e);
+    }
+  }
+
+  /**
+   * Schedule the deletion of a generation directory.
+   *
+   * @param generation The generation directory
+   */
+
+  public void purge(
+    final Path generation)
+  {
+    Objects.requireNonNull(generation, "generation");
+
+    final List<Path> children;
+    try (var stream = Files.list(generation)) {
+      children = stream.toList();
+    } catch (final NoSuchFileException e) {
+      return;
+    } catch (final IOException e) {
+      LOG.warn("unable to list generation {}: ", generation, e);
+      return;
+    }
+
+    this.pending.incrementAndGet();
+    if (children.isEmpty()) {
+      this.executor.execute(() -> this.finish(generation));
+      return;
+    }
+
+    final var remaining = new AtomicInteger(children.size());
+    for (final var child : children) {
+      this.executor.execute(() -> {
+        try {
+          this.deleteTree(child);
+        } finally {
+          if (remaining.decrementAndGet() == 0) {
+            this.finish(generation);
+          }
+        }
+      });
+    }
+  }
+
+  private void finish(
+    final Path generation)
+  {
+    try {
+      Files.deleteIfExists(generation);
+      LOG.debug("purged {}", generation);
+    } catch (final IOException e) {
+      LOG.debug("unable to delete generation {}: ", generation, e);
+    } finally {
+      this.pending.decrementAndGet();
+    }
+  }
+
+  private void deleteTree(
+    final Path root)
+  {
+    try {
+      Files.walkFileTree(root, new Deleter(this.limiter, this.purgedFiles));
+    } catch (final IOException e) {
+      LOG.debug("unable to purge {}: ", root, e);
+    }
+  }
+
+  /**
+   * @return {@code true} if no purge is in progress
+   */
+
+  public boolean isIdle()
+  {
+    return this.pending.get() == 0;
+  }
+
+  /**
+   * @return The number of files deleted
+   */
+
+  public long purgedFiles()
+  {
+    return this.purgedFiles.sum();
+  }
+
+  @Override
+  public void close()
+  {
+    this.executor.shutdownNow();
+    try {
+      if (!this.executor.awaitTermination(1L, TimeUnit.SECONDS)) {
+        LOG.debug("purge threads did not terminate");
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * A visitor that deletes every file and directory that it visits, at a
+   * limited rate, and stops if its thread is interrupted.
+   */
+
+  private static final class Deleter extends SimpleFileVisitor<Path>
+  {
+    private final CacheRateLimiter limiter;
+    private final LongAdder deleted;
+
+    Deleter(
+      final CacheRateLimiter inLimiter,
+      final LongAdder inDeleted)
+    {
+      this.limiter = inLimiter;
+      this.deleted = inDeleted;
+    }
+
+    @Override
+    public FileVisitResult visitFile(
+      final Path file,
+      final BasicFileAttributes attributes)
+    {
+      if (!this.limiter.acquire()) {
+        return FileVisitResult.TERMINATE;
+      }
+      try {
+        Files.deleteIfExists(file);
+        this.deleted.increment();
+      } catch (final IOException e) {
+        LOG.debug("unable to delete {}: ", file, e);
+      }
+      return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFileFailed(
+      final Path file,
+      final IOException exception)
+    {
+      LOG.debug("unable to visit {}: ", file, exception);
+      return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult postVisitDirectory(
+      final Path directory,
+      final IOException exception)
+    {
+      try {
+        Files.deleteIfExists(directory);
+      } catch (final IOException e) {
+        LOG.debug("unable to delete {}: ", directory, e);
+      }
+      return FileVisitResult.CONTINUE;
+    }
+  }
+}
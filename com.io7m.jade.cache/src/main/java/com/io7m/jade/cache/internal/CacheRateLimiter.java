@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A limiter that spaces operations evenly so that no more than a given
+ * number are performed per second, across all threads that share it.
+ */
+
+public final class CacheRateLimiter
+{
+  private final long intervalNanos;
+  private final ReentrantLock lock;
+  private long next;
+
+  /**
+   * A limiter that spaces operations evenly.
+   *
+   * @param perSecond The maximum number of operations per second
+   */
+
+  public CacheRateLimiter(
+    final double perSecond)
+  {
+    if (!(perSecond > 0.0)) {
+      throw new IllegalArgumentException(
+        String.format("Rate %f must be positive", Double.valueOf(perSecond))
+      );
+    }
+
+    this.intervalNanos = Math.max(1L, (long) (1_000_000_000.0 / perSecond));
+    this.lock = new ReentrantLock();
+    this.next = System.nanoTime();
+  }
+
+  /**
+   * Wait until the next operation may be performed.
+   *
+   * @return {@code false} if the calling thread was interrupted while
+   *         waiting, in which case the interrupt status is restored
+   */
+
+  public boolean acquire()
+  {
+    final long wait;
+    this.lock.lock();
+    try {
+      final var now = System.nanoTime();
+      final var scheduled = Math.max(this.next, now);
+      this.next = scheduled + this.intervalNanos;
+      wait = scheduled - now;
+    } finally {
+      this.lock.unlock();
+    }
+
+    if (wait <= 0L) {
+      return !Thread.currentThread().isInterrupted();
+    }
+
+    try {
+      TimeUnit.NANOSECONDS.sleep(wait);
+      return true;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
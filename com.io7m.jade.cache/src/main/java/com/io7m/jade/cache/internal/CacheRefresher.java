@@ -0,0 +1,186 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import com.io7m.jade.cache.CacheLoaderType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The refreshing of stale entries in the background.
+ *
+ * A refresh runs the loader of an entry on one of a fixed pool of daemon
+ * threads, and writes the result into the store. At most one refresh is
+ * in progress for a key at any time: a request to refresh a key that is
+ * already being refreshed is ignored. A refresh that fails is logged and
+ * counted, and leaves the existing entry in place.
+ */
+
+public final class CacheRefresher implements AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CacheRefresher.class);
+
+  private final ExecutorService executor;
+  private final Set<String> refreshing;
+  private final LongAdder refreshes;
+  private final LongAdder refreshFailures;
+
+  /**
+   * The refreshing of stale entries.
+   *
+   * @param threads The number of refresh threads
+   */
+
+  public CacheRefresher(
+    final int threads)
+  {
+    this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+      final var thread = new Thread(runnable);
+      thread.setName("com.io7m.jade.cache.refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.refreshing = ConcurrentHashMap.newKeySet();
+    this.refreshes = new LongAdder();
+    this.refreshFailures = new LongAdder();
+  }
+
+  /**
+   * Refresh an entry in the background, unless it is already being
+   * refreshed.
+   *
+   * @param key    The key
+   * @param hash   The hashed key
+   * @param loader The loader
+   * @param writer The function that writes the loaded data
+   *
+   * @return {@code true} if a refresh was started
+   */
+
+  public boolean refresh(
+    final String key,
+    final String hash,
+    final CacheLoaderType loader,
+    final WriterType writer)
+  {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(hash, "hash");
+    Objects.requireNonNull(loader, "loader");
+    Objects.requireNonNull(writer, "writer");
+
+    if (!this.refreshing.add(hash)) {
+      return false;
+    }
+
+    try {
+      this.executor.execute(() -> {
+        try {
+          this.run(key, loader, writer);
+        } finally {
+          this.refreshing.remove(hash);
+        }
+      });
+      return true;
+    } catch (final RejectedExecutionException e) {
+      this.refreshing.remove(hash);
+      return false;
+    }
+  }
+
+  private void run(
+    final String key,
+    final CacheLoaderType loader,
+    final WriterType writer)
+  {
+    try {
+      final var data =
+        Objects.requireNonNull(loader.load(key), "loader result");
+      writer.write(key, data);
+      this.refreshes.increment();
+    } catch (final InterruptedException e) {
+      this.refreshFailures.increment();
+      Thread.currentThread().interrupt();
+    } catch (final Exception e) {
+      this.refreshFailures.increment();
+      LOG.warn("unable to refresh key {}: ", key, e);
+    }
+  }
+
+  /**
+   * @return The number of refreshes completed
+   */
+
+  public long refreshes()
+  {
+    return this.refreshes.sum();
+  }
+
+  /**
+   * @return The number of refreshes that failed
+   */
+
+  public long refreshFailures()
+  {
+    return this.refreshFailures.sum();
+  }
+
+  @Override
+  public void close()
+  {
+    this.executor.shutdownNow();
+    try {
+      if (!this.executor.awaitTermination(1L, TimeUnit.SECONDS)) {
+        LOG.debug("refresh threads did not terminate");
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * A function that writes refreshed data into a store.
+   */
+
+  @FunctionalInterface
+  public interface WriterType
+  {
+    /**
+     * Write refreshed data.
+     *
+     * @param key  The key
+     * @param data The data
+     *
+     * @throws IOException On I/O errors
+     */
+
+    void write(
+      String key,
+      byte[] data)
+      throws IOException;
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import com.io7m.jade.cache.CacheEvictionCandidate;
+import com.io7m.jade.cache.CacheEvictionPolicyType;
+import com.io7m.jade.cache.CacheSimulationResult;
+import com.io7m.jade.cache.CacheTraceAccess;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Objects;
+
+/**
+ * A simulated read-through cache that tracks only the sizes and access
+ * times of its entries. The logical time of an access is its position in
+ * the trace. Entries larger than the cache are never written, as a cache
+ * store refuses them.
+ */
+
+public final class CacheSimulator
+{
+  private final CacheEvictionPolicyType policy;
+  private final long maximumSizeBytes;
+  private final long targetSizeBytes;
+  private final HashMap<String, Entry> entries;
+  private long sizeBytes;
+  private long time;
+  private long hits;
+  private long hitBytes;
+  private long requestBytes;
+  private long evictions;
+
+  /**
+   * A simulated read-through cache.
+   *
+   * @param inPolicy           The eviction policy
+   * @param inMaximumSizeBytes The maximum size of the cache
+   */
+
+  public CacheSimulator(
+    final CacheEvictionPolicyType inPolicy,
+    final long inMaximumSizeBytes)
+  {
+    this.policy = Objects.requireNonNull(inPolicy, "policy");
+    this.maximumSizeBytes = inMaximumSizeBytes;
+    this.targetSizeBytes = inMaximumSizeBytes - inMaximumSizeBytes / 10L;
+    this.entries = new HashMap<>();
+  }
+
+  /**
+   * Replay an access.
+   *
+   * @param access The access
+   */
+
+  public void access(
+    final CacheTraceAccess access)
+  {
+    ++this.time;
+
+    final var hash = CacheKeys.hash(access.key());
+    final var size = access.sizeBytes();
+    this.requestBytes += size;
+
+    final var existing = this.entries.get(hash);
+    if (existing != null && existing.sizeBytes == size) {
+      ++this.hits;
+      this.hitBytes += size;
+      existing.lastAccess = this.time;
+      this.policy.recordAccess(hash, size);
+      return;
+    }
+
+    this.policy.recordMiss(hash);
+    if (existing != null) {
+      this.remove(hash);
+    }
+    if (size > this.maximumSizeBytes) {
+      return;
+    }
+
+    this.entries.put(hash, new Entry(size, this.time));
+    this.sizeBytes += size;
+    this.policy.recordAccess(hash, size);
+
+    if (this.sizeBytes > this.maximumSizeBytes) {
+      this.evict();
+    }
+  }
+
+  private void remove(
+    final String hash)
+  {
+    final var entry = this.entries.remove(hash);
+    this.sizeBytes -= entry.sizeBytes;
+    this.policy.recordRemoval(hash);
+  }
+
+  private void evict()
+  {
+    final var candidates = new ArrayList<CacheEvictionCandidate>(this.entries.size());
+    for (final var e : this.entries.entrySet()) {
+      final var entry = e.getValue();
+      candidates.add(
+        CacheEvictionCandidate.of(e.getKey(), entry.sizeBytes, entry.lastAccess)
+      );
+    }
+
+    for (final var candidate : this.policy.order(candidates, this.maximumSizeBytes)) {
+      if (this.sizeBytes <= this.targetSizeBytes) {
+        break;
+      }
+      this.policy.recordEviction(candidate);
+      this.remove(candidate.hash());
+      ++this.evictions;
+    }
+  }
+
+  /**
+   * @return The result of the simulation so far
+   */
+
+  public CacheSimulationResult result()
+  {
+    return CacheSimulationResult.builder()
+      .setPolicy(this.policy.name())
+      .setMaximumSizeBytes(this.maximumSizeBytes)
+      .setRequests(this.time)
+      .setHits(this.hits)
+      .setRequestBytes(this.requestBytes)
+      .setHitBytes(this.hitBytes)
+      .setEvictions(this.evictions)
+      .build();
+  }
+
+  private static final class Entry
+  {
+    private final long sizeBytes;
+    private long lastAccess;
+
+    Entry(
+      final long inSizeBytes,
+      final long inLastAccess)
+    {
+      this.sizeBytes = inSizeBytes;
+      this.lastAccess = inLastAccess;
+    }
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import com.io7m.jade.cache.CacheLoadException;
+import com.io7m.jade.cache.CacheLoaderType;
+import com.io7m.jade.cache.CacheStoreType;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesced loading of missing entries.
+ *
+ * The first thread to miss a key becomes the owner of a <i>flight</i> for
+ * that key: it runs the loader, writes the result into the store, and
+ * then completes the flight. Every other thread that misses the same key
+ * while the flight is in progress waits for the flight instead of running
+ * the loader itself. A failed flight is completed exceptionally and
+ * forgotten without writing anything, so the next miss starts a new
+ * flight.
+ *
+ * Threads never block while holding a monitor: flights are registered
+ * with {@link ConcurrentHashMap#putIfAbsent}, which does not run any
+ * user code, the loader runs on the thread of the owner, and waiting
+ * threads park in {@link CompletableFuture#get()}. Virtual threads that
+ * wait for a flight therefore unmount from their carrier threads.
+ */
+
+public final class CacheSingleFlight
+{
+  private final ConcurrentHashMap<String, Flight> flights;
+  private final LongAdder loads;
+  private final LongAdder loadFailures;
+  private final LongAdder loadsCoalesced;
+
+  /**
+   * Coalesced loading of missing entries.
+   */
+
+  public CacheSingleFlight()
+  {
+    this.flights = new ConcurrentHashMap<>();
+    this.loads = new LongAdder();
+    this.loadFailures = new LongAdder();
+    this.loadsCoalesced = new LongAdder();
+  }
+
+  /**
+   * Retrieve the data stored under the given key, loading and storing it
+   * if there is no entry.
+   *
+   * @param store  The store
+   * @param key    The key
+   * @param loader The loader
+   *
+   * @return The data
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public byte[] getOrCompute(
+    final CacheStoreType store,
+    final String key,
+    final CacheLoaderType loader)
+    throws IOException
+  {
+    Objects.requireNonNull(store, "store");
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(loader, "loader");
+
+    final var existing = store.get(key);
+    if (existing.isPresent()) {
+      return existing.get();
+    }
+
+    final var hash = CacheKeys.hash(key);
+    final var flight = new Flight(Thread.currentThread(), new CompletableFuture<>());
+    final var current = this.flights.putIfAbsent(hash, flight);
+    if (current != null) {
+      return this.await(key, current);
+    }
+
+    try {
+      final var data = this.fly(store, key, loader);
+      flight.result.complete(data);
+      return data.clone();
+    } catch (final IOException | RuntimeException | Error e) {
+      flight.result.completeExceptionally(e);
+      throw e;
+    } finally {
+      this.flights.remove(hash, flight);
+    }
+  }
+
+  private byte[] fly(
+    final CacheStoreType store,
+    final String key,
+    final CacheLoaderType loader)
+    throws IOException
+  {
+    /*
+     * A flight for the same key may have completed between the lookup
+     * and the registration of this flight.
+     */
+
+    final Optional<byte[]> existing = store.get(key);
+    if (existing.isPresent()) {
+      return existing.get();
+    }
+
+    this.loads.increment();
+
+    final byte[] data;
+    try {
+      data = Objects.requireNonNull(loader.load(key), "loader result");
+    } catch (final InterruptedException e) {
+      this.loadFailures.increment();
+      Thread.currentThread().interrupt();
+      throw new CacheLoadException(key, e);
+    } catch (final Exception e) {
+      this.loadFailures.increment();
+      throw new CacheLoadException(key, e);
+    }
+
+    store.put(key, data);
+    return data;
+  }
+
+  private byte[] await(
+    final String key,
+    final Flight flight)
+    throws IOException
+  {
+    if (flight.owner == Thread.currentThread()) {
+      throw new IllegalStateException(
+        String.format("Loader for key %s recursively loads the same key", key)
+      );
+    }
+
+    this.loadsCoalesced.increment();
+    try {
+      return flight.result.get().clone();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      final var ex = new InterruptedIOException(
+        String.format("Interrupted waiting to load key %s", key)
+      );
+      ex.initCause(e);
+      throw ex;
+    } catch (final ExecutionException e) {
+      throw rethrow(key, e.getCause());
+    }
+  }
+
+  /**
+   * Rethrow the failure of another thread's flight, wrapped in a new
+   * exception so that the stack trace of the waiting thread is preserved.
+   */
+
+  private static IOException rethrow(
+    final String key,
+    final Throwable cause)
+  {
+    if (cause instanceof final CacheLoadException e) {
+      return new CacheLoadException(key, e.getCause());
+    }
+    return new CacheLoadException(key, cause);
+  }
+
+  /**
+   * @return The number of times a loader has been run
+   */
+
+  public long loads()
+  {
+    return this.loads.sum();
+  }
+
+  /**
+   * @return The number of times a loader has failed
+   */
+
+  public long loadFailures()
+  {
+    return this.loadFailures.sum();
+  }
+
+  /**
+   * @return The number of misses that waited for another thread's load
+   */
+
+  public long loadsCoalesced()
+  {
+    return this.loadsCoalesced.sum();
+  }
+
+  private record Flight(
+    Thread owner,
+    CompletableFuture<byte[]> result)
+  {
+
+  }
+}
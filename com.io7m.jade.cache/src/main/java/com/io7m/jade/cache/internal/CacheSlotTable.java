@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * A table of the index slots holding hashed keys, keyed by the first 64
+ * bits of each hash, using open addressing with linear probing. Hashes
+ * are uniformly distributed, and so keys are used as positions directly.
+ * The table is not synchronized, and only records hints: a slot found in
+ * the table must be checked against the index before it is used.
+ */
+
+public final class CacheSlotTable
+{
+  private static final int MINIMUM_LENGTH = 16;
+
+  private long[] keys;
+  private int[] slots;
+  private int size;
+
+  /**
+   * A table of index slots.
+   *
+   * @param expectedEntries The expected number of keys
+   */
+
+  public CacheSlotTable(
+    final int expectedEntries)
+  {
+    this.allocate(lengthFor(expectedEntries));
+  }
+
+  /**
+   * @param hash A hashed key
+   *
+   * @return The table key of the hashed key
+   */
+
+  public static long keyOf(
+    final String hash)
+  {
+    return HexFormat.fromHexDigitsToLong(hash, 0, 16);
+  }
+
+  private static int lengthFor(
+    final int entries)
+  {
+    final var doubled = Math.max(MINIMUM_LENGTH, entries) * 2L;
+    return (int) Math.min(1L << 30, Long.highestOneBit(doubled - 1L) << 1);
+  }
+
+  private void allocate(
+    final int length)
+  {
+    this.keys = new long[length];
+    this.slots = new int[length];
+    Arrays.fill(this.slots, -1);
+    this.size = 0;
+  }
+
+  /**
+   * Record the slot of a key, replacing any slot previously recorded.
+   *
+   * @param key  The table key
+   * @param slot The slot
+   */
+
+  public void put(
+    final long key,
+    final int slot)
+  {
+    if ((this.size + 1) * 2 > this.keys.length) {
+      this.resize();
+    }
+
+    final var mask = this.keys.length - 1;
+    var position = (int) key & mask;
+    while (this.slots[position] >= 0) {
+      if (this.keys[position] == key) {
+        this.slots[position] = slot;
+        return;
+      }
+      position = (position + 1) & mask;
+    }
+    this.keys[position] = key;
+    this.slots[position] = slot;
+    ++this.size;
+  }
+
+  /**
+   * @param key The table key
+   *
+   * @return The slot recorded for the key, or -1 if there is none
+   */
+
+  public int get(
+    final long key)
+  {
+    final var mask = this.keys.length - 1;
+    var position = (int) key & mask;
+    while (this.slots[position] >= 0) {
+      if (this.keys[position] == key) {
+        return this.slots[position];
+      }
+      position = (position + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * @return The number of keys in the table
+   */
+
+  public int size()
+  {
+    return this.size;
+  }
+
+  private void resize()
+  {
+    final var oldKeys = this.keys;
+    final var oldSlots = this.slots;
+    this.allocate(oldKeys.length * 2);
+    for (int index = 0; index < oldKeys.length; ++index) {
+      if (oldSlots[index] >= 0) {
+        this.put(oldKeys[index], oldSlots[index]);
+      }
+    }
+  }
+}
@@ -0,0 +1,1466 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import com.io7m.jade.cache.CacheEvictionCandidate;
+import com.io7m.jade.cache.CacheEvictionPolicyType;
+import com.io7m.jade.cache.CacheLoaderType;
+import com.io7m.jade.cache.CacheMappingType;
+import com.io7m.jade.cache.CacheStatistics;
+import com.io7m.jade.cache.CacheStoreConfiguration;
+import com.io7m.jade.cache.CacheStoreType;
+import com.io7m.jade.cache.CacheTransferListenerType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * A cache store held in a directory, which any number of threads and
+ * processes may share. The design of the store is described in the
+ * "Cache Store Design" section of the documentation.
+ */
+
+public final class CacheStore implements CacheStoreType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CacheStore.class);
+
+  private final CacheStoreConfiguration configuration;
+  private final CacheIndex index;
+  private final Clock clock;
+  private final Path entriesDirectory;
+  private final Path temporaryDirectory;
+  private final Path purgeDirectory;
+  private final ConcurrentHashMap<String, CacheEntry> entries;
+  private final ConcurrentHashMap<String, CacheEntry> deferred;
+  private final ConcurrentLinkedQueue<CacheEntry> released;
+  private final CacheLockFile lockFile;
+  private final AtomicBoolean closed;
+  private final CacheMemoryTier memory;
+  private final CacheEvictionPolicyType policy;
+  private final CacheEvictor evictor;
+  private final CacheSingleFlight flights;
+  private final CacheEncoding encoding;
+  private final CacheIntegrity integrity;
+  private final CachePurger purger;
+  private final CacheAuditor auditor;
+  private final CacheRateLimiter auditLimiter;
+  private final LongAdder audits;
+  private final LongAdder auditCorrections;
+  private final CacheExpiry expiry;
+  private final CacheRefresher refresher;
+  private final LongAdder expiredEntries;
+  private final LongAdder memoryHits;
+  private final LongAdder memoryMisses;
+  private final LongAdder diskHits;
+  private final LongAdder diskMisses;
+  private final Runnable afterWrite;
+  private volatile long generation;
+
+  private CacheStore(
+    final CacheStoreConfiguration inConfiguration,
+    final CacheIndex inIndex,
+    final CacheLockFile inLockFile,
+    final Runnable inAfterWrite)
+  {
+    this.afterWrite =
+      Objects.requireNonNull(inAfterWrite, "afterWrite");
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.index =
+      Objects.requireNonNull(inIndex, "index");
+    this.lockFile =
+      Objects.requireNonNull(inLockFile, "lockFile");
+    this.clock =
+      inConfiguration.clock();
+    this.entriesDirectory =
+      inConfiguration.directory().resolve("entries");
+    this.temporaryDirectory =
+      inConfiguration.directory().resolve("tmp");
+    this.purgeDirectory =
+      inConfiguration.directory().resolve("purge");
+
+    this.entries = new ConcurrentHashMap<>();
+    this.deferred = new ConcurrentHashMap<>();
+    this.released = new ConcurrentLinkedQueue<>();
+    this.closed = new AtomicBoolean(false);
+    this.memory =
+      new CacheMemoryTier(
+        inConfiguration.memoryMaximumSizeBytes(),
+        inConfiguration.memoryMaximumEntrySizeBytes()
+      );
+    this.policy =
+      Objects.requireNonNull(
+        inConfiguration.evictionPolicy().get(),
+        "evictionPolicy"
+      );
+    this.evictor =
+      new CacheEvictor(
+        this.index,
+        this.policy,
+        this.entries,
+        inConfiguration.maximumSizeBytes(),
+        this::evictEntry
+      );
+    this.flights = new CacheSingleFlight();
+    this.encoding = new CacheEncoding(inConfiguration);
+    this.integrity = new CacheIntegrity(inConfiguration);
+    this.purger =
+      new CachePurger(
+        this.purgeDirectory,
+        inConfiguration.purgeThreads(),
+        inConfiguration.purgeFilesPerSecond()
+      );
+    this.generation = inIndex.generation();
+    this.audits = new LongAdder();
+    this.auditCorrections = new LongAdder();
+    this.auditLimiter =
+      new CacheRateLimiter(inConfiguration.auditFilesPerSecond());
+    this.auditor =
+      new CacheAuditor(inConfiguration.auditInterval(), this::audit);
+    this.expiredEntries = new LongAdder();
+    this.expiry =
+      new CacheExpiry(
+        this.clock,
+        inConfiguration.expireAfterWrite(),
+        this::isCurrent,
+        this::expire
+      );
+    this.refresher =
+      new CacheRefresher(inConfiguration.refreshThreads());
+    this.memoryHits = new LongAdder();
+    this.memoryMisses = new LongAdder();
+    this.diskHits = new LongAdder();
+    this.diskMisses = new LongAdder();
+  }
+
+  /**
+   * Open a cache store, creating it if it does not exist.
+   *
+   * @param configuration The store configuration
+   *
+   * @return A cache store
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static CacheStore open(
+    final CacheStoreConfiguration configuration)
+    throws IOException
+  {
+    return open(configuration, () -> {
+
+    });
+  }
+
+  /**
+   * Open a cache store, creating it if it does not exist. The given
+   * function is called after each write to the store, once the store has
+   * evicted any entries necessary to stay within its own maximum size.
+   *
+   * @param configuration The store configuration
+   * @param afterWrite    The function called after each write
+   *
+   * @return A cache store
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static CacheStore open(
+    final CacheStoreConfiguration configuration,
+    final Runnable afterWrite)
+    throws IOException
+  {
+    Objects.requireNonNull(configuration, "configuration");
+    Objects.requireNonNull(afterWrite, "afterWrite");
+
+    final var directory = configuration.directory();
+    final var entriesDirectory = directory.resolve("entries");
+    final var temporaryDirectory = directory.resolve("tmp");
+    Files.createDirectories(entriesDirectory);
+    Files.createDirectories(temporaryDirectory);
+
+    final var storeLockFile = CacheLockFile.open(directory);
+    final CacheIndex storeIndex;
+    try {
+      storeIndex = CacheIndexRecovery.open(directory, storeLockFile);
+      try {
+        storeLockFile.share();
+      } catch (final IOException | RuntimeException e) {
+        storeIndex.close();
+        throw e;
+      }
+    } catch (final IOException | RuntimeException e) {
+      storeLockFile.close();
+      throw e;
+    }
+
+    final var store =
+      new CacheStore(configuration, storeIndex, storeLockFile, afterWrite);
+    storeIndex.forEachRecord(store::initializeEntry);
+    store.purger.resume();
+
+    LOG.debug(
+      "opened {} with {} entries ({} octets)",
+      directory,
+      Long.valueOf(storeIndex.totalCount()),
+      Long.valueOf(storeIndex.totalSizeBytes())
+    );
+    store.evictor.evictIfNecessary();
+    return store;
+  }
+
+  private void initializeEntry(
+    final CacheIndexRecord record)
+  {
+    final var entry =
+      CacheEntry.ofRecord(record, record.checksum(), this.expiry.expiryOf(record));
+    final var existing = this.entries.putIfAbsent(entry.hash(), entry);
+    if (existing == null) {
+      this.expiry.schedule(entry);
+      return;
+    }
+
+    /*
+     * An index written before keys were looked up across processes may
+     * record a key twice. The later record describes the file that was
+     * moved into place last, and so is kept.
+     */
+
+    LOG.warn("index contains a duplicate entry {}", entry.hash());
+    var duplicate = entry;
+    if (entry.writeTime() > existing.writeTime()) {
+      this.entries.put(entry.hash(), entry);
+      this.expiry.schedule(entry);
+      duplicate = existing;
+    }
+    try {
+      this.index.release(duplicate.slot(), duplicate.hash());
+    } catch (final IOException e) {
+      LOG.warn("unable to release duplicate entry {}: ", entry.hash(), e);
+    }
+  }
+
+  @Override
+  public CacheStoreConfiguration configuration()
+  {
+    return this.configuration;
+  }
+
+  @Override
+  public void put(
+    final String key,
+    final byte[] data)
+    throws IOException
+  {
+    this.write(key, data, this.configuration.expireAfterWrite());
+  }
+
+  @Override
+  public void put(
+    final String key,
+    final byte[] data,
+    final Duration timeToLive)
+    throws IOException
+  {
+    this.write(key, data, Optional.of(CacheExpiry.checkTimeToLive(timeToLive)));
+  }
+
+  private void write(
+    final String key,
+    final byte[] data,
+    final Optional<Duration> timeToLive)
+    throws IOException
+  {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(data, "data");
+    this.checkNotClosed();
+    this.checkGeneration();
+
+    if (data.length > this.configuration.maximumSizeBytes()) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Data size %d exceeds the maximum store size %d",
+          Integer.valueOf(data.length),
+          Long.valueOf(this.configuration.maximumSizeBytes()))
+      );
+    }
+
+    final var hash = CacheKeys.hash(key);
+    final var temporary =
+      Files.createTempFile(this.temporaryDirectory, hash, ".tmp");
+
+    try {
+      final var encoded = this.encoding.encode(data);
+      Files.write(temporary, encoded);
+
+      final var lock = this.shardLockFor(hash);
+      lock.lock();
+      try {
+        this.replace(hash, temporary, encoded.length, CacheIntegrity.checksum(encoded), timeToLive);
+        this.memory.put(hash, data);
+        this.policy.recordAccess(hash, encoded.length);
+      } finally {
+        lock.unlock();
+      }
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+
+    this.deleteReleased();
+    this.expiry.expireDue();
+    this.evictor.evictIfNecessary();
+    this.afterWrite.run();
+  }
+
+  private void replace(
+    final String hash,
+    final Path temporary,
+    final long size,
+    final long checksum,
+    final Optional<Duration> timeToLive)
+    throws IOException
+  {
+    /*
+     * The record of a key is rewritten in place, whichever process wrote
+     * it, so that the index never holds two records for one key. Outside
+     * of writes and removals, which hold the lock of the shard, a key only
+     * has a record if its file exists, and so the record of a key whose
+     * file is missing is not looked up.
+     */
+
+    final var time = this.clock.millis();
+    final var expiryTime = CacheExpiry.expiryOf(time, timeToLive);
+    final var target = this.entryFile(hash);
+
+    var slot = -1;
+    final var known = this.entries.get(hash);
+    if (known != null && this.index.holds(known.slot(), hash)) {
+      slot = known.slot();
+    } else if (Files.exists(target)) {
+      slot = this.index.lookup(hash);
+    }
+
+    final var previous = this.index.read(slot, hash);
+    if (slot >= 0) {
+      this.index.write(slot, hash, size, time, checksum, time, expiryTime);
+    } else {
+      slot = this.index.allocate(hash, size, time, checksum, time, expiryTime);
+    }
+
+    final var entry =
+      new CacheEntry(hash, slot, size, time, checksum, time, expiryTime);
+    entry.setVerified(checksum);
+    try {
+      this.moveIntoPlace(temporary, target);
+    } catch (final IOException e) {
+      if (previous.isPresent()) {
+        this.index.write(previous.get());
+      } else {
+        this.index.release(slot, hash);
+      }
+      throw e;
+    }
+
+    this.entries.put(hash, entry);
+    this.expiry.schedule(entry);
+  }
+
+  /**
+   * Move a file into place, creating the directories of its shard if
+   * they do not yet exist. Directories are created on demand rather than
+   * checked for in advance, so that the common case of an existing shard
+   * costs nothing.
+   */
+
+  private void moveIntoPlace(
+    final Path source,
+    final Path target)
+    throws IOException
+  {
+    try {
+      Files.move(source, target, ATOMIC_MOVE, REPLACE_EXISTING);
+    } catch (final NoSuchFileException e) {
+      Files.createDirectories(target.getParent());
+      Files.move(source, target, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+  }
+
+  @Override
+  public Optional<byte[]> get(
+    final String key)
+    throws IOException
+  {
+    Objects.requireNonNull(key, "key");
+    this.checkNotClosed();
+    this.checkGeneration();
+
+    final var hash = CacheKeys.hash(key);
+    if (this.memory.isEnabled()) {
+      final var held = this.memory.get(hash);
+      if (held.isPresent() && this.isFresh(hash)) {
+        this.memoryHits.increment();
+        this.touchOnly(hash);
+        return held;
+      }
+      this.memoryMisses.increment();
+    }
+
+    final var entry = this.entryOrAdopt(hash);
+    if (entry == null) {
+      this.recordDiskMiss(hash);
+      return Optional.empty();
+    }
+
+    try {
+      final var stored = Files.readAllBytes(this.entryFile(hash));
+      if (this.integrity.shouldVerify(entry)
+          && !this.verify(entry, stored.length, CacheIntegrity.checksum(stored))) {
+        this.recordDiskMiss(hash);
+        return Optional.empty();
+      }
+
+      final var data = this.encoding.decode(stored);
+      this.recordDiskHit(entry);
+      entry.touch(this.clock.millis());
+      this.persistAccess(entry, data);
+      return Optional.of(data);
+    } catch (final NoSuchFileException e) {
+      LOG.debug("entry {} disappeared during reading", hash);
+      this.forget(entry);
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public byte[] getOrCompute(
+    final String key,
+    final CacheLoaderType loader)
+    throws IOException
+  {
+    this.checkNotClosed();
+    final var data = this.flights.getOrCompute(this, key, loader);
+    this.refreshIfStale(key, loader);
+    return data;
+  }
+
+  /**
+   * Start a background refresh of the entry for the given key, if it is
+   * older than the refresh age. The refreshed data is only written if the
+   * stale entry is still current when the loader completes, so that a
+   * refresh never replaces a later write or revives a removed entry.
+   */
+
+  private void refreshIfStale(
+    final String key,
+    final CacheLoaderType loader)
+  {
+    final var refreshAfter = this.configuration.refreshAfterWrite();
+    if (refreshAfter.isEmpty()) {
+      return;
+    }
+
+    final var hash = CacheKeys.hash(key);
+    final var stale = this.entries.get(hash);
+    if (stale == null
+        || this.clock.millis() - stale.writeTime() < refreshAfter.get().toMillis()) {
+      return;
+    }
+
+    this.refresher.refresh(key, hash, loader, (refreshedKey, data) -> {
+      if (!this.closed.get() && this.isCurrent(stale)) {
+        this.write(refreshedKey, data, CacheExpiry.timeToLiveOf(stale));
+      }
+    });
+  }
+
+  @Override
+  public Optional<CacheMappingType> map(
+    final String key)
+    throws IOException
+  {
+    Objects.requireNonNull(key, "key");
+    this.checkNotClosed();
+    this.checkGeneration();
+
+    final var hash = CacheKeys.hash(key);
+    final var entry = this.entryOrAdopt(hash);
+    if (entry == null || !entry.acquire()) {
+      this.recordDiskMiss(hash);
+      return Optional.empty();
+    }
+
+    try (var channel = FileChannel.open(this.entryFile(hash), READ)) {
+      if (this.integrity.shouldVerify(entry)
+          && !this.verify(entry, channel.size(), CacheIntegrity.checksum(channel))) {
+        this.release(entry);
+        this.recordDiskMiss(hash);
+        return Optional.empty();
+      }
+
+      this.recordDiskHit(entry);
+      final var header = this.encoding.header(channel);
+      entry.touch(this.clock.millis());
+      this.persistAccess(entry);
+      if (header.isPresent()) {
+        return Optional.of(
+          CacheMapping.decode(
+            entry,
+            channel,
+            this.encoding,
+            header.get(),
+            this.temporaryDirectory,
+            this::release
+          )
+        );
+      }
+
+      final var buffer =
+        channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+      return Optional.of(new CacheMapping(entry, buffer, this::release));
+    } catch (final NoSuchFileException e) {
+      LOG.debug("entry {} disappeared during mapping", hash);
+      this.release(entry);
+      this.forget(entry);
+      return Optional.empty();
+    } catch (final IOException | RuntimeException e) {
+      this.release(entry);
+      throw e;
+    }
+  }
+
+  @Override
+  public OptionalLong transfer(
+    final String key,
+    final WritableByteChannel target,
+    final CacheTransferListenerType listener)
+    throws IOException
+  {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(listener, "listener");
+    CacheTransfers.checkTarget(target);
+    this.checkNotClosed();
+    this.checkGeneration();
+
+    final var hash = CacheKeys.hash(key);
+    final var entry = this.entryOrAdopt(hash);
+    if (entry == null || !entry.acquire()) {
+      this.recordDiskMiss(hash);
+      return OptionalLong.empty();
+    }
+
+    try (var channel = FileChannel.open(this.entryFile(hash), READ)) {
+      if (this.integrity.shouldVerify(entry)
+          && !this.verify(entry, channel.size(), CacheIntegrity.checksum(channel))) {
+        this.recordDiskMiss(hash);
+        return OptionalLong.empty();
+      }
+
+      this.recordDiskHit(entry);
+      entry.touch(this.clock.millis());
+      this.persistAccess(entry);
+
+      final var header = this.encoding.header(channel);
+      if (header.isPresent()) {
+        try (var input = this.encoding.decoder(channel, header.get())) {
+          return OptionalLong.of(
+            CacheTransfers.copy(input, header.get().decodedSize(), target, listener)
+          );
+        }
+      }
+      return OptionalLong.of(
+        CacheTransfers.transfer(channel, channel.size(), target, listener)
+      );
+    } catch (final NoSuchFileException e) {
+      LOG.debug("entry {} disappeared during transfer", hash);
+      this.forget(entry);
+      return OptionalLong.empty();
+    } finally {
+      this.release(entry);
+    }
+  }
+
+  /**
+   * Verify the file of an entry, as read, against the size and checksum
+   * of the entry. An entry with no known checksum (because it was written
+   * before checksums were recorded, or was adopted from another process)
+   * is verified by size alone, and the checksum of the file is recorded.
+   *
+   * @return {@code true} if the file is intact
+   */
+
+  private boolean verify(
+    final CacheEntry entry,
+    final long size,
+    final long checksum)
+  {
+    this.integrity.recordVerification();
+
+    final var expected = entry.checksum();
+    if (size == entry.sizeBytes() && (expected < 0L || expected == checksum)) {
+      entry.setVerified(checksum);
+      return true;
+    }
+
+    return this.verifyFailed(entry, size, checksum);
+  }
+
+  /**
+   * Handle an entry whose file failed verification. If the file, as read,
+   * matches the record of the key in the index, it was replaced by another
+   * process, and the data read is the current data of the key. Records are
+   * read without taking any lock, and so the read is served even if a
+   * writer holds the lock of the shard.
+   *
+   * Otherwise, the file may be corrupt, or may have been replaced by a
+   * writer since it was read, and so the decision is made while holding
+   * the lock of the shard, which excludes writers in all processes.
+   * Readers never wait for writers, and so if the lock is held, nothing is
+   * decided. A file that matches the record is refreshed from the record.
+   * An entry adopted from another process without a record, for which
+   * there is still no record, is forgotten (but not deleted), and adopted
+   * afresh on the next read. Any other entry is corrupt, and is evicted.
+   *
+   * @return {@code true} if the file, as read, is the current file of the key
+   */
+
+  private boolean verifyFailed(
+    final CacheEntry entry,
+    final long size,
+    final long checksum)
+  {
+    final var hash = entry.hash();
+    final var record = this.recordOf(entry);
+    final var replaced =
+      record.isPresent() && record.get().matches(size, checksum);
+
+    final var lock = this.shardLockFor(hash);
+    if (!lock.tryLock()) {
+      return replaced;
+    }
+
+    try {
+      if (this.entries.get(hash) == entry) {
+        this.verifyFailedLocked(entry);
+      }
+    } catch (final IOException e) {
+      LOG.warn("unable to verify entry {}: ", hash, e);
+    } finally {
+      lock.unlock();
+    }
+    return replaced;
+  }
+
+  private void verifyFailedLocked(
+    final CacheEntry entry)
+    throws IOException
+  {
+    final var hash = entry.hash();
+    final byte[] stored;
+    try {
+      stored = Files.readAllBytes(this.entryFile(hash));
+    } catch (final NoSuchFileException e) {
+      this.forgetMissingLocked(entry);
+      return;
+    }
+
+    final var checksum = CacheIntegrity.checksum(stored);
+    final var record = this.recordOf(entry);
+    if (record.isPresent() && record.get().matches(stored.length, checksum)) {
+      this.refreshLocked(entry, record.get()).setVerified(checksum);
+      return;
+    }
+    if (record.isEmpty() && entry.slot() < 0) {
+      LOG.debug("adopted entry {} changed since it was adopted", hash);
+      this.forgetLocked(entry);
+      return;
+    }
+
+    LOG.warn("entry {} is corrupt and will be evicted", hash);
+    this.integrity.recordCorruption();
+    this.discardLocked(entry);
+  }
+
+  /**
+   * Replace an entry with one built from the record that another process
+   * wrote for it.
+   */
+
+  private CacheEntry refreshLocked(
+    final CacheEntry entry,
+    final CacheIndexRecord record)
+  {
+    LOG.debug("entry {} was replaced by another process", entry.hash());
+
+    final var refreshed =
+      CacheEntry.ofRecord(record, record.checksum(), this.expiry.expiryOf(record));
+
+    this.entries.put(entry.hash(), refreshed);
+    this.memory.remove(entry.hash());
+    this.expiry.schedule(refreshed);
+    return refreshed;
+  }
+
+  /**
+   * Read the record of an entry, looking up the record of its key if the
+   * slot of the entry no longer holds it.
+   */
+
+  private Optional<CacheIndexRecord> recordOf(
+    final CacheEntry entry)
+  {
+    final var record = this.index.read(entry.slot(), entry.hash());
+    if (record.isPresent()) {
+      return record;
+    }
+    return this.index.read(this.index.lookup(entry.hash()), entry.hash());
+  }
+
+  /**
+   * Release a lease on an entry. An entry that was condemned while leased
+   * is deleted once its last lease is released. Readers never wait for
+   * writers, and so if the lock of the shard is held, the deletion is left
+   * to the next write or audit. The entry stays deferred until then, so
+   * that its file is not adopted.
+   */
+
+  private void release(
+    final CacheEntry entry)
+  {
+    if (!entry.release()) {
+      return;
+    }
+
+    final var lock = this.shardLockFor(entry.hash());
+    if (!lock.tryLock()) {
+      this.released.add(entry);
+      return;
+    }
+    try {
+      this.deleteReleasedLocked(entry);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Delete the condemned entries whose deletion was left by readers that
+   * released their last leases while the locks of the shards were held.
+   */
+
+  private void deleteReleased()
+  {
+    while (true) {
+      final var entry = this.released.poll();
+      if (entry == null) {
+        return;
+      }
+
+      final var lock = this.shardLockFor(entry.hash());
+      try {
+        lock.lock();
+      } catch (final IOException e) {
+        LOG.warn("unable to delete released entry {}: ", entry.hash(), e);
+        this.released.add(entry);
+        return;
+      }
+      try {
+        this.deleteReleasedLocked(entry);
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private void deleteReleasedLocked(
+    final CacheEntry entry)
+  {
+    final var hash = entry.hash();
+    try {
+      this.deleteDeferredLocked(entry);
+    } catch (final IOException e) {
+      LOG.warn("unable to delete released entry {}: ", hash, e);
+    } finally {
+      this.deferred.remove(hash, entry);
+    }
+  }
+
+  /**
+   * Delete the file of a condemned entry whose deletion was deferred,
+   * unless the file has since been replaced by this process or by another
+   * process. If the key has been written again by this process, the file
+   * now belongs to the new entry.
+   */
+
+  private void deleteDeferredLocked(
+    final CacheEntry entry)
+    throws IOException
+  {
+    final var hash = entry.hash();
+    if (this.entries.containsKey(hash)) {
+      return;
+    }
+
+    final var file = this.entryFile(hash);
+    final var expected = entry.deferredFileKey();
+    if (expected != null) {
+      try {
+        final var attributes =
+          Files.readAttributes(file, BasicFileAttributes.class);
+        if (!expected.equals(attributes.fileKey())) {
+          return;
+        }
+      } catch (final NoSuchFileException e) {
+        return;
+      }
+    }
+    Files.deleteIfExists(file);
+  }
+
+  @Override
+  public boolean remove(
+    final String key)
+    throws IOException
+  {
+    Objects.requireNonNull(key, "key");
+    this.checkNotClosed();
+    this.checkGeneration();
+
+    final var hash = CacheKeys.hash(key);
+    final var lock = this.shardLockFor(hash);
+    lock.lock();
+    try {
+      var entry = this.entries.get(hash);
+      if (entry == null) {
+        entry = this.entryOrAdopt(hash);
+      }
+      if (entry == null) {
+        return false;
+      }
+      this.discardLocked(entry);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void invalidateAll()
+    throws IOException
+  {
+    this.checkNotClosed();
+
+    final Path retired;
+    this.lockFile.lockAllShards();
+    try {
+      final var current = this.index.generation();
+      Files.createDirectories(this.purgeDirectory);
+      retired = CachePurger.generationDirectory(this.purgeDirectory, current);
+      Files.move(this.entriesDirectory, retired, ATOMIC_MOVE);
+      Files.createDirectories(this.entriesDirectory);
+      this.index.clear(current + 1L);
+      this.discardViewLocked(current + 1L);
+      LOG.debug("invalidated generation {}", Long.valueOf(current));
+    } finally {
+      this.lockFile.unlockAllShards();
+    }
+
+    this.purger.purge(retired);
+  }
+
+  /**
+   * Check that the generation of the store has not been advanced by
+   * another process and, if it has, discard this process's view of the
+   * entries.
+   */
+
+  private void checkGeneration()
+    throws IOException
+  {
+    if (this.index.generation() == this.generation) {
+      return;
+    }
+
+    this.lockFile.lockAllShards();
+    try {
+      final var current = this.index.generation();
+      if (current != this.generation) {
+        LOG.debug("generation {} was invalidated by another process", Long.valueOf(this.generation));
+        this.discardViewLocked(current);
+      }
+    } finally {
+      this.lockFile.unlockAllShards();
+    }
+  }
+
+  /**
+   * Discard every entry known to this process, while holding every shard
+   * lock. The files of the entries have moved with their generation, and
+   * so condemned entries must not be matched against the files that take
+   * their place in the new generation when their leases are released.
+   */
+
+  private void discardViewLocked(
+    final long newGeneration)
+  {
+    for (final var entry : this.entries.values()) {
+      this.policy.recordRemoval(entry.hash());
+    }
+    for (final var entry : this.deferred.values()) {
+      entry.setDeferredFileKey(new Object());
+    }
+    this.entries.clear();
+    this.deferred.clear();
+    this.memory.clear();
+    this.expiry.clear();
+    this.generation = newGeneration;
+  }
+
+  @Override
+  public long sizeBytes()
+  {
+    return this.index.totalSizeBytes();
+  }
+
+  @Override
+  public long entryCount()
+  {
+    return this.index.totalCount();
+  }
+
+  @Override
+  public CacheStatistics statistics()
+  {
+    return CacheStatistics.builder()
+      .setMemoryHits(this.memoryHits.sum())
+      .setMemoryMisses(this.memoryMisses.sum())
+      .setDiskHits(this.diskHits.sum())
+      .setDiskMisses(this.diskMisses.sum())
+      .setMemorySizeBytes(this.memory.sizeBytes())
+      .setMemoryEntryCount(this.memory.entryCount())
+      .setLoads(this.flights.loads())
+      .setLoadFailures(this.flights.loadFailures())
+      .setLoadsCoalesced(this.flights.loadsCoalesced())
+      .setCompressedWrites(this.encoding.compressedWrites())
+      .setIncompressibleWrites(this.encoding.incompressibleWrites())
+      .setCompressionSavedBytes(this.encoding.savedBytes())
+      .setChecksumVerifications(this.integrity.verifications())
+      .setCorruptEntries(this.integrity.corruptions())
+      .setPurgedFiles(this.purger.purgedFiles())
+      .setAudits(this.audits.sum())
+      .setAuditCorrections(this.auditCorrections.sum())
+      .setExpiredEntries(this.expiredEntries.sum())
+      .setRefreshes(this.refresher.refreshes())
+      .setRefreshFailures(this.refresher.refreshFailures())
+      .build();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (this.closed.compareAndSet(false, true)) {
+      LOG.debug("closed {}", this.configuration.directory());
+      this.auditor.close();
+      this.expiry.close();
+      this.refresher.close();
+      this.purger.close();
+      this.deleteReleased();
+      this.memory.clear();
+      try {
+        this.index.close();
+      } finally {
+        this.lockFile.close();
+      }
+    }
+  }
+
+  private void checkNotClosed()
+  {
+    if (this.closed.get()) {
+      throw new IllegalStateException(
+        String.format(
+          "Cache store %s is closed",
+          this.configuration.directory())
+      );
+    }
+  }
+
+  /**
+   * Record the access time of an entry in the index, unless a writer
+   * currently holds the lock for the entry. Readers never wait for
+   * writers, and so the access time of an entry that is read while it is
+   * being replaced may not be recorded.
+   */
+
+  private void persistAccess(
+    final CacheEntry entry)
+  {
+    this.persistAccess(entry, null);
+  }
+
+  /**
+   * Record the access time of an entry in the index as above and, if
+   * data was read, add the data to the memory tier. Because writers hold
+   * the lock while replacing entries, the entry still being current, and
+   * still described by its record, when the lock is acquired implies that
+   * the data read is the data of the current entry. An entry whose record
+   * no longer describes it was replaced by another process, and is
+   * refreshed from the record instead.
+   */
+
+  private void persistAccess(
+    final CacheEntry entry,
+    final byte[] data)
+  {
+    final var lock = this.shardLockFor(entry.hash());
+    if (!lock.tryLock()) {
+      return;
+    }
+
+    try {
+      if (this.entries.get(entry.hash()) != entry) {
+        return;
+      }
+      final var record = this.index.read(entry.slot(), entry.hash());
+      if (record.isEmpty()) {
+        return;
+      }
+      if (!entry.isDescribedBy(record.get())) {
+        this.refreshLocked(entry, record.get());
+        return;
+      }
+
+      this.index.write(entry.toRecord());
+      if (data != null) {
+        this.memory.put(entry.hash(), data);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Record the access of an entry served from the memory tier, so that the
+   * store directory does not evict entries that are hot in memory. The
+   * access time is not written to the index, so that reads served from
+   * memory do not touch the index.
+   */
+
+  private void touchOnly(
+    final String hash)
+  {
+    final var entry = this.entries.get(hash);
+    if (entry != null) {
+      entry.touch(this.clock.millis());
+      this.policy.recordAccess(hash, entry.sizeBytes());
+    }
+  }
+
+  private void recordDiskHit(
+    final CacheEntry entry)
+  {
+    this.diskHits.increment();
+    this.policy.recordAccess(entry.hash(), entry.sizeBytes());
+  }
+
+  private void recordDiskMiss(
+    final String hash)
+  {
+    this.diskMisses.increment();
+    this.policy.recordMiss(hash);
+  }
+
+  /**
+   * Forget an entry whose file disappeared while it was being read.
+   * Readers never wait for writers, and so if the lock of the shard is
+   * held, the entry is left as it is; the next read that finds the file
+   * missing forgets it, and the auditor releases its record.
+   */
+
+  private void forget(
+    final CacheEntry entry)
+  {
+    final var lock = this.shardLockFor(entry.hash());
+    if (!lock.tryLock()) {
+      return;
+    }
+    try {
+      this.forgetMissingLocked(entry);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Forget an entry whose file has disappeared. The record of the entry is
+   * only released if the file is still missing while the lock is held,
+   * because another process may have written the key again since.
+   */
+
+  private void forgetMissingLocked(
+    final CacheEntry entry)
+  {
+    if (this.forgetLocked(entry) && Files.notExists(this.entryFile(entry.hash()))) {
+      this.releaseLocked(entry);
+    }
+  }
+
+  private void discardLocked(
+    final CacheEntry entry)
+    throws IOException
+  {
+    final var file = this.entryFile(entry.hash());
+    if (entry.condemn()) {
+      Files.deleteIfExists(file);
+    } else {
+      try {
+        entry.setDeferredFileKey(
+          Files.readAttributes(file, BasicFileAttributes.class).fileKey()
+        );
+        this.deferred.put(entry.hash(), entry);
+      } catch (final NoSuchFileException e) {
+        LOG.debug("leased entry {} already deleted", entry.hash());
+      }
+    }
+    if (this.forgetLocked(entry)) {
+      this.releaseLocked(entry);
+    }
+  }
+
+  private boolean forgetLocked(
+    final CacheEntry entry)
+  {
+    if (this.entries.remove(entry.hash(), entry)) {
+      this.memory.remove(entry.hash());
+      this.policy.recordRemoval(entry.hash());
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Release the record of an entry that has left the store. If the slot of
+   * the entry no longer holds its record, another process may have written
+   * the key again since, and so the record of the key is looked up.
+   */
+
+  private void releaseLocked(
+    final CacheEntry entry)
+  {
+    final var hash = entry.hash();
+    var slot = entry.slot();
+    if (!this.index.holds(slot, hash)) {
+      slot = this.index.lookup(hash);
+    }
+    try {
+      this.index.release(slot, hash);
+    } catch (final IOException e) {
+      LOG.warn("unable to release index slot of {}: ", hash, e);
+    }
+  }
+
+  private boolean isCurrent(
+    final CacheEntry entry)
+  {
+    return this.entries.get(entry.hash()) == entry;
+  }
+
+  /**
+   * @return {@code true} if the entry for the given key has not expired,
+   * and its record in the index still describes it
+   */
+
+  private boolean isFresh(
+    final String hash)
+  {
+    final var entry = this.entries.get(hash);
+    if (entry == null || entry.isExpired(this.clock.millis())) {
+      return false;
+    }
+    final var record = this.index.read(entry.slot(), hash);
+    return record.isPresent() && entry.isDescribedBy(record.get());
+  }
+
+  /**
+   * Remove an entry that is due to expire, unless it has been replaced or
+   * removed since it was scheduled. Once another process has invalidated
+   * the store, the files of the entries known to this process may belong
+   * to the new generation, and so nothing is removed until this process
+   * has discarded its view.
+   */
+
+  private void expire(
+    final CacheEntry entry)
+  {
+    if (this.closed.get()) {
+      return;
+    }
+
+    final var hash = entry.hash();
+    final var lock = this.shardLockFor(hash);
+    try {
+      lock.lock();
+      try {
+        if (this.index.generation() != this.generation
+            || !this.isCurrent(entry)
+            || !entry.isExpired(this.clock.millis())) {
+          return;
+        }
+        this.discardLocked(entry);
+        this.expiredEntries.increment();
+      } finally {
+        lock.unlock();
+      }
+    } catch (final IOException e) {
+      LOG.warn("unable to expire entry {}: ", hash, e);
+    }
+  }
+
+  /**
+   * Evict entries, in the order chosen by the eviction policy, until the
+   * total size of the store is at most the given size or no more entries
+   * can be evicted.
+   *
+   * @param targetBytes The target size in octets
+   *
+   * @return The number of entries evicted
+   */
+
+  public int evictTo(
+    final long targetBytes)
+  {
+    this.checkNotClosed();
+    return this.evictor.evictTo(targetBytes);
+  }
+
+  private boolean evictEntry(
+    final CacheEntry entry,
+    final CacheEvictionCandidate candidate)
+  {
+    final var hash = entry.hash();
+    final var lock = this.shardLockFor(hash);
+    try {
+      lock.lock();
+      try {
+        if (this.entries.get(hash) != entry || entry.leases() > 0) {
+          return false;
+        }
+        this.policy.recordEviction(candidate);
+        this.discardLocked(entry);
+        return true;
+      } finally {
+        lock.unlock();
+      }
+    } catch (final IOException e) {
+      LOG.warn("unable to evict entry {}: ", hash, e);
+      return false;
+    }
+  }
+
+  private boolean releaseIfMissing(
+    final String hash,
+    final int slot)
+  {
+    final var lock = this.shardLockFor(hash);
+    try {
+      lock.lock();
+      try {
+        if (Files.exists(this.entryFile(hash)) || !this.index.holds(slot, hash)) {
+          return false;
+        }
+
+        final var entry = this.entries.get(hash);
+        if (entry != null && entry.slot() == slot) {
+          this.forgetLocked(entry);
+        }
+        return this.index.release(slot, hash);
+      } finally {
+        lock.unlock();
+      }
+    } catch (final IOException e) {
+      LOG.warn("unable to release the record of {}: ", hash, e);
+      return false;
+    }
+  }
+
+  /**
+   * Audit the store. Every record in the index is checked against the
+   * entries directory, at a limited rate, and the records of entries whose
+   * files are missing are released. The running totals of the index are
+   * then reconciled with its records.
+   */
+
+  private void audit()
+  {
+    if (this.closed.get()) {
+      return;
+    }
+
+    this.deleteReleased();
+
+    final var missing = new ArrayList<CacheIndexRecord>();
+    this.index.forEachRecord(record -> {
+      if (this.auditLimiter.acquire() && !Files.exists(this.entryFile(record.hash()))) {
+        missing.add(record);
+      }
+    });
+
+    var corrections = 0L;
+    for (final var record : missing) {
+      if (this.releaseIfMissing(record.hash(), record.slot())) {
+        ++corrections;
+      }
+    }
+    if (this.index.reconcile()) {
+      ++corrections;
+    }
+
+    this.audits.increment();
+    this.auditCorrections.add(corrections);
+    LOG.debug("audit made {} corrections", Long.valueOf(corrections));
+  }
+
+  /**
+   * Find the entry for the given key. An entry that this process does not
+   * know about may have been written by another process, in which case it
+   * is adopted, taking the slot of the record that the other process wrote.
+   * Readers never wait for writers, and so if the lock of the shard is
+   * held, the entry is returned without being adopted.
+   */
+
+  private CacheEntry entryOrAdopt(
+    final String hash)
+    throws IOException
+  {
+    final var time = this.clock.millis();
+    final var existing = this.entries.get(hash);
+    if (existing != null) {
+      if (existing.isExpired(time)) {
+        return null;
+      }
+      return existing;
+    }
+
+    final BasicFileAttributes attributes;
+    try {
+      attributes =
+        Files.readAttributes(this.entryFile(hash), BasicFileAttributes.class);
+    } catch (final NoSuchFileException e) {
+      return null;
+    }
+
+    if (this.isDeferred(hash, attributes)) {
+      return null;
+    }
+    return this.adopt(hash, attributes, time);
+  }
+
+  private CacheEntry adopt(
+    final String hash,
+    final BasicFileAttributes attributes,
+    final long time)
+  {
+    final var record = this.index.read(this.index.lookup(hash), hash);
+    final CacheEntry entry;
+    if (record.isPresent()) {
+      entry =
+        CacheEntry.ofRecord(record.get(), record.get().checksum(), this.expiry.expiryOf(record.get()));
+    } else {
+      final var writeTime = attributes.lastModifiedTime().toMillis();
+      entry =
+        new CacheEntry(
+          hash,
+          -1,
+          attributes.size(),
+          time,
+          -1L,
+          writeTime,
+          this.expiry.defaultExpiry(writeTime)
+        );
+    }
+    if (entry.isExpired(time)) {
+      return null;
+    }
+
+    final var lock = this.shardLockFor(hash);
+    if (!lock.tryLock()) {
+      return entry;
+    }
+    try {
+      final var current = this.entries.putIfAbsent(hash, entry);
+      if (current != null) {
+        return current;
+      }
+      LOG.debug("adopted entry {} written by another process", hash);
+      this.expiry.schedule(entry);
+    } finally {
+      lock.unlock();
+    }
+    return entry;
+  }
+
+  /**
+   * @return {@code true} if the given file belongs to an entry that this
+   * process has removed, but whose deletion is deferred
+   */
+
+  private boolean isDeferred(
+    final String hash,
+    final BasicFileAttributes attributes)
+  {
+    final var condemned = this.deferred.get(hash);
+    if (condemned == null) {
+      return false;
+    }
+    final var expected = condemned.deferredFileKey();
+    return expected == null || expected.equals(attributes.fileKey());
+  }
+
+  private Path entryFile(
+    final String hash)
+  {
+    return CacheLayout.entryFile(this.entriesDirectory, hash);
+  }
+
+  private CacheFileLock shardLockFor(
+    final String hash)
+  {
+    return this.lockFile.shard(CacheLayout.shardOf(hash));
+  }
+}
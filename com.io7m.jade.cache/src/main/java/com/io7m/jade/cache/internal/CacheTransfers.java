@@ -0,0 +1,214 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.cache.internal;
+
+import com.io7m.jade.cache.CacheTransferListenerType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * Functions to transfer the contents of files to channels.
+ */
+
+public final class CacheTransfers
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CacheTransfers.class);
+
+  private static final int COPY_BUFFER_SIZE = 65536;
+
+  private CacheTransfers()
+  {
+
+  }
+
+  /**
+   * Check that a channel is suitable as the target of a transfer.
+   *
+   * @param target The target channel
+   *
+   * @throws IllegalArgumentException If the target is not in blocking mode
+   */
+
+  public static void checkTarget(
+    final WritableByteChannel target)
+  {
+    Objects.requireNonNull(target, "target");
+
+    if (target instanceof final SelectableChannel selectable
+        && !selectable.isBlocking()) {
+      throw new IllegalArgumentException(
+        "Transfer target must be in blocking mode");
+    }
+  }
+
+  /**
+   * Transfer the contents of a file to a channel. The file is transferred
+   * using {@link FileChannel#transferTo(long, long, WritableByteChannel)}
+   * for as long as that makes progress, and using an ordinary copy
+   * otherwise.
+   *
+   * @param source   The source file
+   * @param size     The number of octets to transfer
+   * @param target   The target channel
+   * @param listener The receiver of progress reports
+   *
+   * @return The number of octets transferred
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static long transfer(
+    final FileChannel source,
+    final long size,
+    final WritableByteChannel target,
+    final CacheTransferListenerType listener)
+    throws IOException
+  {
+    Objects.requireNonNull(source, "source");
+    Objects.requireNonNull(target, "target");
+    Objects.requireNonNull(listener, "listener");
+
+    var position = 0L;
+    while (position < size) {
+      final var transferred =
+        source.transferTo(position, size - position, target);
+      if (transferred <= 0L) {
+        LOG.debug(
+          "transferTo made no progress at {}/{}; copying",
+          Long.valueOf(position),
+          Long.valueOf(size)
+        );
+        return copy(source, position, size, target, listener);
+      }
+      position += transferred;
+      listener.onProgress(position, size);
+    }
+    return position;
+  }
+
+  /**
+   * Copy the contents of a file to a channel through a buffer.
+   *
+   * @param source   The source file
+   * @param start    The position at which to start copying
+   * @param size     The number of octets in the file to transfer
+   * @param target   The target channel
+   * @param listener The receiver of progress reports
+   *
+   * @return The position reached, which is {@code size} unless the source
+   * file was truncated during the copy
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static long copy(
+    final FileChannel source,
+    final long start,
+    final long size,
+    final WritableByteChannel target,
+    final CacheTransferListenerType listener)
+    throws IOException
+  {
+    final var buffer =
+      ByteBuffer.allocate((int) Math.min(COPY_BUFFER_SIZE, Math.max(1L, size - start)));
+
+    var position = start;
+    while (position < size) {
+      buffer.clear();
+      buffer.limit((int) Math.min(buffer.capacity(), size - position));
+      final var read = source.read(buffer, position);
+      if (read < 0) {
+        break;
+      }
+
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        target.write(buffer);
+      }
+      position += read;
+      listener.onProgress(position, size);
+    }
+    return position;
+  }
+
+  /**
+   * Copy the contents of a stream, such as the decoded data of a
+   * compressed entry, to a channel through a buffer.
+   *
+   * @param source   The source stream
+   * @param size     The number of octets expected from the stream
+   * @param target   The target channel
+   * @param listener The receiver of progress reports
+   *
+   * @return The number of octets copied
+   *
+   * @throws IOException On I/O errors, or if the stream does not provide
+   *                     exactly {@code size} octets
+   */
+
+  public static long copy(
+    final InputStream source,
+    final long size,
+    final WritableByteChannel target,
+    final CacheTransferListenerType listener)
+    throws IOException
+  {
+    Objects.requireNonNull(source, "source");
+    Objects.requireNonNull(target, "target");
+    Objects.requireNonNull(listener, "listener");
+
+    final var array = new byte[(int) Math.min(COPY_BUFFER_SIZE, Math.max(1L, size))];
+    var position = 0L;
+    while (true) {
+      final var read = source.read(array);
+      if (read < 0) {
+        break;
+      }
+      if (position + read > size) {
+        throw new IOException(
+          String.format("Decoded data exceeds the expected size %d", Long.valueOf(size))
+        );
+      }
+
+      final var buffer = ByteBuffer.wrap(array, 0, read);
+      while (buffer.hasRemaining()) {
+        target.write(buffer);
+      }
+      position += read;
+      listener.onProgress(position, size);
+    }
+
+    if (position != size) {
+      throw new IOException(
+        String.format(
+          "Decoded data size %d does not match the expected size %d",
+          Long.valueOf(position),
+          Long.valueOf(size))
+      );
+    }
+    return position;
+  }
+}
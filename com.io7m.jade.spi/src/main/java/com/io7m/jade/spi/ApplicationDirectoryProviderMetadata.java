@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.spi;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Type-level metadata describing an {@link ApplicationDirectoryProviderType}.
+ *
+ * The metadata is read from the provider class without instantiating it,
+ * and so allows for discarding providers that cannot possibly apply to the
+ * current platform without running any of their initialization code.
+ * Providers that do not carry this annotation are treated as being
+ * applicable to every platform, with a priority of {@code 0}.
+ */
+
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ApplicationDirectoryProviderMetadata
+{
+  /**
+   * The prefixes of the {@code os.name} system property for which the
+   * provider may be applicable. The provider is considered applicable if
+   * the value of the property starts with any of the given prefixes. An
+   * empty array indicates that the provider may be applicable on any
+   * platform. If the {@code os.name} property is not available, every
+   * provider is considered applicable.
+   *
+   * @return The operating system name prefixes
+   */
+
+  String[] operatingSystemNamePrefixes() default {};
+
+  /**
+   * The priority of the provider. Applicable providers are initialized in
+   * descending order of priority until one of them reports itself as
+   * applicable. Providers with equal priority are initialized in discovery
+   * order.
+   *
+   * @return The provider priority
+   */
+
+  int priority() default 0;
+}
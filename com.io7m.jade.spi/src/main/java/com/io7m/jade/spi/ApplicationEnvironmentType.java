@@ -17,8 +17,12 @@
 package com.io7m.jade.spi;
 
 import java.nio.file.FileSystem;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.ServiceLoader;
 
 /**
  * An abstraction over the application's execution environment.
@@ -57,6 +61,10 @@ public interface ApplicationEnvironmentType
   );
 
   /**
+   * Retrieve the services of type {@code S}. Directory providers are
+   * stateful once initialized, and so each call is expected to return new
+   * instances, as {@link ServiceLoader} does.
+   *
    * @param clazz The service class
    * @param <S>   The service type
    *
@@ -66,4 +74,42 @@ public interface ApplicationEnvironmentType
   <S> Iterator<S> servicesFor(
     Class<S> clazz
   );
+
+  /**
+   * Retrieve the providers of services of type {@code S}. Providers allow
+   * for inspecting the type of each service before deciding whether to
+   * instantiate it.
+   *
+   * As with {@link ServiceLoader.Provider}, each call to the
+   * {@link ServiceLoader.Provider#get()} method of a returned provider
+   * yields a new instance, and so a provider may be used for any number of
+   * resolutions without the resolutions sharing state.
+   *
+   * The default implementation instantiates every service returned by
+   * {@link #servicesFor(Class)}, and returns providers that yield those
+   * instances the first time that they are asked, and instances obtained
+   * by calling {@link #servicesFor(Class)} again thereafter.
+   * Implementations are encouraged to override this method with one that
+   * does not instantiate services eagerly.
+   *
+   * @param clazz The service class
+   * @param <S>   The service type
+   *
+   * @return Available providers of services of type {@code S}
+   */
+
+  default <S> List<ServiceLoader.Provider<S>> serviceProvidersFor(
+    final Class<S> clazz)
+  {
+    Objects.requireNonNull(clazz, "clazz");
+
+    final var providers = new ArrayList<ServiceLoader.Provider<S>>();
+    final var iterator = this.servicesFor(clazz);
+    while (iterator.hasNext()) {
+      providers.add(
+        new ApplicationServiceInstanceProvider<>(this, clazz, iterator.next())
+      );
+    }
+    return List.copyOf(providers);
+  }
 }
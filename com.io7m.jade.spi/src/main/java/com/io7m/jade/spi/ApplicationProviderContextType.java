@@ -16,6 +16,8 @@
 
 package com.io7m.jade.spi;
 
+import java.util.Optional;
+
 /**
  * The type of application directory configurations.
  */
@@ -29,4 +31,33 @@ public interface ApplicationProviderContextType
    */
 
   String applicationName();
+
+  /**
+   * Whether providers should resolve each directory lazily. If {@code true},
+   * providers should defer the resolution of each directory until the
+   * directory is first requested, rather than resolving all directories
+   * during initialization.
+   *
+   * @return {@code true} if directories should be resolved lazily
+   */
+
+  default boolean lazyResolution()
+  {
+    return false;
+  }
+
+  /**
+   * An observer to which providers should report each source they consult
+   * while resolving directories. Observers are only present when a caller
+   * has explicitly asked for resolution to be traced, and so providers
+   * should avoid any work (such as reading clocks) that is only needed to
+   * inform an observer when no observer is present.
+   *
+   * @return The resolution observer, if any
+   */
+
+  default Optional<ApplicationResolutionObserverType> observer()
+  {
+    return Optional.empty();
+  }
 }
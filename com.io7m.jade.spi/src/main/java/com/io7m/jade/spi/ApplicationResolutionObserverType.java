@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.spi;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * An observer of the sources consulted by a provider during resolution.
+ *
+ * @see ApplicationProviderContextType#observer()
+ */
+
+public interface ApplicationResolutionObserverType
+{
+  /**
+   * The source name used to report that a provider fell back to a default
+   * directory because no other source yielded a path.
+   */
+
+  String SOURCE_FALLBACK = "fallback";
+
+  /**
+   * A source was consulted for a directory.
+   *
+   * @param directory     The directory being resolved, such as
+   *                      {@code cacheDirectory}
+   * @param source        The kind of source, such as
+   *                      {@code environment variable}, or
+   *                      {@link #SOURCE_FALLBACK}
+   * @param name          The name of the variable or property consulted
+   * @param path          The path yielded by the source, if any
+   * @param durationNanos The time taken to consult the source
+   */
+
+  void onSourceAttempt(
+    String directory,
+    String source,
+    String name,
+    Optional<Path> path,
+    long durationNanos
+  );
+}
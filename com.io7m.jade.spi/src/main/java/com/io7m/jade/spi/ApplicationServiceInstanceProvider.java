@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.spi;
+
+import java.util.Objects;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A provider of a service discovered through
+ * {@link ApplicationEnvironmentType#servicesFor(Class)}. The instance
+ * created during discovery is returned by the first call to {@link #get()};
+ * each later call obtains a new instance of the same type by asking the
+ * environment for its services again, and so no two calls return the same
+ * instance unless the environment itself shares instances.
+ *
+ * @param <S> The service type
+ */
+
+final class ApplicationServiceInstanceProvider<S>
+  implements ServiceLoader.Provider<S>
+{
+  private final ApplicationEnvironmentType environment;
+  private final Class<S> service;
+  private final Class<? extends S> type;
+  private final AtomicReference<S> discovered;
+
+  @SuppressWarnings("unchecked")
+  ApplicationServiceInstanceProvider(
+    final ApplicationEnvironmentType inEnvironment,
+    final Class<S> inService,
+    final S inInstance)
+  {
+    this.environment =
+      Objects.requireNonNull(inEnvironment, "environment");
+    this.service =
+      Objects.requireNonNull(inService, "service");
+    this.type =
+      (Class<? extends S>) Objects.requireNonNull(inInstance, "instance").getClass();
+    this.discovered =
+      new AtomicReference<>(inInstance);
+  }
+
+  @Override
+  public Class<? extends S> type()
+  {
+    return this.type;
+  }
+
+  @Override
+  public S get()
+  {
+    final var instance = this.discovered.getAndSet(null);
+    if (instance != null) {
+      return instance;
+    }
+
+    final var services = this.environment.servicesFor(this.service);
+    while (services.hasNext()) {
+      final var next = services.next();
+      if (next.getClass() == this.type) {
+        return next;
+      }
+    }
+
+    throw new ServiceConfigurationError(
+      String.format(
+        "%s: provider %s is no longer available",
+        this.service.getName(),
+        this.type.getName()
+      )
+    );
+  }
+}
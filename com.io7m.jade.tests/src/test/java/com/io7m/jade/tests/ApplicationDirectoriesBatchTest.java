@@ -0,0 +1,223 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.api.ApplicationDirectories;
+import com.io7m.jade.api.ApplicationDirectoryConfiguration;
+import com.io7m.jade.api.ApplicationEnvironmentSnapshot;
+import com.io7m.jade.spi.ApplicationEnvironmentType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+public final class ApplicationDirectoriesBatchTest
+{
+  private static final String OVERRIDE =
+    "com.io7m.jade.tests.override";
+  private static final String PORTABLE =
+    "com.io7m.jade.tests.portable";
+
+  private static List<ApplicationDirectoryConfiguration> configurations()
+  {
+    final var results = new ArrayList<ApplicationDirectoryConfiguration>();
+    for (int index = 0; index < 30; ++index) {
+      final var builder =
+        ApplicationDirectoryConfiguration.builder()
+          .setApplicationName("app" + index);
+
+      switch (index % 3) {
+        case 0 -> builder.setOverridePropertyName(OVERRIDE + index);
+        case 1 -> builder.setPortablePropertyName(PORTABLE + index);
+        default -> { }
+      }
+      results.add(builder.build());
+    }
+    return List.copyOf(results);
+  }
+
+  private static ApplicationEnvironmentType environment()
+  {
+    final var properties = new HashMap<String, String>();
+    properties.put("os.name", "Linux");
+    properties.put("user.home", "/home/someone");
+    properties.put(OVERRIDE + "3", "/tmp/override");
+    properties.put(PORTABLE + "4", "true");
+    return Mockito.spy(
+      ApplicationEnvironmentSnapshot.of(properties, Map.of())
+    );
+  }
+
+  @Test
+  public void testBatchMatchesIndividual()
+  {
+    final var environment = environment();
+    final var configurations = configurations();
+    final var results =
+      ApplicationDirectories.getAll(configurations, environment);
+
+    Assertions.assertEquals(
+      configurations,
+      List.copyOf(results.keySet()));
+
+    for (final var configuration : configurations) {
+      final var expected =
+        ApplicationDirectories.get(configuration, environment);
+      final var received =
+        results.get(configuration);
+
+      Assertions.assertEquals(
+        expected.configurationDirectory(),
+        received.configurationDirectory());
+      Assertions.assertEquals(
+        expected.dataDirectory(),
+        received.dataDirectory());
+      Assertions.assertEquals(
+        expected.cacheDirectory(),
+        received.cacheDirectory());
+    }
+  }
+
+  @Test
+  public void testBatchNonSnapshotEnvironment()
+    throws Exception
+  {
+    final var environment =
+      new ApplicationTestEnvironment(
+        Map.of("os.name", "Linux", "user.home", "/home/someone"),
+        Map.of()
+      );
+    final var configurations = configurations();
+
+    try (var executor = Executors.newFixedThreadPool(4)) {
+      final var serial =
+        ApplicationDirectories.getAll(configurations, environment);
+      final var parallel =
+        ApplicationDirectories.getAll(configurations, environment, executor);
+
+      for (final var configuration : configurations) {
+        final var expected =
+          ApplicationDirectories.get(configuration, environment);
+
+        for (final var received : List.of(serial.get(configuration), parallel.get(configuration))) {
+          Assertions.assertEquals(
+            expected.configurationDirectory(),
+            received.configurationDirectory());
+          Assertions.assertEquals(
+            expected.dataDirectory(),
+            received.dataDirectory());
+          Assertions.assertEquals(
+            expected.cacheDirectory(),
+            received.cacheDirectory());
+        }
+      }
+
+      Assertions.assertEquals(
+        Paths.get("/home/someone/.cache/app2"),
+        serial.get(configurations.get(2)).cacheDirectory());
+      Assertions.assertEquals(
+        Paths.get("/home/someone/.cache/app5"),
+        parallel.get(configurations.get(5)).cacheDirectory());
+    }
+  }
+
+  @Test
+  public void testBatchDiscoversOnce()
+  {
+    final var environment = environment();
+    ApplicationDirectories.getAll(configurations(), environment);
+
+    Mockito.verify(environment, Mockito.times(1))
+      .serviceProvidersFor(Mockito.any());
+  }
+
+  @Test
+  public void testBatchDuplicates()
+  {
+    final var configuration =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("app")
+        .build();
+
+    final var results =
+      ApplicationDirectories.getAll(
+        List.of(configuration, configuration),
+        environment()
+      );
+
+    Assertions.assertEquals(1, results.size());
+  }
+
+  @Test
+  public void testBatchExecutor()
+    throws Exception
+  {
+    final var environment = environment();
+    final var configurations = configurations();
+
+    try (var executor = Executors.newFixedThreadPool(4)) {
+      final var parallel =
+        ApplicationDirectories.getAll(configurations, environment, executor);
+      final var serial =
+        ApplicationDirectories.getAll(configurations, environment);
+
+      Assertions.assertEquals(
+        List.copyOf(serial.keySet()),
+        List.copyOf(parallel.keySet()));
+
+      for (final var configuration : configurations) {
+        Assertions.assertEquals(
+          serial.get(configuration).cacheDirectory(),
+          parallel.get(configuration).cacheDirectory());
+      }
+    }
+
+    Mockito.verify(environment, Mockito.times(2))
+      .serviceProvidersFor(Mockito.any());
+  }
+
+  @Test
+  public void testBatchExecutorFailure()
+    throws Exception
+  {
+    final var configuration =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("app")
+        .setOverridePropertyName(OVERRIDE)
+        .build();
+
+    final var environment =
+      ApplicationEnvironmentSnapshot.of(
+        Map.of(OVERRIDE, "\u0000"),
+        Map.of()
+      );
+
+    try (var executor = Executors.newFixedThreadPool(4)) {
+      Assertions.assertThrows(
+        InvalidPathException.class,
+        () -> ApplicationDirectories.getAll(
+          List.of(configuration), environment, executor));
+    }
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.api.ApplicationDirectories;
+import com.io7m.jade.api.ApplicationDirectoryConfiguration;
+import com.io7m.jade.api.ApplicationEnvironmentSnapshot;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+public final class ApplicationDirectoriesEventsTest
+{
+  private static final String OVERRIDE =
+    "com.io7m.jade.tests.override";
+  private static final String PORTABLE =
+    "com.io7m.jade.tests.portable";
+
+  private static List<RecordedEvent> record(
+    final Path directory,
+    final Runnable action)
+    throws Exception
+  {
+    final var file = directory.resolve("recording.jfr");
+    try (var recording = new Recording()) {
+      for (final var name : List.of(
+        "com.io7m.jade.Resolution",
+        "com.io7m.jade.ProviderSelection",
+        "com.io7m.jade.OverrideDecision",
+        "com.io7m.jade.PortableDecision",
+        "com.io7m.jade.PathSourceAttempt")) {
+        recording.enable(name).withoutThreshold();
+      }
+      recording.start();
+      action.run();
+      recording.stop();
+      recording.dump(file);
+    }
+    return RecordingFile.readAllEvents(file);
+  }
+
+  private static List<RecordedEvent> named(
+    final List<RecordedEvent> events,
+    final String name)
+  {
+    return events.stream()
+      .filter(e -> e.getEventType().getName().equals(name))
+      .toList();
+  }
+
+  @Test
+  public void testProviderEvents(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var configuration =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("Widget")
+        .setOverridePropertyName(OVERRIDE)
+        .setPortablePropertyName(PORTABLE)
+        .build();
+
+    final var environment =
+      ApplicationEnvironmentSnapshot.of(
+        Map.of("os.name", "Linux", "user.home", "/home/someone"),
+        Map.of("XDG_CACHE_HOME", "/tmp/cache")
+      );
+
+    final var events =
+      record(directory, () -> {
+        ApplicationDirectories.get(configuration, environment);
+      });
+
+    final var resolutions = named(events, "com.io7m.jade.Resolution");
+    Assertions.assertEquals(1, resolutions.size());
+    Assertions.assertEquals(
+      "Widget",
+      resolutions.get(0).getString("applicationName"));
+    Assertions.assertEquals(
+      "com.io7m.jade.vanilla.ApplicationDirectoriesUnix",
+      resolutions.get(0).getString("provider"));
+
+    final var overrides = named(events, "com.io7m.jade.OverrideDecision");
+    Assertions.assertEquals(1, overrides.size());
+    Assertions.assertFalse(overrides.get(0).getBoolean("overridden"));
+    Assertions.assertEquals(
+      OVERRIDE,
+      overrides.get(0).getString("propertyName"));
+
+    final var portables = named(events, "com.io7m.jade.PortableDecision");
+    Assertions.assertEquals(1, portables.size());
+    Assertions.assertFalse(portables.get(0).getBoolean("portable"));
+
+    final var selections = named(events, "com.io7m.jade.ProviderSelection");
+    Assertions.assertTrue(
+      selections.stream().anyMatch(e -> e.getBoolean("selected")));
+
+    final var attempts = named(events, "com.io7m.jade.PathSourceAttempt");
+    final var cacheMatched =
+      attempts.stream()
+        .filter(e -> e.getString("directory").equals("cacheDirectory"))
+        .filter(e -> e.getBoolean("matched"))
+        .toList();
+
+    Assertions.assertEquals(1, cacheMatched.size());
+    Assertions.assertEquals(
+      "XDG_CACHE_HOME",
+      cacheMatched.get(0).getString("name"));
+    Assertions.assertEquals(
+      "/tmp/cache/Widget",
+      cacheMatched.get(0).getString("path"));
+
+    final var configMatched =
+      attempts.stream()
+        .filter(e -> e.getString("directory").equals("configurationDirectory"))
+        .toList();
+
+    Assertions.assertEquals(2, configMatched.size());
+    Assertions.assertFalse(configMatched.get(0).getBoolean("matched"));
+    Assertions.assertEquals(
+      "environment variable",
+      configMatched.get(0).getString("source"));
+    Assertions.assertTrue(configMatched.get(1).getBoolean("matched"));
+    Assertions.assertEquals(
+      "system property",
+      configMatched.get(1).getString("source"));
+  }
+
+  @Test
+  public void testOverrideEvents(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var configuration =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("Widget")
+        .setOverridePropertyName(OVERRIDE)
+        .build();
+
+    final var environment =
+      ApplicationEnvironmentSnapshot.of(
+        Map.of(OVERRIDE, "/tmp/override"),
+        Map.of()
+      );
+
+    final var events =
+      record(directory, () -> {
+        ApplicationDirectories.get(configuration, environment);
+      });
+
+    final var overrides = named(events, "com.io7m.jade.OverrideDecision");
+    Assertions.assertEquals(1, overrides.size());
+    Assertions.assertTrue(overrides.get(0).getBoolean("overridden"));
+    Assertions.assertEquals(
+      "/tmp/override",
+      overrides.get(0).getString("path"));
+    Assertions.assertEquals(
+      0,
+      named(events, "com.io7m.jade.ProviderSelection").size());
+    Assertions.assertEquals(
+      1,
+      named(events, "com.io7m.jade.Resolution").size());
+  }
+}
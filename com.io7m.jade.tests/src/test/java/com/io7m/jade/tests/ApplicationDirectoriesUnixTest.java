@@ -27,8 +27,12 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import java.nio.file.FileSystems;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
 
 public final class ApplicationDirectoriesUnixTest
 {
@@ -537,4 +541,106 @@ public final class ApplicationDirectoriesUnixTest
         .resolve("Widget"),
       dir.cacheDirectory());
   }
+
+  @Test
+  public void testLazyResolution()
+    throws Exception
+  {
+    final var configuration =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("Widget")
+        .setLazyResolution(true)
+        .build();
+
+    final var context = new ApplicationProviderContext(configuration);
+
+    final var dir = new ApplicationDirectoriesUnix();
+    dir.setSystemSelection(
+      new SystemSelection()
+        .setUnix(true)
+        .setWindows(false)
+    );
+
+    final var filesystem = FileSystems.getDefault();
+    final var root = filesystem.getRootDirectories().iterator().next();
+
+    Mockito.when(this.environment.filesystem())
+      .thenReturn(filesystem);
+    Mockito.when(this.environment.environmentVariable("XDG_CACHE_HOME"))
+      .thenReturn(Optional.of(
+        root.resolve("var")
+          .resolve("cache")
+          .toString()
+      ));
+
+    final var initialized = dir.initialize(context, this.environment);
+    Assertions.assertTrue(initialized);
+    Mockito.verifyNoInteractions(this.environment);
+
+    final var expected =
+      root.resolve("var")
+        .resolve("cache")
+        .resolve("Widget");
+
+    Assertions.assertEquals(expected, dir.cacheDirectory());
+    Assertions.assertEquals(expected, dir.cacheDirectory());
+
+    Mockito.verify(this.environment, Mockito.times(1))
+      .environmentVariable("XDG_CACHE_HOME");
+    Mockito.verify(this.environment, Mockito.never())
+      .environmentVariable("XDG_CONFIG_HOME");
+    Mockito.verify(this.environment, Mockito.never())
+      .environmentVariable("XDG_DATA_HOME");
+  }
+
+  @Test
+  public void testLazyResolutionConcurrent()
+    throws Exception
+  {
+    final var configuration =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("Widget")
+        .setLazyResolution(true)
+        .build();
+
+    final var context = new ApplicationProviderContext(configuration);
+
+    final var dir = new ApplicationDirectoriesUnix();
+    dir.setSystemSelection(
+      new SystemSelection()
+        .setUnix(true)
+        .setWindows(false)
+    );
+
+    final var filesystem = FileSystems.getDefault();
+    final var root = filesystem.getRootDirectories().iterator().next();
+
+    Mockito.when(this.environment.filesystem())
+      .thenReturn(filesystem);
+    Mockito.when(this.environment.environmentVariable("XDG_DATA_HOME"))
+      .thenReturn(Optional.of(
+        root.resolve("var")
+          .resolve("data")
+          .toString()
+      ));
+
+    Assertions.assertTrue(dir.initialize(context, this.environment));
+
+    final var tasks = new ArrayList<Callable<Path>>();
+    for (int index = 0; index < 32; ++index) {
+      tasks.add(dir::dataDirectory);
+    }
+
+    try (var executor = Executors.newFixedThreadPool(8)) {
+      for (final var result : executor.invokeAll(tasks)) {
+        Assertions.assertEquals(
+          root.resolve("var").resolve("data").resolve("Widget"),
+          result.get()
+        );
+      }
+    }
+
+    Mockito.verify(this.environment, Mockito.times(1))
+      .environmentVariable("XDG_DATA_HOME");
+  }
 }
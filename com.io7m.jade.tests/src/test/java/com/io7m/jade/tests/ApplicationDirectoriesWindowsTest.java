@@ -569,4 +569,47 @@ public final class ApplicationDirectoriesWindowsTest
         .resolve("cache"),
       dir.cacheDirectory());
   }
+
+  @Test
+  public void testLazyResolution()
+    throws Exception
+  {
+    final var configuration =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("Widget")
+        .setLazyResolution(true)
+        .build();
+
+    final var context = new ApplicationProviderContext(configuration);
+
+    final var dir = new ApplicationDirectoriesWindows();
+    dir.setSystemSelection(
+      new SystemSelection()
+        .setUnix(false)
+        .setWindows(true)
+    );
+
+    final var filesystem = FileSystems.getDefault();
+    final var root = filesystem.getRootDirectories().iterator().next();
+
+    Mockito.when(this.environment.filesystem())
+      .thenReturn(filesystem);
+    Mockito.when(this.environment.environmentVariable("LOCALAPPDATA"))
+      .thenReturn(Optional.of(
+        root.resolve("local")
+          .toString()
+      ));
+
+    final var initialized = dir.initialize(context, this.environment);
+    Assertions.assertTrue(initialized);
+    Mockito.verifyNoInteractions(this.environment);
+
+    Assertions.assertEquals(
+      root.resolve("local")
+        .resolve("Widget"),
+      dir.cacheDirectory());
+
+    Mockito.verify(this.environment, Mockito.never())
+      .environmentVariable("APPDATA");
+  }
 }
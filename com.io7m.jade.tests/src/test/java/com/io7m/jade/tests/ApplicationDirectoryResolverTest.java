@@ -0,0 +1,204 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.api.ApplicationDirectoryConfiguration;
+import com.io7m.jade.api.ApplicationDirectoryResolver;
+import com.io7m.jade.spi.ApplicationEnvironmentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+public final class ApplicationDirectoryResolverTest
+{
+  private ApplicationEnvironmentType environment;
+
+  @BeforeEach
+  public void testSetup()
+  {
+    ApplicationDirectoryResolver.invalidate();
+
+    this.environment =
+      Mockito.mock(ApplicationEnvironmentType.class);
+
+    Mockito.when(this.environment.systemProperty(Mockito.anyString()))
+      .thenReturn(Optional.empty());
+    Mockito.when(this.environment.environmentVariable(Mockito.anyString()))
+      .thenReturn(Optional.empty());
+    Mockito.when(this.environment.filesystem())
+      .thenReturn(FileSystems.getDefault());
+    Mockito.when(this.environment.servicesFor(Mockito.any()))
+      .thenAnswer(invocation -> Collections.emptyIterator());
+    Mockito.when(this.environment.serviceProvidersFor(Mockito.any()))
+      .thenReturn(List.of());
+  }
+
+  @AfterEach
+  public void testTearDown()
+  {
+    ApplicationDirectoryResolver.invalidate();
+  }
+
+  @Test
+  public void testMemoized()
+  {
+    final var configuration =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("Widget")
+        .build();
+
+    final var directories0 =
+      ApplicationDirectoryResolver.get(configuration, this.environment);
+    final var directories1 =
+      ApplicationDirectoryResolver.get(configuration, this.environment);
+
+    Assertions.assertSame(directories0, directories1);
+    Mockito.verify(this.environment, Mockito.times(1))
+      .serviceProvidersFor(Mockito.any());
+  }
+
+  @Test
+  public void testDistinctConfigurations()
+  {
+    final var configuration0 =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("Widget")
+        .build();
+    final var configuration1 =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("Gadget")
+        .build();
+
+    final var directories0 =
+      ApplicationDirectoryResolver.get(configuration0, this.environment);
+    final var directories1 =
+      ApplicationDirectoryResolver.get(configuration1, this.environment);
+
+    Assertions.assertNotSame(directories0, directories1);
+    Assertions.assertEquals(
+      Paths.get("Widget", "config").toAbsolutePath(),
+      directories0.configurationDirectory()
+    );
+    Assertions.assertEquals(
+      Paths.get("Gadget", "config").toAbsolutePath(),
+      directories1.configurationDirectory()
+    );
+  }
+
+  @Test
+  public void testInvalidateOverride()
+  {
+    final var root =
+      FileSystems.getDefault()
+        .getRootDirectories()
+        .iterator()
+        .next()
+        .resolve("tmp")
+        .resolve("x");
+
+    final var configuration =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("Widget")
+        .setOverridePropertyName("com.io7m.jade.override")
+        .build();
+
+    final var directories0 =
+      ApplicationDirectoryResolver.get(configuration, this.environment);
+    Assertions.assertEquals(
+      Paths.get("Widget", "config").toAbsolutePath(),
+      directories0.configurationDirectory()
+    );
+
+    Mockito.when(this.environment.systemProperty("com.io7m.jade.override"))
+      .thenReturn(Optional.of(root.toString()));
+
+    final var directories1 =
+      ApplicationDirectoryResolver.get(configuration, this.environment);
+    Assertions.assertSame(directories0, directories1);
+
+    ApplicationDirectoryResolver.invalidate(configuration);
+
+    final var directories2 =
+      ApplicationDirectoryResolver.get(configuration, this.environment);
+    Assertions.assertEquals(
+      root.resolve("config").toAbsolutePath(),
+      directories2.configurationDirectory()
+    );
+  }
+
+  @Test
+  public void testBounded()
+  {
+    final var configuration =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("Widget")
+        .build();
+
+    final var count = ApplicationDirectoryResolver.MAXIMUM_RESOLVED * 3;
+    for (int index = 0; index < count; ++index) {
+      ApplicationDirectoryResolver.get(
+        configuration,
+        new ApplicationTestEnvironment(Map.of(), Map.of())
+      );
+      Assertions.assertTrue(
+        ApplicationDirectoryResolver.size() <= ApplicationDirectoryResolver.MAXIMUM_RESOLVED);
+    }
+
+    ApplicationDirectoryResolver.invalidate(configuration);
+    Assertions.assertEquals(0, ApplicationDirectoryResolver.size());
+  }
+
+  @Test
+  public void testConcurrent()
+    throws Exception
+  {
+    final var configuration =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("Widget")
+        .build();
+
+    final var tasks = new ArrayList<Callable<Object>>();
+    for (int index = 0; index < 64; ++index) {
+      tasks.add(() -> {
+        return ApplicationDirectoryResolver.get(configuration, this.environment);
+      });
+    }
+
+    try (var executor = Executors.newFixedThreadPool(8)) {
+      final var results = executor.invokeAll(tasks);
+      final var first = results.get(0).get();
+      for (final var result : results) {
+        Assertions.assertSame(first, result.get());
+      }
+    }
+
+    Mockito.verify(this.environment, Mockito.times(1))
+      .serviceProvidersFor(Mockito.any());
+  }
+}
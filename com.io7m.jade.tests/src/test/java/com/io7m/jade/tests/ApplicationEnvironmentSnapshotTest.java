@@ -0,0 +1,271 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.api.ApplicationDirectories;
+import com.io7m.jade.api.ApplicationDirectoryConfiguration;
+import com.io7m.jade.api.ApplicationDirectoryResolver;
+import com.io7m.jade.api.ApplicationEnvironmentSnapshot;
+import com.io7m.jade.spi.ApplicationDirectoryProviderType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public final class ApplicationEnvironmentSnapshotTest
+{
+  @BeforeEach
+  public void testSetup()
+  {
+    ApplicationDirectoryResolver.invalidate();
+  }
+
+  @AfterEach
+  public void testTearDown()
+  {
+    ApplicationDirectoryResolver.invalidate();
+  }
+
+  @Test
+  public void testLookups()
+  {
+    final var snapshot =
+      ApplicationEnvironmentSnapshot.of(
+        Map.of("user.home", "/home/someone"),
+        Map.of("HOME", "/home/else")
+      );
+
+    Assertions.assertEquals(
+      Optional.of("/home/someone"),
+      snapshot.systemProperty("user.home"));
+    Assertions.assertEquals(
+      Optional.empty(),
+      snapshot.systemProperty("HOME"));
+    Assertions.assertEquals(
+      Optional.of("/home/else"),
+      snapshot.environmentVariable("HOME"));
+    Assertions.assertEquals(
+      Optional.empty(),
+      snapshot.environmentVariable("user.home"));
+    Assertions.assertSame(
+      snapshot.systemProperty("user.home"),
+      snapshot.systemProperty("user.home"));
+  }
+
+  @Test
+  public void testImmutable()
+  {
+    final var properties = new HashMap<String, String>();
+    properties.put("user.home", "/home/someone");
+
+    final var snapshot =
+      ApplicationEnvironmentSnapshot.of(properties, Map.of());
+
+    properties.put("user.home", "/home/else");
+    Assertions.assertEquals(
+      Optional.of("/home/someone"),
+      snapshot.systemProperty("user.home"));
+  }
+
+  @Test
+  public void testCapture()
+  {
+    final var name = "com.io7m.jade.tests.snapshot";
+    System.setProperty(name, "x");
+
+    try {
+      final var snapshot =
+        ApplicationEnvironmentSnapshot.capture(List.of(name), List.of());
+      System.setProperty(name, "y");
+
+      Assertions.assertEquals(
+        Optional.of("x"),
+        snapshot.systemProperty(name));
+      Assertions.assertEquals(
+        Optional.ofNullable(System.getProperty("user.home")),
+        snapshot.systemProperty("user.home"));
+      Assertions.assertEquals(
+        Optional.ofNullable(System.getenv("HOME")),
+        snapshot.environmentVariable("HOME"));
+    } finally {
+      System.clearProperty(name);
+    }
+  }
+
+  @Test
+  public void testCaptureOnlyConsultedNames()
+  {
+    final var name = "com.io7m.jade.tests.snapshot";
+    System.setProperty(name, "x");
+
+    try {
+      final var snapshot = ApplicationEnvironmentSnapshot.capture();
+      Assertions.assertEquals(
+        Optional.empty(),
+        snapshot.systemProperty(name));
+      Assertions.assertEquals(
+        Optional.empty(),
+        snapshot.systemProperty("java.class.path"));
+      Assertions.assertEquals(
+        Optional.empty(),
+        snapshot.environmentVariable("PATH"));
+      Assertions.assertEquals(
+        Optional.ofNullable(System.getProperty("os.name")),
+        snapshot.systemProperty("os.name"));
+      Assertions.assertEquals(snapshot, ApplicationEnvironmentSnapshot.capture());
+    } finally {
+      System.clearProperty(name);
+    }
+  }
+
+  @Test
+  public void testCaptureConfiguration()
+  {
+    final var configuration =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("Widget")
+        .setOverridePropertyName("com.io7m.jade.tests.override")
+        .setPortablePropertyName("com.io7m.jade.tests.portable")
+        .build();
+
+    System.setProperty("com.io7m.jade.tests.override", "/tmp/x");
+    try {
+      final var snapshot =
+        ApplicationEnvironmentSnapshot.capture(configuration);
+      Assertions.assertEquals(
+        Optional.of("/tmp/x"),
+        snapshot.systemProperty("com.io7m.jade.tests.override"));
+      Assertions.assertEquals(
+        Optional.empty(),
+        snapshot.systemProperty("com.io7m.jade.tests.portable"));
+      Assertions.assertEquals(
+        Paths.get("/tmp/x/config"),
+        ApplicationDirectoryResolver.get(configuration, snapshot)
+          .configurationDirectory());
+    } finally {
+      System.clearProperty("com.io7m.jade.tests.override");
+    }
+  }
+
+  @Test
+  public void testEquality()
+  {
+    final var snapshot0 =
+      ApplicationEnvironmentSnapshot.of(
+        Map.of("user.home", "/home/someone"),
+        Map.of("HOME", "/home/someone")
+      );
+    final var snapshot1 =
+      ApplicationEnvironmentSnapshot.of(
+        Map.of("user.home", "/home/someone"),
+        Map.of("HOME", "/home/someone")
+      );
+    final var snapshot2 =
+      ApplicationEnvironmentSnapshot.of(
+        Map.of("user.home", "/home/someone"),
+        Map.of("HOME", "/home/else")
+      );
+
+    Assertions.assertEquals(snapshot0, snapshot1);
+    Assertions.assertEquals(snapshot0.hashCode(), snapshot1.hashCode());
+    Assertions.assertNotEquals(snapshot0, snapshot2);
+    Assertions.assertNotEquals(snapshot0, null);
+  }
+
+  @Test
+  public void testResolverKeyedBySnapshot()
+  {
+    final var configuration =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("Widget")
+        .setOverridePropertyName("com.io7m.jade.override")
+        .build();
+
+    final var directories0 =
+      ApplicationDirectoryResolver.get(
+        configuration,
+        ApplicationEnvironmentSnapshot.of(
+          Map.of("com.io7m.jade.override", "/tmp/x"),
+          Map.of()
+        )
+      );
+    final var directories1 =
+      ApplicationDirectoryResolver.get(
+        configuration,
+        ApplicationEnvironmentSnapshot.of(
+          Map.of("com.io7m.jade.override", "/tmp/x"),
+          Map.of()
+        )
+      );
+    final var directories2 =
+      ApplicationDirectoryResolver.get(
+        configuration,
+        ApplicationEnvironmentSnapshot.of(
+          Map.of("com.io7m.jade.override", "/tmp/y"),
+          Map.of()
+        )
+      );
+
+    Assertions.assertSame(directories0, directories1);
+    Assertions.assertNotSame(directories0, directories2);
+    Assertions.assertEquals(
+      Paths.get("/tmp/x/config"),
+      directories0.configurationDirectory());
+    Assertions.assertEquals(
+      Paths.get("/tmp/y/config"),
+      directories2.configurationDirectory());
+  }
+
+  @Test
+  public void testServices()
+  {
+    final var snapshot =
+      ApplicationEnvironmentSnapshot.of(Map.of(), Map.of());
+
+    Assertions.assertFalse(
+      snapshot.serviceProvidersFor(ApplicationDirectoryProviderType.class)
+        .isEmpty());
+    Assertions.assertTrue(
+      snapshot.servicesFor(ApplicationDirectoryProviderType.class)
+        .hasNext());
+  }
+
+  @Test
+  public void testResolveUnix()
+  {
+    final var configuration =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("Widget")
+        .build();
+
+    final var snapshot =
+      ApplicationEnvironmentSnapshot.of(
+        Map.of("os.name", "Linux"),
+        Map.of("XDG_CACHE_HOME", "/tmp/cache")
+      );
+
+    Assertions.assertEquals(
+      Paths.get("/tmp/cache/Widget"),
+      ApplicationDirectories.get(configuration, snapshot).cacheDirectory());
+  }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.api.ApplicationDirectories;
+import com.io7m.jade.api.ApplicationDirectoryConfiguration;
+import com.io7m.jade.api.internal.ApplicationProviderCandidates;
+import com.io7m.jade.spi.ApplicationDirectoryProviderMetadata;
+import com.io7m.jade.spi.ApplicationDirectoryProviderType;
+import com.io7m.jade.spi.ApplicationEnvironmentType;
+import com.io7m.jade.spi.ApplicationProviderContextType;
+import com.io7m.jade.vanilla.ApplicationDirectoriesUnix;
+import com.io7m.jade.vanilla.ApplicationDirectoriesWindows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public final class ApplicationProviderCandidatesTest
+{
+  private static final AtomicInteger INSTANTIATIONS =
+    new AtomicInteger();
+
+  private ApplicationEnvironmentType environment;
+
+  @BeforeEach
+  public void testSetup()
+  {
+    INSTANTIATIONS.set(0);
+
+    this.environment =
+      Mockito.mock(ApplicationEnvironmentType.class);
+
+    Mockito.when(this.environment.systemProperty(Mockito.anyString()))
+      .thenReturn(Optional.empty());
+    Mockito.when(this.environment.environmentVariable(Mockito.anyString()))
+      .thenReturn(Optional.empty());
+    Mockito.when(this.environment.filesystem())
+      .thenReturn(FileSystems.getDefault());
+  }
+
+  private static <S> ServiceLoader.Provider<S> providerOf(
+    final Class<? extends S> type,
+    final Supplier<S> supplier)
+  {
+    return new ServiceLoader.Provider<>()
+    {
+      @Override
+      public Class<? extends S> type()
+      {
+        return type;
+      }
+
+      @Override
+      public S get()
+      {
+        INSTANTIATIONS.incrementAndGet();
+        return supplier.get();
+      }
+    };
+  }
+
+  private void withOS(
+    final String name)
+  {
+    Mockito.when(this.environment.systemProperty("os.name"))
+      .thenReturn(Optional.of(name));
+  }
+
+  private void withProviders(
+    final List<ServiceLoader.Provider<ApplicationDirectoryProviderType>> providers)
+  {
+    Mockito.when(this.environment.serviceProvidersFor(
+        ApplicationDirectoryProviderType.class))
+      .thenReturn(providers);
+  }
+
+  private static List<ServiceLoader.Provider<ApplicationDirectoryProviderType>> vanilla()
+  {
+    return List.of(
+      providerOf(
+        ApplicationDirectoriesUnix.class,
+        ApplicationDirectoriesUnix::new),
+      providerOf(
+        ApplicationDirectoriesWindows.class,
+        ApplicationDirectoriesWindows::new)
+    );
+  }
+
+  @Test
+  public void testLinux()
+  {
+    this.withOS("Linux");
+    this.withProviders(vanilla());
+
+    final var candidates =
+      ApplicationProviderCandidates.candidates(this.environment);
+
+    Assertions.assertEquals(1, candidates.size());
+    Assertions.assertEquals(
+      ApplicationDirectoriesUnix.class,
+      candidates.get(0).type());
+    Assertions.assertEquals(0, INSTANTIATIONS.get());
+  }
+
+  @Test
+  public void testWindows()
+  {
+    this.withOS("Windows 11");
+    this.withProviders(vanilla());
+
+    final var candidates =
+      ApplicationProviderCandidates.candidates(this.environment);
+
+    Assertions.assertEquals(1, candidates.size());
+    Assertions.assertEquals(
+      ApplicationDirectoriesWindows.class,
+      candidates.get(0).type());
+    Assertions.assertEquals(0, INSTANTIATIONS.get());
+  }
+
+  @Test
+  public void testUnknownOS()
+  {
+    this.withOS("Plan 9");
+    this.withProviders(vanilla());
+
+    final var candidates =
+      ApplicationProviderCandidates.candidates(this.environment);
+
+    Assertions.assertEquals(0, candidates.size());
+  }
+
+  @Test
+  public void testOSNotAvailable()
+  {
+    this.withProviders(vanilla());
+
+    final var candidates =
+      ApplicationProviderCandidates.candidates(this.environment);
+
+    Assertions.assertEquals(2, candidates.size());
+    Assertions.assertEquals(0, INSTANTIATIONS.get());
+  }
+
+  @Test
+  public void testPriorityOrder()
+  {
+    this.withOS("Linux");
+    this.withProviders(List.of(
+      providerOf(Unannotated.class, Unannotated::new),
+      providerOf(Low.class, Low::new),
+      providerOf(High.class, High::new)
+    ));
+
+    final var candidates =
+      ApplicationProviderCandidates.candidates(this.environment);
+
+    Assertions.assertEquals(
+      List.of(High.class, Unannotated.class, Low.class),
+      candidates.stream().map(ServiceLoader.Provider::type).toList()
+    );
+  }
+
+  @Test
+  public void testOnlyWinnerInstantiated()
+  {
+    this.withOS("Linux");
+    this.withProviders(List.of(
+      providerOf(Unannotated.class, Unannotated::new),
+      providerOf(High.class, High::new),
+      providerOf(ApplicationDirectoriesWindows.class,
+                 ApplicationDirectoriesWindows::new)
+    ));
+
+    final var configuration =
+      ApplicationDirectoryConfiguration.builder()
+        .setApplicationName("Widget")
+        .build();
+
+    final var directories =
+      ApplicationDirectories.get(configuration, this.environment);
+
+    Assertions.assertEquals(
+      Path.of("high"),
+      directories.configurationDirectory()
+    );
+    Assertions.assertEquals(1, INSTANTIATIONS.get());
+  }
+
+  @Test
+  public void testDefaultProvidersYieldNewInstances()
+  {
+    final var providers =
+      new ApplicationTestEnvironment(Map.of(), Map.of())
+        .serviceProvidersFor(ApplicationDirectoryProviderType.class);
+
+    Assertions.assertFalse(providers.isEmpty());
+    for (final var provider : providers) {
+      final var instance0 = provider.get();
+      final var instance1 = provider.get();
+      Assertions.assertNotSame(instance0, instance1);
+      Assertions.assertEquals(provider.type(), instance0.getClass());
+      Assertions.assertEquals(provider.type(), instance1.getClass());
+    }
+  }
+
+  public abstract static class Fixed
+    implements ApplicationDirectoryProviderType
+  {
+    private final Path path;
+
+    Fixed(
+      final String name)
+    {
+      this.path = Path.of(name);
+    }
+
+    @Override
+    public final boolean initialize(
+      final ApplicationProviderContextType context,
+      final ApplicationEnvironmentType environment)
+    {
+      return true;
+    }
+
+    @Override
+    public final Path configurationDirectory()
+    {
+      return this.path;
+    }
+
+    @Override
+    public final Path dataDirectory()
+    {
+      return this.path;
+    }
+
+    @Override
+    public final Path cacheDirectory()
+    {
+      return this.path;
+    }
+  }
+
+  public static final class Unannotated extends Fixed
+  {
+    public Unannotated()
+    {
+      super("unannotated");
+    }
+  }
+
+  @ApplicationDirectoryProviderMetadata(priority = -10)
+  public static final class Low extends Fixed
+  {
+    public Low()
+    {
+      super("low");
+    }
+  }
+
+  @ApplicationDirectoryProviderMetadata(
+    operatingSystemNamePrefixes = "Linux",
+    priority = 10)
+  public static final class High extends Fixed
+  {
+    public High()
+    {
+      super("high");
+    }
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.api.ApplicationProviderRegistry;
+import com.io7m.jade.spi.ApplicationDirectoryProviderType;
+import com.io7m.jade.vanilla.ApplicationDirectoriesUnix;
+import com.io7m.jade.vanilla.ApplicationDirectoriesWindows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public final class ApplicationProviderRegistryTest
+{
+  @AfterEach
+  public void testTearDown()
+  {
+    ApplicationProviderRegistry.reload();
+  }
+
+  @Test
+  public void testProvidersDiscovered()
+  {
+    final var types =
+      ApplicationProviderRegistry.providersFor(
+          ApplicationDirectoryProviderType.class)
+        .stream()
+        .map(ServiceLoader.Provider::type)
+        .collect(Collectors.toSet());
+
+    Assertions.assertEquals(
+      Set.of(
+        ApplicationDirectoriesUnix.class,
+        ApplicationDirectoriesWindows.class
+      ),
+      types
+    );
+  }
+
+  @Test
+  public void testProvidersRetained()
+  {
+    final var providers0 =
+      ApplicationProviderRegistry.providersFor(
+        ApplicationDirectoryProviderType.class);
+    final var providers1 =
+      ApplicationProviderRegistry.providersFor(
+        ApplicationDirectoryProviderType.class);
+
+    Assertions.assertSame(providers0, providers1);
+  }
+
+  @Test
+  public void testServicesFresh()
+  {
+    final var services0 = new ArrayList<ApplicationDirectoryProviderType>();
+    ApplicationProviderRegistry.servicesFor(
+      ApplicationDirectoryProviderType.class).forEachRemaining(services0::add);
+    final var services1 = new ArrayList<ApplicationDirectoryProviderType>();
+    ApplicationProviderRegistry.servicesFor(
+      ApplicationDirectoryProviderType.class).forEachRemaining(services1::add);
+
+    Assertions.assertEquals(2, services0.size());
+    Assertions.assertEquals(2, services1.size());
+    for (int index = 0; index < services0.size(); ++index) {
+      Assertions.assertNotSame(services0.get(index), services1.get(index));
+      Assertions.assertEquals(
+        services0.get(index).getClass(),
+        services1.get(index).getClass()
+      );
+    }
+  }
+
+  @Test
+  public void testReloadDiscoversAgain()
+  {
+    final var providers0 =
+      ApplicationProviderRegistry.providersFor(
+        ApplicationDirectoryProviderType.class);
+
+    ApplicationProviderRegistry.reload(
+      ApplicationProviderRegistryTest.class.getClassLoader());
+
+    final var providers1 =
+      ApplicationProviderRegistry.providersFor(
+        ApplicationDirectoryProviderType.class);
+
+    Assertions.assertNotSame(providers0, providers1);
+    Assertions.assertEquals(providers0.size(), providers1.size());
+  }
+
+  @Test
+  public void testReloadLayer()
+  {
+    ApplicationProviderRegistry.reload(ModuleLayer.boot());
+
+    /*
+     * The test suite runs on the class path, and so the boot layer contains
+     * none of the providers.
+     */
+
+    Assertions.assertEquals(
+      0,
+      ApplicationProviderRegistry.providersFor(
+        ApplicationDirectoryProviderType.class).size()
+    );
+  }
+}
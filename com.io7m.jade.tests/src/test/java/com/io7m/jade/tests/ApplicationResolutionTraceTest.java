@@ -0,0 +1,174 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.api.ApplicationDirectories;
+import com.io7m.jade.api.ApplicationDirectoryConfiguration;
+import com.io7m.jade.api.ApplicationEnvironmentSnapshot;
+import com.io7m.jade.spi.ApplicationResolutionObserverType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+
+public final class ApplicationResolutionTraceTest
+{
+  private static final String OVERRIDE =
+    "com.io7m.jade.tests.override";
+  private static final String PORTABLE =
+    "com.io7m.jade.tests.portable";
+
+  private static ApplicationDirectoryConfiguration configuration()
+  {
+    return ApplicationDirectoryConfiguration.builder()
+      .setApplicationName("Widget")
+      .setOverridePropertyName(OVERRIDE)
+      .setPortablePropertyName(PORTABLE)
+      .setLazyResolution(true)
+      .build();
+  }
+
+  @Test
+  public void testTraceProvider()
+  {
+    final var environment =
+      ApplicationEnvironmentSnapshot.of(
+        Map.of("os.name", "Linux", "user.home", "/home/someone"),
+        Map.of("XDG_CACHE_HOME", "/tmp/cache")
+      );
+
+    final var trace =
+      ApplicationDirectories.trace(configuration(), environment);
+
+    Assertions.assertEquals(configuration(), trace.configuration());
+    Assertions.assertEquals(
+      "com.io7m.jade.vanilla.ApplicationDirectoriesUnix",
+      trace.provider());
+    Assertions.assertEquals(Optional.empty(), trace.overrideDirectory());
+    Assertions.assertFalse(trace.portable());
+    Assertions.assertTrue(trace.durationNanos() > 0L);
+
+    final var selected =
+      trace.providerAttempts()
+        .stream()
+        .filter(a -> a.selected())
+        .toList();
+    Assertions.assertEquals(1, selected.size());
+    Assertions.assertEquals(trace.provider(), selected.get(0).provider());
+
+    /*
+     * The configuration requested lazy resolution, but tracing resolves
+     * every directory eagerly.
+     */
+
+    Assertions.assertEquals(5, trace.sourceAttempts().size());
+
+    final var cache = trace.winningSource("cacheDirectory").orElseThrow();
+    Assertions.assertEquals("environment variable", cache.source());
+    Assertions.assertEquals("XDG_CACHE_HOME", cache.name());
+    Assertions.assertEquals(
+      Optional.of(Paths.get("/tmp/cache/Widget")),
+      cache.path());
+
+    final var config =
+      trace.winningSource("configurationDirectory").orElseThrow();
+    Assertions.assertEquals("system property", config.source());
+    Assertions.assertEquals("user.home", config.name());
+
+    Assertions.assertEquals(
+      Paths.get("/tmp/cache/Widget"),
+      trace.directories().cacheDirectory());
+  }
+
+  @Test
+  public void testTraceFallback()
+  {
+    final var environment =
+      ApplicationEnvironmentSnapshot.of(
+        Map.of("os.name", "Linux"),
+        Map.of()
+      );
+
+    final var trace =
+      ApplicationDirectories.trace(configuration(), environment);
+
+    final var data = trace.winningSource("dataDirectory").orElseThrow();
+    Assertions.assertEquals(
+      ApplicationResolutionObserverType.SOURCE_FALLBACK,
+      data.source());
+    Assertions.assertEquals(
+      Optional.of(trace.directories().dataDirectory()),
+      data.path());
+  }
+
+  @Test
+  public void testTraceOverride()
+  {
+    final var environment =
+      ApplicationEnvironmentSnapshot.of(
+        Map.of(OVERRIDE, "/tmp/override"),
+        Map.of()
+      );
+
+    final var trace =
+      ApplicationDirectories.trace(configuration(), environment);
+
+    Assertions.assertEquals(
+      Optional.of(Paths.get("/tmp/override")),
+      trace.overrideDirectory());
+    Assertions.assertTrue(trace.providerAttempts().isEmpty());
+    Assertions.assertTrue(trace.sourceAttempts().isEmpty());
+    Assertions.assertEquals(
+      Optional.empty(),
+      trace.winningSource("cacheDirectory"));
+  }
+
+  @Test
+  public void testTracePortable()
+  {
+    final var environment =
+      ApplicationEnvironmentSnapshot.of(
+        Map.of(PORTABLE, "true"),
+        Map.of()
+      );
+
+    final var trace =
+      ApplicationDirectories.trace(configuration(), environment);
+
+    Assertions.assertTrue(trace.portable());
+    Assertions.assertTrue(trace.providerAttempts().isEmpty());
+  }
+
+  @Test
+  public void testUntracedLazy()
+  {
+    final var environment =
+      ApplicationEnvironmentSnapshot.of(
+        Map.of("os.name", "Linux"),
+        Map.of("XDG_CACHE_HOME", "/tmp/cache")
+      );
+
+    final var directories =
+      ApplicationDirectories.get(configuration(), environment);
+
+    Assertions.assertEquals(
+      Paths.get("/tmp/cache/Widget"),
+      directories.cacheDirectory());
+  }
+}
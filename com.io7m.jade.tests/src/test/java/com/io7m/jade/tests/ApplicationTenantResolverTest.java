@@ -0,0 +1,388 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.api.ApplicationDirectories;
+import com.io7m.jade.api.ApplicationDirectoriesType;
+import com.io7m.jade.api.ApplicationDirectoryConfiguration;
+import com.io7m.jade.api.ApplicationEnvironmentSnapshot;
+import com.io7m.jade.api.ApplicationTenantResolver;
+import com.io7m.jade.api.ApplicationTenantResolverConfiguration;
+import com.io7m.jade.api.internal.ApplicationBoundedCache;
+import com.io7m.jade.api.internal.ApplicationDirectoryTemplate;
+import com.io7m.jade.spi.ApplicationDirectoryProviderType;
+import com.io7m.jade.spi.ApplicationEnvironmentType;
+import com.io7m.jade.spi.ApplicationProviderContextType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.mockito.Mockito;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public final class ApplicationTenantResolverTest
+{
+  private static final String OVERRIDE =
+    "com.io7m.jade.tests.override";
+  private static final String PORTABLE =
+    "com.io7m.jade.tests.portable";
+
+  private static List<ApplicationEnvironmentSnapshot> environments()
+  {
+    return List.of(
+      ApplicationEnvironmentSnapshot.of(
+        Map.of("os.name", "Linux"),
+        Map.of(
+          "XDG_CONFIG_HOME", "/x/config",
+          "XDG_DATA_HOME", "/x/data",
+          "XDG_CACHE_HOME", "/x/cache")
+      ),
+      ApplicationEnvironmentSnapshot.of(
+        Map.of("os.name", "Linux", "user.home", "/home/someone"),
+        Map.of()
+      ),
+      ApplicationEnvironmentSnapshot.of(
+        Map.of("os.name", "Linux"),
+        Map.of()
+      ),
+      ApplicationEnvironmentSnapshot.of(
+        Map.of("os.name", "Linux", OVERRIDE, "/tmp/override"),
+        Map.of()
+      ),
+      ApplicationEnvironmentSnapshot.of(
+        Map.of("os.name", "Linux", PORTABLE, "true"),
+        Map.of()
+      )
+    );
+  }
+
+  private static ApplicationDirectoryConfiguration baseConfiguration()
+  {
+    return ApplicationDirectoryConfiguration.builder()
+      .setApplicationName("Base")
+      .setOverridePropertyName(OVERRIDE)
+      .setPortablePropertyName(PORTABLE)
+      .build();
+  }
+
+  private static void assertSameDirectories(
+    final ApplicationDirectoriesType expected,
+    final ApplicationDirectoriesType received)
+  {
+    Assertions.assertEquals(
+      expected.configurationDirectory(),
+      received.configurationDirectory());
+    Assertions.assertEquals(
+      expected.dataDirectory(),
+      received.dataDirectory());
+    Assertions.assertEquals(
+      expected.cacheDirectory(),
+      received.cacheDirectory());
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> testDerivedMatchesFull()
+  {
+    return environments()
+      .stream()
+      .map(e -> DynamicTest.dynamicTest(
+        "testDerivedMatchesFull_" + e.hashCode(),
+        () -> checkDerivedMatchesFull(e)));
+  }
+
+  private static void checkDerivedMatchesFull(
+    final ApplicationEnvironmentSnapshot environment)
+  {
+    final var resolver =
+      ApplicationTenantResolver.create(
+        ApplicationTenantResolverConfiguration.builder()
+          .setBaseConfiguration(baseConfiguration())
+          .build(),
+        environment
+      );
+
+    for (final var tenant : List.of("t0", "tenant_1", "com.example.t2")) {
+      final var expected =
+        ApplicationDirectories.get(
+          ApplicationDirectoryConfiguration.builder()
+            .from(baseConfiguration())
+            .setApplicationName(tenant)
+            .build(),
+          environment
+        );
+
+      assertSameDirectories(expected, resolver.get(tenant));
+      Assertions.assertSame(resolver.get(tenant), resolver.get(tenant));
+    }
+  }
+
+  @Test
+  public void testNonSnapshotEnvironment()
+  {
+    final var environment =
+      new ApplicationTestEnvironment(
+        Map.of("os.name", "Linux", "user.home", "/home/someone"),
+        Map.of()
+      );
+
+    final var resolver =
+      ApplicationTenantResolver.create(
+        ApplicationTenantResolverConfiguration.builder()
+          .setBaseConfiguration(baseConfiguration())
+          .build(),
+        environment
+      );
+
+    for (final var tenant : List.of("alice", "bob")) {
+      final var expected =
+        ApplicationDirectories.get(
+          ApplicationDirectoryConfiguration.builder()
+            .from(baseConfiguration())
+            .setApplicationName(tenant)
+            .build(),
+          environment
+        );
+
+      assertSameDirectories(expected, resolver.get(tenant));
+      Assertions.assertEquals(
+        Paths.get("/home/someone/.cache").resolve(tenant),
+        resolver.get(tenant).cacheDirectory());
+    }
+  }
+
+  @Test
+  public void testNormalizingProviderNotDerived()
+  {
+    final var environment =
+      Mockito.spy(new ApplicationTestEnvironment(Map.of(), Map.of()));
+
+    Mockito.doReturn(List.of(new ServiceLoader.Provider<ApplicationDirectoryProviderType>()
+    {
+      @Override
+      public Class<? extends ApplicationDirectoryProviderType> type()
+      {
+        return Lowercasing.class;
+      }
+
+      @Override
+      public ApplicationDirectoryProviderType get()
+      {
+        return new Lowercasing();
+      }
+    })).when(environment).serviceProvidersFor(ApplicationDirectoryProviderType.class);
+
+    final var resolver =
+      ApplicationTenantResolver.create(
+        ApplicationTenantResolverConfiguration.builder()
+          .setBaseConfiguration(
+            ApplicationDirectoryConfiguration.builder()
+              .setApplicationName("Base")
+              .build())
+          .build(),
+        environment
+      );
+
+    Assertions.assertEquals(
+      Paths.get("/x/alice"),
+      resolver.get("Alice").configurationDirectory());
+    Assertions.assertEquals(
+      Paths.get("/x/bob.example"),
+      resolver.get("Bob.Example").cacheDirectory());
+  }
+
+  @Test
+  public void testInvalidTenant()
+  {
+    final var resolver =
+      ApplicationTenantResolver.create(
+        ApplicationTenantResolverConfiguration.builder()
+          .setBaseConfiguration(baseConfiguration())
+          .build(),
+        ApplicationEnvironmentSnapshot.of(Map.of(), Map.of())
+      );
+
+    Assertions.assertThrows(
+      IllegalArgumentException.class,
+      () -> resolver.get("not/valid"));
+    Assertions.assertEquals(0, resolver.size());
+  }
+
+  @Test
+  public void testBounded()
+  {
+    final var resolver =
+      ApplicationTenantResolver.create(
+        ApplicationTenantResolverConfiguration.builder()
+          .setBaseConfiguration(baseConfiguration())
+          .setMaximumTenants(100)
+          .build(),
+        ApplicationEnvironmentSnapshot.of(Map.of(), Map.of())
+      );
+
+    for (int index = 0; index < 1000; ++index) {
+      resolver.get("t" + index);
+      Assertions.assertTrue(resolver.size() <= 100);
+    }
+
+    resolver.evict("t999");
+    Assertions.assertTrue(resolver.size() < 100);
+    resolver.refresh();
+    Assertions.assertEquals(0, resolver.size());
+  }
+
+  @Test
+  public void testConcurrent()
+    throws Exception
+  {
+    final var resolver =
+      ApplicationTenantResolver.create(
+        ApplicationTenantResolverConfiguration.builder()
+          .setBaseConfiguration(baseConfiguration())
+          .setMaximumTenants(50)
+          .build(),
+        ApplicationEnvironmentSnapshot.of(
+          Map.of("os.name", "Linux", "user.home", "/home/someone"),
+          Map.of())
+      );
+
+    try (var executor = Executors.newFixedThreadPool(8)) {
+      final var tasks = new ArrayList<Callable<Object>>();
+      for (int task = 0; task < 8; ++task) {
+        tasks.add(() -> {
+          for (int index = 0; index < 2000; ++index) {
+            final var tenant = "t" + (index % 200);
+            Assertions.assertEquals(
+              Paths.get("/home/someone/.cache").resolve(tenant),
+              resolver.get(tenant).cacheDirectory());
+          }
+          return null;
+        });
+      }
+      for (final var future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+    }
+
+    Assertions.assertTrue(resolver.size() <= 50);
+  }
+
+  @Test
+  public void testTemplateTransformedName()
+  {
+    Assertions.assertTrue(
+      ApplicationDirectoryTemplate.infer(
+        Paths.get("/x/probe_0"), "Probe_0",
+        Paths.get("/x/probe_1"), "Probe_1"
+      ).isEmpty()
+    );
+    Assertions.assertTrue(
+      ApplicationDirectoryTemplate.infer(
+        Paths.get("/x/p0/p0"), "p0",
+        Paths.get("/x/p1/p1"), "p1"
+      ).isEmpty()
+    );
+  }
+
+  @Test
+  public void testTemplateRelative()
+  {
+    final var template =
+      ApplicationDirectoryTemplate.infer(
+        Paths.get("p0", "config"), "p0",
+        Paths.get("p1", "config"), "p1"
+      ).orElseThrow();
+
+    Assertions.assertEquals(
+      Paths.get("t", "config"),
+      template.apply("t"));
+  }
+
+  @Test
+  public void testCacheEvictsLeastRecentlyUsed()
+  {
+    final var computed = new AtomicInteger();
+    final var cache = new ApplicationBoundedCache<Integer, Integer>(10);
+
+    for (int index = 0; index < 10; ++index) {
+      cache.get(Integer.valueOf(index), k -> {
+        computed.incrementAndGet();
+        return k;
+      });
+    }
+
+    cache.get(Integer.valueOf(0), k -> k);
+    cache.get(Integer.valueOf(10), k -> k);
+
+    Assertions.assertTrue(cache.find(Integer.valueOf(0)).isPresent());
+    Assertions.assertTrue(cache.find(Integer.valueOf(10)).isPresent());
+    Assertions.assertTrue(cache.find(Integer.valueOf(1)).isEmpty());
+    Assertions.assertEquals(10, computed.get());
+    Assertions.assertThrows(
+      IllegalArgumentException.class,
+      () -> new ApplicationBoundedCache<Integer, Integer>(0));
+  }
+
+  public static final class Lowercasing
+    implements ApplicationDirectoryProviderType
+  {
+    private Path path;
+
+    public Lowercasing()
+    {
+
+    }
+
+    @Override
+    public boolean initialize(
+      final ApplicationProviderContextType context,
+      final ApplicationEnvironmentType environment)
+    {
+      this.path =
+        Paths.get("/x", context.applicationName().toLowerCase(Locale.ROOT));
+      return true;
+    }
+
+    @Override
+    public Path configurationDirectory()
+    {
+      return this.path;
+    }
+
+    @Override
+    public Path dataDirectory()
+    {
+      return this.path;
+    }
+
+    @Override
+    public Path cacheDirectory()
+    {
+      return this.path;
+    }
+  }
+}
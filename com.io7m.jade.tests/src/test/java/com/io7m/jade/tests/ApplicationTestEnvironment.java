@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.spi.ApplicationEnvironmentType;
+
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+/**
+ * An environment with fixed values that discovers services with a fresh
+ * {@link ServiceLoader} on each request, and relies on the default
+ * implementation of {@link #serviceProvidersFor(Class)}.
+ */
+
+public final class ApplicationTestEnvironment
+  implements ApplicationEnvironmentType
+{
+  private final Map<String, String> systemProperties;
+  private final Map<String, String> environmentVariables;
+
+  public ApplicationTestEnvironment(
+    final Map<String, String> inSystemProperties,
+    final Map<String, String> inEnvironmentVariables)
+  {
+    this.systemProperties =
+      Map.copyOf(Objects.requireNonNull(inSystemProperties, "systemProperties"));
+    this.environmentVariables =
+      Map.copyOf(Objects.requireNonNull(inEnvironmentVariables, "environmentVariables"));
+  }
+
+  @Override
+  public FileSystem filesystem()
+  {
+    return FileSystems.getDefault();
+  }
+
+  @Override
+  public Optional<String> systemProperty(
+    final String name)
+  {
+    return Optional.ofNullable(this.systemProperties.get(name));
+  }
+
+  @Override
+  public Optional<String> environmentVariable(
+    final String name)
+  {
+    return Optional.ofNullable(this.environmentVariables.get(name));
+  }
+
+  @Override
+  public <S> Iterator<S> servicesFor(
+    final Class<S> clazz)
+  {
+    return ServiceLoader.load(clazz).iterator();
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.cache.CacheStoreConfiguration;
+import com.io7m.jade.cache.CacheStoreType;
+import com.io7m.jade.cache.CacheStores;
+import com.io7m.jade.cache.internal.CacheIndex;
+import com.io7m.jade.cache.internal.CacheKeys;
+import com.io7m.jade.cache.internal.CacheLayout;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+
+public final class CacheAccountingTest
+{
+  private static CacheStoreType open(
+    final Path directory,
+    final long maximumSize,
+    final CacheTestClock clock,
+    final Duration auditInterval)
+    throws IOException
+  {
+    return CacheStores.open(
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(maximumSize)
+        .setClock(clock)
+        .setAuditInterval(auditInterval)
+        .setAuditFilesPerSecond(100_000.0)
+        .build()
+    );
+  }
+
+  private static CacheStoreType open(
+    final Path directory)
+    throws IOException
+  {
+    return open(directory, 100_000L, new CacheTestClock(), Duration.ofHours(1L));
+  }
+
+  private static Path file(
+    final Path directory,
+    final String key)
+  {
+    return CacheLayout.entryFile(directory.resolve("entries"), CacheKeys.hash(key));
+  }
+
+  private static void writeTotalSize(
+    final Path directory,
+    final long value)
+    throws IOException
+  {
+    try (var channel = FileChannel.open(directory.resolve("index"), WRITE)) {
+      channel.write(ByteBuffer.allocate(8).putLong(0, value), 32L);
+    }
+  }
+
+  /**
+   * The totals are kept up to date by writes and removals, and persist in
+   * the index.
+   */
+
+  @Test
+  public void testTotalsPersisted(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory)) {
+      store.put("a", new byte[10]);
+      store.put("b", new byte[20]);
+      store.put("c", new byte[30]);
+      store.put("b", new byte[5]);
+      store.remove("c");
+
+      Assertions.assertEquals(2L, store.entryCount());
+      Assertions.assertEquals(15L, store.sizeBytes());
+    }
+
+    try (var index = CacheIndex.open(directory.resolve("index")).orElseThrow()) {
+      Assertions.assertEquals(2L, index.totalCount());
+      Assertions.assertEquals(15L, index.totalSizeBytes());
+    }
+  }
+
+  /**
+   * Totals that are wrong when the store is opened by a single process
+   * are recomputed.
+   */
+
+  @Test
+  public void testTotalsRecomputedOnOpen(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory)) {
+      store.put("a", new byte[10]);
+    }
+
+    writeTotalSize(directory, 9999L);
+
+    try (var store = open(directory)) {
+      Assertions.assertEquals(10L, store.sizeBytes());
+    }
+  }
+
+  /**
+   * The totals cover the entries written by every store open on the same
+   * directory.
+   */
+
+  @Test
+  public void testTotalsShared(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store0 = open(directory);
+         var store1 = open(directory)) {
+      store0.put("a", new byte[10]);
+      store1.put("b", new byte[20]);
+
+      Assertions.assertEquals(30L, store0.sizeBytes());
+      Assertions.assertEquals(30L, store1.sizeBytes());
+      Assertions.assertEquals(2L, store0.entryCount());
+      Assertions.assertEquals(2L, store1.entryCount());
+    }
+  }
+
+  /**
+   * Evicting an entry adopted from another store releases the record of
+   * the entry.
+   */
+
+  @Test
+  public void testEvictAdoptedReleasesRecord(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    try (var store0 = open(directory, 1000L, clock, Duration.ofHours(1L));
+         var store1 = open(directory, 1000L, clock, Duration.ofHours(1L))) {
+      store0.put("a", new byte[600]);
+      clock.advance(1000L);
+      Assertions.assertTrue(store1.get("a").isPresent());
+      clock.advance(1000L);
+      store1.put("b", new byte[600]);
+
+      Assertions.assertFalse(Files.exists(file(directory, "a")));
+      Assertions.assertEquals(600L, store0.sizeBytes());
+      Assertions.assertEquals(1L, store0.entryCount());
+    }
+  }
+
+  /**
+   * Audits release the records of entries whose files have disappeared,
+   * and correct the totals.
+   */
+
+  @Test
+  @Timeout(value = 30L, unit = TimeUnit.SECONDS)
+  public void testAudit(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    try (var store =
+           open(directory, 100_000L, new CacheTestClock(), Duration.ofMillis(20L))) {
+      store.put("a", new byte[10]);
+      store.put("b", new byte[20]);
+
+      Files.delete(file(directory, "a"));
+      writeTotalSize(directory, 9999L);
+
+      while (store.statistics().auditCorrections() < 2L) {
+        Thread.sleep(10L);
+      }
+
+      Assertions.assertEquals(1L, store.entryCount());
+      Assertions.assertEquals(20L, store.sizeBytes());
+      Assertions.assertTrue(store.statistics().audits() >= 1L);
+      Assertions.assertTrue(store.get("b").isPresent());
+    }
+  }
+
+  /**
+   * Audits of a consistent store make no corrections.
+   */
+
+  @Test
+  @Timeout(value = 30L, unit = TimeUnit.SECONDS)
+  public void testAuditConsistent(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    try (var store =
+           open(directory, 100_000L, new CacheTestClock(), Duration.ofMillis(20L))) {
+      store.put("a", new byte[10]);
+      store.put("b", new byte[20]);
+
+      while (store.statistics().audits() < 2L) {
+        Thread.sleep(10L);
+      }
+
+      Assertions.assertEquals(0L, store.statistics().auditCorrections());
+      Assertions.assertEquals(30L, store.sizeBytes());
+    }
+  }
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.cache.CacheCodecType;
+import com.io7m.jade.cache.CacheCodecs;
+import com.io7m.jade.cache.CacheStoreConfiguration;
+import com.io7m.jade.cache.CacheStoreType;
+import com.io7m.jade.cache.CacheStores;
+import com.io7m.jade.cache.internal.CacheKeys;
+import com.io7m.jade.cache.internal.CacheLayout;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public final class CacheCompressionTest
+{
+  private static CacheStoreType open(
+    final Path directory,
+    final CacheCodecType codec)
+    throws IOException
+  {
+    return CacheStores.open(
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(100_000_000L)
+        .setCompression(codec)
+        .build()
+    );
+  }
+
+  private static CacheStoreType openUncompressed(
+    final Path directory)
+    throws IOException
+  {
+    return CacheStores.open(
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(100_000_000L)
+        .build()
+    );
+  }
+
+  private static byte[] json(
+    final int records)
+  {
+    final var text = new StringBuilder("[");
+    for (int index = 0; index < records; ++index) {
+      text.append(
+        "{\"id\": %d, \"name\": \"item-%d\", \"enabled\": true, \"tags\": [\"a\", \"b\"]},\n"
+          .formatted(Integer.valueOf(index), Integer.valueOf(index % 97)));
+    }
+    text.append("]");
+    return text.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] random(
+    final int size)
+  {
+    final var data = new byte[size];
+    new Random(0x5eedL).nextBytes(data);
+    return data;
+  }
+
+  private static Path file(
+    final Path directory,
+    final String key)
+  {
+    return CacheLayout.entryFile(directory.resolve("entries"), CacheKeys.hash(key));
+  }
+
+  @Test
+  public void testCompressible(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var data = json(2000);
+    try (var store = open(directory, CacheCodecs.deflate())) {
+      store.put("a", data);
+
+      final var stored = Files.size(file(directory, "a"));
+      Assertions.assertTrue(stored * 4L < data.length, "Stored size " + stored);
+      Assertions.assertEquals(stored, store.sizeBytes());
+      Assertions.assertArrayEquals(data, store.get("a").orElseThrow());
+
+      final var statistics = store.statistics();
+      Assertions.assertEquals(1L, statistics.compressedWrites());
+      Assertions.assertEquals(0L, statistics.incompressibleWrites());
+      Assertions.assertEquals(data.length - stored, statistics.compressionSavedBytes());
+    }
+  }
+
+  @Test
+  public void testIncompressible(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var data = random(100_000);
+    try (var store = open(directory, CacheCodecs.deflate())) {
+      store.put("a", data);
+
+      Assertions.assertEquals(data.length, Files.size(file(directory, "a")));
+      Assertions.assertArrayEquals(data, Files.readAllBytes(file(directory, "a")));
+      Assertions.assertArrayEquals(data, store.get("a").orElseThrow());
+
+      final var statistics = store.statistics();
+      Assertions.assertEquals(0L, statistics.compressedWrites());
+      Assertions.assertEquals(1L, statistics.incompressibleWrites());
+    }
+  }
+
+  @Test
+  public void testSmallNotCompressed(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var data = "{\"a\": 1, \"a\": 1, \"a\": 1}".getBytes(StandardCharsets.UTF_8);
+    try (var store = open(directory, CacheCodecs.deflate())) {
+      store.put("a", data);
+      Assertions.assertArrayEquals(data, Files.readAllBytes(file(directory, "a")));
+      Assertions.assertEquals(0L, store.statistics().compressedWrites());
+      Assertions.assertEquals(0L, store.statistics().incompressibleWrites());
+    }
+  }
+
+  @Test
+  public void testMapCompressed(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var data = json(2000);
+    try (var store = open(directory, CacheCodecs.deflate())) {
+      store.put("a", data);
+
+      try (var mapping = store.map("a").orElseThrow()) {
+        Assertions.assertEquals(data.length, mapping.sizeBytes());
+        final var buffer = mapping.buffer();
+        final var copy = new byte[buffer.remaining()];
+        buffer.get(copy);
+        Assertions.assertArrayEquals(data, copy);
+      }
+
+      try (var stream = Files.list(directory.resolve("tmp"))) {
+        Assertions.assertEquals(0L, stream.count());
+      }
+    }
+  }
+
+  @Test
+  public void testTransferCompressed(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var data = json(2000);
+    try (var store = open(directory, CacheCodecs.deflate())) {
+      store.put("a", data);
+
+      final var output = new ByteArrayOutputStream();
+      final var last = new long[2];
+      final var sent =
+        store.transfer("a", Channels.newChannel(output), (transferred, total) -> {
+          last[0] = transferred;
+          last[1] = total;
+        });
+
+      Assertions.assertEquals(data.length, sent.orElseThrow());
+      Assertions.assertArrayEquals(data, output.toByteArray());
+      Assertions.assertEquals(data.length, last[0]);
+      Assertions.assertEquals(data.length, last[1]);
+    }
+  }
+
+  /**
+   * Data that begins with the header of encoded entries is not mistaken
+   * for an encoded entry.
+   */
+
+  @Test
+  public void testHeaderLikeData(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var data = "JADECOD1 is not a header".getBytes(StandardCharsets.US_ASCII);
+    try (var store = openUncompressed(directory)) {
+      store.put("a", data);
+      Assertions.assertArrayEquals(data, store.get("a").orElseThrow());
+      try (var mapping = store.map("a").orElseThrow()) {
+        Assertions.assertEquals(data.length, mapping.sizeBytes());
+      }
+    }
+  }
+
+  @Test
+  public void testReadableWithoutCompression(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var data = json(2000);
+    try (var store = open(directory, CacheCodecs.deflate(9))) {
+      store.put("a", data);
+    }
+    try (var store = openUncompressed(directory)) {
+      Assertions.assertArrayEquals(data, store.get("a").orElseThrow());
+    }
+  }
+
+  @Test
+  public void testCustomCodec(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var data = json(100);
+    try (var store = open(directory, new XorCodec())) {
+      store.put("a", data);
+      Assertions.assertArrayEquals(data, store.get("a").orElseThrow());
+    }
+
+    try (var store = openUncompressed(directory)) {
+      final var ex =
+        Assertions.assertThrows(IOException.class, () -> store.get("a"));
+      Assertions.assertTrue(ex.getMessage().contains("xor"));
+    }
+
+    try (var store = CacheStores.open(
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(100_000_000L)
+        .addCodecs(new XorCodec())
+        .build())) {
+      Assertions.assertArrayEquals(data, store.get("a").orElseThrow());
+    }
+  }
+
+  @Test
+  public void testInvalidRatio(
+    final @TempDir Path directory)
+  {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(1000L)
+        .setCompressionMaximumRatio(0.0)
+        .build();
+    });
+  }
+
+  /**
+   * A third-party codec: deflate with every compressed octet inverted, so
+   * that its output cannot be decoded by the built-in deflate codec.
+   */
+
+  private static final class XorCodec implements CacheCodecType
+  {
+    @Override
+    public String name()
+    {
+      return "xor";
+    }
+
+    @Override
+    public OutputStream encoder(
+      final OutputStream output)
+      throws IOException
+    {
+      return CacheCodecs.deflate().encoder(new FilterOutputStream(output) {
+        @Override
+        public void write(
+          final int b)
+          throws IOException
+        {
+          this.out.write(b ^ 0x5a);
+        }
+      });
+    }
+
+    @Override
+    public InputStream decoder(
+      final InputStream input)
+      throws IOException
+    {
+      return CacheCodecs.deflate().decoder(new FilterInputStream(input) {
+        @Override
+        public int read()
+          throws IOException
+        {
+          final var b = this.in.read();
+          if (b < 0) {
+            return b;
+          }
+          return b ^ 0x5a;
+        }
+
+        @Override
+        public int read(
+          final byte[] buffer,
+          final int offset,
+          final int length)
+          throws IOException
+        {
+          final var count = this.in.read(buffer, offset, length);
+          for (int index = 0; index < count; ++index) {
+            buffer[offset + index] ^= 0x5a;
+          }
+          return count;
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.cache.CacheEvictionPolicies;
+import com.io7m.jade.cache.CacheEvictionPolicyType;
+import com.io7m.jade.cache.CacheSimulation;
+import com.io7m.jade.cache.CacheStoreConfiguration;
+import com.io7m.jade.cache.CacheStores;
+import com.io7m.jade.cache.CacheTraceAccess;
+import com.io7m.jade.cache.internal.CacheFrequencySketch;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+public final class CacheEvictionPolicyTest
+{
+  /**
+   * A hot set of 50 keys, each accessed once in every 200 accesses, mixed
+   * with a scan of keys that are never accessed again.
+   */
+
+  private static List<CacheTraceAccess> scanTrace()
+  {
+    final var trace = new ArrayList<CacheTraceAccess>();
+    for (int index = 0; index < 20_000; ++index) {
+      trace.add(CacheTraceAccess.of("hot" + (index % 50), 1L));
+      trace.add(CacheTraceAccess.of("scan" + index + "a", 1L));
+      trace.add(CacheTraceAccess.of("scan" + index + "b", 1L));
+      trace.add(CacheTraceAccess.of("scan" + index + "c", 1L));
+    }
+    return trace;
+  }
+
+  /**
+   * Small keys and large keys accessed equally often.
+   */
+
+  private static List<CacheTraceAccess> sizeTrace()
+  {
+    final var trace = new ArrayList<CacheTraceAccess>();
+    for (int index = 0; index < 20_000; ++index) {
+      trace.add(CacheTraceAccess.of("small" + (index % 20), 1L));
+      trace.add(CacheTraceAccess.of("large" + (index % 5), 40L));
+    }
+    return trace;
+  }
+
+  @Test
+  public void testTinyLFUScanResistant()
+  {
+    final var lru =
+      CacheSimulation.simulate(
+        CacheEvictionPolicies.lru(), 100L, scanTrace().stream());
+    final var tinyLFU =
+      CacheSimulation.simulate(
+        CacheEvictionPolicies.tinyLFU(), 100L, scanTrace().stream());
+
+    Assertions.assertEquals("lru", lru.policy());
+    Assertions.assertEquals("tinylfu", tinyLFU.policy());
+    Assertions.assertEquals(80_000L, lru.requests());
+    Assertions.assertEquals(80_000L, tinyLFU.requests());
+    Assertions.assertTrue(
+      lru.hitRate() < 0.01,
+      "LRU hit rate %f".formatted(Double.valueOf(lru.hitRate())));
+    Assertions.assertTrue(
+      tinyLFU.hitRate() > 0.2,
+      "TinyLFU hit rate %f".formatted(Double.valueOf(tinyLFU.hitRate())));
+  }
+
+  @Test
+  public void testGDSFSizeAware()
+  {
+    final var lru =
+      CacheSimulation.simulate(
+        CacheEvictionPolicies.lru(), 100L, sizeTrace().stream());
+    final var gdsf =
+      CacheSimulation.simulate(
+        CacheEvictionPolicies.gdsf(), 100L, sizeTrace().stream());
+
+    Assertions.assertEquals("gdsf", gdsf.policy());
+    Assertions.assertTrue(
+      gdsf.hitRate() > lru.hitRate() + 0.2,
+      "GDSF hit rate %f, LRU hit rate %f".formatted(
+        Double.valueOf(gdsf.hitRate()),
+        Double.valueOf(lru.hitRate())));
+  }
+
+  @Test
+  public void testSimulationCounts()
+  {
+    final var result =
+      CacheSimulation.simulate(
+        CacheEvictionPolicies.lru(),
+        10L,
+        List.of(
+          CacheTraceAccess.of("a", 4L),
+          CacheTraceAccess.of("a", 4L),
+          CacheTraceAccess.of("b", 4L),
+          CacheTraceAccess.of("c", 4L),
+          CacheTraceAccess.of("a", 4L),
+          CacheTraceAccess.of("a", 5L),
+          CacheTraceAccess.of("d", 11L)
+        ).stream()
+      );
+
+    Assertions.assertEquals(7L, result.requests());
+    Assertions.assertEquals(1L, result.hits());
+    Assertions.assertEquals(36L, result.requestBytes());
+    Assertions.assertEquals(4L, result.hitBytes());
+    Assertions.assertEquals(2L, result.evictions());
+    Assertions.assertEquals(10L, result.maximumSizeBytes());
+    Assertions.assertEquals(1.0 / 7.0, result.hitRate(), 0.0001);
+    Assertions.assertEquals(4.0 / 36.0, result.byteHitRate(), 0.0001);
+  }
+
+  @Test
+  public void testSimulationInvalidSize()
+  {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      CacheSimulation.simulate(
+        CacheEvictionPolicies.lru(), 0L, List.<CacheTraceAccess>of().stream());
+    });
+  }
+
+  @Test
+  public void testSketchAging()
+  {
+    final var sketch = new CacheFrequencySketch(16);
+    final var key = 0x1234_5678_9abc_def0L;
+
+    for (int index = 0; index < 20; ++index) {
+      sketch.increment(key);
+    }
+    Assertions.assertEquals(15, sketch.frequency(key));
+
+    for (long other = 0L; other < 200L; ++other) {
+      sketch.increment(other * 0x9e37_79b9_7f4a_7c15L);
+    }
+
+    final var aged = sketch.frequency(key);
+    Assertions.assertTrue(aged >= 7 && aged < 15, "Frequency %d".formatted(aged));
+  }
+
+  private static boolean survivesScan(
+    final Path directory,
+    final Supplier<CacheEvictionPolicyType> policy)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    final var configuration =
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(100L)
+        .setEvictionPolicy(policy)
+        .setClock(clock)
+        .build();
+
+    try (var store = CacheStores.open(configuration)) {
+      store.put("hot", new byte[10]);
+      for (int index = 0; index < 5; ++index) {
+        clock.advance(1L);
+        store.get("hot").orElseThrow();
+      }
+      for (int index = 0; index < 20; ++index) {
+        clock.advance(1L);
+        store.put("scan" + index, new byte[10]);
+      }
+      return store.get("hot").isPresent();
+    }
+  }
+
+  @Test
+  public void testStoreTinyLFU(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    Assertions.assertTrue(
+      survivesScan(directory.resolve("tinylfu"), CacheEvictionPolicies::tinyLFU));
+    Assertions.assertFalse(
+      survivesScan(directory.resolve("lru"), CacheEvictionPolicies::lru));
+  }
+
+  @Test
+  public void testStoreGDSF(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    Assertions.assertTrue(
+      survivesScan(directory.resolve("gdsf"), CacheEvictionPolicies::gdsf));
+  }
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.cache.CacheStoreConfiguration;
+import com.io7m.jade.cache.CacheStoreType;
+import com.io7m.jade.cache.CacheStores;
+import com.io7m.jade.cache.internal.CacheIndex;
+import com.io7m.jade.cache.internal.CacheIndexRecord;
+import com.io7m.jade.cache.internal.CacheKeys;
+import com.io7m.jade.cache.internal.CacheLayout;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public final class CacheExpiryTest
+{
+  private static CacheStoreType open(
+    final CacheStoreConfiguration.Builder builder,
+    final Path directory,
+    final CacheTestClock clock)
+    throws IOException
+  {
+    return CacheStores.open(
+      builder
+        .setDirectory(directory)
+        .setMaximumSizeBytes(1_000_000L)
+        .setClock(clock)
+        .build()
+    );
+  }
+
+  private static byte[] filled(
+    final int size,
+    final int value)
+  {
+    final var data = new byte[size];
+    Arrays.fill(data, (byte) value);
+    return data;
+  }
+
+  private static Path file(
+    final Path directory,
+    final String key)
+  {
+    return CacheLayout.entryFile(directory.resolve("entries"), CacheKeys.hash(key));
+  }
+
+  @Test
+  public void testExpireAfterWrite(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    final var builder =
+      CacheStoreConfiguration.builder()
+        .setExpireAfterWrite(Duration.ofSeconds(10L));
+
+    try (var store = open(builder, directory, clock)) {
+      store.put("a", filled(10, 1));
+      clock.advance(9_999L);
+      Assertions.assertTrue(store.get("a").isPresent());
+
+      clock.advance(1L);
+      Assertions.assertTrue(store.get("a").isEmpty());
+      Assertions.assertTrue(store.map("a").isEmpty());
+      Assertions.assertTrue(
+        store.transfer("a", Channels.newChannel(OutputStream.nullOutputStream())).isEmpty());
+
+      store.put("b", filled(10, 2));
+      Assertions.assertFalse(Files.exists(file(directory, "a")));
+      Assertions.assertEquals(1L, store.entryCount());
+      Assertions.assertEquals(10L, store.sizeBytes());
+      Assertions.assertEquals(1L, store.statistics().expiredEntries());
+    }
+  }
+
+  @Test
+  public void testTimeToLivePerEntry(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    final var builder =
+      CacheStoreConfiguration.builder()
+        .setExpireAfterWrite(Duration.ofSeconds(10L));
+
+    try (var store = open(builder, directory, clock)) {
+      store.put("short", filled(10, 1), Duration.ofSeconds(1L));
+      store.put("long", filled(10, 2), Duration.ofHours(1L));
+      store.put("default", filled(10, 3));
+
+      clock.advance(1_000L);
+      Assertions.assertTrue(store.get("short").isEmpty());
+      Assertions.assertTrue(store.get("default").isPresent());
+
+      clock.advance(10_000L);
+      Assertions.assertTrue(store.get("default").isEmpty());
+      Assertions.assertTrue(store.get("long").isPresent());
+
+      Assertions.assertThrows(IllegalArgumentException.class, () -> {
+        store.put("a", filled(10, 1), Duration.ZERO);
+      });
+      Assertions.assertThrows(IllegalArgumentException.class, () -> {
+        store.put("a", filled(10, 1), Duration.ofSeconds(-1L));
+      });
+    }
+  }
+
+  @Test
+  public void testNeverExpires(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    try (var store = open(CacheStoreConfiguration.builder(), directory, clock)) {
+      store.put("a", filled(10, 1));
+      store.put("b", filled(10, 2), Duration.ofSeconds(Long.MAX_VALUE));
+      clock.advance(Long.MAX_VALUE / 2L);
+      Assertions.assertTrue(store.get("a").isPresent());
+      Assertions.assertTrue(store.get("b").isPresent());
+    }
+  }
+
+  @Test
+  public void testMemoryTierExpiry(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    final var builder =
+      CacheStoreConfiguration.builder()
+        .setMemoryMaximumSizeBytes(1000L)
+        .setExpireAfterWrite(Duration.ofSeconds(10L));
+
+    try (var store = open(builder, directory, clock)) {
+      store.put("a", filled(10, 1));
+      Assertions.assertTrue(store.get("a").isPresent());
+      Assertions.assertEquals(1L, store.statistics().memoryHits());
+
+      clock.advance(10_000L);
+      Assertions.assertTrue(store.get("a").isEmpty());
+      Assertions.assertEquals(1L, store.statistics().memoryHits());
+    }
+  }
+
+  @Test
+  public void testExpiryPersisted(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    final var written = clock.millis();
+    try (var store = open(CacheStoreConfiguration.builder(), directory, clock)) {
+      store.put("a", filled(10, 1), Duration.ofSeconds(10L));
+      store.put("b", filled(10, 2));
+    }
+
+    final var records = new ArrayList<CacheIndexRecord>();
+    try (var index = CacheIndex.open(directory.resolve("index")).orElseThrow()) {
+      index.forEachRecord(records::add);
+    }
+    for (final var record : records) {
+      Assertions.assertEquals(written, record.writeTime());
+      if (record.hash().equals(CacheKeys.hash("a"))) {
+        Assertions.assertEquals(written + 10_000L, record.expiry());
+      } else {
+        Assertions.assertEquals(Long.MAX_VALUE, record.expiry());
+      }
+    }
+
+    clock.advance(10_000L);
+    try (var store = open(CacheStoreConfiguration.builder(), directory, clock)) {
+      Assertions.assertTrue(store.get("a").isEmpty());
+      Assertions.assertTrue(store.get("b").isPresent());
+    }
+  }
+
+  @Test
+  @Timeout(value = 30L, unit = TimeUnit.SECONDS)
+  public void testExpiryInBackground(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var clock = new CacheTestClock();
+    try (var store = open(CacheStoreConfiguration.builder(), directory, clock)) {
+      for (int index = 0; index < 100; ++index) {
+        store.put("k" + index, filled(10, index), Duration.ofSeconds(index + 1L));
+      }
+
+      clock.advance(50_000L);
+      while (store.entryCount() > 50L) {
+        Thread.sleep(10L);
+      }
+
+      Assertions.assertEquals(50L, store.entryCount());
+      Assertions.assertEquals(50L, store.statistics().expiredEntries());
+      Assertions.assertFalse(Files.exists(file(directory, "k0")));
+      Assertions.assertTrue(Files.exists(file(directory, "k50")));
+    }
+  }
+
+  @Test
+  @Timeout(value = 30L, unit = TimeUnit.SECONDS)
+  public void testRefreshAfterWrite(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var clock = new CacheTestClock();
+    final var builder =
+      CacheStoreConfiguration.builder()
+        .setRefreshAfterWrite(Duration.ofSeconds(10L))
+        .setExpireAfterWrite(Duration.ofSeconds(60L));
+
+    final var calls = new AtomicInteger(0);
+    final var release = new CountDownLatch(1);
+    try (var store = open(builder, directory, clock)) {
+      final var first =
+        store.getOrCompute("a", key -> {
+          return ("v" + calls.incrementAndGet()).getBytes(UTF_8);
+        });
+      Assertions.assertEquals("v1", new String(first, UTF_8));
+
+      clock.advance(10_000L);
+
+      /*
+       * The stale entry is returned while the refresh waits, and repeated
+       * reads do not start further refreshes.
+       */
+
+      for (int index = 0; index < 10; ++index) {
+        final var stale =
+          store.getOrCompute("a", key -> {
+            release.await();
+            return ("v" + calls.incrementAndGet()).getBytes(UTF_8);
+          });
+        Assertions.assertEquals("v1", new String(stale, UTF_8));
+      }
+
+      release.countDown();
+      while (store.statistics().refreshes() < 1L) {
+        Thread.sleep(10L);
+      }
+
+      Assertions.assertEquals(2, calls.get());
+      Assertions.assertEquals("v2", new String(store.get("a").orElseThrow(), UTF_8));
+      Assertions.assertEquals(1L, store.statistics().loads());
+
+      /*
+       * The refreshed entry keeps its time to live from the refresh.
+       */
+
+      clock.advance(59_999L);
+      Assertions.assertTrue(store.get("a").isPresent());
+    }
+  }
+
+  @Test
+  @Timeout(value = 30L, unit = TimeUnit.SECONDS)
+  public void testRefreshFailureKeepsEntry(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var clock = new CacheTestClock();
+    final var builder =
+      CacheStoreConfiguration.builder()
+        .setRefreshAfterWrite(Duration.ofSeconds(10L))
+        .setExpireAfterWrite(Duration.ofSeconds(60L));
+
+    try (var store = open(builder, directory, clock)) {
+      store.put("a", filled(10, 1));
+      clock.advance(10_000L);
+
+      final var stale =
+        store.getOrCompute("a", key -> {
+          throw new IOException("Failed");
+        });
+      Assertions.assertArrayEquals(filled(10, 1), stale);
+
+      while (store.statistics().refreshFailures() < 1L) {
+        Thread.sleep(10L);
+      }
+      Assertions.assertArrayEquals(filled(10, 1), store.get("a").orElseThrow());
+
+      /*
+       * An expired entry is loaded again before it is returned.
+       */
+
+      clock.advance(50_000L);
+      final var loaded = store.getOrCompute("a", key -> filled(10, 2));
+      Assertions.assertArrayEquals(filled(10, 2), loaded);
+      Assertions.assertEquals(0L, store.statistics().refreshes());
+    }
+  }
+
+  @Test
+  @Timeout(value = 30L, unit = TimeUnit.SECONDS)
+  public void testRefreshDoesNotReviveRemoved(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var clock = new CacheTestClock();
+    final var builder =
+      CacheStoreConfiguration.builder()
+        .setRefreshAfterWrite(Duration.ofSeconds(10L));
+
+    final var started = new CountDownLatch(1);
+    final var release = new CountDownLatch(1);
+    try (var store = open(builder, directory, clock)) {
+      store.put("a", filled(10, 1));
+      clock.advance(10_000L);
+
+      store.getOrCompute("a", key -> {
+        started.countDown();
+        release.await();
+        return filled(10, 2);
+      });
+
+      started.await();
+      Assertions.assertTrue(store.remove("a"));
+      release.countDown();
+
+      while (store.statistics().refreshes() < 1L) {
+        Thread.sleep(10L);
+      }
+      Assertions.assertTrue(store.get("a").isEmpty());
+    }
+  }
+
+  @Test
+  public void testInvalidConfigurations()
+  {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      CacheStoreConfiguration.builder()
+        .setDirectory(Path.of("x"))
+        .setMaximumSizeBytes(1000L)
+        .setExpireAfterWrite(Duration.ZERO)
+        .build();
+    });
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      CacheStoreConfiguration.builder()
+        .setDirectory(Path.of("x"))
+        .setMaximumSizeBytes(1000L)
+        .setRefreshAfterWrite(Duration.ofSeconds(-1L))
+        .build();
+    });
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      CacheStoreConfiguration.builder()
+        .setDirectory(Path.of("x"))
+        .setMaximumSizeBytes(1000L)
+        .setRefreshThreads(0)
+        .build();
+    });
+  }
+}
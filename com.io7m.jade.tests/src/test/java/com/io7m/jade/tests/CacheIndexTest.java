@@ -0,0 +1,252 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.cache.CacheStoreConfiguration;
+import com.io7m.jade.cache.CacheStoreType;
+import com.io7m.jade.cache.CacheStores;
+import com.io7m.jade.cache.internal.CacheFileLock;
+import com.io7m.jade.cache.internal.CacheIndex;
+import com.io7m.jade.cache.internal.CacheIndexRecord;
+import com.io7m.jade.cache.internal.CacheKeys;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+public final class CacheIndexTest
+{
+  private static CacheStoreType open(
+    final Path directory,
+    final CacheTestClock clock)
+    throws IOException
+  {
+    return CacheStores.open(
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(1_000_000L)
+        .setClock(clock)
+        .build()
+    );
+  }
+
+  private static List<CacheIndexRecord> records(
+    final Path file)
+    throws IOException
+  {
+    final var records = new ArrayList<CacheIndexRecord>();
+    try (var index = CacheIndex.open(file).orElseThrow()) {
+      index.forEachRecord(records::add);
+    }
+    return records;
+  }
+
+  private static void writeStray(
+    final Path directory)
+    throws IOException
+  {
+    Files.write(
+      directory.resolve("entries").resolve(CacheKeys.hash("stray")),
+      new byte[7]
+    );
+  }
+
+  @Test
+  public void testReopenUsesIndex(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    try (var store = open(directory, clock)) {
+      store.put("a", new byte[10]);
+      store.put("b", new byte[20]);
+      store.put("c", new byte[30]);
+      store.remove("b");
+    }
+
+    writeStray(directory);
+
+    try (var store = open(directory, clock)) {
+      Assertions.assertEquals(2L, store.entryCount());
+      Assertions.assertEquals(40L, store.sizeBytes());
+      Assertions.assertTrue(store.get("a").isPresent());
+      Assertions.assertFalse(store.get("b").isPresent());
+      Assertions.assertTrue(store.get("c").isPresent());
+    }
+  }
+
+  @Test
+  public void testAccessTimesPersisted(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    try (var store = open(directory, clock)) {
+      store.put("a", new byte[10]);
+      store.put("b", new byte[10]);
+      clock.advance(5000L);
+      store.get("a");
+    }
+
+    final var times = new HashMap<String, Long>();
+    for (final var r : records(directory.resolve("index"))) {
+      times.put(r.hash(), Long.valueOf(r.lastAccess()));
+    }
+
+    Assertions.assertEquals(2, times.size());
+    Assertions.assertEquals(
+      clock.millis(),
+      times.get(CacheKeys.hash("a")).longValue()
+    );
+    Assertions.assertEquals(
+      clock.millis() - 5000L,
+      times.get(CacheKeys.hash("b")).longValue()
+    );
+  }
+
+  @Test
+  public void testMissingIndexRebuilt(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    try (var store = open(directory, clock)) {
+      store.put("a", new byte[10]);
+    }
+
+    writeStray(directory);
+    Files.delete(directory.resolve("index"));
+
+    try (var store = open(directory, clock)) {
+      Assertions.assertEquals(2L, store.entryCount());
+      Assertions.assertEquals(17L, store.sizeBytes());
+    }
+    Assertions.assertEquals(2, records(directory.resolve("index")).size());
+  }
+
+  @Test
+  public void testCorruptSlotRebuilt(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    try (var store = open(directory, clock)) {
+      store.put("a", new byte[10]);
+    }
+
+    writeStray(directory);
+
+    final var slot = records(directory.resolve("index")).get(0).slot();
+    try (var channel = FileChannel.open(
+      directory.resolve("index"), StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[]{0x7f}), 64L + slot * 80L + 45L);
+    }
+
+    try (var store = open(directory, clock)) {
+      Assertions.assertEquals(2L, store.entryCount());
+      Assertions.assertEquals(17L, store.sizeBytes());
+    }
+  }
+
+  @Test
+  public void testCorruptHeaderRebuilt(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    try (var store = open(directory, clock)) {
+      store.put("a", new byte[10]);
+    }
+
+    try (var channel = FileChannel.open(
+      directory.resolve("index"), StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[]{0x7f}), 0L);
+    }
+    Assertions.assertTrue(CacheIndex.open(directory.resolve("index")).isEmpty());
+
+    try (var store = open(directory, clock)) {
+      Assertions.assertEquals(1L, store.entryCount());
+      Assertions.assertEquals(10L, store.sizeBytes());
+    }
+  }
+
+  @Test
+  public void testGrowth(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    try (var store = open(directory, clock)) {
+      for (int index = 0; index < 3000; ++index) {
+        store.put(Integer.toString(index), new byte[1]);
+      }
+      for (int index = 0; index < 3000; index += 2) {
+        store.remove(Integer.toString(index));
+      }
+    }
+
+    writeStray(directory);
+
+    try (var store = open(directory, clock)) {
+      Assertions.assertEquals(1500L, store.entryCount());
+      for (int index = 0; index < 3000; ++index) {
+        Assertions.assertEquals(
+          index % 2 == 1,
+          store.get(Integer.toString(index)).isPresent()
+        );
+      }
+      store.put("x", new byte[1]);
+      Assertions.assertEquals(1501L, store.entryCount());
+    }
+    Assertions.assertEquals(1501, records(directory.resolve("index")).size());
+  }
+
+  @Test
+  public void testReconcileCorrectsTotals(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    try (var store = open(directory, clock)) {
+      store.put("a", new byte[10]);
+      store.put("b", new byte[20]);
+    }
+
+    final var file = directory.resolve("index");
+    try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.allocate(16).putLong(99L).putLong(5L).flip(), 32L);
+    }
+
+    try (var index = CacheIndex.open(file, CacheFileLock.local(), false).orElseThrow()) {
+      Assertions.assertEquals(99L, index.totalSizeBytes());
+      Assertions.assertEquals(5L, index.totalCount());
+      Assertions.assertTrue(index.reconcile());
+      Assertions.assertEquals(30L, index.totalSizeBytes());
+      Assertions.assertEquals(2L, index.totalCount());
+      Assertions.assertFalse(index.reconcile());
+    }
+  }
+}
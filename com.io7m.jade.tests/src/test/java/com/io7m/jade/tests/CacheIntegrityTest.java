@@ -0,0 +1,271 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.cache.CacheStoreConfiguration;
+import com.io7m.jade.cache.CacheStoreType;
+import com.io7m.jade.cache.CacheStores;
+import com.io7m.jade.cache.internal.CacheKeys;
+import com.io7m.jade.cache.internal.CacheLayout;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+
+public final class CacheIntegrityTest
+{
+  private static CacheStoreType open(
+    final Path directory,
+    final double sampleRate)
+    throws IOException
+  {
+    return CacheStores.open(
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(100_000_000L)
+        .setChecksumSampleRate(sampleRate)
+        .build()
+    );
+  }
+
+  private static byte[] random(
+    final int size)
+  {
+    final var data = new byte[size];
+    new Random(0x5eedL).nextBytes(data);
+    return data;
+  }
+
+  private static Path file(
+    final Path directory,
+    final String key)
+  {
+    return CacheLayout.entryFile(directory.resolve("entries"), CacheKeys.hash(key));
+  }
+
+  private static void garble(
+    final Path file)
+    throws IOException
+  {
+    final var data = Files.readAllBytes(file);
+    data[data.length / 2] ^= (byte) 0x5a;
+    Files.write(file, data);
+  }
+
+  private static void truncate(
+    final Path file)
+    throws IOException
+  {
+    try (var channel = FileChannel.open(file, WRITE)) {
+      channel.truncate(channel.size() / 2L);
+    }
+  }
+
+  /**
+   * An entry that is intact is verified on its first read after the store
+   * is opened, and not again.
+   */
+
+  @Test
+  public void testVerifiedOnFirstRead(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var data = random(1000);
+    try (var store = open(directory, 0.0)) {
+      store.put("a", data);
+      Assertions.assertArrayEquals(data, store.get("a").orElseThrow());
+      Assertions.assertEquals(0L, store.statistics().checksumVerifications());
+    }
+
+    try (var store = open(directory, 0.0)) {
+      Assertions.assertArrayEquals(data, store.get("a").orElseThrow());
+      Assertions.assertArrayEquals(data, store.get("a").orElseThrow());
+
+      final var statistics = store.statistics();
+      Assertions.assertEquals(1L, statistics.checksumVerifications());
+      Assertions.assertEquals(0L, statistics.corruptEntries());
+    }
+  }
+
+  /**
+   * An entry whose contents are damaged while the store is closed is
+   * evicted on its first read.
+   */
+
+  @Test
+  public void testGarbledEvicted(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory, 0.0)) {
+      store.put("a", random(1000));
+      store.put("b", random(1000));
+    }
+
+    garble(file(directory, "a"));
+
+    try (var store = open(directory, 0.0)) {
+      Assertions.assertTrue(store.get("a").isEmpty());
+      Assertions.assertTrue(store.get("b").isPresent());
+      Assertions.assertFalse(Files.exists(file(directory, "a")));
+      Assertions.assertEquals(1L, store.entryCount());
+      Assertions.assertEquals(1000L, store.sizeBytes());
+
+      final var statistics = store.statistics();
+      Assertions.assertEquals(1L, statistics.corruptEntries());
+      Assertions.assertEquals(1L, statistics.diskMisses());
+    }
+
+    try (var store = open(directory, 0.0)) {
+      Assertions.assertEquals(1L, store.entryCount());
+    }
+  }
+
+  /**
+   * An entry that is truncated while the store is closed is evicted on its
+   * first read.
+   */
+
+  @Test
+  public void testTruncatedEvicted(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory, 0.0)) {
+      store.put("a", random(1000));
+    }
+
+    truncate(file(directory, "a"));
+
+    try (var store = open(directory, 0.0)) {
+      Assertions.assertTrue(store.get("a").isEmpty());
+      Assertions.assertEquals(0L, store.entryCount());
+      Assertions.assertEquals(0L, store.sizeBytes());
+      Assertions.assertEquals(1L, store.statistics().corruptEntries());
+    }
+  }
+
+  /**
+   * Damage to an entry that has already been verified is only found by
+   * sampled verification.
+   */
+
+  @Test
+  public void testSampledVerification(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var data = random(1000);
+    try (var store = open(directory, 0.0)) {
+      store.put("a", data);
+      garble(file(directory, "a"));
+      Assertions.assertFalse(
+        Arrays.equals(data, store.get("a").orElseThrow())
+      );
+      Assertions.assertEquals(0L, store.statistics().corruptEntries());
+    }
+
+    try (var store = open(directory, 1.0)) {
+      store.put("a", data);
+      Assertions.assertArrayEquals(data, store.get("a").orElseThrow());
+      garble(file(directory, "a"));
+      Assertions.assertTrue(store.get("a").isEmpty());
+
+      final var statistics = store.statistics();
+      Assertions.assertEquals(2L, statistics.checksumVerifications());
+      Assertions.assertEquals(1L, statistics.corruptEntries());
+    }
+  }
+
+  /**
+   * Damaged entries are evicted when they are mapped.
+   */
+
+  @Test
+  public void testMapEvicted(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory, 0.0)) {
+      store.put("a", random(1000));
+    }
+
+    garble(file(directory, "a"));
+
+    try (var store = open(directory, 0.0)) {
+      Assertions.assertTrue(store.map("a").isEmpty());
+      Assertions.assertFalse(Files.exists(file(directory, "a")));
+      Assertions.assertEquals(0L, store.entryCount());
+      Assertions.assertEquals(1L, store.statistics().corruptEntries());
+    }
+  }
+
+  /**
+   * Damaged entries are evicted when they are transferred, before any of
+   * their data is written to the target.
+   */
+
+  @Test
+  public void testTransferEvicted(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory, 0.0)) {
+      store.put("a", random(1000));
+    }
+
+    garble(file(directory, "a"));
+
+    try (var store = open(directory, 0.0)) {
+      final var output = new ByteArrayOutputStream();
+      Assertions.assertTrue(
+        store.transfer("a", Channels.newChannel(output)).isEmpty()
+      );
+      Assertions.assertEquals(0, output.size());
+      Assertions.assertFalse(Files.exists(file(directory, "a")));
+      Assertions.assertEquals(1L, store.statistics().corruptEntries());
+    }
+  }
+
+  /**
+   * A sample rate outside the unit interval is rejected.
+   */
+
+  @Test
+  public void testSampleRateInvalid(
+    final @TempDir Path directory)
+  {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(1000L)
+        .setChecksumSampleRate(1.5)
+        .build();
+    });
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.cache.CacheStoreConfiguration;
+import com.io7m.jade.cache.CacheStoreType;
+import com.io7m.jade.cache.CacheStores;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+public final class CacheInvalidationTest
+{
+  private static CacheStoreType open(
+    final Path directory,
+    final double purgeRate)
+    throws IOException
+  {
+    return CacheStores.open(
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(100_000_000L)
+        .setPurgeFilesPerSecond(purgeRate)
+        .build()
+    );
+  }
+
+  private static byte[] data(
+    final String text)
+  {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static void putAll(
+    final CacheStoreType store,
+    final int count)
+    throws IOException
+  {
+    for (int index = 0; index < count; ++index) {
+      store.put("key" + index, data("value" + index));
+    }
+  }
+
+  private static boolean isPurged(
+    final Path directory)
+    throws IOException
+  {
+    final var purge = directory.resolve("purge");
+    if (!Files.isDirectory(purge)) {
+      return true;
+    }
+    try (var stream = Files.list(purge)) {
+      return stream.findAny().isEmpty();
+    }
+  }
+
+  private static void awaitPurged(
+    final Path directory)
+    throws Exception
+  {
+    while (!isPurged(directory)) {
+      Thread.sleep(10L);
+    }
+  }
+
+  /**
+   * Invalidation removes every entry at once, and the old entries are
+   * deleted in the background.
+   */
+
+  @Test
+  @Timeout(value = 30L, unit = TimeUnit.SECONDS)
+  public void testInvalidateAll(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    try (var store = open(directory, 100_000.0)) {
+      putAll(store, 50);
+      store.invalidateAll();
+
+      Assertions.assertEquals(0L, store.entryCount());
+      Assertions.assertEquals(0L, store.sizeBytes());
+      Assertions.assertTrue(store.get("key0").isEmpty());
+
+      store.put("key1", data("new"));
+      Assertions.assertArrayEquals(data("new"), store.get("key1").orElseThrow());
+
+      awaitPurged(directory);
+      Assertions.assertEquals(50L, store.statistics().purgedFiles());
+      Assertions.assertEquals(1L, store.entryCount());
+    }
+
+    try (var store = open(directory, 100_000.0)) {
+      Assertions.assertEquals(1L, store.entryCount());
+      Assertions.assertTrue(store.get("key0").isEmpty());
+      Assertions.assertArrayEquals(data("new"), store.get("key1").orElseThrow());
+    }
+  }
+
+  /**
+   * An invalidation interrupted after the entries were moved aside, but
+   * before the index was cleared, is completed when the store is opened.
+   */
+
+  @Test
+  @Timeout(value = 30L, unit = TimeUnit.SECONDS)
+  public void testInterruptedInvalidation(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    try (var store = open(directory, 100_000.0)) {
+      putAll(store, 10);
+    }
+
+    Files.createDirectories(directory.resolve("purge"));
+    Files.move(directory.resolve("entries"), directory.resolve("purge").resolve("0"));
+
+    try (var store = open(directory, 100_000.0)) {
+      Assertions.assertEquals(0L, store.entryCount());
+      Assertions.assertEquals(0L, store.sizeBytes());
+      Assertions.assertTrue(store.get("key0").isEmpty());
+
+      store.put("key0", data("new"));
+      awaitPurged(directory);
+    }
+
+    try (var store = open(directory, 100_000.0)) {
+      Assertions.assertEquals(1L, store.entryCount());
+      Assertions.assertArrayEquals(data("new"), store.get("key0").orElseThrow());
+    }
+  }
+
+  /**
+   * A purge interrupted by closing the store is resumed when the store is
+   * next opened, without affecting entries written since.
+   */
+
+  @Test
+  @Timeout(value = 30L, unit = TimeUnit.SECONDS)
+  public void testInterruptedPurge(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    try (var store = open(directory, 1.0)) {
+      putAll(store, 20);
+      store.invalidateAll();
+      store.put("key0", data("new"));
+    }
+
+    Assertions.assertFalse(isPurged(directory));
+
+    try (var store = open(directory, 100_000.0)) {
+      awaitPurged(directory);
+      Assertions.assertEquals(1L, store.entryCount());
+      Assertions.assertArrayEquals(data("new"), store.get("key0").orElseThrow());
+    }
+  }
+
+  /**
+   * Other stores open on the same directory discard their views of the
+   * entries when the store is invalidated.
+   */
+
+  @Test
+  @Timeout(value = 30L, unit = TimeUnit.SECONDS)
+  public void testInvalidationVisibleToOtherStore(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    try (var store0 = open(directory, 100_000.0);
+         var store1 = open(directory, 100_000.0)) {
+      putAll(store0, 10);
+      Assertions.assertTrue(store1.get("key0").isPresent());
+
+      store0.invalidateAll();
+      Assertions.assertTrue(store1.get("key0").isEmpty());
+      Assertions.assertEquals(0L, store1.entryCount());
+      Assertions.assertEquals(0L, store1.sizeBytes());
+
+      store1.put("key0", data("new"));
+      Assertions.assertArrayEquals(data("new"), store0.get("key0").orElseThrow());
+      awaitPurged(directory);
+    }
+  }
+
+  /**
+   * Files are deleted no faster than the configured rate.
+   */
+
+  @Test
+  @Timeout(value = 30L, unit = TimeUnit.SECONDS)
+  public void testPurgeRateLimited(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    try (var store = open(directory, 20.0)) {
+      putAll(store, 10);
+
+      final var start = System.nanoTime();
+      store.invalidateAll();
+      awaitPurged(directory);
+      final var elapsed = System.nanoTime() - start;
+
+      Assertions.assertTrue(
+        elapsed >= TimeUnit.MILLISECONDS.toNanos(400L),
+        "Elapsed " + elapsed
+      );
+      Assertions.assertEquals(10L, store.statistics().purgedFiles());
+    }
+  }
+}
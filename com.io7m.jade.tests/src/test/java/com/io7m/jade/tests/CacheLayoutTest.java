@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.cache.CacheStoreConfiguration;
+import com.io7m.jade.cache.CacheStores;
+import com.io7m.jade.cache.internal.CacheKeys;
+import com.io7m.jade.cache.internal.CacheLayout;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+public final class CacheLayoutTest
+{
+  @Test
+  public void testEntryFile(
+    final @TempDir Path directory)
+  {
+    final var hash = CacheKeys.hash("a");
+    final var file = CacheLayout.entryFile(directory, hash);
+
+    Assertions.assertEquals(
+      directory.resolve(hash.substring(0, 2))
+        .resolve(hash.substring(2, 4))
+        .resolve(hash),
+      file
+    );
+    Assertions.assertEquals(
+      Integer.parseInt(hash.substring(0, 2), 16),
+      CacheLayout.shardOf(hash)
+    );
+  }
+
+  @Test
+  public void testMigrateFlat(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var entries = directory.resolve("entries");
+    Files.createDirectories(entries);
+
+    final var hashA = CacheKeys.hash("a");
+    final var hashB = CacheKeys.hash("b");
+    Files.writeString(entries.resolve(hashA), "old a");
+    Files.writeString(entries.resolve(hashB), "b");
+    Files.writeString(entries.resolve("unrelated.txt"), "x");
+
+    final var fileA = CacheLayout.entryFile(entries, hashA);
+    Files.createDirectories(fileA.getParent());
+    Files.writeString(fileA, "new a");
+
+    Assertions.assertEquals(1L, CacheStores.migrateFlatLayout(directory));
+    Assertions.assertEquals("new a", Files.readString(fileA));
+    Assertions.assertEquals(
+      "b",
+      Files.readString(CacheLayout.entryFile(entries, hashB))
+    );
+    Assertions.assertFalse(Files.exists(entries.resolve(hashA)));
+    Assertions.assertFalse(Files.exists(entries.resolve(hashB)));
+    Assertions.assertTrue(Files.exists(entries.resolve("unrelated.txt")));
+
+    Assertions.assertEquals(0L, CacheStores.migrateFlatLayout(directory));
+  }
+
+  @Test
+  public void testOpenMigratesFlat(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var entries = directory.resolve("entries");
+    Files.createDirectories(entries);
+    Files.writeString(entries.resolve(CacheKeys.hash("a")), "hello");
+
+    try (var store = CacheStores.open(
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(1000L)
+        .build())) {
+      Assertions.assertEquals(1L, store.entryCount());
+      Assertions.assertEquals(
+        Optional.of("hello"),
+        store.get("a").map(d -> new String(d, StandardCharsets.UTF_8))
+      );
+    }
+
+    Assertions.assertTrue(
+      Files.isRegularFile(CacheLayout.entryFile(entries, CacheKeys.hash("a")))
+    );
+  }
+}
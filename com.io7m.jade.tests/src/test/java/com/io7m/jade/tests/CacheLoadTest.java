@@ -0,0 +1,228 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.cache.CacheLoadException;
+import com.io7m.jade.cache.CacheStoreConfiguration;
+import com.io7m.jade.cache.CacheStoreType;
+import com.io7m.jade.cache.CacheStores;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class CacheLoadTest
+{
+  private static CacheStoreType open(
+    final Path directory)
+    throws IOException
+  {
+    return CacheStores.open(
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(100_000L)
+        .build()
+    );
+  }
+
+  private static byte[] bytes(
+    final String text)
+  {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testHitDoesNotLoad(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory)) {
+      store.put("a", bytes("x"));
+
+      final var data = store.getOrCompute("a", key -> {
+        throw new IllegalStateException("Unexpected load");
+      });
+      Assertions.assertArrayEquals(bytes("x"), data);
+      Assertions.assertEquals(0L, store.statistics().loads());
+    }
+  }
+
+  @Test
+  public void testMissLoadsAndStores(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory)) {
+      final var data = store.getOrCompute("a", key -> bytes(key + "!"));
+      Assertions.assertArrayEquals(bytes("a!"), data);
+      Assertions.assertArrayEquals(bytes("a!"), store.get("a").orElseThrow());
+      Assertions.assertEquals(1L, store.statistics().loads());
+    }
+  }
+
+  /**
+   * Many virtual threads missing the same key run the loader once, and
+   * every one of them receives its own copy of the result.
+   */
+
+  @Test
+  @Timeout(value = 30L, unit = TimeUnit.SECONDS)
+  public void testConcurrentMissesCoalesced(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var threads = 1000;
+    final var calls = new AtomicInteger(0);
+    final var started = new CountDownLatch(threads);
+    final var release = new CountDownLatch(1);
+
+    try (var store = open(directory)) {
+      try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+        final var futures = new ArrayList<Future<byte[]>>();
+        for (int index = 0; index < threads; ++index) {
+          futures.add(executor.submit(() -> {
+            started.countDown();
+            return store.getOrCompute("popular", key -> {
+              calls.incrementAndGet();
+              release.await();
+              return bytes("value");
+            });
+          }));
+        }
+
+        /*
+         * Release the loader from another virtual thread. If waiting
+         * threads pinned their carriers, this thread could never run.
+         */
+
+        executor.submit(() -> {
+          started.await();
+          Thread.sleep(100L);
+          release.countDown();
+          return null;
+        });
+
+        final var results = new ArrayList<byte[]>();
+        for (final var future : futures) {
+          results.add(future.get());
+        }
+        for (final var result : results) {
+          Assertions.assertArrayEquals(bytes("value"), result);
+        }
+        results.get(0)[0] = 0;
+        Assertions.assertArrayEquals(bytes("value"), results.get(1));
+      }
+
+      Assertions.assertEquals(1, calls.get());
+
+      final var statistics = store.statistics();
+      Assertions.assertEquals(1L, statistics.loads());
+      Assertions.assertEquals(0L, statistics.loadFailures());
+      Assertions.assertTrue(statistics.loadsCoalesced() > 0L);
+    }
+  }
+
+  /**
+   * A failed load is raised in every waiting thread, stores nothing, and
+   * does not prevent a later load.
+   */
+
+  @Test
+  @Timeout(value = 30L, unit = TimeUnit.SECONDS)
+  public void testFailurePropagatesWithoutPoisoning(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var threads = 100;
+    final var started = new CountDownLatch(threads);
+    final var release = new CountDownLatch(1);
+
+    try (var store = open(directory)) {
+      try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+        final var futures = new ArrayList<Future<byte[]>>();
+        for (int index = 0; index < threads; ++index) {
+          futures.add(executor.submit(() -> {
+            started.countDown();
+            return store.getOrCompute("broken", key -> {
+              release.await();
+              throw new IOException("Backend unavailable");
+            });
+          }));
+        }
+
+        started.await();
+        Thread.sleep(100L);
+        release.countDown();
+
+        for (final var future : futures) {
+          final var ex =
+            Assertions.assertThrows(ExecutionException.class, future::get);
+          final var cause =
+            Assertions.assertInstanceOf(CacheLoadException.class, ex.getCause());
+          Assertions.assertEquals("broken", cause.key());
+          Assertions.assertEquals("Backend unavailable", cause.getCause().getMessage());
+        }
+      }
+
+      Assertions.assertTrue(store.get("broken").isEmpty());
+      Assertions.assertEquals(0L, store.entryCount());
+
+      final var data = store.getOrCompute("broken", key -> bytes("fixed"));
+      Assertions.assertArrayEquals(bytes("fixed"), data);
+      Assertions.assertTrue(store.statistics().loadFailures() >= 1L);
+    }
+  }
+
+  @Test
+  public void testNullResultFails(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory)) {
+      final var ex = Assertions.assertThrows(CacheLoadException.class, () -> {
+        store.getOrCompute("a", key -> null);
+      });
+      Assertions.assertInstanceOf(NullPointerException.class, ex.getCause());
+      Assertions.assertEquals(0L, store.entryCount());
+    }
+  }
+
+  @Test
+  public void testRecursiveLoadFails(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory)) {
+      final var ex = Assertions.assertThrows(CacheLoadException.class, () -> {
+        store.getOrCompute("a", key -> store.getOrCompute("a", k -> bytes("x")));
+      });
+      Assertions.assertInstanceOf(IllegalStateException.class, ex.getCause());
+      Assertions.assertEquals(0L, store.entryCount());
+    }
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.cache.CacheStoreConfiguration;
+import com.io7m.jade.cache.CacheStoreType;
+import com.io7m.jade.cache.CacheStores;
+import com.io7m.jade.cache.internal.CacheKeys;
+import com.io7m.jade.cache.internal.CacheLayout;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+public final class CacheMappingTest
+{
+  private static CacheStoreType open(
+    final Path directory,
+    final long maximumSize,
+    final CacheTestClock clock)
+    throws IOException
+  {
+    return CacheStores.open(
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(maximumSize)
+        .setClock(clock)
+        .build()
+    );
+  }
+
+  private static byte[] filled(
+    final int size,
+    final int value)
+  {
+    final var data = new byte[size];
+    Arrays.fill(data, (byte) value);
+    return data;
+  }
+
+  private static void assertFilled(
+    final ByteBuffer buffer,
+    final int size,
+    final int value)
+  {
+    Assertions.assertEquals(size, buffer.remaining());
+    while (buffer.hasRemaining()) {
+      Assertions.assertEquals((byte) value, buffer.get());
+    }
+  }
+
+  private static Path file(
+    final Path directory,
+    final String key)
+  {
+    return CacheLayout.entryFile(directory.resolve("entries"), CacheKeys.hash(key));
+  }
+
+  @Test
+  public void testMap(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory, 1000L, new CacheTestClock())) {
+      Assertions.assertTrue(store.map("a").isEmpty());
+
+      store.put("a", filled(100, 1));
+      final var mapping = store.map("a").orElseThrow();
+      Assertions.assertEquals(100L, mapping.sizeBytes());
+
+      final var buffer = mapping.buffer();
+      Assertions.assertTrue(buffer.isReadOnly());
+      Assertions.assertThrows(ReadOnlyBufferException.class, () -> {
+        buffer.put(0, (byte) 2);
+      });
+      assertFilled(buffer, 100, 1);
+      assertFilled(mapping.buffer(), 100, 1);
+
+      mapping.close();
+      mapping.close();
+      Assertions.assertThrows(IllegalStateException.class, mapping::buffer);
+    }
+  }
+
+  @Test
+  public void testRemoveDeferred(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory, 1000L, new CacheTestClock())) {
+      store.put("a", filled(100, 1));
+
+      final var mapping = store.map("a").orElseThrow();
+      Assertions.assertTrue(store.remove("a"));
+      Assertions.assertFalse(store.remove("a"));
+      Assertions.assertTrue(store.get("a").isEmpty());
+      Assertions.assertTrue(store.map("a").isEmpty());
+      Assertions.assertEquals(0L, store.sizeBytes());
+
+      Assertions.assertTrue(Files.exists(file(directory, "a")));
+      assertFilled(mapping.buffer(), 100, 1);
+
+      mapping.close();
+      Assertions.assertFalse(Files.exists(file(directory, "a")));
+    }
+  }
+
+  @Test
+  public void testRemoveDeferredRewritten(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory, 1000L, new CacheTestClock())) {
+      store.put("a", filled(100, 1));
+
+      final var mapping = store.map("a").orElseThrow();
+      Assertions.assertTrue(store.remove("a"));
+      store.put("a", filled(50, 2));
+      mapping.close();
+
+      Assertions.assertTrue(Files.exists(file(directory, "a")));
+      try (var again = store.map("a").orElseThrow()) {
+        assertFilled(again.buffer(), 50, 2);
+      }
+    }
+  }
+
+  @Test
+  public void testEvictionSkipsLeased(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    try (var store = open(directory, 100L, clock)) {
+      store.put("a", filled(30, 1));
+
+      try (var mapping = store.map("a").orElseThrow()) {
+        clock.advance(1L);
+        store.put("b", filled(30, 2));
+        clock.advance(1L);
+        store.put("c", filled(30, 3));
+        clock.advance(1L);
+        store.put("d", filled(30, 4));
+
+        Assertions.assertTrue(store.get("a").isPresent());
+        Assertions.assertTrue(store.get("b").isEmpty());
+        assertFilled(mapping.buffer(), 30, 1);
+      }
+    }
+  }
+
+  @Test
+  public void testConcurrent(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    try (var store = open(directory, 2000L, new CacheTestClock())) {
+      try (var executor = Executors.newFixedThreadPool(8)) {
+        final var tasks = new ArrayList<Callable<Void>>();
+        for (int thread = 0; thread < 8; ++thread) {
+          final var seed = thread;
+          tasks.add(() -> {
+            for (int index = 0; index < 300; ++index) {
+              final var value = (seed * 31 + index) % 32;
+              final var key = Integer.toString(value);
+              if (seed % 2 == 0) {
+                store.put(key, filled(100, value));
+                if (index % 5 == 0) {
+                  store.remove(key);
+                }
+              } else {
+                final var mapping = store.map(key);
+                if (mapping.isPresent()) {
+                  try (var m = mapping.get()) {
+                    assertFilled(m.buffer(), 100, value);
+                  }
+                }
+              }
+            }
+            return null;
+          });
+        }
+        for (final var future : executor.invokeAll(tasks)) {
+          future.get();
+        }
+      }
+
+      Assertions.assertTrue(store.sizeBytes() <= 2000L);
+      try (var files = Files.walk(directory.resolve("entries"))) {
+        Assertions.assertEquals(
+          store.entryCount(),
+          files.filter(Files::isRegularFile).count()
+        );
+      }
+    }
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.cache.CacheStoreConfiguration;
+import com.io7m.jade.cache.CacheStoreType;
+import com.io7m.jade.cache.CacheStores;
+import com.io7m.jade.cache.internal.CacheKeys;
+import com.io7m.jade.cache.internal.CacheLayout;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+public final class CacheMemoryTierTest
+{
+  private static CacheStoreType open(
+    final Path directory,
+    final long maximumSize,
+    final long memoryMaximumSize,
+    final CacheTestClock clock)
+    throws IOException
+  {
+    return CacheStores.open(
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(maximumSize)
+        .setMemoryMaximumSizeBytes(memoryMaximumSize)
+        .setMemoryMaximumEntrySizeBytes(50L)
+        .setClock(clock)
+        .build()
+    );
+  }
+
+  private static byte[] filled(
+    final int size,
+    final int value)
+  {
+    final var data = new byte[size];
+    Arrays.fill(data, (byte) value);
+    return data;
+  }
+
+  private static Path file(
+    final Path directory,
+    final String key)
+  {
+    return CacheLayout.entryFile(directory.resolve("entries"), CacheKeys.hash(key));
+  }
+
+  @Test
+  public void testWriteThrough(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory, 1000L, 1000L, new CacheTestClock())) {
+      store.put("a", filled(10, 1));
+      Files.delete(file(directory, "a"));
+
+      Assertions.assertArrayEquals(filled(10, 1), store.get("a").orElseThrow());
+      Assertions.assertArrayEquals(filled(10, 1), store.get("a").orElseThrow());
+
+      final var statistics = store.statistics();
+      Assertions.assertEquals(2L, statistics.memoryHits());
+      Assertions.assertEquals(0L, statistics.memoryMisses());
+      Assertions.assertEquals(0L, statistics.diskHits());
+      Assertions.assertEquals(1.0, statistics.memoryHitRate());
+      Assertions.assertEquals(10L, statistics.memorySizeBytes());
+      Assertions.assertEquals(1L, statistics.memoryEntryCount());
+    }
+  }
+
+  @Test
+  public void testPopulatedOnRead(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    try (var store = open(directory, 1000L, 0L, clock)) {
+      store.put("a", filled(10, 1));
+    }
+
+    try (var store = open(directory, 1000L, 1000L, clock)) {
+      Assertions.assertArrayEquals(filled(10, 1), store.get("a").orElseThrow());
+      Assertions.assertArrayEquals(filled(10, 1), store.get("a").orElseThrow());
+      Assertions.assertTrue(store.get("b").isEmpty());
+
+      final var statistics = store.statistics();
+      Assertions.assertEquals(1L, statistics.memoryHits());
+      Assertions.assertEquals(2L, statistics.memoryMisses());
+      Assertions.assertEquals(1L, statistics.diskHits());
+      Assertions.assertEquals(1L, statistics.diskMisses());
+      Assertions.assertEquals(1.0 / 3.0, statistics.memoryHitRate(), 0.0001);
+      Assertions.assertEquals(0.5, statistics.diskHitRate(), 0.0001);
+    }
+  }
+
+  @Test
+  public void testCopies(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory, 1000L, 1000L, new CacheTestClock())) {
+      final var data = filled(10, 1);
+      store.put("a", data);
+      data[0] = 9;
+      store.get("a").orElseThrow()[1] = 9;
+
+      Assertions.assertArrayEquals(filled(10, 1), store.get("a").orElseThrow());
+    }
+  }
+
+  @Test
+  public void testWeightBounded(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    try (var store = open(directory, 1000L, 100L, clock)) {
+      for (int index = 0; index < 10; ++index) {
+        store.put(Integer.toString(index), filled(30, index));
+      }
+      store.put("large", filled(60, 1));
+
+      final var statistics = store.statistics();
+      Assertions.assertTrue(statistics.memorySizeBytes() <= 100L);
+      Assertions.assertTrue(statistics.memoryEntryCount() <= 3L);
+      Assertions.assertEquals(11L, store.entryCount());
+
+      Assertions.assertArrayEquals(filled(60, 1), store.get("large").orElseThrow());
+      Assertions.assertEquals(1L, store.statistics().memoryMisses());
+    }
+  }
+
+  @Test
+  public void testInvalidation(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    try (var store = open(directory, 100L, 1000L, clock)) {
+      store.put("a", filled(30, 1));
+      store.put("a", filled(20, 2));
+      Assertions.assertArrayEquals(filled(20, 2), store.get("a").orElseThrow());
+
+      store.put("a", filled(60, 3));
+      Assertions.assertArrayEquals(filled(60, 3), store.get("a").orElseThrow());
+
+      store.put("a", filled(20, 4));
+      Assertions.assertTrue(store.remove("a"));
+      Assertions.assertTrue(store.get("a").isEmpty());
+
+      store.put("b", filled(30, 1));
+      clock.advance(1L);
+      store.put("c", filled(30, 1));
+      clock.advance(1L);
+      store.put("d", filled(30, 1));
+      clock.advance(1L);
+      store.put("e", filled(30, 1));
+
+      Assertions.assertTrue(store.get("b").isEmpty());
+      Assertions.assertEquals(3L, store.statistics().memoryEntryCount());
+    }
+  }
+
+  @Test
+  public void testConcurrentConsistent(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    try (var store = open(directory, 100_000L, 200L, new CacheTestClock())) {
+      try (var executor = Executors.newFixedThreadPool(8)) {
+        final var tasks = new ArrayList<Callable<Void>>();
+        for (int thread = 0; thread < 8; ++thread) {
+          final var seed = thread;
+          tasks.add(() -> {
+            for (int index = 0; index < 500; ++index) {
+              final var key = Integer.toString((seed * 7 + index) % 16);
+              if (index % 3 == 0) {
+                store.put(key, filled(20, seed * 1000 + index));
+              } else if (index % 17 == 0) {
+                store.remove(key);
+              } else {
+                store.get(key).ifPresent(data -> {
+                  for (final var b : data) {
+                    Assertions.assertEquals(data[0], b);
+                  }
+                });
+              }
+            }
+            return null;
+          });
+        }
+        for (final var future : executor.invokeAll(tasks)) {
+          future.get();
+        }
+      }
+
+      for (int index = 0; index < 16; ++index) {
+        final var key = Integer.toString(index);
+        final var onDisk = file(directory, key);
+        final var held = store.get(key);
+        if (Files.exists(onDisk)) {
+          Assertions.assertArrayEquals(Files.readAllBytes(onDisk), held.orElseThrow());
+        } else {
+          Assertions.assertTrue(held.isEmpty());
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.cache.CacheNamespaceConfiguration;
+import com.io7m.jade.cache.CacheNamespacedStoreConfiguration;
+import com.io7m.jade.cache.CacheNamespacedStoreType;
+import com.io7m.jade.cache.CacheStores;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+public final class CacheNamespaceTest
+{
+  private static CacheNamespaceConfiguration namespace(
+    final String name,
+    final long maximumSize)
+  {
+    return CacheNamespaceConfiguration.builder()
+      .setName(name)
+      .setMaximumSizeBytes(maximumSize)
+      .build();
+  }
+
+  private static CacheNamespacedStoreType open(
+    final Path directory,
+    final long maximumSize,
+    final CacheTestClock clock)
+    throws IOException
+  {
+    return CacheStores.openNamespaced(
+      CacheNamespacedStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(maximumSize)
+        .addNamespaces(namespace("templates", 1000L))
+        .addNamespaces(namespace("thumbnails", 1000L))
+        .setClock(clock)
+        .build()
+    );
+  }
+
+  private static byte[] filled(
+    final int size,
+    final int value)
+  {
+    final var data = new byte[size];
+    Arrays.fill(data, (byte) value);
+    return data;
+  }
+
+  @Test
+  public void testNamespaceDirectories(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory, 10_000L, new CacheTestClock())) {
+      Assertions.assertEquals(
+        List.of("templates", "thumbnails"),
+        List.copyOf(store.namespaces())
+      );
+      Assertions.assertTrue(
+        Files.isRegularFile(directory.resolve("namespaces/templates/index")));
+      Assertions.assertTrue(
+        Files.isRegularFile(directory.resolve("namespaces/thumbnails/index")));
+      Assertions.assertThrows(IllegalArgumentException.class, () -> {
+        store.namespace("other");
+      });
+    }
+  }
+
+  @Test
+  public void testQuotasIndependent(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    try (var store = open(directory, 10_000L, clock)) {
+      final var templates = store.namespace("templates");
+      final var thumbnails = store.namespace("thumbnails");
+
+      for (int index = 0; index < 5; ++index) {
+        templates.put("t" + index, filled(100, index));
+        clock.advance(1L);
+      }
+      for (int index = 0; index < 50; ++index) {
+        thumbnails.put("i" + index, filled(100, index));
+        clock.advance(1L);
+      }
+
+      Assertions.assertTrue(thumbnails.sizeBytes() <= 1000L);
+      Assertions.assertEquals(500L, templates.sizeBytes());
+      for (int index = 0; index < 5; ++index) {
+        Assertions.assertArrayEquals(
+          filled(100, index),
+          templates.get("t" + index).orElseThrow()
+        );
+      }
+      Assertions.assertEquals(0L, store.globalEvictions());
+    }
+  }
+
+  @Test
+  public void testGlobalMaximumSize(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    try (var store = open(directory, 1000L, clock)) {
+      final var templates = store.namespace("templates");
+      final var thumbnails = store.namespace("thumbnails");
+
+      for (int index = 0; index < 3; ++index) {
+        templates.put("t" + index, filled(100, index));
+        clock.advance(1L);
+      }
+      for (int index = 0; index < 8; ++index) {
+        thumbnails.put("i" + index, filled(100, index));
+        clock.advance(1L);
+      }
+
+      /*
+       * The thumbnails namespace is furthest over its share, and so only
+       * it is reduced.
+       */
+
+      Assertions.assertTrue(store.sizeBytes() <= 1000L);
+      Assertions.assertEquals(300L, templates.sizeBytes());
+      Assertions.assertTrue(thumbnails.sizeBytes() <= 600L);
+      Assertions.assertTrue(store.globalEvictions() >= 2L);
+      Assertions.assertTrue(thumbnails.get("i7").isPresent());
+      Assertions.assertTrue(thumbnails.get("i0").isEmpty());
+    }
+  }
+
+  @Test
+  public void testStatisticsPerNamespace(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory, 10_000L, new CacheTestClock())) {
+      store.namespace("templates").put("a", filled(10, 1));
+      store.namespace("templates").get("a");
+      store.namespace("thumbnails").get("a");
+
+      final var statistics = store.statistics();
+      Assertions.assertEquals(1L, statistics.get("templates").diskHits());
+      Assertions.assertEquals(0L, statistics.get("templates").diskMisses());
+      Assertions.assertEquals(0L, statistics.get("thumbnails").diskHits());
+      Assertions.assertEquals(1L, statistics.get("thumbnails").diskMisses());
+      Assertions.assertEquals(1L, store.entryCount());
+      Assertions.assertEquals(10L, store.sizeBytes());
+    }
+  }
+
+  @Test
+  public void testReopen(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory, 10_000L, new CacheTestClock())) {
+      store.namespace("templates").put("a", filled(10, 1));
+      store.namespace("thumbnails").put("a", filled(20, 2));
+    }
+
+    try (var store = open(directory, 10_000L, new CacheTestClock())) {
+      Assertions.assertArrayEquals(
+        filled(10, 1),
+        store.namespace("templates").get("a").orElseThrow()
+      );
+      Assertions.assertArrayEquals(
+        filled(20, 2),
+        store.namespace("thumbnails").get("a").orElseThrow()
+      );
+      Assertions.assertEquals(30L, store.sizeBytes());
+    }
+  }
+
+  @Test
+  public void testClosed(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var store = open(directory, 10_000L, new CacheTestClock());
+    final var templates = store.namespace("templates");
+    store.close();
+    store.close();
+
+    Assertions.assertThrows(IllegalStateException.class, () -> {
+      store.namespace("templates");
+    });
+    Assertions.assertThrows(IllegalStateException.class, () -> {
+      templates.get("a");
+    });
+  }
+
+  @Test
+  public void testInvalidConfigurations(
+    final @TempDir Path directory)
+  {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      namespace("Not Valid", 1000L);
+    });
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      namespace("templates", 0L);
+    });
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      CacheNamespacedStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(1000L)
+        .addNamespaces(namespace("templates", 1000L))
+        .addNamespaces(namespace("templates", 2000L))
+        .build();
+    });
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      CacheNamespacedStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(0L)
+        .build();
+    });
+  }
+}
@@ -0,0 +1,414 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.cache.CacheStoreConfiguration;
+import com.io7m.jade.cache.CacheStoreType;
+import com.io7m.jade.cache.CacheStores;
+import com.io7m.jade.cache.internal.CacheFileLock;
+import com.io7m.jade.cache.internal.CacheIndex;
+import com.io7m.jade.cache.internal.CacheIndexRecord;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores opened more than once on the same directory behave as separate
+ * processes would: each has its own view of the entries and its own
+ * mapping of the index, and they coordinate only through the lock file
+ * and the file system.
+ */
+
+public final class CacheSharedStoreTest
+{
+  private static CacheStoreType open(
+    final Path directory)
+    throws IOException
+  {
+    return CacheStores.open(
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(100_000_000L)
+        .build()
+    );
+  }
+
+  private static CacheStoreType openWithMemory(
+    final Path directory)
+    throws IOException
+  {
+    return CacheStores.open(
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(100_000_000L)
+        .setMemoryMaximumSizeBytes(100_000L)
+        .build()
+    );
+  }
+
+  private static byte[] filled(
+    final int size,
+    final int value)
+  {
+    final var data = new byte[size];
+    Arrays.fill(data, (byte) value);
+    return data;
+  }
+
+  private static void assertUniform(
+    final byte[] data,
+    final int size)
+  {
+    Assertions.assertEquals(size, data.length);
+    for (final var b : data) {
+      Assertions.assertEquals(data[0], b);
+    }
+  }
+
+  /**
+   * Check that no slot or key appears twice in the index, and that the
+   * totals in the header are those of the slots. The index is opened
+   * without validating its slots, because validation recomputes the
+   * totals.
+   */
+
+  private static void assertIndexConsistent(
+    final Path directory)
+    throws IOException
+  {
+    final var records = new ArrayList<CacheIndexRecord>();
+    final var file = directory.resolve("index");
+    try (var index = CacheIndex.open(file, CacheFileLock.local(), false).orElseThrow()) {
+      index.forEachRecord(records::add);
+
+      final var slots = new HashSet<Integer>();
+      final var hashes = new HashSet<String>();
+      var size = 0L;
+      for (final var record : records) {
+        Assertions.assertTrue(slots.add(Integer.valueOf(record.slot())));
+        Assertions.assertTrue(hashes.add(record.hash()), record.hash());
+        size += record.sizeBytes();
+      }
+      Assertions.assertEquals(records.size(), index.totalCount());
+      Assertions.assertEquals(size, index.totalSizeBytes());
+    }
+  }
+
+  @Test
+  public void testWritesVisibleToOtherStore(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var first = open(directory);
+         var second = open(directory)) {
+      first.put("a", filled(10, 1));
+
+      Assertions.assertArrayEquals(filled(10, 1), second.get("a").orElseThrow());
+      Assertions.assertEquals(10L, second.sizeBytes());
+
+      second.put("a", filled(20, 2));
+      Assertions.assertArrayEquals(filled(20, 2), first.get("a").orElseThrow());
+
+      Assertions.assertTrue(first.remove("a"));
+      Assertions.assertTrue(second.get("a").isEmpty());
+    }
+  }
+
+  @Test
+  public void testVerifiedReadsSeeOtherStore(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var configuration =
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(100_000_000L)
+        .setChecksumSampleRate(1.0)
+        .build();
+
+    try (var first = CacheStores.open(configuration);
+         var second = CacheStores.open(configuration)) {
+      final var stores = List.of(first, second);
+      for (int index = 1; index <= 10; ++index) {
+        final var writer = stores.get(index % 2);
+        final var reader = stores.get((index + 1) % 2);
+        writer.put("k", filled(10 * index, index));
+        Assertions.assertArrayEquals(filled(10 * index, index), reader.get("k").orElseThrow());
+        Assertions.assertArrayEquals(filled(10 * index, index), reader.get("k").orElseThrow());
+      }
+      Assertions.assertEquals(0L, first.statistics().corruptEntries());
+      Assertions.assertEquals(0L, second.statistics().corruptEntries());
+    }
+
+    assertIndexConsistent(directory);
+  }
+
+  @Test
+  public void testWriteSameKeyFromBothStores(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var first = open(directory);
+         var second = open(directory)) {
+      first.put("k", filled(10, 1));
+      second.put("k", filled(20, 2));
+
+      Assertions.assertEquals(20L, first.sizeBytes());
+      Assertions.assertEquals(1L, first.entryCount());
+      Assertions.assertEquals(20L, second.sizeBytes());
+      Assertions.assertEquals(1L, second.entryCount());
+      Assertions.assertArrayEquals(filled(20, 2), first.get("k").orElseThrow());
+
+      first.put("k", filled(30, 3));
+      Assertions.assertEquals(30L, second.sizeBytes());
+      Assertions.assertEquals(1L, second.entryCount());
+      Assertions.assertArrayEquals(filled(30, 3), second.get("k").orElseThrow());
+    }
+
+    assertIndexConsistent(directory);
+  }
+
+  @Test
+  public void testWriteSameKeyFromBothStoresReopen(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var first = open(directory);
+         var second = open(directory)) {
+      first.put("k", filled(10, 1));
+      second.put("k", filled(20, 2));
+    }
+
+    assertIndexConsistent(directory);
+
+    try (var store = open(directory)) {
+      Assertions.assertEquals(20L, store.sizeBytes());
+      Assertions.assertEquals(1L, store.entryCount());
+      Assertions.assertArrayEquals(filled(20, 2), store.get("k").orElseThrow());
+      Assertions.assertEquals(0L, store.statistics().corruptEntries());
+    }
+  }
+
+  @Test
+  public void testRemoveKeyWrittenByOtherStore(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var first = open(directory);
+         var second = open(directory)) {
+      first.put("k", filled(10, 1));
+
+      Assertions.assertTrue(second.remove("k"));
+      Assertions.assertFalse(second.remove("k"));
+      Assertions.assertTrue(first.get("k").isEmpty());
+      Assertions.assertTrue(second.get("k").isEmpty());
+      Assertions.assertEquals(0L, first.entryCount());
+      Assertions.assertEquals(0L, first.sizeBytes());
+    }
+
+    assertIndexConsistent(directory);
+  }
+
+  @Test
+  public void testExpireKeyWrittenByOtherStore(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    final var builder =
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(100_000_000L)
+        .setExpireAfterWrite(Duration.ofSeconds(10L))
+        .setClock(clock);
+
+    try (var first = CacheStores.open(builder.build());
+         var second = CacheStores.open(builder.build())) {
+      first.put("k", filled(10, 1));
+      Assertions.assertTrue(second.get("k").isPresent());
+
+      clock.advance(10_000L);
+      second.put("j", filled(20, 2));
+      Assertions.assertEquals(1L, second.statistics().expiredEntries());
+      Assertions.assertTrue(first.get("k").isEmpty());
+      Assertions.assertEquals(1L, first.entryCount());
+      Assertions.assertEquals(20L, first.sizeBytes());
+    }
+
+    assertIndexConsistent(directory);
+  }
+
+  @Test
+  public void testMemoryTierSeesOtherStore(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var first = openWithMemory(directory);
+         var second = openWithMemory(directory)) {
+      first.put("k", filled(10, 1));
+      Assertions.assertArrayEquals(filled(10, 1), first.get("k").orElseThrow());
+
+      second.put("k", filled(10, 2));
+      Assertions.assertArrayEquals(filled(10, 2), first.get("k").orElseThrow());
+      Assertions.assertArrayEquals(filled(10, 2), first.get("k").orElseThrow());
+
+      Assertions.assertTrue(second.remove("k"));
+      Assertions.assertTrue(first.get("k").isEmpty());
+    }
+
+    assertIndexConsistent(directory);
+  }
+
+  @Test
+  public void testTemporaryFilesKeptWhileShared(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var first = open(directory)) {
+      final var file = directory.resolve("tmp").resolve("other.tmp");
+      Files.write(file, new byte[1]);
+
+      try (var second = open(directory)) {
+        Assertions.assertTrue(Files.exists(file));
+      }
+    }
+
+    try (var third = open(directory)) {
+      try (var stream = Files.list(directory.resolve("tmp"))) {
+        Assertions.assertEquals(0L, stream.count());
+      }
+    }
+  }
+
+  @Test
+  public void testDamagedIndexNotRebuiltWhileShared(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var index = directory.resolve("index");
+    try (var first = open(directory)) {
+      first.put("k", filled(10, 1));
+      Files.delete(index);
+
+      Assertions.assertThrows(IOException.class, () -> open(directory));
+      Assertions.assertTrue(Files.notExists(index));
+      Assertions.assertArrayEquals(filled(10, 1), first.get("k").orElseThrow());
+    }
+
+    try (var second = open(directory)) {
+      Assertions.assertArrayEquals(filled(10, 1), second.get("k").orElseThrow());
+      Assertions.assertEquals(1L, second.entryCount());
+    }
+  }
+
+  @Test
+  @Timeout(value = 60L, unit = TimeUnit.SECONDS)
+  public void testConcurrentStoresIndexConsistent(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    try (var first = open(directory);
+         var second = open(directory);
+         var executor = Executors.newFixedThreadPool(4)) {
+
+      final var tasks = new ArrayList<Callable<Void>>();
+      for (final var store : new CacheStoreType[]{first, second}) {
+        for (int thread = 0; thread < 2; ++thread) {
+          final var offset = thread;
+          tasks.add(() -> {
+            for (int index = 0; index < 2000; ++index) {
+              final var key = "k" + (index * 2 + offset);
+              store.put(key, filled(100, index));
+              assertUniform(store.get(key).orElseThrow(), 100);
+            }
+            return null;
+          });
+        }
+      }
+      for (final var future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+    }
+
+    assertIndexConsistent(directory);
+
+    try (var store = open(directory)) {
+      Assertions.assertEquals(4000L, store.entryCount());
+      for (int index = 0; index < 4000; ++index) {
+        assertUniform(store.get("k" + index).orElseThrow(), 100);
+      }
+    }
+  }
+
+  @Test
+  @Timeout(value = 120L, unit = TimeUnit.SECONDS)
+  public void testSeparateProcesses(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var store = directory.resolve("store");
+    Files.createDirectories(store);
+
+    final var children = new ArrayList<Process>();
+    for (int child = 0; child < 2; ++child) {
+      children.add(CacheStoreChildProcess.start(store, "shared", 1000, 4096));
+      children.add(CacheStoreChildProcess.start(store, "child" + child + "-", 1000, 512));
+    }
+
+    try (var parent = open(store)) {
+      for (int index = 0; index < 1000; ++index) {
+        parent.put("shared" + index, filled(4096, index));
+        parent.get("shared" + ((index * 7) % 1000)).ifPresent(data -> {
+          assertUniform(data, 4096);
+        });
+      }
+    }
+
+    for (final var child : children) {
+      Assertions.assertEquals(0, child.waitFor());
+    }
+
+    assertIndexConsistent(store);
+
+    try (var parent = open(store)) {
+      for (int index = 0; index < 1000; ++index) {
+        final var expected = filled(4096, index);
+        Assertions.assertArrayEquals(expected, parent.get("shared" + index).orElseThrow());
+        for (int child = 0; child < 2; ++child) {
+          Assertions.assertArrayEquals(
+            filled(512, index),
+            parent.get("child" + child + "-" + index).orElseThrow()
+          );
+        }
+      }
+      Assertions.assertEquals(3000L, parent.entryCount());
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.api.ApplicationDirectoriesType;
+import com.io7m.jade.cache.CacheStoreConfiguration;
+import com.io7m.jade.cache.CacheStores;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A process that writes entries into a cache store, used to test stores
+ * shared between processes.
+ */
+
+public final class CacheStoreChildProcess
+{
+  private CacheStoreChildProcess()
+  {
+
+  }
+
+  /**
+   * Start a child process.
+   *
+   * @param directory The store directory
+   * @param prefix    The prefix of the keys written
+   * @param count     The number of entries written
+   * @param size      The size of each entry
+   *
+   * @return The process
+   *
+   * @throws Exception On errors
+   */
+
+  public static Process start(
+    final Path directory,
+    final String prefix,
+    final int count,
+    final int size)
+    throws Exception
+  {
+    /*
+     * The class path of the test runner may not name the classes under
+     * test directly, and so the child is given the locations of the
+     * classes it needs.
+     */
+
+    final var classPath = new ArrayList<String>();
+    for (final var c : List.of(
+      CacheStoreChildProcess.class,
+      CacheStores.class,
+      ApplicationDirectoriesType.class,
+      LoggerFactory.class)) {
+      final var location = c.getProtectionDomain().getCodeSource().getLocation();
+      classPath.add(Path.of(location.toURI()).toString());
+    }
+
+    final var java =
+      Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+    return new ProcessBuilder(
+      java,
+      "-cp",
+      String.join(File.pathSeparator, classPath),
+      CacheStoreChildProcess.class.getCanonicalName(),
+      directory.toString(),
+      prefix,
+      Integer.toString(count),
+      Integer.toString(size)
+    ).inheritIO().start();
+  }
+
+  /**
+   * Write {@code count} entries named {@code prefix + index}, each filled
+   * with the low octet of its index.
+   *
+   * @param args The store directory, key prefix, count, and entry size
+   *
+   * @throws Exception On errors
+   */
+
+  public static void main(
+    final String[] args)
+    throws Exception
+  {
+    final var directory = Path.of(args[0]);
+    final var prefix = args[1];
+    final var count = Integer.parseInt(args[2]);
+    final var size = Integer.parseInt(args[3]);
+
+    try (var store = CacheStores.open(
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(Long.MAX_VALUE)
+        .build())) {
+      for (int index = 0; index < count; ++index) {
+        final var data = new byte[size];
+        Arrays.fill(data, (byte) index);
+        store.put(prefix + index, data);
+      }
+    }
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.api.ApplicationDirectories;
+import com.io7m.jade.api.ApplicationDirectoryConfiguration;
+import com.io7m.jade.api.ApplicationEnvironmentSnapshot;
+import com.io7m.jade.cache.CacheStoreConfiguration;
+import com.io7m.jade.cache.CacheStoreType;
+import com.io7m.jade.cache.CacheStores;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+public final class CacheStoreTest
+{
+  private static byte[] bytes(
+    final String text)
+  {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static Optional<String> text(
+    final Optional<byte[]> data)
+  {
+    return data.map(d -> new String(d, StandardCharsets.UTF_8));
+  }
+
+  private static CacheStoreType open(
+    final Path directory,
+    final long maximumSize,
+    final CacheTestClock clock)
+    throws IOException
+  {
+    return CacheStores.open(
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory)
+        .setMaximumSizeBytes(maximumSize)
+        .setClock(clock)
+        .build()
+    );
+  }
+
+  @Test
+  public void testPutGetRemove(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory, 1000L, new CacheTestClock())) {
+      Assertions.assertEquals(Optional.empty(), store.get("a"));
+      Assertions.assertFalse(store.remove("a"));
+
+      store.put("a", bytes("hello"));
+      Assertions.assertEquals(Optional.of("hello"), text(store.get("a")));
+      Assertions.assertEquals(5L, store.sizeBytes());
+      Assertions.assertEquals(1L, store.entryCount());
+
+      store.put("a", bytes("hi"));
+      Assertions.assertEquals(Optional.of("hi"), text(store.get("a")));
+      Assertions.assertEquals(2L, store.sizeBytes());
+      Assertions.assertEquals(1L, store.entryCount());
+
+      Assertions.assertTrue(store.remove("a"));
+      Assertions.assertEquals(Optional.empty(), store.get("a"));
+      Assertions.assertEquals(0L, store.sizeBytes());
+      Assertions.assertEquals(0L, store.entryCount());
+    }
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsed(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    try (var store = open(directory, 100L, clock)) {
+      store.put("a", new byte[30]);
+      clock.advance(1L);
+      store.put("b", new byte[30]);
+      clock.advance(1L);
+      store.put("c", new byte[30]);
+      clock.advance(1L);
+
+      store.get("a");
+      clock.advance(1L);
+      store.put("d", new byte[30]);
+
+      Assertions.assertTrue(store.sizeBytes() <= 100L);
+      Assertions.assertTrue(store.get("a").isPresent());
+      Assertions.assertFalse(store.get("b").isPresent());
+      Assertions.assertTrue(store.get("c").isPresent());
+      Assertions.assertTrue(store.get("d").isPresent());
+    }
+  }
+
+  @Test
+  public void testTooLarge(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var store = open(directory, 10L, new CacheTestClock())) {
+      Assertions.assertThrows(IllegalArgumentException.class, () -> {
+        store.put("a", new byte[11]);
+      });
+      Assertions.assertEquals(0L, store.entryCount());
+    }
+  }
+
+  @Test
+  public void testReopen(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var clock = new CacheTestClock();
+    try (var store = open(directory, 1000L, clock)) {
+      store.put("a", bytes("hello"));
+      store.put("b", bytes("world"));
+    }
+
+    Files.writeString(directory.resolve("tmp").resolve("x.tmp"), "partial");
+
+    try (var store = open(directory, 1000L, clock)) {
+      Assertions.assertEquals(10L, store.sizeBytes());
+      Assertions.assertEquals(Optional.of("hello"), text(store.get("a")));
+      Assertions.assertEquals(Optional.of("world"), text(store.get("b")));
+    }
+
+    try (var files = Files.list(directory.resolve("tmp"))) {
+      Assertions.assertEquals(0L, files.count());
+    }
+  }
+
+  @Test
+  public void testClosed(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var store = open(directory, 1000L, new CacheTestClock());
+    store.close();
+    Assertions.assertThrows(IllegalStateException.class, () -> {
+      store.get("a");
+    });
+  }
+
+  @Test
+  public void testApplicationDirectories(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var directories =
+      ApplicationDirectories.get(
+        ApplicationDirectoryConfiguration.builder()
+          .setApplicationName("Widget")
+          .build(),
+        ApplicationEnvironmentSnapshot.of(
+          Map.of("os.name", "Linux"),
+          Map.of(
+            "XDG_CONFIG_HOME", directory.resolve("config").toString(),
+            "XDG_DATA_HOME", directory.resolve("data").toString(),
+            "XDG_CACHE_HOME", directory.resolve("cache").toString())
+        )
+      );
+
+    try (var store = CacheStores.open(directories, 1000L)) {
+      Assertions.assertEquals(
+        directories.cacheDirectory(),
+        store.configuration().directory()
+      );
+      store.put("a", bytes("hello"));
+      Assertions.assertEquals(Optional.of("hello"), text(store.get("a")));
+    }
+  }
+
+  @Test
+  public void testConcurrent(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    try (var store = open(directory, 4000L, new CacheTestClock())) {
+      try (var executor = Executors.newFixedThreadPool(8)) {
+        final var tasks = new ArrayList<Callable<Void>>();
+        for (int thread = 0; thread < 8; ++thread) {
+          final var seed = thread;
+          tasks.add(() -> {
+            for (int index = 0; index < 200; ++index) {
+              final var key = Integer.toString((seed * 31 + index) % 64);
+              store.put(key, new byte[100]);
+              store.get(key).ifPresent(data -> {
+                Assertions.assertEquals(100, data.length);
+              });
+              if (index % 7 == 0) {
+                store.remove(key);
+              }
+            }
+            return null;
+          });
+        }
+        for (final var future : executor.invokeAll(tasks)) {
+          future.get();
+        }
+      }
+
+      Assertions.assertTrue(store.sizeBytes() <= 4000L);
+      Assertions.assertEquals(store.entryCount() * 100L, store.sizeBytes());
+
+      try (var files = Files.walk(directory.resolve("entries"))) {
+        Assertions.assertEquals(
+          store.entryCount(),
+          files.filter(Files::isRegularFile).count()
+        );
+      }
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A clock that advances only when told to.
+ */
+
+public final class CacheTestClock extends Clock
+{
+  private final AtomicLong millis;
+
+  public CacheTestClock()
+  {
+    this.millis = new AtomicLong(1_000_000L);
+  }
+
+  public void advance(
+    final long amount)
+  {
+    this.millis.addAndGet(amount);
+  }
+
+  @Override
+  public ZoneId getZone()
+  {
+    return ZoneOffset.UTC;
+  }
+
+  @Override
+  public Clock withZone(
+    final ZoneId zone)
+  {
+    return this;
+  }
+
+  @Override
+  public long millis()
+  {
+    return this.millis.get();
+  }
+
+  @Override
+  public Instant instant()
+  {
+    return Instant.ofEpochMilli(this.millis());
+  }
+}
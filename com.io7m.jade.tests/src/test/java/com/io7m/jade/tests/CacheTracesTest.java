@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.cache.CacheTraceAccess;
+import com.io7m.jade.cache.CacheTraces;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public final class CacheTracesTest
+{
+  @Test
+  public void testParse(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var file = directory.resolve("trace.txt");
+    Files.writeString(
+      file,
+      """
+        # A comment
+        a 100
+
+        b
+          c\t23
+        """
+    );
+
+    try (var trace = CacheTraces.open(file)) {
+      Assertions.assertEquals(
+        List.of(
+          CacheTraceAccess.of("a", 100L),
+          CacheTraceAccess.of("b", 1L),
+          CacheTraceAccess.of("c", 23L)
+        ),
+        trace.toList()
+      );
+    }
+  }
+
+  @Test
+  public void testParseInvalidSize()
+  {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      CacheTraces.parseLine("a -1").toList();
+    });
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      CacheTraces.parseLine("a x").toList();
+    });
+  }
+
+  @Test
+  public void testParseTooManyFields()
+  {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      CacheTraces.parseLine("a 1 2").toList();
+    });
+  }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.tests;
+
+import com.io7m.jade.cache.CacheStoreConfiguration;
+import com.io7m.jade.cache.CacheStoreType;
+import com.io7m.jade.cache.CacheStores;
+import com.io7m.jade.cache.internal.CacheKeys;
+import com.io7m.jade.cache.internal.CacheLayout;
+import com.io7m.jade.cache.internal.CacheTransfers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Random;
+
+public final class CacheTransferTest
+{
+  private static CacheStoreType open(
+    final Path directory)
+    throws IOException
+  {
+    return CacheStores.open(
+      CacheStoreConfiguration.builder()
+        .setDirectory(directory.resolve("store"))
+        .setMaximumSizeBytes(10_000_000L)
+        .build()
+    );
+  }
+
+  private static byte[] random(
+    final int size)
+  {
+    final var data = new byte[size];
+    new Random(size).nextBytes(data);
+    return data;
+  }
+
+  /**
+   * A channel that accepts at most a few octets per write, and that
+   * FileChannel cannot transfer to directly.
+   */
+
+  private static final class TrickleChannel implements WritableByteChannel
+  {
+    private final ByteArrayOutputStream output;
+    private boolean open;
+
+    TrickleChannel()
+    {
+      this.output = new ByteArrayOutputStream();
+      this.open = true;
+    }
+
+    @Override
+    public int write(
+      final ByteBuffer src)
+    {
+      final var count = Math.min(src.remaining(), 1000);
+      for (int index = 0; index < count; ++index) {
+        this.output.write(src.get());
+      }
+      return count;
+    }
+
+    @Override
+    public boolean isOpen()
+    {
+      return this.open;
+    }
+
+    @Override
+    public void close()
+    {
+      this.open = false;
+    }
+  }
+
+  @Test
+  public void testTransferToFile(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var data = random(300_000);
+    final var output = directory.resolve("output");
+    final var reports = new ArrayList<Long>();
+
+    try (var store = open(directory)) {
+      store.put("a", data);
+      try (var channel = FileChannel.open(
+        output, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+        Assertions.assertEquals(
+          OptionalLong.of(300_000L),
+          store.transfer("a", channel, (transferred, total) -> {
+            Assertions.assertEquals(300_000L, total);
+            reports.add(Long.valueOf(transferred));
+          })
+        );
+      }
+    }
+
+    Assertions.assertArrayEquals(data, Files.readAllBytes(output));
+    Assertions.assertEquals(300_000L, reports.get(reports.size() - 1).longValue());
+  }
+
+  @Test
+  public void testTransferToStream(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var data = random(100_000);
+    final var output = new ByteArrayOutputStream();
+
+    try (var store = open(directory)) {
+      store.put("a", data);
+      Assertions.assertEquals(
+        OptionalLong.of(100_000L),
+        store.transfer("a", Channels.newChannel(output))
+      );
+      Assertions.assertEquals(
+        OptionalLong.empty(),
+        store.transfer("b", Channels.newChannel(output))
+      );
+    }
+
+    Assertions.assertArrayEquals(data, output.toByteArray());
+  }
+
+  @Test
+  public void testTransferPartialProgress(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var data = random(100_000);
+    final var channel = new TrickleChannel();
+    final var reports = new ArrayList<Long>();
+
+    try (var store = open(directory)) {
+      store.put("a", data);
+      store.transfer("a", channel, (transferred, total) -> {
+        reports.add(Long.valueOf(transferred));
+      });
+    }
+
+    Assertions.assertArrayEquals(data, channel.output.toByteArray());
+    Assertions.assertTrue(reports.size() > 1);
+    for (int index = 1; index < reports.size(); ++index) {
+      Assertions.assertTrue(reports.get(index - 1) < reports.get(index));
+    }
+    Assertions.assertEquals(100_000L, reports.get(reports.size() - 1).longValue());
+  }
+
+  @Test
+  public void testCopyFallback(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var data = random(200_000);
+    final var file = directory.resolve("input");
+    Files.write(file, data);
+
+    final var output = new ByteArrayOutputStream();
+    final var reports = new ArrayList<Long>();
+    try (var channel = FileChannel.open(file)) {
+      final var position =
+        CacheTransfers.copy(
+          channel,
+          50_000L,
+          200_000L,
+          Channels.newChannel(output),
+          (transferred, total) -> reports.add(Long.valueOf(transferred))
+        );
+      Assertions.assertEquals(200_000L, position);
+    }
+
+    final var expected = new byte[150_000];
+    System.arraycopy(data, 50_000, expected, 0, 150_000);
+    Assertions.assertArrayEquals(expected, output.toByteArray());
+    Assertions.assertEquals(List.of(115_536L, 181_072L, 200_000L), reports);
+  }
+
+  @Test
+  public void testNonBlockingRejected(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var pipe = Pipe.open();
+    pipe.sink().configureBlocking(false);
+
+    try (var store = open(directory)) {
+      store.put("a", new byte[10]);
+      Assertions.assertThrows(IllegalArgumentException.class, () -> {
+        store.transfer("a", pipe.sink());
+      });
+    } finally {
+      pipe.sink().close();
+      pipe.source().close();
+    }
+  }
+
+  @Test
+  public void testRemoveDuringTransfer(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var data = random(100_000);
+    final var channel = new TrickleChannel();
+    final var file =
+      CacheLayout.entryFile(
+        directory.resolve("store").resolve("entries"),
+        CacheKeys.hash("a")
+      );
+
+    try (var store = open(directory)) {
+      store.put("a", data);
+      store.transfer("a", channel, (transferred, total) -> {
+        if (transferred == 1000L) {
+          try {
+            Assertions.assertTrue(store.remove("a"));
+          } catch (final IOException e) {
+            throw new IllegalStateException(e);
+          }
+        }
+        Assertions.assertTrue(Files.exists(file));
+      });
+      Assertions.assertFalse(Files.exists(file));
+    }
+
+    Assertions.assertArrayEquals(data, channel.output.toByteArray());
+  }
+}
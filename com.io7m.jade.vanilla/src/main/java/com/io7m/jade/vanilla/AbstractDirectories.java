@@ -17,8 +17,13 @@
 package com.io7m.jade.vanilla;
 
 import com.io7m.jade.spi.ApplicationDirectoryProviderType;
+import com.io7m.jade.spi.ApplicationProviderContextType;
+import com.io7m.jade.spi.ApplicationResolutionObserverType;
 
+import java.nio.file.Path;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 abstract class AbstractDirectories implements ApplicationDirectoryProviderType
 {
@@ -40,4 +45,31 @@ abstract class AbstractDirectories implements ApplicationDirectoryProviderType
   {
     return this.systemSelection;
   }
+
+  protected static void observeFallback(
+    final ApplicationProviderContextType context,
+    final String directory,
+    final Path fallback)
+  {
+    final var observerOpt = context.observer();
+    if (observerOpt.isPresent()) {
+      observerOpt.get().onSourceAttempt(
+        directory,
+        ApplicationResolutionObserverType.SOURCE_FALLBACK,
+        "working directory",
+        Optional.of(fallback),
+        0L
+      );
+    }
+  }
+
+  protected final DirectoryResolution resolution(
+    final ApplicationProviderContextType context,
+    final Supplier<Path> resolver)
+  {
+    if (context.lazyResolution()) {
+      return DirectoryResolution.lazy(resolver);
+    }
+    return DirectoryResolution.eager(resolver.get());
+  }
 }
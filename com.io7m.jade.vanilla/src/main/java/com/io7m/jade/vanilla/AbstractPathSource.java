@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.vanilla;
+
+import com.io7m.jade.spi.ApplicationEnvironmentType;
+import com.io7m.jade.spi.ApplicationProviderContextType;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+
+abstract class AbstractPathSource implements PathSourceType
+{
+  private final String category;
+  private final String source;
+  private final String variableName;
+
+  protected AbstractPathSource(
+    final String inCategory,
+    final String inSource,
+    final String inVariableName)
+  {
+    this.category =
+      Objects.requireNonNull(inCategory, "category");
+    this.source =
+      Objects.requireNonNull(inSource, "source");
+    this.variableName =
+      Objects.requireNonNull(inVariableName, "variableName");
+  }
+
+  protected final String category()
+  {
+    return this.category;
+  }
+
+  protected final String variableName()
+  {
+    return this.variableName;
+  }
+
+  @Override
+  public final Optional<Path> tryPath(
+    final ApplicationProviderContextType configuration,
+    final ApplicationEnvironmentType environment)
+  {
+    final var event = new PathSourceAttemptEvent();
+    event.begin();
+
+    final Optional<Path> result;
+    final var observerOpt = configuration.observer();
+    if (observerOpt.isPresent()) {
+      final var timeThen = System.nanoTime();
+      result = this.tryPathDirectly(configuration, environment);
+      final var timeNow = System.nanoTime();
+      observerOpt.get().onSourceAttempt(
+        this.category,
+        this.source,
+        this.variableName,
+        result,
+        timeNow - timeThen
+      );
+    } else {
+      result = this.tryPathDirectly(configuration, environment);
+    }
+
+    event.complete(this.category, this.source, this.variableName, result);
+    return result;
+  }
+
+  protected abstract Optional<Path> tryPathDirectly(
+    ApplicationProviderContextType configuration,
+    ApplicationEnvironmentType environment);
+}
@@ -16,6 +16,7 @@
 
 package com.io7m.jade.vanilla;
 
+import com.io7m.jade.spi.ApplicationDirectoryProviderMetadata;
 import com.io7m.jade.spi.ApplicationEnvironmentType;
 import com.io7m.jade.spi.ApplicationProviderContextType;
 import org.slf4j.Logger;
@@ -26,9 +27,27 @@ import java.util.List;
 import java.util.Objects;
 
 /**
- * Application directories on UNIX-like platforms.
+ * Application directories on UNIX-like platforms. The operating system names
+ * declared in the provider metadata correspond to those recognized by
+ * {@link org.apache.commons.lang3.SystemUtils#IS_OS_UNIX}.
  */
 
+@ApplicationDirectoryProviderMetadata(
+  operatingSystemNamePrefixes = {
+    "AIX",
+    "FreeBSD",
+    "HP-UX",
+    "Irix",
+    "LINUX",
+    "Linux",
+    "Mac OS X",
+    "NetBSD",
+    "OS/400",
+    "OpenBSD",
+    "Solaris",
+    "SunOS",
+  }
+)
 public final class ApplicationDirectoriesUnix extends AbstractDirectories
 {
   private static final Logger LOG =
@@ -151,9 +170,9 @@ public final class ApplicationDirectoriesUnix extends AbstractDirectories
       CACHE_DIR_ENV_HOME
     );
 
-  private Path configurationDirectory;
-  private Path dataDirectory;
-  private Path cacheDirectory;
+  private DirectoryResolution configurationDirectory;
+  private DirectoryResolution dataDirectory;
+  private DirectoryResolution cacheDirectory;
 
   /**
    * Application directories on UNIX-like platforms.
@@ -183,6 +202,7 @@ public final class ApplicationDirectoriesUnix extends AbstractDirectories
         .toAbsolutePath();
 
     LOG.debug("configurationDirectory: used fallback: {}", fallback);
+    observeFallback(configuration, "configurationDirectory", fallback);
     return fallback;
   }
 
@@ -205,6 +225,7 @@ public final class ApplicationDirectoriesUnix extends AbstractDirectories
         .toAbsolutePath();
 
     LOG.debug("dataDirectory: used fallback: {}", fallback);
+    observeFallback(configuration, "dataDirectory", fallback);
     return fallback;
   }
 
@@ -227,6 +248,7 @@ public final class ApplicationDirectoriesUnix extends AbstractDirectories
         .toAbsolutePath();
 
     LOG.debug("cacheDirectory: used fallback: {}", fallback);
+    observeFallback(configuration, "cacheDirectory", fallback);
     return fallback;
   }
 
@@ -243,12 +265,18 @@ public final class ApplicationDirectoriesUnix extends AbstractDirectories
       return false;
     }
 
-    this.configurationDirectory =
-      makeConfigDirectory(configuration, environment);
-    this.dataDirectory =
-      makeDataDirectory(configuration, environment);
-    this.cacheDirectory =
-      makeCacheDirectory(configuration, environment);
+    this.configurationDirectory = this.resolution(
+      configuration,
+      () -> makeConfigDirectory(configuration, environment)
+    );
+    this.dataDirectory = this.resolution(
+      configuration,
+      () -> makeDataDirectory(configuration, environment)
+    );
+    this.cacheDirectory = this.resolution(
+      configuration,
+      () -> makeCacheDirectory(configuration, environment)
+    );
 
     return true;
   }
@@ -256,18 +284,18 @@ public final class ApplicationDirectoriesUnix extends AbstractDirectories
   @Override
   public Path configurationDirectory()
   {
-    return this.configurationDirectory;
+    return DirectoryResolution.pathOf(this.configurationDirectory);
   }
 
   @Override
   public Path dataDirectory()
   {
-    return this.dataDirectory;
+    return DirectoryResolution.pathOf(this.dataDirectory);
   }
 
   @Override
   public Path cacheDirectory()
   {
-    return this.cacheDirectory;
+    return DirectoryResolution.pathOf(this.cacheDirectory);
   }
 }
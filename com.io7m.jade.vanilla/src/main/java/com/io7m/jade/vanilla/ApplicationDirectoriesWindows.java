@@ -16,6 +16,7 @@
 
 package com.io7m.jade.vanilla;
 
+import com.io7m.jade.spi.ApplicationDirectoryProviderMetadata;
 import com.io7m.jade.spi.ApplicationEnvironmentType;
 import com.io7m.jade.spi.ApplicationProviderContextType;
 import org.slf4j.Logger;
@@ -29,6 +30,9 @@ import java.util.Objects;
  * Application directories on the Windows platform.
  */
 
+@ApplicationDirectoryProviderMetadata(
+  operatingSystemNamePrefixes = "Windows"
+)
 public final class ApplicationDirectoriesWindows extends AbstractDirectories
 {
   private static final Logger LOG =
@@ -152,9 +156,9 @@ public final class ApplicationDirectoriesWindows extends AbstractDirectories
       CACHE_DIR_ENV_HOME
     );
 
-  private Path configurationDirectory;
-  private Path dataDirectory;
-  private Path cacheDirectory;
+  private DirectoryResolution configurationDirectory;
+  private DirectoryResolution dataDirectory;
+  private DirectoryResolution cacheDirectory;
 
   /**
    * Application directories on the Windows platform.
@@ -184,6 +188,7 @@ public final class ApplicationDirectoriesWindows extends AbstractDirectories
         .toAbsolutePath();
 
     LOG.debug("configurationDirectory: used fallback: {}", fallback);
+    observeFallback(configuration, "configurationDirectory", fallback);
     return fallback;
   }
 
@@ -206,6 +211,7 @@ public final class ApplicationDirectoriesWindows extends AbstractDirectories
         .toAbsolutePath();
 
     LOG.debug("dataDirectory: used fallback: {}", fallback);
+    observeFallback(configuration, "dataDirectory", fallback);
     return fallback;
   }
 
@@ -228,6 +234,7 @@ public final class ApplicationDirectoriesWindows extends AbstractDirectories
         .toAbsolutePath();
 
     LOG.debug("cacheDirectory: used fallback: {}", fallback);
+    observeFallback(configuration, "cacheDirectory", fallback);
     return fallback;
   }
 
@@ -244,12 +251,18 @@ public final class ApplicationDirectoriesWindows extends AbstractDirectories
       return false;
     }
 
-    this.configurationDirectory =
-      makeConfigDirectory(configuration, environment);
-    this.dataDirectory =
-      makeDataDirectory(configuration, environment);
-    this.cacheDirectory =
-      makeCacheDirectory(configuration, environment);
+    this.configurationDirectory = this.resolution(
+      configuration,
+      () -> makeConfigDirectory(configuration, environment)
+    );
+    this.dataDirectory = this.resolution(
+      configuration,
+      () -> makeDataDirectory(configuration, environment)
+    );
+    this.cacheDirectory = this.resolution(
+      configuration,
+      () -> makeCacheDirectory(configuration, environment)
+    );
 
     return true;
   }
@@ -257,18 +270,18 @@ public final class ApplicationDirectoriesWindows extends AbstractDirectories
   @Override
   public Path configurationDirectory()
   {
-    return this.configurationDirectory;
+    return DirectoryResolution.pathOf(this.configurationDirectory);
   }
 
   @Override
   public Path dataDirectory()
   {
-    return this.dataDirectory;
+    return DirectoryResolution.pathOf(this.dataDirectory);
   }
 
   @Override
   public Path cacheDirectory()
   {
-    return this.cacheDirectory;
+    return DirectoryResolution.pathOf(this.cacheDirectory);
   }
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.vanilla;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A directory that is either resolved up front, or resolved exactly once
+ * when it is first requested. Once resolved, the directory is safely
+ * published to all threads.
+ */
+
+final class DirectoryResolution
+{
+  private final ReentrantLock lock;
+  private Supplier<Path> resolver;
+  private volatile Path path;
+
+  private DirectoryResolution(
+    final Supplier<Path> inResolver,
+    final Path inPath)
+  {
+    this.lock = new ReentrantLock();
+    this.resolver = inResolver;
+    this.path = inPath;
+  }
+
+  /**
+   * @param path The resolved directory
+   *
+   * @return A directory that has already been resolved
+   */
+
+  static DirectoryResolution eager(
+    final Path path)
+  {
+    return new DirectoryResolution(
+      null,
+      Objects.requireNonNull(path, "path")
+    );
+  }
+
+  /**
+   * @param resolver A function that resolves the directory
+   *
+   * @return A directory that will be resolved on first access
+   */
+
+  static DirectoryResolution lazy(
+    final Supplier<Path> resolver)
+  {
+    return new DirectoryResolution(
+      Objects.requireNonNull(resolver, "resolver"),
+      null
+    );
+  }
+
+  /**
+   * @param resolution The directory resolution, if any
+   *
+   * @return The resolved directory, or {@code null} if there is no resolution
+   */
+
+  static Path pathOf(
+    final DirectoryResolution resolution)
+  {
+    if (resolution == null) {
+      return null;
+    }
+    return resolution.get();
+  }
+
+  /**
+   * @return The resolved directory, resolving it if necessary
+   */
+
+  Path get()
+  {
+    final var existing = this.path;
+    if (existing != null) {
+      return existing;
+    }
+
+    this.lock.lock();
+    try {
+      final var current = this.path;
+      if (current != null) {
+        return current;
+      }
+
+      final var resolved =
+        Objects.requireNonNull(this.resolver.get(), "resolved");
+      this.path = resolved;
+      this.resolver = null;
+      return resolved;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+}
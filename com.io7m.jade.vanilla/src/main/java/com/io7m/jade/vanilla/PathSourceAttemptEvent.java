@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jade.vanilla;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * An attempt to obtain a directory from an environment variable or system property.
+ */
+
+@Name("com.io7m.jade.PathSourceAttempt")
+@Label("Path Source Attempt")
+@Category("Jade")
+@Description("An attempt to obtain a directory from an environment variable or system property.")
+@StackTrace(false)
+final class PathSourceAttemptEvent extends Event
+{
+  @Label("Directory")
+  @Description("The directory being resolved")
+  private String directory;
+
+  @Label("Source")
+  @Description("The kind of source consulted")
+  private String source;
+
+  @Label("Name")
+  @Description("The name of the environment variable or system property")
+  private String name;
+
+  @Label("Matched")
+  @Description("Whether the source yielded a path")
+  private boolean matched;
+
+  @Label("Path")
+  @Description("The path yielded by the source, if any")
+  private String path;
+
+  PathSourceAttemptEvent()
+  {
+
+  }
+
+  /**
+   * Commit the event, if the event is enabled and exceeds the configured
+   * threshold.
+   *
+   * @param inDirectory The directory being resolved
+   * @param inSource    The kind of source consulted
+   * @param inName      The name of the variable or property
+   * @param inResult    The result of the attempt
+   */
+
+  void complete(
+    final String inDirectory,
+    final String inSource,
+    final String inName,
+    final Optional<Path> inResult)
+  {
+    if (this.shouldCommit()) {
+      this.directory = inDirectory;
+      this.source = inSource;
+      this.name = inName;
+      this.matched = inResult.isPresent();
+      this.path = inResult.map(Path::toString).orElse(null);
+      this.commit();
+    }
+  }
+}
@@ -24,11 +24,12 @@ import java.nio.file.Path;
 import java.util.Objects;
 import java.util.Optional;
 
-final class PathSourceEnvironmentVariableBased implements PathSourceType
+final class PathSourceEnvironmentVariableBased extends AbstractPathSource
 {
+  private static final String SOURCE =
+    "environment variable";
+
   private final Logger logger;
-  private final String category;
-  private final String variableName;
   private final PathTransformerType transform;
 
   PathSourceEnvironmentVariableBased(
@@ -37,32 +38,30 @@ final class PathSourceEnvironmentVariableBased implements PathSourceType
     final String inVariableName,
     final PathTransformerType inTransform)
   {
+    super(inCategory, SOURCE, inVariableName);
+
     this.logger =
       Objects.requireNonNull(inLogger, "logger");
-    this.category =
-      Objects.requireNonNull(inCategory, "category");
-    this.variableName =
-      Objects.requireNonNull(inVariableName, "variableName");
     this.transform =
       Objects.requireNonNull(inTransform, "transform");
   }
 
   @Override
-  public Optional<Path> tryPath(
+  protected Optional<Path> tryPathDirectly(
     final ApplicationProviderContextType configuration,
     final ApplicationEnvironmentType environment)
   {
     final var filesystem = environment.filesystem();
-    final var envOpt = environment.environmentVariable(this.variableName);
+    final var envOpt = environment.environmentVariable(this.variableName());
 
-    this.logger.debug("{}: env {}", this.category, this.variableName);
+    this.logger.debug("{}: env {}", this.category(), this.variableName());
     if (envOpt.isPresent()) {
       final var env = envOpt.get();
       final var path = filesystem.getPath(env).toAbsolutePath();
       this.logger.debug(
         "{}: env {}: {}",
-        this.category,
-        this.variableName,
+        this.category(),
+        this.variableName(),
         path);
       return Optional.of(path)
         .map(p -> this.transform.transform(configuration, environment, p));
@@ -70,8 +69,8 @@ final class PathSourceEnvironmentVariableBased implements PathSourceType
 
     this.logger.debug(
       "{}: env {} not present",
-      this.category,
-      this.variableName);
+      this.category(),
+      this.variableName());
     return Optional.empty();
   }
 }
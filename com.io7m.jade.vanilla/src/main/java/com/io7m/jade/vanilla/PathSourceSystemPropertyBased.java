@@ -24,11 +24,12 @@ import java.nio.file.Path;
 import java.util.Objects;
 import java.util.Optional;
 
-final class PathSourceSystemPropertyBased implements PathSourceType
+final class PathSourceSystemPropertyBased extends AbstractPathSource
 {
+  private static final String SOURCE =
+    "system property";
+
   private final Logger logger;
-  private final String category;
-  private final String variableName;
   private final PathTransformerType transform;
 
   PathSourceSystemPropertyBased(
@@ -37,36 +38,34 @@ final class PathSourceSystemPropertyBased implements PathSourceType
     final String inVariableName,
     final PathTransformerType inTransform)
   {
+    super(inCategory, SOURCE, inVariableName);
+
     this.logger =
       Objects.requireNonNull(inLogger, "logger");
-    this.category =
-      Objects.requireNonNull(inCategory, "category");
-    this.variableName =
-      Objects.requireNonNull(inVariableName, "variableName");
     this.transform =
       Objects.requireNonNull(inTransform, "transform");
   }
 
   @Override
-  public Optional<Path> tryPath(
+  protected Optional<Path> tryPathDirectly(
     final ApplicationProviderContextType configuration,
     final ApplicationEnvironmentType environment)
   {
     final var filesystem = environment.filesystem();
-    final var envOpt = environment.systemProperty(this.variableName);
+    final var envOpt = environment.systemProperty(this.variableName());
 
-    this.logger.debug("{}: system {}", this.category, this.variableName);
+    this.logger.debug("{}: system {}", this.category(), this.variableName());
     if (envOpt.isPresent()) {
       final var env = envOpt.get();
       final var path = filesystem.getPath(env).toAbsolutePath();
       this.logger.debug(
-        "{}: system {}: {}", this.category, this.variableName, path);
+        "{}: system {}: {}", this.category(), this.variableName(), path);
       return Optional.of(path)
         .map(p -> this.transform.transform(configuration, environment, p));
     }
 
     this.logger.debug(
-      "{}: system {} not present", this.category, this.variableName);
+      "{}: system {} not present", this.category(), this.variableName());
     return Optional.empty();
   }
 }
@@ -24,6 +24,7 @@ import com.io7m.jade.vanilla.ApplicationDirectoriesWindows;
 module com.io7m.jade.vanilla
 {
   requires com.io7m.jade.spi;
+  requires jdk.jfr;
   requires org.apache.commons.lang3;
   requires org.slf4j;
 